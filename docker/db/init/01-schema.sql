@@ -58,17 +58,30 @@ CREATE TABLE time_slots (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     public_uuid BINARY(16) NOT NULL UNIQUE,
     service_id BIGINT NOT NULL,
+    -- Copia del dueño del servicio (no cambia nunca): los slots de un proveedor se paginan con un solo índice
+    provider_id BIGINT NOT NULL,
     start_time TIMESTAMP NOT NULL,
     end_time TIMESTAMP NOT NULL,
     capacity INT NOT NULL,
     price DECIMAL(10, 2),
     status VARCHAR(50) NOT NULL, -- e.g., AVAILABLE, FULL, CANCELLED
+    -- Plazas ocupadas (suma de party_size de los bookings que retienen plaza); se reserva con un UPDATE condicional sobre esta fila
+    booked_seats INT NOT NULL DEFAULT 0,
+    -- Versión para el bloqueo optimista (la incrementan JPA y los UPDATE de plazas)
+    version BIGINT NOT NULL DEFAULT 0,
 
     CONSTRAINT fk_timeslot_service FOREIGN KEY (service_id) REFERENCES offered_services(service_id) ON DELETE CASCADE,
+    CONSTRAINT fk_timeslot_provider FOREIGN KEY (provider_id) REFERENCES usuarios(id) ON DELETE CASCADE,
 
     INDEX idx_timeslot_public_uuid (public_uuid),
-    INDEX idx_timeslot_service_id (service_id),
-    INDEX idx_timeslot_start_time (start_time)
+    -- Slots de cada servicio por clave (start_time, id), con el id explícito para desempatar sin leer la fila.
+    -- Sustituye al índice simple por service_id (también sirve a la clave foránea).
+    INDEX idx_timeslot_service_start (service_id, start_time, id),
+    -- Listado paginado por clave (start_time, id) de los slots de un proveedor, de todos sus servicios a la vez
+    INDEX idx_timeslot_provider_start (provider_id, start_time, id),
+    INDEX idx_timeslot_start_time (start_time),
+    -- Barrido de slots terminados desde la marca (end_time, id) del trabajo de cierre de bookings
+    INDEX idx_timeslot_end_time (end_time, id)
 );
 
 
@@ -81,17 +94,246 @@ CREATE TABLE bookings (
     timeslot_id BIGINT NOT NULL,
     client_id BIGINT NOT NULL,
     status VARCHAR(50) NOT NULL,
+    -- Plazas que ocupa el booking (familias, equipos); cuentan contra la capacidad del slot
+    party_size INT NOT NULL DEFAULT 1,
     price_paid DECIMAL(10, 2),
     notes TEXT,
+    -- Caducidad de la retención de plaza (solo en PENDING_PAYMENT)
+    hold_expires_at TIMESTAMP NULL,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
 
     CONSTRAINT fk_booking_timeslot FOREIGN KEY (timeslot_id) REFERENCES time_slots(id) ON DELETE CASCADE,
     CONSTRAINT fk_booking_client FOREIGN KEY (client_id) REFERENCES usuarios(id) ON DELETE CASCADE,
+    CONSTRAINT chk_booking_party_size CHECK (party_size > 0),
 
     -- Un cliente no puede reservar dos veces el mismo slot.
     UNIQUE KEY uq_client_timeslot (client_id, timeslot_id),
 
     INDEX idx_booking_public_uuid (public_uuid),
-    INDEX idx_booking_client_id (client_id)
-);
\ No newline at end of file
+    INDEX idx_booking_client_id (client_id),
+    -- Reconstrucción y reconciliación de retenciones por orden de caducidad
+    INDEX idx_booking_status_hold_expires (status, hold_expires_at)
+);
+
+-- -----------------------------------------------------
+-- Tabla `waitlist_entries`
+-- -----------------------------------------------------
+CREATE TABLE waitlist_entries (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    public_uuid BINARY(16) NOT NULL UNIQUE,
+    timeslot_id BIGINT NOT NULL,
+    client_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_waitlist_timeslot FOREIGN KEY (timeslot_id) REFERENCES time_slots(id) ON DELETE CASCADE,
+    CONSTRAINT fk_waitlist_client FOREIGN KEY (client_id) REFERENCES usuarios(id) ON DELETE CASCADE,
+
+    -- Cabeza de la cola y posición: entradas WAITING de un slot en orden de inscripción.
+    INDEX idx_waitlist_timeslot_status (timeslot_id, status, id),
+    INDEX idx_waitlist_client_status (client_id, status),
+    -- Una sola entrada WAITING por cliente y slot (las demás filas dejan la clave a NULL y no cuentan).
+    UNIQUE INDEX uq_waitlist_waiting_client ((CASE WHEN status = 'WAITING' THEN client_id END), timeslot_id)
+);
+
+
+-- -----------------------------------------------------
+-- Tabla `idempotency_keys`
+-- Respuestas registradas para las peticiones con cabecera Idempotency-Key.
+-- -----------------------------------------------------
+CREATE TABLE idempotency_keys (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    requester_uuid BINARY(16) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash CHAR(64) NOT NULL,
+    -- NULL mientras la petición original se ejecuta (la fila reserva la clave hasta expires_at)
+    response_status INT NULL,
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+
+    UNIQUE KEY uq_idempotency_requester_key (requester_uuid, idempotency_key),
+    INDEX idx_idempotency_expires_at (expires_at)
+);
+
+
+-- -----------------------------------------------------
+-- Tabla `catalog_versions`
+-- Versión del calendario de cada servicio y del listado de servicios de cada proveedor.
+-- Se consulta por clave primaria para responder peticiones condicionales (ETag) sin leer slots ni bookings.
+-- -----------------------------------------------------
+CREATE TABLE catalog_versions (
+    scope_uuid BINARY(16) PRIMARY KEY,
+    version BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+
+-- -----------------------------------------------------
+-- Tabla `provider_service_weekly_stats`
+-- Estadísticas de cada servicio por semana (lunes UTC de la hora de inicio del slot).
+-- Se actualizan con un upsert incremental en la misma transacción que cada cambio de slot o booking,
+-- así el panel del proveedor no agrega la tabla de bookings.
+-- -----------------------------------------------------
+CREATE TABLE provider_service_weekly_stats (
+    service_id BIGINT NOT NULL,
+    week_start DATE NOT NULL,
+    provider_id BIGINT NOT NULL,
+    slot_count INT NOT NULL DEFAULT 0,
+    capacity INT NOT NULL DEFAULT 0,
+    booked_seats INT NOT NULL DEFAULT 0,
+    revenue DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    cancellations INT NOT NULL DEFAULT 0,
+    no_shows INT NOT NULL DEFAULT 0,
+    completed INT NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (service_id, week_start),
+    CONSTRAINT fk_weekly_stats_service FOREIGN KEY (service_id) REFERENCES offered_services(service_id) ON DELETE CASCADE,
+    CONSTRAINT fk_weekly_stats_provider FOREIGN KEY (provider_id) REFERENCES usuarios(id) ON DELETE CASCADE,
+
+    INDEX idx_weekly_stats_provider_week (provider_id, week_start)
+);
+
+
+-- -----------------------------------------------------
+-- Tabla `time_slots_archive`
+-- Slots ya pasados, movidos desde `time_slots` por el trabajo de archivado junto con sus bookings.
+-- Copia los datos del servicio, así el archivo se lee sin tocar las tablas vivas y no depende
+-- de que el servicio siga existiendo. Tablas aparte en vez de particionar las vivas:
+-- MySQL no permite particionar tablas con claves foráneas.
+-- -----------------------------------------------------
+CREATE TABLE time_slots_archive (
+    id BIGINT PRIMARY KEY, -- mismo id que tenía en `time_slots`
+    public_uuid BINARY(16) NOT NULL UNIQUE,
+    service_id BIGINT NOT NULL,
+    service_uuid BINARY(16) NOT NULL,
+    service_name VARCHAR(100) NOT NULL,
+    provider_id BIGINT NOT NULL,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    capacity INT NOT NULL,
+    price DECIMAL(10, 2),
+    status VARCHAR(50) NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT fk_timeslot_archive_provider FOREIGN KEY (provider_id) REFERENCES usuarios(id) ON DELETE CASCADE,
+
+    -- Slots archivados de un proveedor paginados por clave (start_time, id)
+    INDEX idx_timeslot_archive_provider_start (provider_id, start_time, id)
+);
+
+
+-- -----------------------------------------------------
+-- Tabla `bookings_archive`
+-- Bookings de los slots archivados. Se copian después de su slot y se borran de `bookings`
+-- antes que él, de modo que el ON DELETE CASCADE de `time_slots` nunca se lleva uno sin copiar.
+-- Repite los datos del slot y del servicio para servir el histórico de un cliente con un solo índice.
+-- -----------------------------------------------------
+CREATE TABLE bookings_archive (
+    id BIGINT PRIMARY KEY, -- mismo id que tenía en `bookings`
+    public_uuid BINARY(16) NOT NULL UNIQUE,
+    client_id BIGINT NOT NULL,
+    timeslot_id BIGINT NOT NULL,
+    timeslot_uuid BINARY(16) NOT NULL,
+    service_id BIGINT NOT NULL,
+    service_uuid BINARY(16) NOT NULL,
+    service_name VARCHAR(100) NOT NULL,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    party_size INT NOT NULL DEFAULT 1,
+    price_paid DECIMAL(10, 2),
+    notes TEXT,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+
+    CONSTRAINT fk_booking_archive_timeslot FOREIGN KEY (timeslot_id) REFERENCES time_slots_archive(id) ON DELETE CASCADE,
+    CONSTRAINT fk_booking_archive_client FOREIGN KEY (client_id) REFERENCES usuarios(id) ON DELETE CASCADE,
+
+    -- Histórico de un cliente paginado por clave (start_time, id)
+    INDEX idx_booking_archive_client_start (client_id, start_time, id),
+    INDEX idx_booking_archive_timeslot (timeslot_id)
+);
+
+
+-- -----------------------------------------------------
+-- Tabla `job_checkpoints`
+-- Marca de avance (instante, id del último elemento procesado) de los trabajos por lotes.
+-- Se escribe en la misma transacción que cada lote para poder reanudar tras una caída.
+-- -----------------------------------------------------
+CREATE TABLE job_checkpoints (
+    job_name VARCHAR(100) PRIMARY KEY,
+    watermark_time TIMESTAMP NULL,
+    watermark_id BIGINT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+
+-- -----------------------------------------------------
+-- Tabla `cache_invalidations`
+-- Avisos entre nodos de las claves de caché que han cambiado. Cada nodo lee periódicamente
+-- las filas nuevas de los demás; las antiguas se borran pasado el tiempo de retención.
+-- -----------------------------------------------------
+CREATE TABLE cache_invalidations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    namespace VARCHAR(50) NOT NULL,
+    cache_key VARCHAR(255) NOT NULL,
+    origin_node VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    INDEX idx_cache_invalidations_created (created_at)
+);
+
+
+-- -----------------------------------------------------
+-- Tabla `job_leases`
+-- Qué nodo ejecuta cada trabajo programado (o cada parte de uno) y hasta cuándo.
+-- fencing_token crece cada vez que el lease cambia de manos: cada lote renueva el lease
+-- comprobando su token en la misma transacción, así que un nodo que lo ha perdido no confirma nada.
+-- -----------------------------------------------------
+CREATE TABLE job_leases (
+    lease_name VARCHAR(100) PRIMARY KEY,
+    owner_node VARCHAR(64) NULL,
+    fencing_token BIGINT NOT NULL DEFAULT 0,
+    expires_at TIMESTAMP(6) NULL
+);
+
+
+-- -----------------------------------------------------
+-- Tabla `refresh_tokens`
+-- Tokens de refresco, guardados solo como SHA-256. Cada refresco marca el token como usado y
+-- emite otro de la misma familia; si se presenta uno ya usado, se revoca la familia entera.
+-- -----------------------------------------------------
+CREATE TABLE refresh_tokens (
+    token_hash CHAR(64) PRIMARY KEY,
+    family_id BINARY(16) NOT NULL,
+    user_id BIGINT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    expires_at TIMESTAMP(6) NOT NULL,
+    used_at TIMESTAMP(6) NULL,
+    revoked_at TIMESTAMP(6) NULL,
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES usuarios(id) ON DELETE CASCADE,
+    INDEX idx_refresh_tokens_family (family_id),
+    INDEX idx_refresh_tokens_expires_at (expires_at)
+);
+
+
+-- -----------------------------------------------------
+-- Tabla `revocations`
+-- Tokens de acceso revocados antes de caducar: uno concreto (TOKEN, subject = jti) o todos los
+-- emitidos a un usuario hasta revoked_at (USER, subject = UUID del usuario). Cada nodo tiene una
+-- copia en memoria y lee las filas nuevas periódicamente; se borran cuando ya no queda ningún
+-- token vigente al que afecten (expires_at).
+-- -----------------------------------------------------
+CREATE TABLE revocations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    revocation_type VARCHAR(10) NOT NULL,
+    subject BINARY(16) NOT NULL,
+    revoked_at TIMESTAMP(6) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    INDEX idx_revocations_created (created_at),
+    INDEX idx_revocations_expires_at (expires_at)
+);
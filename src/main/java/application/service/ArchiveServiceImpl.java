@@ -0,0 +1,40 @@
+package application.service;
+
+import domain.model.Booking;
+import domain.model.BookingCursor;
+import domain.model.Slice;
+import domain.model.TimeSlot;
+import domain.model.TimeSlotCursor;
+import domain.port.in.ArchiveService;
+import domain.port.out.ArchivePersistencePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@PreAuthorize("hasRole('ADMIN')")
+public class ArchiveServiceImpl implements ArchiveService {
+
+    private final ArchivePersistencePort archivePersistencePort;
+
+    @Override
+    public Slice<TimeSlot> findArchivedTimeSlotsByProvider(UUID providerUuid, TimeSlotCursor after, int pageSize) {
+        return archivePersistencePort.findArchivedTimeSlotsByProvider(providerUuid, after, Slice.boundedPageSize(pageSize));
+    }
+
+    @Override
+    public List<Booking> findArchivedBookingsByTimeSlot(UUID timeSlotUuid) {
+        return archivePersistencePort.findArchivedBookingsByTimeSlot(timeSlotUuid);
+    }
+
+    @Override
+    public Slice<Booking> findArchivedBookingsByClient(UUID clientUuid, BookingCursor before, int pageSize) {
+        return archivePersistencePort.findArchivedBookingsByClient(clientUuid, before, Slice.boundedPageSize(pageSize));
+    }
+}
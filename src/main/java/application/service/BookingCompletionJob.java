@@ -0,0 +1,134 @@
+package application.service;
+
+import domain.event.BookingsSettledEvent;
+import domain.model.BookingStatus;
+import domain.model.BookingStatusCount;
+import domain.model.JobCheckpoint;
+import domain.model.JobShard;
+import domain.model.TimeSlot;
+import domain.model.TimeSlotEndCursor;
+import domain.model.TimeSlotStatus;
+import domain.port.out.BookingPersistencePort;
+import domain.port.out.JobCheckpointPersistencePort;
+import domain.port.out.TimeSlotPersistencePort;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Lleva a su estado final (COMPLETED, NO_SHOW o HOLD_EXPIRED, ver BookingStatus.settledStatus) los bookings
+ * que siguen ocupando plaza cuando su slot ya ha terminado. Los de un slot cancelado no se dan por asistidos:
+ * pasan a CANCELLED_BY_PROVIDER (o HOLD_EXPIRED si no se pagaron, ver BookingStatus.settledStatusOfCancelledSlot).
+ * Recorre los slots por (end_time, id) desde la marca de job_checkpoints, así que cada ejecución solo lee
+ * los slots terminados desde la anterior. Cada lote bloquea y cuenta los bookings afectados, los cambia con
+ * un UPDATE por estado de origen, publica un evento agregado por slot y estado para las estadísticas del
+ * proveedor y avanza la marca, todo en una sola transacción.
+ * Los slots se reparten por id en {@code reservas.completion.shards} partes, cada una con su marca,
+ * que los nodos procesan en paralelo con LeasedJobRunner.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingCompletionJob {
+
+    static final String JOB_NAME = "booking-completion";
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingCompletionJob.class);
+
+    private final TimeSlotPersistencePort timeSlotPersistencePort;
+    private final BookingPersistencePort bookingPersistencePort;
+    private final JobCheckpointPersistencePort jobCheckpointPersistencePort;
+    private final LeasedJobRunner leasedJobRunner;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Margen tras el fin del slot antes de cerrar sus bookings
+    @Value("${reservas.completion.after-end:PT1H}")
+    private Duration afterEnd;
+
+    @Value("${reservas.completion.batch-size:200}")
+    private int batchSize;
+
+    @Value("${reservas.completion.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Value("${reservas.completion.shards:4}")
+    private int shards;
+
+    @Scheduled(fixedDelayString = "${reservas.completion.interval-ms:60000}",
+            initialDelayString = "${reservas.completion.interval-ms:60000}")
+    public void settleEndedTimeSlots() {
+        Instant until = Instant.now().minus(afterEnd);
+        int settled = 0;
+        try {
+            for (Integer settledInBatch : leasedJobRunner.run(JOB_NAME, shards, maxBatchesPerRun, shard -> settleNextBatch(until, shard))) {
+                settled += settledInBatch;
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("Cierre de bookings interrumpido, se reanudará desde la última marca: {}", ex.getMessage());
+        }
+        if (settled > 0) {
+            logger.info("Cerrados {} bookings de slots terminados antes de {}", settled, until);
+        }
+    }
+
+    /**
+     * @return bookings cerrados en el lote, o null si no quedan slots terminados por procesar.
+     */
+    private Integer settleNextBatch(Instant until, JobShard shard) {
+        String checkpointName = shard.name(JOB_NAME);
+        JobCheckpoint checkpoint = jobCheckpointPersistencePort.findByJobName(checkpointName)
+                .orElse(JobCheckpoint.initial(checkpointName));
+        TimeSlotEndCursor after = checkpoint.isInitial() ? null : new TimeSlotEndCursor(checkpoint.watermarkTime(), checkpoint.watermarkId());
+        List<TimeSlot> slots = timeSlotPersistencePort.findEndedBefore(until, shard, after, batchSize);
+        if (slots.isEmpty()) {
+            return null;
+        }
+        Instant now = Instant.now();
+        List<Long> slotIds = slots.stream().map(TimeSlot::getId).toList();
+        List<BookingStatusCount> counts = bookingPersistencePort.lockSeatHoldingByTimeSlots(slotIds);
+        Map<Long, TimeSlot> slotsById = slots.stream().collect(Collectors.toMap(TimeSlot::getId, Function.identity()));
+
+        // Un UPDATE por estado de origen, por separado para los slots cancelados y los demás
+        int settled = 0;
+        Map<Boolean, List<Long>> slotIdsByCancelled = slots.stream().collect(Collectors.partitioningBy(
+                BookingCompletionJob::isCancelled, Collectors.mapping(TimeSlot::getId, Collectors.toList())));
+        for (Map.Entry<Boolean, List<Long>> group : slotIdsByCancelled.entrySet()) {
+            List<BookingStatus> fromStatuses = counts.stream()
+                    .filter(count -> group.getValue().contains(count.timeSlotId()))
+                    .map(BookingStatusCount::status)
+                    .distinct()
+                    .toList();
+            for (BookingStatus from : fromStatuses) {
+                settled += bookingPersistencePort.settle(group.getValue(), from, settledStatus(from, group.getKey()), now);
+            }
+        }
+
+        for (BookingStatusCount count : counts) {
+            TimeSlot timeSlot = slotsById.get(count.timeSlotId());
+            eventPublisher.publishEvent(new BookingsSettledEvent(timeSlot, count.status(),
+                    settledStatus(count.status(), isCancelled(timeSlot)), count.count(), count.seats(), count.totalPaid()));
+        }
+
+        TimeSlot last = slots.get(slots.size() - 1);
+        jobCheckpointPersistencePort.save(new JobCheckpoint(checkpointName, last.getEndTime(), last.getId(), now));
+        return settled;
+    }
+
+    private static boolean isCancelled(TimeSlot timeSlot) {
+        return timeSlot.getStatus() == TimeSlotStatus.CANCELLED;
+    }
+
+    private static BookingStatus settledStatus(BookingStatus from, boolean slotCancelled) {
+        return slotCancelled ? from.settledStatusOfCancelledSlot() : from.settledStatus();
+    }
+}
@@ -0,0 +1,329 @@
+package application.service;
+
+import domain.event.BookingStatusChangedEvent;
+import domain.event.TimeSlotChangedEvent;
+import domain.model.Booking;
+import domain.model.BookingCursor;
+import domain.model.BookingStatus;
+import domain.model.JobCheckpoint;
+import domain.model.Reminder;
+import domain.model.ReminderKind;
+import domain.port.out.BookingPersistencePort;
+import domain.port.out.JobCheckpointPersistencePort;
+import domain.port.out.NotificationPort;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BinaryOperator;
+
+/**
+ * Envía los recordatorios de 24 h y 1 h antes de cada booking confirmado o pendiente de confirmar.
+ * En vez de consultar la tabla de bookings cada minuto, precarga en una cola de prioridad (ordenada por
+ * el instante de envío) los recordatorios de la próxima ventana, y un tick frecuente saca los que vencen.
+ * Cada tipo de recordatorio tiene su marca (hora de inicio del slot, id del booking) en job_checkpoints:
+ * se guarda antes de enviar, así que un reinicio nunca repite un recordatorio (a cambio, un fallo justo
+ * entre la marca y el envío lo pierde). Los cambios posteriores a la precarga llegan por eventos: los de estado
+ * de cada booking y la cancelación de su slot, que descarta de golpe los recordatorios de todos sus bookings.
+ * Con varios nodos, cada uno tiene su cola, pero solo envía el que tiene el lease del trabajo (LeasedJobRunner):
+ * en la transacción del lease descarta lo que ya no pasa de la marca persistida y la avanza, así que cada
+ * recordatorio sale de un solo nodo. Cada precarga vuelve a leer desde esa marca, con lo que también llegan
+ * a la cola los bookings confirmados en otros nodos. Un nodo con los trabajos desactivados no precarga nada.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingReminderScheduler {
+
+    static final String JOB_NAME = "booking-reminders";
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingReminderScheduler.class);
+
+    private static final Set<BookingStatus> REMINDABLE = EnumSet.of(BookingStatus.AWAITING_CONFIRMATION, BookingStatus.CONFIRMED);
+
+    private static final Comparator<BookingCursor> KEY_ORDER = Comparator
+            .comparing(BookingCursor::startTime)
+            .thenComparing(BookingCursor::id);
+    private static final BinaryOperator<BookingCursor> LATEST = BinaryOperator.maxBy(KEY_ORDER);
+
+    private final BookingPersistencePort bookingPersistencePort;
+    private final JobCheckpointPersistencePort jobCheckpointPersistencePort;
+    private final NotificationPort notificationPort;
+    private final LeasedJobRunner leasedJobRunner;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<ScheduledReminder> queue = new PriorityQueue<>(ScheduledReminder.ORDER);
+    private final Set<QueuedKey> queued = new HashSet<>();
+    // Por tipo: último recordatorio enviado (según la última marca leída o escrita) y último booking ya precargado
+    private final Map<ReminderKind, BookingCursor> dispatched = new EnumMap<>(ReminderKind.class);
+    private final Map<ReminderKind, BookingCursor> loaded = new EnumMap<>(ReminderKind.class);
+
+    // Cuánto por delante de ahora se precarga
+    @Value("${reservas.reminders.window:PT15M}")
+    private Duration window;
+
+    // Un recordatorio que vence con más retraso que esto (p. ej. tras una parada larga) se descarta
+    @Value("${reservas.reminders.max-lateness:PT15M}")
+    private Duration maxLateness;
+
+    @Value("${reservas.reminders.batch-size:500}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadOnStartup() {
+        try {
+            refill();
+        } catch (RuntimeException ex) {
+            logger.warn("No se pudieron precargar los recordatorios al arrancar: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Añade a la cola los recordatorios que vencen dentro de la ventana, leyendo desde la marca persistida de cada tipo
+     * (los que ya estaban en la cola no se duplican).
+     */
+    @Scheduled(fixedDelayString = "${reservas.reminders.refill-interval-ms:60000}",
+            initialDelayString = "${reservas.reminders.refill-interval-ms:60000}")
+    public void refill() {
+        if (!leasedJobRunner.isEnabled()) {
+            return;
+        }
+        Instant now = Instant.now();
+        for (ReminderKind kind : ReminderKind.values()) {
+            BookingCursor from = dispatchedCursor(kind, now);
+            Instant until = now.plus(window).plus(kind.leadTime());
+            List<Booking> page;
+            do {
+                page = bookingPersistencePort.findStartingBetween(REMINDABLE, from, until, batchSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+                lock.lock();
+                try {
+                    page.forEach(booking -> enqueue(kind, booking));
+                    from = BookingCursor.after(page.get(page.size() - 1));
+                    loaded.merge(kind, from, LATEST);
+                } finally {
+                    lock.unlock();
+                }
+            } while (page.size() == batchSize);
+        }
+    }
+
+    /**
+     * Envía los recordatorios vencidos, en orden, si este nodo consigue el lease del trabajo.
+     * Sin lease (lo tiene otro nodo, o se ha perdido) vuelven a la cola; la próxima vez se descartan los que
+     * haya enviado el otro nodo.
+     */
+    @Scheduled(fixedDelayString = "${reservas.reminders.dispatch-interval-ms:1000}")
+    public void dispatchDue() {
+        Instant now = Instant.now();
+        List<ScheduledReminder> due = new ArrayList<>();
+        lock.lock();
+        try {
+            while (!queue.isEmpty() && !queue.peek().dueAt().isAfter(now)) {
+                ScheduledReminder reminder = queue.poll();
+                queued.remove(reminder.queuedKey());
+                due.add(reminder);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        List<List<ScheduledReminder>> claimed;
+        try {
+            claimed = leasedJobRunner.run(JOB_NAME, 1, 1, shard -> claim(due, now));
+        } catch (RuntimeException ex) {
+            logger.warn("No se pudieron guardar las marcas de los recordatorios, se reintentará: {}", ex.getMessage());
+            requeue(due);
+            return;
+        }
+        if (claimed.isEmpty()) {
+            requeue(due);
+            return;
+        }
+        List<ScheduledReminder> toSend = claimed.get(0);
+        lock.lock();
+        try {
+            toSend.forEach(reminder -> dispatched.merge(reminder.kind(), reminder.key(), LATEST));
+        } finally {
+            lock.unlock();
+        }
+        toSend.forEach(reminder -> send(reminder, now));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        Booking booking = event.booking();
+        lock.lock();
+        try {
+            if (!REMINDABLE.contains(booking.getStatus())) {
+                if (queue.removeIf(reminder -> reminder.booking().getId().equals(booking.getId()))) {
+                    queued.removeIf(key -> key.bookingId().equals(booking.getId()));
+                }
+                return;
+            }
+            // Solo los que caen en el tramo ya precargado; los posteriores los traerá la siguiente precarga
+            BookingCursor key = BookingCursor.after(booking);
+            for (ReminderKind kind : ReminderKind.values()) {
+                BookingCursor sent = dispatched.get(kind);
+                BookingCursor upTo = loaded.get(kind);
+                if (upTo != null && KEY_ORDER.compare(key, upTo) <= 0 && (sent == null || KEY_ORDER.compare(key, sent) > 0)) {
+                    enqueue(kind, booking);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTimeSlotChanged(TimeSlotChangedEvent event) {
+        if (event.change() != TimeSlotChangedEvent.Change.CANCELLED) {
+            return;
+        }
+        UUID timeSlotUuid = event.timeSlotUuid();
+        lock.lock();
+        try {
+            List<ScheduledReminder> dropped = queue.stream()
+                    .filter(reminder -> timeSlotUuid.equals(reminder.booking().getTimeSlot().getUuid()))
+                    .toList();
+            queue.removeAll(dropped);
+            dropped.forEach(reminder -> queued.remove(reminder.queuedKey()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueuedCount() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Se ejecuta en la transacción que renueva el lease: de cada tipo se queda con los recordatorios que pasan
+     * de la marca persistida y la avanza hasta el último de ellos.
+     * @return los recordatorios que tiene que enviar este nodo.
+     */
+    private List<ScheduledReminder> claim(List<ScheduledReminder> due, Instant now) {
+        List<ScheduledReminder> claimed = new ArrayList<>();
+        for (ReminderKind kind : ReminderKind.values()) {
+            Optional<BookingCursor> sent = persistedCursor(kind);
+            List<ScheduledReminder> pending = due.stream()
+                    .filter(reminder -> reminder.kind() == kind)
+                    .filter(reminder -> sent.isEmpty() || KEY_ORDER.compare(reminder.key(), sent.get()) > 0)
+                    .toList();
+            if (pending.isEmpty()) {
+                continue;
+            }
+            BookingCursor last = pending.get(pending.size() - 1).key();
+            jobCheckpointPersistencePort.save(new JobCheckpoint(kind.jobName(), last.startTime(), last.id(), now));
+            claimed.addAll(pending);
+        }
+        return claimed;
+    }
+
+    /**
+     * Marca persistida del tipo o, si nunca ha enviado nada, desde lo que aún no llega tarde.
+     */
+    private BookingCursor dispatchedCursor(ReminderKind kind, Instant now) {
+        BookingCursor start = persistedCursor(kind)
+                .orElseGet(() -> new BookingCursor(now.plus(kind.leadTime()).minus(maxLateness), 0L));
+        lock.lock();
+        try {
+            dispatched.merge(kind, start, LATEST);
+            loaded.merge(kind, start, LATEST);
+            return start;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Optional<BookingCursor> persistedCursor(ReminderKind kind) {
+        return jobCheckpointPersistencePort.findByJobName(kind.jobName())
+                .filter(checkpoint -> !checkpoint.isInitial())
+                .map(checkpoint -> new BookingCursor(checkpoint.watermarkTime(), checkpoint.watermarkId()));
+    }
+
+    private void enqueue(ReminderKind kind, Booking booking) {
+        ScheduledReminder reminder = new ScheduledReminder(kind, booking);
+        if (queued.add(reminder.queuedKey())) {
+            queue.add(reminder);
+        }
+    }
+
+    private void requeue(List<ScheduledReminder> reminders) {
+        lock.lock();
+        try {
+            reminders.forEach(reminder -> enqueue(reminder.kind(), reminder.booking()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void send(ScheduledReminder reminder, Instant now) {
+        if (Duration.between(reminder.dueAt(), now).compareTo(maxLateness) > 0) {
+            logger.debug("Recordatorio {} del booking {} descartado por llegar tarde", reminder.kind(), reminder.booking().getUuid());
+            return;
+        }
+        try {
+            notificationPort.send(new Reminder(reminder.kind(), reminder.booking()));
+        } catch (RuntimeException ex) {
+            logger.warn("No se pudo enviar el recordatorio {} del booking {}: {}",
+                    reminder.kind(), reminder.booking().getUuid(), ex.getMessage());
+        }
+    }
+
+    private record QueuedKey(ReminderKind kind, Long bookingId) {
+    }
+
+    /**
+     * Entrada de la cola: vence en la hora de inicio del slot menos la antelación del tipo.
+     * Dentro de un tipo, el orden por vencimiento coincide con el de la marca (hora de inicio, id).
+     */
+    private record ScheduledReminder(ReminderKind kind, Booking booking) {
+
+        static final Comparator<ScheduledReminder> ORDER = Comparator
+                .comparing(ScheduledReminder::dueAt)
+                .thenComparing(reminder -> reminder.booking().getId());
+
+        Instant dueAt() {
+            return kind.dueAt(booking);
+        }
+
+        BookingCursor key() {
+            return BookingCursor.after(booking);
+        }
+
+        QueuedKey queuedKey() {
+            return new QueuedKey(kind, booking.getId());
+        }
+    }
+}
@@ -1,22 +1,36 @@
 package application.service;
 
+import domain.event.BookingStatusChangedEvent;
 import domain.exception.*;
 import domain.model.*;
 import domain.port.in.BookingService;
 import domain.port.out.BookingPersistencePort;
 import domain.port.out.TimeSlotPersistencePort;
 import domain.port.out.UserPersistencePort;
+import domain.port.out.WaitlistPersistencePort;
 import infrastructure.adapter.in.web.security.SpringSecurityUser;
+import infrastructure.concurrency.RetryOnConflict;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -26,14 +40,161 @@ public class BookingServiceImpl implements BookingService {
     private final BookingPersistencePort bookingPersistencePort;
     private final TimeSlotPersistencePort timeSlotPersistencePort;
     private final UserPersistencePort userPersistencePort;
+    private final WaitlistPersistencePort waitlistPersistencePort;
+    private final SeatAllocator seatAllocator;
+    private final SeatHoldExpiryJob seatHoldExpiryJob;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${reservas.holds.ttl:PT5M}")
+    private Duration holdTtl;
+
+    @Override
+    @RetryOnConflict
+    @PreAuthorize("hasRole('CLIENT') and not @customSecurity.isTimeSlotProvider(#timeSlotUuid)")
+    public Booking createBooking(UUID timeSlotUuid, int partySize, String notes) {
+        return reserveSeat(timeSlotUuid, partySize, notes, BookingStatus.CONFIRMED, null);
+    }
 
     @Override
+    @RetryOnConflict
     @PreAuthorize("hasRole('CLIENT') and not @customSecurity.isTimeSlotProvider(#timeSlotUuid)")
-    public Booking createBooking(UUID timeSlotUuid, String notes) {
+    public Booking holdSeat(UUID timeSlotUuid, int partySize, String notes) {
+        // Truncado a segundos: es la precisión de la columna, y el barrido compara con el valor guardado
+        Instant holdExpiresAt = Instant.now().plus(holdTtl).truncatedTo(ChronoUnit.SECONDS);
+        Booking hold = reserveSeat(timeSlotUuid, partySize, notes, BookingStatus.PENDING_PAYMENT, holdExpiresAt);
+        seatHoldExpiryJob.trackAfterCommit(new SeatHold(hold.getId(), timeSlotUuid, holdExpiresAt));
+        return hold;
+    }
+
+    @Override
+    @RetryOnConflict
+    @PreAuthorize("hasRole('ADMIN') or @customSecurity.isBookingClient(#bookingUuid)")
+    public Booking confirmHold(UUID bookingUuid) {
+        Booking booking = bookingPersistencePort.findByUuid(bookingUuid)
+                .orElseThrow(() -> new BookingNotFoundException("Booking with UUID " + bookingUuid + " not found."));
+
+        if (booking.getStatus() != BookingStatus.PENDING_PAYMENT || booking.getHoldExpiresAt() == null) {
+            throw new BookingNotHeldException("Booking is not a seat hold. Status: " + booking.getStatus());
+        }
+        if (!bookingPersistencePort.confirmHold(booking, Instant.now())) {
+            throw new ServiceNotAvailableException("The seat hold has expired.");
+        }
+
+        booking.confirm();
+        eventPublisher.publishEvent(new BookingStatusChangedEvent(booking, BookingStatus.PENDING_PAYMENT));
+        return booking;
+    }
+
+    @Override
+    @RetryOnConflict
+    @PreAuthorize("hasRole('CLIENT')")
+    public BatchBookingResult createBookings(List<UUID> timeSlotUuids, int partySize, String notes, BatchBookingMode mode) {
+        requireValidPartySize(partySize);
+        User client = authenticatedClient();
+        List<UUID> requested = List.copyOf(new LinkedHashSet<>(timeSlotUuids));
+
+        // 1. Slots pedidos y bookings previos del cliente en ellos: una consulta para cada cosa
+        Map<UUID, TimeSlot> slots = timeSlotPersistencePort.findAllByUuids(requested).stream()
+                .collect(Collectors.toMap(TimeSlot::getUuid, Function.identity()));
+        Map<Long, Booking> existing = bookingPersistencePort.findByClientAndTimeSlots(client,
+                        slots.values().stream().map(TimeSlot::getId).toList()).stream()
+                .collect(Collectors.toMap(booking -> booking.getTimeSlot().getId(), Function.identity()));
+
+        // 2. Validaciones que no necesitan bloquear nada
+        Map<UUID, BatchBookingOutcome> outcomes = new HashMap<>();
+        List<TimeSlot> candidates = new ArrayList<>();
+        for (UUID uuid : requested) {
+            TimeSlot timeSlot = slots.get(uuid);
+            BatchBookingOutcome rejection = rejectionOf(timeSlot, existing.get(timeSlot == null ? null : timeSlot.getId()), client);
+            if (rejection != null) {
+                outcomes.put(uuid, rejection);
+            } else {
+                candidates.add(timeSlot);
+            }
+        }
+
+        // 3. Plazas libres, con las filas de los slots bloqueadas hasta el commit
+        Map<Long, Integer> freeSeats = timeSlotPersistencePort.lockFreeSeats(candidates.stream().map(TimeSlot::getId).toList());
+        List<TimeSlot> claimable = new ArrayList<>();
+        for (TimeSlot timeSlot : candidates) {
+            if (freeSeats.getOrDefault(timeSlot.getId(), 0) >= partySize) {
+                claimable.add(timeSlot);
+            } else {
+                outcomes.put(timeSlot.getUuid(), BatchBookingOutcome.FULL);
+            }
+        }
+        if (mode == BatchBookingMode.ALL_OR_NOTHING && claimable.size() < requested.size()) {
+            // No se ha escrito nada todavía: basta con no seguir
+            claimable.forEach(timeSlot -> outcomes.put(timeSlot.getUuid(), BatchBookingOutcome.SKIPPED));
+            return toBatchResult(mode, requested, outcomes, Map.of());
+        }
+
+        // 4. Todas las plazas en un único UPDATE condicional; con las filas bloqueadas no puede fallar ninguna
+        List<Long> claimIds = claimable.stream().map(TimeSlot::getId).toList();
+        if (timeSlotPersistencePort.claimSeats(claimIds, partySize) != claimIds.size()) {
+            throw new IllegalStateException("Seat counters changed while their time slots were locked.");
+        }
+
+        // 5. Crear los bookings de una vez (reaprovechando las retenciones caducadas)
+        List<Booking> newBookings = new ArrayList<>(claimable.size());
+        List<BookingStatus> previousStatuses = new ArrayList<>(claimable.size());
+        for (TimeSlot timeSlot : claimable) {
+            Optional<Booking> expiredHold = Optional.ofNullable(existing.get(timeSlot.getId()));
+            previousStatuses.add(expiredHold.map(Booking::getStatus).orElse(null));
+            newBookings.add(newOrReopenedBooking(expiredHold, client, timeSlot, partySize, notes, BookingStatus.CONFIRMED, null));
+        }
+        List<Booking> savedBookings = bookingPersistencePort.saveAll(newBookings);
+        // Quien ya tiene plaza deja de esperarla
+        waitlistPersistencePort.closeWaitingByClient(client, claimable);
+
+        Map<UUID, Booking> booked = new HashMap<>();
+        for (int i = 0; i < savedBookings.size(); i++) {
+            Booking savedBooking = savedBookings.get(i);
+            eventPublisher.publishEvent(new BookingStatusChangedEvent(savedBooking, previousStatuses.get(i)));
+            booked.put(claimable.get(i).getUuid(), savedBooking);
+            outcomes.put(claimable.get(i).getUuid(), BatchBookingOutcome.BOOKED);
+        }
+        return toBatchResult(mode, requested, outcomes, booked);
+    }
+
+    /**
+     * Por qué no se puede reservar un slot del lote, o null si se puede intentar.
+     */
+    private BatchBookingOutcome rejectionOf(TimeSlot timeSlot, Booking existing, User client) {
+        if (timeSlot == null) {
+            return BatchBookingOutcome.NOT_FOUND;
+        }
+        if (timeSlot.getOfferedService().getOwner().getUuid().equals(client.getUuid())) {
+            return BatchBookingOutcome.OWN_SLOT;
+        }
+        if (timeSlot.getStatus() == TimeSlotStatus.CANCELLED) {
+            return BatchBookingOutcome.NOT_AVAILABLE;
+        }
+        if (existing != null && existing.getStatus() != BookingStatus.HOLD_EXPIRED) {
+            return BatchBookingOutcome.ALREADY_BOOKED;
+        }
+        if (timeSlot.getStatus() == TimeSlotStatus.FULL) {
+            return BatchBookingOutcome.FULL;
+        }
+        return null;
+    }
+
+    private BatchBookingResult toBatchResult(BatchBookingMode mode, List<UUID> requested,
+                                             Map<UUID, BatchBookingOutcome> outcomes, Map<UUID, Booking> booked) {
+        List<BatchBookingResult.Item> items = requested.stream()
+                .map(uuid -> new BatchBookingResult.Item(uuid, outcomes.get(uuid), booked.get(uuid)))
+                .toList();
+        return new BatchBookingResult(mode, items);
+    }
+
+    /**
+     * Ocupa plazas del slot para el usuario autenticado (y su grupo), como reserva confirmada o como retención.
+     */
+    private Booking reserveSeat(UUID timeSlotUuid, int partySize, String notes, BookingStatus status, Instant holdExpiresAt) {
+        requireValidPartySize(partySize);
+
         // 1. Obtener el cliente desde el contexto de seguridad
-        UUID clientUuid = ((SpringSecurityUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getUuid();
-        User client = userPersistencePort.findByUuid(clientUuid)
-                .orElseThrow(() -> new UserNotFoundException("Authenticated client not found in database. Critical error."));
+        User client = authenticatedClient();
 
         // 2. Obtener el TimeSlot y validar su estado
         TimeSlot timeSlot = timeSlotPersistencePort.findByUuid(timeSlotUuid)
@@ -43,35 +204,56 @@ public class BookingServiceImpl implements BookingService {
             throw new ServiceNotAvailableException("This time slot is not available for booking. Status: " + timeSlot.getStatus());
         }
 
-        // 3. Validar capacidad
-        long currentBookings = bookingPersistencePort.countByTimeSlot(timeSlot);
-        if (currentBookings >= timeSlot.getCapacity()) {
-            throw new ServiceNotAvailableException("This time slot is full.");
+        // 3. Validar que el cliente no tenga ya una reserva; una retención caducada se reaprovecha
+        Optional<Booking> existing = bookingPersistencePort.findByClientAndTimeSlot(client, timeSlot);
+        if (existing.isPresent() && existing.get().getStatus() != BookingStatus.HOLD_EXPIRED) {
+            throw new DuplicateBookingException("You already have a booking for this time slot.");
         }
 
-        // 4. Validar que el cliente no tenga ya una reserva
-        if (bookingPersistencePort.existsByClientAndTimeSlot(client, timeSlot)) {
-            throw new DuplicateBookingException("You already have a booking for this time slot.");
+        // 4. Ocupar todas las plazas del grupo con un UPDATE condicional sobre el contador del slot
+        // (las retenciones vigentes cuentan como plazas ocupadas; la última plaza deja el slot en FULL)
+        if (timeSlotPersistencePort.claimSeats(List.of(timeSlot.getId()), partySize) == 0) {
+            if (partySize > 1) {
+                throw new ServiceNotAvailableException("This time slot does not have " + partySize + " free seats.");
+            }
+            throw new ServiceNotAvailableException("This time slot is full. You can join its waitlist instead.");
         }
 
         // 5. Crear el nuevo Booking
-        Booking newBooking = Booking.builder()
-                .client(client)
-                .timeSlot(timeSlot)
-                .notes(notes)
-                .pricePaid(timeSlot.getPrice()) // Asumimos que el precio es el del slot
-                .status(BookingStatus.CONFIRMED) // O PENDING_PAYMENT si hay un flujo de pago
-                .build();
+        BookingStatus previousStatus = existing.map(Booking::getStatus).orElse(null);
+        Booking newBooking = newOrReopenedBooking(existing, client, timeSlot, partySize, notes, status, holdExpiresAt);
 
         Booking savedBooking = bookingPersistencePort.save(newBooking);
+        // Quien ya tiene plaza deja de esperarla: la promoción no debe darle una segunda
+        waitlistPersistencePort.closeWaitingByClient(client, List.of(timeSlot));
+        eventPublisher.publishEvent(new BookingStatusChangedEvent(savedBooking, previousStatus));
+        return savedBooking;
+    }
 
-        // 6. Si se ha llenado la última plaza, actualizar el estado del TimeSlot
-        if (currentBookings + 1 >= timeSlot.getCapacity()) {
-            timeSlot.setStatus(TimeSlotStatus.FULL);
-            timeSlotPersistencePort.save(timeSlot);
-        }
+    private Booking newOrReopenedBooking(Optional<Booking> expiredHold, User client, TimeSlot timeSlot, int partySize,
+                                         String notes, BookingStatus status, Instant holdExpiresAt) {
+        Booking booking = expiredHold
+                .map(expired -> {
+                    expired.reopen(status, holdExpiresAt);
+                    return expired;
+                })
+                .orElseGet(() -> Booking.builder()
+                        .client(client)
+                        .timeSlot(timeSlot)
+                        .status(status)
+                        .holdExpiresAt(holdExpiresAt)
+                        .build());
+        booking.setPartySize(partySize);
+        booking.setNotes(notes);
+        // Asumimos que el precio es el del slot, por cada plaza
+        booking.setPricePaid(timeSlot.getPrice() == null ? null : timeSlot.getPrice().multiply(BigDecimal.valueOf(partySize)));
+        return booking;
+    }
 
-        return savedBooking;
+    private static void requireValidPartySize(int partySize) {
+        if (partySize < 1) {
+            throw new IllegalArgumentException("Party size must be at least 1.");
+        }
     }
 
     @Override
@@ -84,15 +266,25 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional(readOnly = true)
     @PreAuthorize("isAuthenticated()")
-    public List<Booking> findMyBookings() {
+    public Slice<Booking> findMyUpcomingBookings(BookingCursor after, int pageSize) {
+        return bookingPersistencePort.findUpcomingByClient(authenticatedClient(), Instant.now(), after, Slice.boundedPageSize(pageSize));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @PreAuthorize("isAuthenticated()")
+    public Slice<Booking> findMyBookingHistory(BookingCursor before, int pageSize) {
+        return bookingPersistencePort.findHistoryByClient(authenticatedClient(), Instant.now(), before, Slice.boundedPageSize(pageSize));
+    }
+
+    private User authenticatedClient() {
         UUID clientUuid = ((SpringSecurityUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getUuid();
-        User client = userPersistencePort.findByUuid(clientUuid)
+        return userPersistencePort.findByUuid(clientUuid)
                 .orElseThrow(() -> new UserNotFoundException("Authenticated client not found."));
-
-        return bookingPersistencePort.findByClient(client);
     }
 
     @Override
+    @RetryOnConflict
     @PreAuthorize("hasRole('ADMIN') or @customSecurity.isBookingClient(#bookingUuid)")
     public Booking cancelMyBooking(UUID bookingUuid) {
         Booking booking = bookingPersistencePort.findByUuid(bookingUuid)
@@ -103,17 +295,20 @@ public class BookingServiceImpl implements BookingService {
             throw new IllegalStateException("Cannot cancel a booking for a past event.");
         }
 
+        BookingStatus previousStatus = booking.getStatus();
         booking.cancel(); // Usamos el método de dominio
 
-        Booking savedBooking = bookingPersistencePort.save(booking);
-
-        // Lógica de negocio adicional: Si el slot estaba lleno, ahora vuelve a estar disponible
-        TimeSlot timeSlot = booking.getTimeSlot();
-        if (timeSlot.getStatus() == TimeSlotStatus.FULL) {
-            timeSlot.setStatus(TimeSlotStatus.AVAILABLE);
-            timeSlotPersistencePort.save(timeSlot);
+        // UPDATE condicional: si otra cancelación, la caducidad o el pago de la retención se han adelantado,
+        // no se pisa su estado ni se cuentan dos veces las plazas liberadas
+        if (!bookingPersistencePort.cancel(booking, previousStatus, booking.getUpdatedAt())) {
+            throw new BookingNotCancellableException("Booking status changed concurrently; it can no longer be cancelled.");
         }
+        eventPublisher.publishEvent(new BookingStatusChangedEvent(booking, previousStatus));
 
-        return savedBooking;
+        // La plaza liberada pasa a la lista de espera en esta misma transacción;
+        // si no hay nadie esperando y el slot estaba lleno, vuelve a estar disponible.
+        seatAllocator.reallocateFreedSeats(booking.getTimeSlot());
+
+        return booking;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package application.service;
+
+import domain.event.BookingStatusChangedEvent;
+import domain.event.TimeSlotChangedEvent;
+import domain.event.UserChangedEvent;
+import domain.port.out.CacheInvalidationPort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Anuncia a los demás nodos los cambios confirmados que dejan obsoletas sus cachés en memoria.
+ * Las respuestas de catálogo no necesitan aviso: su clave lleva la versión, que se lee de la BD.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationRelay {
+
+    private final CacheInvalidationPort cacheInvalidationPort;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        cacheInvalidationPort.publish(CacheInvalidationPort.USERS, event.user().getUuid().toString());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTimeSlotChanged(TimeSlotChangedEvent event) {
+        cacheInvalidationPort.publish(CacheInvalidationPort.TIME_SLOTS, event.timeSlotUuid().toString());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        // Una plaza ocupada en otro nodo solo hace que este intente una reserva de más, que la BD rechaza
+        if (event.previousStatus() != null && event.previousStatus().holdsSeat() && !event.booking().getStatus().holdsSeat()) {
+            cacheInvalidationPort.publish(CacheInvalidationPort.TIME_SLOTS, event.booking().getTimeSlot().getUuid().toString());
+        }
+    }
+}
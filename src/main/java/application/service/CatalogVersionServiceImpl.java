@@ -0,0 +1,57 @@
+package application.service;
+
+import domain.event.BookingStatusChangedEvent;
+import domain.event.OfferedServiceChangedEvent;
+import domain.event.TimeSlotChangedEvent;
+import domain.model.CatalogVersion;
+import domain.port.in.CatalogVersionService;
+import domain.port.out.CatalogVersionPersistencePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Mantiene las versiones del catálogo a partir de los eventos de dominio.
+ * Se incrementan justo antes del commit, dentro de la transacción de negocio: el cambio y su
+ * versión se confirman o se deshacen juntos, y un fallo al incrementar deshace el cambio en lugar
+ * de dejar un ETag que respondería 304 con datos caducados. La fila de versión (muy disputada en
+ * un lanzamiento) solo queda bloqueada lo que tarda el commit.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogVersionServiceImpl implements CatalogVersionService {
+
+    private final CatalogVersionPersistencePort catalogVersionPersistencePort;
+
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogVersion getVersion(UUID scopeUuid) {
+        return catalogVersionPersistencePort.findByScope(scopeUuid)
+                .orElseGet(() -> CatalogVersion.initial(scopeUuid));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        bump(event.booking().getTimeSlot().getOfferedService().getUuid());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onTimeSlotChanged(TimeSlotChangedEvent event) {
+        bump(event.serviceUuid());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOfferedServiceChanged(OfferedServiceChangedEvent event) {
+        bump(event.serviceUuid());
+        bump(event.providerUuid());
+    }
+
+    private void bump(UUID scopeUuid) {
+        catalogVersionPersistencePort.increment(scopeUuid, Instant.now());
+    }
+}
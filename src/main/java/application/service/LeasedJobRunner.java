@@ -0,0 +1,143 @@
+package application.service;
+
+import domain.exception.JobLeaseLostException;
+import domain.model.JobLease;
+import domain.model.JobShard;
+import domain.port.out.JobLeasePersistencePort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ejecuta los trabajos programados de forma segura con varios nodos, sobre la tabla job_leases.
+ * El trabajo se divide en partes (JobShard, por id); cada nodo recorre las partes empezando por una al azar
+ * y procesa las que consigue quedarse, así que varios nodos reparten un barrido grande en vez de recorrer
+ * todos las mismas filas. Cada lote se ejecuta en su propia transacción, que empieza renovando el lease con
+ * su token: si otro nodo se lo ha quedado entretanto, el lote se deshace sin escribir nada.
+ * Al terminar una parte (o tras un fallo) el lease se libera para que cualquier nodo la retome.
+ * Con {@code reservas.jobs.enabled=false} el nodo no pide leases ni ejecuta ningún lote: los hacen los demás.
+ */
+@Component
+public class LeasedJobRunner {
+
+    /**
+     * Un lote de una parte del trabajo, dentro de la transacción que renueva el lease.
+     * @param <T> resultado del lote.
+     */
+    @FunctionalInterface
+    public interface ShardBatch<T> {
+
+        /**
+         * @return el resultado del lote, o null si a la parte no le queda nada por procesar.
+         */
+        T run(JobShard shard);
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(LeasedJobRunner.class);
+
+    private final JobLeasePersistencePort jobLeasePersistencePort;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+    private final Duration leaseTtl;
+
+    @Value("${reservas.jobs.enabled:true}")
+    private boolean enabled = true;
+
+    public LeasedJobRunner(JobLeasePersistencePort jobLeasePersistencePort,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${reservas.jobs.node-id:}") String nodeId,
+                           @Value("${reservas.jobs.lease-ttl:PT2M}") Duration leaseTtl) {
+        this.jobLeasePersistencePort = jobLeasePersistencePort;
+        this.transactionTemplate = transactionTemplate;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.leaseTtl = leaseTtl;
+    }
+
+    /**
+     * Procesa, lote a lote, las partes del trabajo que no tenga otro nodo.
+     * @param jobName nombre del trabajo.
+     * @param shardCount número de partes en que se divide.
+     * @param maxBatchesPerShard máximo de lotes por parte en esta ejecución.
+     * @param batch procesa el siguiente lote de una parte.
+     * @return los resultados de los lotes confirmados, en orden.
+     */
+    public <T> List<T> run(String jobName, int shardCount, int maxBatchesPerShard, ShardBatch<T> batch) {
+        List<T> results = new ArrayList<>();
+        if (!enabled) {
+            return results;
+        }
+        int first = ThreadLocalRandom.current().nextInt(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            JobShard shard = new JobShard((first + i) % shardCount, shardCount);
+            Optional<JobLease> lease = tryAcquire(shard.name(jobName));
+            if (lease.isEmpty()) {
+                // La está procesando otro nodo (o no se ha podido pedir)
+                continue;
+            }
+            try {
+                runShard(lease.get(), shard, maxBatchesPerShard, batch, results);
+            } catch (JobLeaseLostException ex) {
+                logger.warn("{}: {}", shard.name(jobName), ex.getMessage());
+            } finally {
+                release(lease.get());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return false si en este nodo están desactivados los trabajos por lotes.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private Optional<JobLease> tryAcquire(String leaseName) {
+        Instant now = Instant.now();
+        try {
+            return jobLeasePersistencePort.tryAcquire(leaseName, nodeId, now, now.plus(leaseTtl));
+        } catch (RuntimeException ex) {
+            // Por ejemplo, dos nodos creando a la vez la fila del lease: se reintentará en la siguiente ejecución
+            logger.warn("No se pudo pedir el lease {}: {}", leaseName, ex.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private <T> void runShard(JobLease lease, JobShard shard, int maxBatches, ShardBatch<T> batch, List<T> results) {
+        for (int i = 0; i < maxBatches; i++) {
+            T result = transactionTemplate.execute(status -> {
+                if (!jobLeasePersistencePort.renew(lease, Instant.now().plus(leaseTtl))) {
+                    throw new JobLeaseLostException("Lease lost to another node, batch rolled back");
+                }
+                return batch.run(shard);
+            });
+            if (result == null) {
+                return;
+            }
+            results.add(result);
+        }
+    }
+
+    private void release(JobLease lease) {
+        try {
+            jobLeasePersistencePort.release(lease);
+        } catch (RuntimeException ex) {
+            // Caducará por sí solo
+            logger.warn("No se pudo liberar el lease {}: {}", lease.name(), ex.getMessage());
+        }
+    }
+}
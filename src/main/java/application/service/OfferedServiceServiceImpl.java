@@ -1,17 +1,22 @@
 package application.service;
 
+import domain.event.OfferedServiceChangedEvent;
 import domain.exception.DuplicateServiceNameException;
 import domain.exception.OfferedServiceNotFoundException;
 import domain.exception.ServiceInUseException;
 import domain.exception.UserNotFoundException;
 import domain.model.OfferedService;
+import domain.model.OfferedServiceFilter;
+import domain.model.Slice;
 import domain.model.User;
 import domain.port.in.OfferedServiceService;
 import domain.port.out.OfferedServicePersistencePort;
 import domain.port.out.TimeSlotPersistencePort; // <-- NUEVA DEPENDENCIA
 import domain.port.out.UserPersistencePort;
 import infrastructure.adapter.in.web.security.SpringSecurityUser; // <-- NUEVO IMPORT
+import infrastructure.concurrency.SingleFlight;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder; // <-- NUEVO IMPORT
 import org.springframework.stereotype.Service;
@@ -30,6 +35,7 @@ public class OfferedServiceServiceImpl implements OfferedServiceService {
     private final OfferedServicePersistencePort offeredServicePersistencePort;
     private final TimeSlotPersistencePort timeSlotPersistencePort; // <-- REEMPLAZA A RESERVATION PORT
     private final UserPersistencePort userPersistencePort;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Método de ayuda ahora busca por UUID para consistencia
     private User getOwnerUserByUuid(UUID userUuid) {
@@ -53,7 +59,9 @@ public class OfferedServiceServiceImpl implements OfferedServiceService {
             offeredService.setIsActive(Boolean.TRUE);
         }
 
-        return offeredServicePersistencePort.save(offeredService);
+        OfferedService savedService = offeredServicePersistencePort.save(offeredService);
+        eventPublisher.publishEvent(new OfferedServiceChangedEvent(savedService.getUuid(), ownerUuid));
+        return savedService;
     }
 
     @Override
@@ -92,7 +100,9 @@ public class OfferedServiceServiceImpl implements OfferedServiceService {
                 existingService.setCapacity(updateData.getCapacity());
             }
 
-            return offeredServicePersistencePort.save(existingService);
+            OfferedService savedService = offeredServicePersistencePort.save(existingService);
+            eventPublisher.publishEvent(new OfferedServiceChangedEvent(serviceUuid, existingService.getOwner().getUuid()));
+            return savedService;
         });
     }
 
@@ -101,9 +111,8 @@ public class OfferedServiceServiceImpl implements OfferedServiceService {
     public void deleteOfferedService(UUID serviceUuid) {
         // La autorización ya se ha realizado. Si el servicio no existe, findByUuid devolverá Optional.empty()
         // y el chequeo de abajo lanzará la excepción correcta.
-        if (!offeredServicePersistencePort.findByUuid(serviceUuid).isPresent()) {
-            throw new OfferedServiceNotFoundException("Service with UUID " + serviceUuid + " not found.");
-        }
+        OfferedService service = offeredServicePersistencePort.findByUuid(serviceUuid)
+                .orElseThrow(() -> new OfferedServiceNotFoundException("Service with UUID " + serviceUuid + " not found."));
 
         // LÓGICA DE NEGOCIO ACTUALIZADA:
         // No se puede borrar un servicio si tiene TimeSlots futuros asociados.
@@ -113,6 +122,7 @@ public class OfferedServiceServiceImpl implements OfferedServiceService {
         }
 
         offeredServicePersistencePort.deleteByUuid(serviceUuid);
+        eventPublisher.publishEvent(new OfferedServiceChangedEvent(serviceUuid, service.getOwner().getUuid()));
     }
 
     // NOTA: Para implementar `timeSlotPersistencePort.hasFutureTimeSlots(serviceUuid)`,
@@ -123,15 +133,15 @@ public class OfferedServiceServiceImpl implements OfferedServiceService {
     @Override
     @Transactional(readOnly = true)
     @PreAuthorize("hasRole('ADMIN')")
-    public List<OfferedService> findAllServices() {
-        return offeredServicePersistencePort.findAll();
+    public Slice<OfferedService> findAllServices(Long afterId, int pageSize) {
+        return offeredServicePersistencePort.findAll(new OfferedServiceFilter(null, null, false), afterId, Slice.boundedPageSize(pageSize));
     }
 
     @Override
     @Transactional(readOnly = true)
     @PreAuthorize("isAuthenticated()")
-    public List<OfferedService> findAllActiveServices() {
-        return offeredServicePersistencePort.findAllActive();
+    public Slice<OfferedService> findAllActiveServices(Long afterId, int pageSize) {
+        return offeredServicePersistencePort.findAll(new OfferedServiceFilter(null, null, true), afterId, Slice.boundedPageSize(pageSize));
     }
 
     @Override
@@ -154,30 +164,15 @@ public class OfferedServiceServiceImpl implements OfferedServiceService {
     @Override
     @Transactional(readOnly = true)
     @PreAuthorize("hasRole('ADMIN')")
-    public List<OfferedService> findAllServicesForAdmin(String nameContains, Optional<UUID> ownerUuid, boolean activeOnly) {
-        boolean hasNameFilter = nameContains != null && !nameContains.isBlank();
-
-        if (ownerUuid.isPresent()) {
-            User owner = getOwnerUserByUuid(ownerUuid.get());
-            Long actualOwnerId = owner.getId();
-
-            if (hasNameFilter) {
-                return offeredServicePersistencePort.findByNameContainingAndOwnerIdAndIsActive(nameContains, actualOwnerId, activeOnly);
-            } else {
-                return offeredServicePersistencePort.findByOwnerIdAndIsActive(actualOwnerId, activeOnly);
-            }
-        } else {
-            if (hasNameFilter) {
-                return offeredServicePersistencePort.findByNameContainingAndIsActive(nameContains, activeOnly);
-            } else if (activeOnly) {
-                return offeredServicePersistencePort.findAllActive();
-            } else {
-                return offeredServicePersistencePort.findAll();
-            }
-        }
+    public Slice<OfferedService> findAllServicesForAdmin(String nameContains, Optional<UUID> ownerUuid, boolean activeOnly,
+                                                         Long afterId, int pageSize) {
+        Long ownerId = ownerUuid.map(uuid -> getOwnerUserByUuid(uuid).getId()).orElse(null);
+        return offeredServicePersistencePort.findAll(
+                new OfferedServiceFilter(nameContains, ownerId, activeOnly), afterId, Slice.boundedPageSize(pageSize));
     }
 
     @Override
+    @SingleFlight
     @Transactional(readOnly = true)
     public List<OfferedService> findAllActiveServicesByProvider(UUID providerUuid) {
         User provider = userPersistencePort.findByUuid(providerUuid)
@@ -0,0 +1,59 @@
+package application.service;
+
+import domain.exception.InvalidDateRangeException;
+import domain.exception.UserNotFoundException;
+import domain.model.ProviderDashboard;
+import domain.model.ServiceWeeklyStats;
+import domain.model.TimeSlot;
+import domain.model.User;
+import domain.port.in.ProviderDashboardService;
+import domain.port.out.ProviderStatsPersistencePort;
+import domain.port.out.TimeSlotPersistencePort;
+import domain.port.out.UserPersistencePort;
+import infrastructure.adapter.in.web.security.SpringSecurityUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ProviderDashboardServiceImpl implements ProviderDashboardService {
+
+    private static final int UPCOMING_SLOTS_LIMIT = 20;
+    // Máximo de semanas por consulta: el panel lee como mucho (servicios x semanas) filas ya agregadas
+    private static final int MAX_WEEKS = 26;
+
+    private final ProviderStatsPersistencePort providerStatsPersistencePort;
+    private final TimeSlotPersistencePort timeSlotPersistencePort;
+    private final UserPersistencePort userPersistencePort;
+
+    @Override
+    @PreAuthorize("hasRole('PROVIDER')")
+    public ProviderDashboard getMyDashboard(LocalDate from, LocalDate to) {
+        UUID providerUuid = ((SpringSecurityUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getUuid();
+        User provider = userPersistencePort.findByUuid(providerUuid)
+                .orElseThrow(() -> new UserNotFoundException("Authenticated provider not found."));
+
+        LocalDate fromWeek = ProviderStatsProjector.weekStart(from);
+        LocalDate toWeek = ProviderStatsProjector.weekStart(to);
+        if (toWeek.isBefore(fromWeek)) {
+            throw new InvalidDateRangeException("The 'to' date must not be before the 'from' date.");
+        }
+        if (ChronoUnit.WEEKS.between(fromWeek, toWeek) >= MAX_WEEKS) {
+            throw new InvalidDateRangeException("The dashboard range cannot exceed " + MAX_WEEKS + " weeks.");
+        }
+
+        List<TimeSlot> upcomingSlots = timeSlotPersistencePort.findUpcomingByProvider(providerUuid, Instant.now(), UPCOMING_SLOTS_LIMIT);
+        List<ServiceWeeklyStats> weeklyStats = providerStatsPersistencePort.findByProvider(provider.getId(), fromWeek, toWeek);
+        return new ProviderDashboard(upcomingSlots, weeklyStats);
+    }
+}
@@ -0,0 +1,114 @@
+package application.service;
+
+import domain.event.UserChangedEvent;
+import domain.model.Role;
+import domain.model.User;
+import domain.port.out.CacheInvalidationPort;
+import domain.port.out.ProviderSearchPort;
+import domain.port.out.UserPersistencePort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mantiene el índice de búsqueda de proveedores: lo precarga desde la BD al arrancar (por lotes,
+ * en segundo plano) y le aplica los cambios de usuarios una vez confirmados.
+ * Mientras la precarga no termina, la búsqueda pública sigue yendo a la base de datos.
+ * Los cambios hechos en otros nodos llegan como avisos y se aplican releyendo el usuario.
+ */
+@Component
+public class ProviderSearchIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderSearchIndexer.class);
+
+    private final ProviderSearchPort providerSearchPort;
+    private final UserPersistencePort userPersistencePort;
+
+    // Evita dos precargas a la vez (la del arranque y el reintento programado)
+    private final ReentrantLock warmUpLock = new ReentrantLock();
+
+    @Value("${reservas.provider-search.warm-up-batch-size:1000}")
+    private int batchSize;
+
+    public ProviderSearchIndexer(ProviderSearchPort providerSearchPort,
+                                 UserPersistencePort userPersistencePort,
+                                 CacheInvalidationPort cacheInvalidationPort) {
+        this.providerSearchPort = providerSearchPort;
+        this.userPersistencePort = userPersistencePort;
+        cacheInvalidationPort.subscribe(CacheInvalidationPort.USERS, key -> reindex(UUID.fromString(key)));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        apply(event.user(), event.deleted());
+    }
+
+    void reindex(UUID userUuid) {
+        userPersistencePort.findByUuid(userUuid).ifPresentOrElse(
+                user -> apply(user, false),
+                () -> providerSearchPort.remove(userUuid));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        Thread.ofVirtual().name("provider-search-warm-up").start(this::warmUp);
+    }
+
+    /**
+     * Reintenta la precarga si falló al arrancar (p. ej. la BD aún no estaba disponible).
+     */
+    @Scheduled(fixedDelayString = "${reservas.provider-search.warm-up-retry-ms:60000}",
+            initialDelayString = "${reservas.provider-search.warm-up-retry-ms:60000}")
+    public void retryWarmUp() {
+        if (!providerSearchPort.isReady()) {
+            warmUp();
+        }
+    }
+
+    private void apply(User user, boolean deleted) {
+        if (!deleted && user.getRoles() != null && user.getRoles().contains(Role.PROVIDER)) {
+            providerSearchPort.index(user);
+        } else {
+            // Eliminado o ya no es proveedor
+            providerSearchPort.remove(user.getUuid());
+        }
+    }
+
+    void warmUp() {
+        if (!warmUpLock.tryLock()) {
+            return;
+        }
+        try {
+            if (providerSearchPort.isReady()) {
+                return;
+            }
+            long afterId = 0;
+            int loaded = 0;
+            List<User> batch;
+            do {
+                batch = userPersistencePort.findByRoleAfterId(Role.PROVIDER, afterId, batchSize);
+                providerSearchPort.warmUp(batch);
+                loaded += batch.size();
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == batchSize);
+            providerSearchPort.markReady();
+            logger.info("Índice de búsqueda de proveedores cargado con {} proveedores", loaded);
+        } catch (RuntimeException ex) {
+            logger.warn("No se pudo cargar el índice de búsqueda de proveedores: {}", ex.getMessage());
+        } finally {
+            warmUpLock.unlock();
+        }
+    }
+}
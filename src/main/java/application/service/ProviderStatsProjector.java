@@ -0,0 +1,191 @@
+package application.service;
+
+import domain.event.BookingStatusChangedEvent;
+import domain.event.BookingsSettledEvent;
+import domain.event.TimeSlotChangedEvent;
+import domain.model.Booking;
+import domain.model.BookingStatus;
+import domain.model.OfferedService;
+import domain.model.ServiceWeeklyStatsDelta;
+import domain.model.TimeSlot;
+import domain.port.out.ProviderStatsPersistencePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantiene las estadísticas semanales de los proveedores a partir de los eventos de slots y bookings,
+ * para que el panel no tenga que agregar las tablas de bookings en cada consulta.
+ * Las variaciones de una transacción se acumulan por servicio y semana y se escriben justo antes del
+ * commit, dentro de la misma transacción: el agregado nunca se desvía del cambio que lo provoca, y la
+ * fila agregada (compartida por todo un servicio y semana) solo queda bloqueada durante el commit.
+ * Cada fila se escribe una sola vez y siempre en el mismo orden, así dos transacciones que tocan las
+ * mismas filas se esperan en lugar de bloquearse mutuamente.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProviderStatsProjector {
+
+    private final ProviderStatsPersistencePort providerStatsPersistencePort;
+
+    @EventListener
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        Booking booking = event.booking();
+        apply(booking.getTimeSlot(), bookingDelta(event.previousStatus(), booking.getStatus(), booking.getPricePaid(), booking.occupiedSeats()));
+    }
+
+    @EventListener
+    public void onBookingsSettled(BookingsSettledEvent event) {
+        apply(event.timeSlot(), settledDelta(event.previousStatus(), event.newStatus(), event.count(), event.seats(), event.totalPaid()));
+    }
+
+    @EventListener
+    public void onTimeSlotChanged(TimeSlotChangedEvent event) {
+        TimeSlot timeSlot = event.timeSlot();
+        int capacity = timeSlot.getCapacity() == null ? 0 : timeSlot.getCapacity();
+        ServiceWeeklyStatsDelta delta = switch (event.change()) {
+            case CREATED -> new ServiceWeeklyStatsDelta(1, capacity, 0, BigDecimal.ZERO, 0, 0, 0);
+            case CANCELLED -> new ServiceWeeklyStatsDelta(-1, -capacity, 0, BigDecimal.ZERO, 0, 0, 0);
+            // Las retenciones no cuentan como plazas vendidas: su caducidad no cambia las estadísticas
+            case OCCUPANCY_CHANGED -> ServiceWeeklyStatsDelta.ZERO;
+        };
+        apply(timeSlot, delta);
+    }
+
+    /**
+     * Variación que produce una transición de estado de un booking.
+     * @param previous el estado anterior, o null si el booking es nuevo.
+     * @param pricePaid lo pagado por el booking entero.
+     * @param seats plazas que ocupa el booking.
+     */
+    static ServiceWeeklyStatsDelta bookingDelta(BookingStatus previous, BookingStatus current, BigDecimal pricePaid, int seats) {
+        int sold = flag(current != null && current.isSold()) - flag(previous != null && previous.isSold());
+        BigDecimal price = pricePaid == null ? BigDecimal.ZERO : pricePaid;
+        return new ServiceWeeklyStatsDelta(
+                0,
+                0,
+                sold * seats,
+                price.multiply(BigDecimal.valueOf(sold)),
+                flag(current != null && current.isCancelled()) - flag(previous != null && previous.isCancelled()),
+                flag(current == BookingStatus.NO_SHOW) - flag(previous == BookingStatus.NO_SHOW),
+                flag(current == BookingStatus.COMPLETED) - flag(previous == BookingStatus.COMPLETED));
+    }
+
+    /**
+     * Variación que producen {@code count} bookings que cambian a la vez del mismo estado al mismo estado.
+     * @param seats plazas que ocupan entre todos.
+     * @param totalPaid suma de lo pagado por todos ellos.
+     */
+    static ServiceWeeklyStatsDelta settledDelta(BookingStatus previous, BookingStatus current, int count, int seats, BigDecimal totalPaid) {
+        ServiceWeeklyStatsDelta one = bookingDelta(previous, current, BigDecimal.ZERO, 1);
+        BigDecimal paid = totalPaid == null ? BigDecimal.ZERO : totalPaid;
+        return new ServiceWeeklyStatsDelta(
+                0,
+                0,
+                one.bookedSeats() * seats,
+                paid.multiply(BigDecimal.valueOf(one.bookedSeats())),
+                one.cancellations() * count,
+                one.noShows() * count,
+                one.completed() * count);
+    }
+
+    /**
+     * Lunes (UTC) de la semana en la que empieza un slot.
+     */
+    static LocalDate weekStart(Instant startTime) {
+        return weekStart(LocalDate.ofInstant(startTime, ZoneOffset.UTC));
+    }
+
+    static LocalDate weekStart(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private void apply(TimeSlot timeSlot, ServiceWeeklyStatsDelta delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        OfferedService service = timeSlot.getOfferedService();
+        RowKey key = new RowKey(service.getServiceId(), weekStart(timeSlot.getStartTime()));
+        PendingDeltas pending = pendingDeltas();
+        if (pending == null) {
+            // Sin transacción (o ya escrita): se aplica en el momento, como hasta ahora
+            write(key, service.getOwner().getId(), delta);
+            return;
+        }
+        pending.add(key, service.getOwner().getId(), delta);
+    }
+
+    /**
+     * Variaciones pendientes de la transacción en curso, o null si no hay transacción o ya se han escrito.
+     */
+    private PendingDeltas pendingDeltas() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        PendingDeltas pending = (PendingDeltas) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingDeltas();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending.written ? null : pending;
+    }
+
+    private void write(RowKey key, Long providerId, ServiceWeeklyStatsDelta delta) {
+        providerStatsPersistencePort.applyDelta(key.serviceId(), providerId, key.weekStart(), delta);
+    }
+
+    private record RowKey(Long serviceId, LocalDate weekStart) {
+
+        static final Comparator<RowKey> ORDER =
+                Comparator.comparing(RowKey::serviceId).thenComparing(RowKey::weekStart);
+    }
+
+    private record PendingRow(Long providerId, ServiceWeeklyStatsDelta delta) {
+    }
+
+    /**
+     * Variaciones de una transacción, ordenadas por clave primaria de la fila agregada.
+     */
+    private final class PendingDeltas implements TransactionSynchronization {
+
+        private final Map<RowKey, PendingRow> rows = new TreeMap<>(RowKey.ORDER);
+        private boolean written;
+
+        void add(RowKey key, Long providerId, ServiceWeeklyStatsDelta delta) {
+            rows.merge(key, new PendingRow(providerId, delta),
+                    (current, added) -> new PendingRow(current.providerId(), current.delta().plus(added.delta())));
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            written = true;
+            rows.forEach((key, row) -> {
+                if (!row.delta().isZero()) {
+                    write(key, row.providerId(), row.delta());
+                }
+            });
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ProviderStatsProjector.this);
+        }
+    }
+
+    private static int flag(boolean value) {
+        return value ? 1 : 0;
+    }
+}
@@ -0,0 +1,93 @@
+package application.service;
+
+import domain.event.BookingStatusChangedEvent;
+import domain.model.*;
+import domain.port.out.BookingPersistencePort;
+import domain.port.out.TimeSlotPersistencePort;
+import domain.port.out.WaitlistPersistencePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reparte las plazas que quedan libres en un TimeSlot (cancelaciones, retenciones caducadas).
+ * Se ejecuta dentro de la transacción del llamador.
+ */
+@Component
+@RequiredArgsConstructor
+public class SeatAllocator {
+
+    private final BookingPersistencePort bookingPersistencePort;
+    private final TimeSlotPersistencePort timeSlotPersistencePort;
+    private final WaitlistPersistencePort waitlistPersistencePort;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Recalcula el contador de plazas del slot (que queda FULL o AVAILABLE según el resultado)
+     * y ofrece las plazas libres a la lista de espera por orden de llegada.
+     * @param timeSlot el slot en el que se han liberado plazas.
+     */
+    public void reallocateFreedSeats(TimeSlot timeSlot) {
+        if (timeSlot.getStatus() == TimeSlotStatus.CANCELLED) {
+            return;
+        }
+        // El recuento deja bloqueada la fila del slot: nadie más ocupa plazas hasta el commit
+        long freeSeats = timeSlot.getCapacity() - timeSlotPersistencePort.recountBookedSeats(timeSlot.getId(), Instant.now());
+        // La cola se recorre hacia delante: las lecturas pueden venir de una instantánea ya superada,
+        // así que una entrada que no se ha podido reclamar no se vuelve a pedir
+        Long lastTriedId = null;
+        while (freeSeats > 0) {
+            Optional<WaitlistEntry> next = waitlistPersistencePort.findNextWaiting(timeSlot, lastTriedId);
+            if (next.isEmpty()) {
+                return;
+            }
+            lastTriedId = next.get().getId();
+            if (promote(next.get(), timeSlot)) {
+                freeSeats--;
+            }
+        }
+    }
+
+    /**
+     * Convierte una entrada de la cola de espera en un booking confirmado.
+     * La entrada se reclama con un UPDATE condicional, así que dos transacciones concurrentes
+     * nunca promocionan al mismo cliente. Si el cliente ya tiene un booking en el slot
+     * (reservó por su cuenta mientras esperaba), su entrada se cierra sin ocupar plaza.
+     * @return true si se ha ocupado una plaza.
+     */
+    private boolean promote(WaitlistEntry entry, TimeSlot timeSlot) {
+        Optional<Booking> existing = bookingPersistencePort.findByClientAndTimeSlot(entry.getClient(), timeSlot);
+        if (existing.isPresent() && existing.get().getStatus() != BookingStatus.HOLD_EXPIRED) {
+            waitlistPersistencePort.markClosed(entry);
+            return false;
+        }
+        if (!waitlistPersistencePort.markPromoted(entry)) {
+            return false;
+        }
+        // Una entrada de la lista de espera es una sola plaza
+        if (timeSlotPersistencePort.claimSeats(List.of(timeSlot.getId()), 1) == 0) {
+            throw new IllegalStateException("No free seat left to promote from the waitlist of time slot " + timeSlot.getUuid());
+        }
+        // Si el cliente tuvo una retención que caducó, se reaprovecha su fila (restricción única cliente/slot)
+        BookingStatus previousStatus = existing.map(Booking::getStatus).orElse(null);
+        Booking promotedBooking = existing
+                .map(expiredHold -> {
+                    expiredHold.reopen(BookingStatus.CONFIRMED, null);
+                    return expiredHold;
+                })
+                .orElseGet(() -> Booking.builder()
+                        .client(entry.getClient())
+                        .timeSlot(timeSlot)
+                        .status(BookingStatus.CONFIRMED)
+                        .build());
+        promotedBooking.setPartySize(1);
+        promotedBooking.setPricePaid(timeSlot.getPrice());
+        Booking savedBooking = bookingPersistencePort.save(promotedBooking);
+        eventPublisher.publishEvent(new BookingStatusChangedEvent(savedBooking, previousStatus));
+        return true;
+    }
+}
@@ -0,0 +1,204 @@
+package application.service;
+
+import domain.event.TimeSlotChangedEvent;
+import domain.model.JobShard;
+import domain.model.SeatHold;
+import domain.port.out.BookingPersistencePort;
+import domain.port.out.TimeSlotPersistencePort;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caduca las retenciones de plaza (bookings PENDING_PAYMENT con hold_expires_at).
+ * Cada retención espera en una DelayQueue hasta su vencimiento; el barrido saca todas las vencidas
+ * y las caduca en lotes con un único UPDATE condicional, sin bloquear filas mientras dura el pago.
+ * La cola es solo un índice en memoria: al arrancar se reconstruye desde la BD, y una reconciliación
+ * periódica recoge las retenciones que haya creado otra instancia.
+ * Las retenciones vencidas se reparten por id de booking en {@code reservas.holds.shards} partes y cada lote
+ * se caduca con LeasedJobRunner, en la transacción que renueva el lease de su parte: dos nodos con la misma
+ * retención en su cola no la caducan (ni reparten sus plazas) a la vez. Lo que no se ha podido caducar
+ * (parte en manos de otro nodo, lease perdido, fallo) vuelve a la cola para reintentarse.
+ * Un nodo con los trabajos desactivados no lleva cola: sus retenciones las recoge la reconciliación de los demás.
+ */
+@Component
+@RequiredArgsConstructor
+public class SeatHoldExpiryJob {
+
+    static final String JOB_NAME = "seat-hold-expiry";
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatHoldExpiryJob.class);
+
+    // Ninguna retención dura tanto; acota la consulta de reconstrucción
+    private static final Duration REBUILD_HORIZON = Duration.ofDays(1);
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+
+    private final BookingPersistencePort bookingPersistencePort;
+    private final TimeSlotPersistencePort timeSlotPersistencePort;
+    private final SeatAllocator seatAllocator;
+    private final LeasedJobRunner leasedJobRunner;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final DelayQueue<TrackedHold> pending = new DelayQueue<>();
+    private final Set<SeatHold> tracked = ConcurrentHashMap.newKeySet();
+
+    @Value("${reservas.holds.sweep-batch-size:500}")
+    private int batchSize;
+
+    @Value("${reservas.holds.rebuild-limit:100000}")
+    private int rebuildLimit;
+
+    @Value("${reservas.holds.shards:4}")
+    private int shards;
+
+    /**
+     * Programa la caducidad de una retención cuando la transacción que la crea se confirme.
+     */
+    public void trackAfterCommit(SeatHold hold) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    track(hold);
+                }
+            });
+        } else {
+            track(hold);
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildFromDatabase() {
+        if (!leasedJobRunner.isEnabled()) {
+            return;
+        }
+        try {
+            List<SeatHold> holds = bookingPersistencePort.findHoldsExpiringBefore(Instant.now().plus(REBUILD_HORIZON), rebuildLimit);
+            holds.forEach(this::track);
+            logger.info("Reconstruidas {} retenciones de plaza desde la base de datos", holds.size());
+        } catch (RuntimeException ex) {
+            // Sin BD al arrancar no hay retenciones que vigilar; la reconciliación periódica las recogerá
+            logger.warn("No se pudieron cargar las retenciones de plaza al arrancar: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reservas.holds.reconcile-interval-ms:60000}",
+            initialDelayString = "${reservas.holds.reconcile-interval-ms:60000}")
+    public void reconcileWithDatabase() {
+        if (!leasedJobRunner.isEnabled()) {
+            return;
+        }
+        try {
+            bookingPersistencePort.findHoldsExpiringBefore(Instant.now(), batchSize).forEach(this::track);
+        } catch (RuntimeException ex) {
+            logger.warn("Reconciliación de retenciones fallida: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reservas.holds.sweep-interval-ms:1000}")
+    public void expireDueHolds() {
+        List<TrackedHold> due = new ArrayList<>();
+        if (pending.drainTo(due) == 0) {
+            return;
+        }
+        List<SeatHold> holds = due.stream().map(TrackedHold::hold).toList();
+        Set<SeatHold> unclaimed = new LinkedHashSet<>(holds);
+        Set<SeatHold> expired = new HashSet<>();
+        try {
+            leasedJobRunner.run(JOB_NAME, shards, Integer.MAX_VALUE, shard -> expireNextBatch(shard, unclaimed))
+                    .forEach(expired::addAll);
+        } catch (RuntimeException ex) {
+            logger.warn("No se pudieron caducar las retenciones vencidas, se reintentará: {}", ex.getMessage());
+        }
+        expired.forEach(tracked::remove);
+        Instant retryAt = Instant.now().plus(RETRY_DELAY);
+        holds.stream()
+                .filter(hold -> !expired.contains(hold))
+                .forEach(hold -> pending.offer(new TrackedHold(hold, retryAt)));
+    }
+
+    /**
+     * @return las retenciones del lote, o null si a la parte no le queda ninguna.
+     */
+    private List<SeatHold> expireNextBatch(JobShard shard, Set<SeatHold> unclaimed) {
+        List<SeatHold> batch = unclaimed.stream()
+                .filter(hold -> shard.contains(hold.bookingId()))
+                .limit(batchSize)
+                .toList();
+        if (batch.isEmpty()) {
+            return null;
+        }
+        // Si la transacción se deshace, el lote no llega a los resultados y se reintenta
+        batch.forEach(unclaimed::remove);
+        expireBatch(batch);
+        return batch;
+    }
+
+    private void expireBatch(List<SeatHold> holds) {
+        int expired = bookingPersistencePort.expireHolds(holds.stream().map(SeatHold::bookingId).toList(), Instant.now());
+        if (expired == 0) {
+            return;
+        }
+        // Las plazas liberadas pasan a la lista de espera o vuelven a estar disponibles
+        holds.stream()
+                .map(SeatHold::timeSlotUuid)
+                .distinct()
+                .forEach(this::reallocate);
+        logger.info("Caducadas {} retenciones de plaza", expired);
+    }
+
+    private void reallocate(UUID timeSlotUuid) {
+        timeSlotPersistencePort.findByUuid(timeSlotUuid).ifPresent(timeSlot -> {
+            seatAllocator.reallocateFreedSeats(timeSlot);
+            eventPublisher.publishEvent(new TimeSlotChangedEvent(timeSlot, TimeSlotChangedEvent.Change.OCCUPANCY_CHANGED));
+        });
+    }
+
+    private void track(SeatHold hold) {
+        if (leasedJobRunner.isEnabled() && tracked.add(hold)) {
+            pending.offer(new TrackedHold(hold, hold.expiresAt()));
+        }
+    }
+
+    /**
+     * Entrada de la DelayQueue: vence en {@code deadline} (normalmente la caducidad de la retención).
+     */
+    private record TrackedHold(SeatHold hold, Instant deadline) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Instant.now().until(deadline, ChronoUnit.MILLIS), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return deadline.compareTo(((TrackedHold) other).deadline);
+        }
+    }
+}
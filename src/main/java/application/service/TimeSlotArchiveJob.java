@@ -0,0 +1,115 @@
+package application.service;
+
+import domain.model.ArchivedRows;
+import domain.model.JobCheckpoint;
+import domain.model.JobShard;
+import domain.model.TimeSlotCursor;
+import domain.port.out.ArchivePersistencePort;
+import domain.port.out.JobCheckpointPersistencePort;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mueve a time_slots_archive y bookings_archive los slots que empezaron hace más de {@code reservas.archive.after},
+ * junto con sus bookings, para que las tablas vivas (y sus índices) solo contengan el conjunto reciente.
+ * Recorre los slots por (startTime, id) en lotes; cada lote archiva y avanza la marca de job_checkpoints en una
+ * sola transacción, así que tras un fallo el lote entero se repite en la siguiente ejecución y lo ya hecho no.
+ * Solo se archivan slots cerrados (sin bookings que aún ocupen plaza); los demás se saltan y la marca no pasa
+ * del más antiguo de ellos, de modo que se vuelven a considerar en cuanto el cierre de bookings los alcance.
+ * En memoria solo vive el lote en curso (las claves de como mucho {@code reservas.archive.batch-size} slots).
+ * Los slots se reparten por id en {@code reservas.archive.shards} partes, cada una con su marca,
+ * que los nodos procesan en paralelo con LeasedJobRunner.
+ */
+@Component
+@RequiredArgsConstructor
+public class TimeSlotArchiveJob {
+
+    static final String JOB_NAME = "timeslot-archive";
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeSlotArchiveJob.class);
+
+    private final ArchivePersistencePort archivePersistencePort;
+    private final JobCheckpointPersistencePort jobCheckpointPersistencePort;
+    private final LeasedJobRunner leasedJobRunner;
+
+    @Value("${reservas.archive.after:P30D}")
+    private Duration archiveAfter;
+
+    @Value("${reservas.archive.batch-size:200}")
+    private int batchSize;
+
+    @Value("${reservas.archive.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Value("${reservas.archive.shards:4}")
+    private int shards;
+
+    @Scheduled(fixedDelayString = "${reservas.archive.interval-ms:300000}",
+            initialDelayString = "${reservas.archive.interval-ms:300000}")
+    public void archivePastTimeSlots() {
+        Instant cutoff = Instant.now().minus(archiveAfter);
+        int timeSlots = 0;
+        int bookings = 0;
+        try {
+            for (ArchivedRows rows : leasedJobRunner.run(JOB_NAME, shards, maxBatchesPerRun, shard -> archiveNextBatch(cutoff, shard))) {
+                timeSlots += rows.timeSlots();
+                bookings += rows.bookings();
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("Archivado interrumpido, se reanudará desde la última marca: {}", ex.getMessage());
+        }
+        if (timeSlots > 0) {
+            logger.info("Archivados {} slots y {} bookings anteriores a {}", timeSlots, bookings, cutoff);
+        }
+    }
+
+    /**
+     * @return filas movidas en el lote, o null si no quedan slots por archivar o ninguno del lote está cerrado.
+     */
+    private ArchivedRows archiveNextBatch(Instant cutoff, JobShard shard) {
+        String checkpointName = shard.name(JOB_NAME);
+        JobCheckpoint checkpoint = jobCheckpointPersistencePort.findByJobName(checkpointName)
+                .orElse(JobCheckpoint.initial(checkpointName));
+        TimeSlotCursor after = checkpoint.isInitial() ? null : new TimeSlotCursor(checkpoint.watermarkTime(), checkpoint.watermarkId());
+        List<TimeSlotCursor> slots = archivePersistencePort.findArchivableTimeSlots(cutoff, shard, after, batchSize);
+        if (slots.isEmpty()) {
+            return null;
+        }
+        Set<Long> unsettled = archivePersistencePort.findUnsettledTimeSlots(slots.stream().map(TimeSlotCursor::id).toList());
+        List<Long> settled = new ArrayList<>(slots.size());
+        // La marca avanza solo hasta el primer slot saltado: los posteriores que se archiven ya no estarán en la tabla viva
+        TimeSlotCursor watermark = after;
+        boolean skipped = false;
+        for (TimeSlotCursor slot : slots) {
+            if (unsettled.contains(slot.id())) {
+                skipped = true;
+            } else {
+                settled.add(slot.id());
+                if (!skipped) {
+                    watermark = slot;
+                }
+            }
+        }
+        if (settled.isEmpty()) {
+            logger.warn("Archivado de {} detenido en el slot {}: el lote entero tiene bookings sin cerrar",
+                    checkpointName, slots.get(0).id());
+            return null;
+        }
+        Instant now = Instant.now();
+        ArchivedRows rows = archivePersistencePort.archiveTimeSlots(settled, now);
+        if (watermark != after) {
+            jobCheckpointPersistencePort.save(new JobCheckpoint(checkpointName, watermark.startTime(), watermark.id(), now));
+        }
+        return rows;
+    }
+}
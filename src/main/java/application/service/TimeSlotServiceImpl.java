@@ -1,15 +1,22 @@
 package application.service;
 
+import domain.event.TimeSlotChangedEvent;
 import domain.exception.OfferedServiceNotFoundException;
 import domain.exception.TimeSlotClashException;
 import domain.exception.TimeSlotNotFoundException;
 import domain.model.OfferedService;
+import domain.model.Slice;
 import domain.model.TimeSlot;
+import domain.model.TimeSlotCursor;
+import domain.model.TimeSlotFilter;
 import domain.model.TimeSlotStatus;
 import domain.port.in.TimeSlotService;
 import domain.port.out.OfferedServicePersistencePort;
 import domain.port.out.TimeSlotPersistencePort;
+import infrastructure.concurrency.RetryOnConflict;
+import infrastructure.concurrency.SingleFlight;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +33,7 @@ public class TimeSlotServiceImpl implements TimeSlotService {
 
     private final TimeSlotPersistencePort timeSlotPersistencePort;
     private final OfferedServicePersistencePort offeredServicePersistencePort;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @PreAuthorize("hasRole('ADMIN') or @customSecurity.isServiceOwner(#serviceUuid)")
@@ -52,16 +60,20 @@ public class TimeSlotServiceImpl implements TimeSlotService {
             timeSlot.setPrice(service.getPricePerReservation());
         }
 
-        return timeSlotPersistencePort.save(timeSlot);
+        TimeSlot savedTimeSlot = timeSlotPersistencePort.save(timeSlot);
+        eventPublisher.publishEvent(new TimeSlotChangedEvent(savedTimeSlot, TimeSlotChangedEvent.Change.CREATED));
+        return savedTimeSlot;
     }
 
     @Override
+    @RetryOnConflict
     @PreAuthorize("hasRole('ADMIN') or @customSecurity.isTimeSlotProvider(#timeSlotUuid)")
     public TimeSlot cancelTimeSlot(UUID timeSlotUuid) {
         TimeSlot timeSlot = timeSlotPersistencePort.findByUuid(timeSlotUuid)
                 .orElseThrow(() -> new TimeSlotNotFoundException("TimeSlot with UUID " + timeSlotUuid + " not found."));
 
         // Cambiar estado del TimeSlot
+        boolean alreadyCancelled = timeSlot.getStatus() == TimeSlotStatus.CANCELLED;
         timeSlot.setStatus(TimeSlotStatus.CANCELLED);
 
         // Lógica de negocio adicional: Cancelar todos los bookings asociados
@@ -72,7 +84,11 @@ public class TimeSlotServiceImpl implements TimeSlotService {
             // booking.cancelByProvider();
         });
 
-        return timeSlotPersistencePort.save(timeSlot);
+        TimeSlot savedTimeSlot = timeSlotPersistencePort.save(timeSlot);
+        if (!alreadyCancelled) {
+            eventPublisher.publishEvent(new TimeSlotChangedEvent(timeSlot, TimeSlotChangedEvent.Change.CANCELLED));
+        }
+        return savedTimeSlot;
     }
 
     @Override
@@ -82,10 +98,17 @@ public class TimeSlotServiceImpl implements TimeSlotService {
     }
 
     @Override
+    @SingleFlight
     @Transactional(readOnly = true)
     public List<TimeSlot> findAvailableTimeSlots(UUID serviceUuid, Instant from, Instant to) {
         // Podríamos filtrar adicionalmente para no devolver slots llenos.
         return timeSlotPersistencePort.findByServiceUuidAndStartTimeBetween(serviceUuid, from, to);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN') or @customSecurity.isSelf(#providerUuid)")
+    public Slice<TimeSlot> findTimeSlotsByProvider(UUID providerUuid, TimeSlotFilter filter, TimeSlotCursor after, int pageSize) {
+        return timeSlotPersistencePort.findTimeSlotsByProvider(providerUuid, filter, after, Slice.boundedPageSize(pageSize));
+    }
 }
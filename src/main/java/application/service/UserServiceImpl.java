@@ -1,14 +1,18 @@
 package application.service;
 
+import domain.event.UserChangedEvent;
 import domain.exception.DuplicateUserInfoException;
 import domain.exception.UserNotFoundException;
 import domain.model.Role;
+import domain.model.Slice;
 import domain.model.User;
 import domain.port.in.UserService;
+import domain.port.out.ProviderSearchPort;
 import domain.port.out.UserPersistencePort;
 import infrastructure.adapter.in.web.security.RequesterContext;
 import infrastructure.adapter.in.web.security.SpringSecurityUser;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -24,8 +28,13 @@ import java.util.*;
 @Transactional
 public class UserServiceImpl implements UserService {
 
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 50;
+
     private final UserPersistencePort userPersistencePort;
     private final PasswordEncoder passwordEncoder;
+    private final ProviderSearchPort providerSearchPort;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     @Override
@@ -55,7 +64,9 @@ public class UserServiceImpl implements UserService {
             newUser.setRoles(new HashSet<>(Collections.singleton(Role.CLIENT)));
         }
 
-        return userPersistencePort.save(newUser);
+        User savedUser = userPersistencePort.save(newUser);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser, false));
+        return savedUser;
     }
 
     @Override
@@ -130,7 +141,9 @@ public class UserServiceImpl implements UserService {
             }
         }
 
-        return userPersistencePort.save(existingUser);
+        User savedUser = userPersistencePort.save(existingUser);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser, false));
+        return savedUser;
     }
 
     @Override
@@ -152,7 +165,11 @@ public class UserServiceImpl implements UserService {
     @Override
     @PreAuthorize("hasRole('ADMIN')")
     public void deleteUserById(Long id) {
+        User userToDelete = userPersistencePort.findById(id)
+                .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado con id: " + id));
+
         userPersistencePort.deleteById(id);
+        eventPublisher.publishEvent(new UserChangedEvent(userToDelete, true));
     }
 
     @Override
@@ -162,13 +179,14 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new UserNotFoundException("No se encontró un usuario con el UUID: " + uuid));
 
         userPersistencePort.deleteByUuid(uuid);
+        eventPublisher.publishEvent(new UserChangedEvent(userToDelete, true));
     }
 
     @Override
     @Transactional(readOnly = true)
     @PreAuthorize("hasRole('ADMIN')")
-    public List<User> getAllUsers() {
-        return userPersistencePort.findAll();
+    public Slice<User> getAllUsers(Long afterId, int pageSize) {
+        return userPersistencePort.findAll(afterId, Slice.boundedPageSize(pageSize));
     }
 
 
@@ -192,7 +210,13 @@ public class UserServiceImpl implements UserService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<User> findPublicProviders(String searchQuery) {
-        return userPersistencePort.findUsersByRoleAndUsernameContaining(Role.PROVIDER, searchQuery);
+    public List<User> findPublicProviders(String searchQuery, int limit) {
+        int boundedLimit = limit <= 0 ? DEFAULT_SEARCH_LIMIT : Math.min(limit, MAX_SEARCH_LIMIT);
+        String query = searchQuery == null ? "" : searchQuery;
+        if (providerSearchPort.isReady()) {
+            return providerSearchPort.search(query, boundedLimit);
+        }
+        // El índice aún se está cargando: se responde desde la base de datos
+        return userPersistencePort.findUsersByRoleAndUsernameContaining(Role.PROVIDER, query, boundedLimit);
     }
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+package application.service;
+
+import domain.exception.*;
+import domain.model.*;
+import domain.port.in.WaitlistService;
+import domain.port.out.BookingPersistencePort;
+import domain.port.out.TimeSlotPersistencePort;
+import domain.port.out.UserPersistencePort;
+import domain.port.out.WaitlistPersistencePort;
+import infrastructure.adapter.in.web.security.SpringSecurityUser;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class WaitlistServiceImpl implements WaitlistService {
+
+    private final WaitlistPersistencePort waitlistPersistencePort;
+    private final TimeSlotPersistencePort timeSlotPersistencePort;
+    private final BookingPersistencePort bookingPersistencePort;
+    private final UserPersistencePort userPersistencePort;
+
+    @Override
+    @PreAuthorize("hasRole('CLIENT') and not @customSecurity.isTimeSlotProvider(#timeSlotUuid)")
+    public WaitlistEntry joinWaitlist(UUID timeSlotUuid) {
+        User client = getAuthenticatedClient();
+
+        TimeSlot timeSlot = timeSlotPersistencePort.findByUuid(timeSlotUuid)
+                .orElseThrow(() -> new TimeSlotNotFoundException("TimeSlot with UUID " + timeSlotUuid + " not found."));
+
+        // Solo tiene sentido esperar plaza en un slot futuro y lleno
+        if (timeSlot.getStartTime().isBefore(Instant.now())) {
+            throw new ServiceNotAvailableException("Cannot join the waitlist of a past event.");
+        }
+        if (timeSlot.getStatus() != TimeSlotStatus.FULL) {
+            throw new ServiceNotAvailableException("Only full time slots have a waitlist. Status: " + timeSlot.getStatus());
+        }
+
+        boolean hasBooking = bookingPersistencePort.findByClientAndTimeSlot(client, timeSlot)
+                .filter(booking -> booking.getStatus() != BookingStatus.HOLD_EXPIRED)
+                .isPresent();
+        if (hasBooking) {
+            throw new DuplicateBookingException("You already have a booking for this time slot.");
+        }
+        if (waitlistPersistencePort.existsWaitingByClientAndTimeSlot(client, timeSlot)) {
+            throw new DuplicateWaitlistEntryException("You are already on the waitlist for this time slot.");
+        }
+
+        WaitlistEntry entry = WaitlistEntry.builder()
+                .client(client)
+                .timeSlot(timeSlot)
+                .status(WaitlistStatus.WAITING)
+                .build();
+
+        WaitlistEntry savedEntry = waitlistPersistencePort.save(entry);
+        savedEntry.setPosition(waitlistPersistencePort.findPosition(savedEntry));
+        return savedEntry;
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN') or @customSecurity.isWaitlistEntryClient(#entryUuid)")
+    public WaitlistEntry leaveWaitlist(UUID entryUuid) {
+        WaitlistEntry entry = waitlistPersistencePort.findByUuid(entryUuid)
+                .orElseThrow(() -> new WaitlistEntryNotFoundException("Waitlist entry with UUID " + entryUuid + " not found."));
+
+        // UPDATE condicional: si una cancelación acaba de promocionar la entrada, no se pisa su estado
+        if (!waitlistPersistencePort.markLeft(entry)) {
+            throw new WaitlistEntryNotWaitingException("This waitlist entry is no longer waiting.");
+        }
+        entry.leave();
+        return entry;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @PreAuthorize("isAuthenticated()")
+    public Slice<WaitlistEntry> findMyWaitlistEntries(Long afterId, int pageSize) {
+        User client = getAuthenticatedClient();
+
+        Slice<WaitlistEntry> entries = waitlistPersistencePort.findWaitingByClient(client, afterId, Slice.boundedPageSize(pageSize));
+        Map<Long, Integer> positions = waitlistPersistencePort.findPositions(entries.content());
+        entries.content().forEach(entry -> entry.setPosition(positions.get(entry.getId())));
+        return entries;
+    }
+
+    private User getAuthenticatedClient() {
+        UUID clientUuid = ((SpringSecurityUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getUuid();
+        return userPersistencePort.findByUuid(clientUuid)
+                .orElseThrow(() -> new UserNotFoundException("Authenticated client not found."));
+    }
+}
@@ -0,0 +1,12 @@
+package domain.event;
+
+import domain.model.Booking;
+import domain.model.BookingStatus;
+
+/**
+ * Un booking se ha creado o ha cambiado de estado.
+ * @param booking el booking con su estado nuevo.
+ * @param previousStatus el estado anterior, o null si el booking es nuevo.
+ */
+public record BookingStatusChangedEvent(Booking booking, BookingStatus previousStatus) {
+}
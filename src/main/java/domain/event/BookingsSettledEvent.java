@@ -0,0 +1,20 @@
+package domain.event;
+
+import domain.model.BookingStatus;
+import domain.model.TimeSlot;
+
+import java.math.BigDecimal;
+
+/**
+ * Los bookings de un slot terminado que estaban en un estado han pasado en bloque a su estado final.
+ * Equivale a {@code count} BookingStatusChangedEvent, pero sin cargar ni publicar cada booking.
+ * @param timeSlot el slot, con su servicio y proveedor.
+ * @param previousStatus el estado que tenían.
+ * @param newStatus el estado final.
+ * @param count cuántos bookings han cambiado.
+ * @param seats cuántas plazas ocupaban entre todos.
+ * @param totalPaid suma de lo pagado por esos bookings.
+ */
+public record BookingsSettledEvent(TimeSlot timeSlot, BookingStatus previousStatus, BookingStatus newStatus,
+                                   int count, int seats, BigDecimal totalPaid) {
+}
@@ -0,0 +1,11 @@
+package domain.event;
+
+import java.util.UUID;
+
+/**
+ * Un servicio ofrecido se ha creado, modificado o eliminado.
+ * @param serviceUuid el UUID del servicio.
+ * @param providerUuid el UUID de su proveedor.
+ */
+public record OfferedServiceChangedEvent(UUID serviceUuid, UUID providerUuid) {
+}
@@ -0,0 +1,28 @@
+package domain.event;
+
+import domain.model.TimeSlot;
+
+import java.util.UUID;
+
+/**
+ * Un TimeSlot se ha creado, cancelado o ha cambiado su ocupación.
+ * @param timeSlot el slot con su estado nuevo.
+ * @param change el tipo de cambio.
+ */
+public record TimeSlotChangedEvent(TimeSlot timeSlot, Change change) {
+
+    public enum Change {
+        CREATED,
+        CANCELLED,
+        // Han cambiado las plazas ocupadas sin que haya un booking concreto (p. ej. retenciones caducadas)
+        OCCUPANCY_CHANGED
+    }
+
+    public UUID timeSlotUuid() {
+        return timeSlot.getUuid();
+    }
+
+    public UUID serviceUuid() {
+        return timeSlot.getOfferedService().getUuid();
+    }
+}
@@ -0,0 +1,11 @@
+package domain.event;
+
+import domain.model.User;
+
+/**
+ * Un usuario se ha creado, modificado o eliminado.
+ * @param user el usuario con sus datos nuevos (los últimos conocidos si se ha eliminado).
+ * @param deleted true si el usuario se ha eliminado.
+ */
+public record UserChangedEvent(User user, boolean deleted) {
+}
@@ -0,0 +1,16 @@
+package domain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Se lanza cuando un booking cambia de estado (otra cancelación, la caducidad de su retención o su pago)
+ * entre que se lee y se cancela.
+ * Mapea a un código de estado HTTP 409 Conflict.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class BookingNotCancellableException extends RuntimeException {
+    public BookingNotCancellableException(String message) {
+        super(message);
+    }
+}
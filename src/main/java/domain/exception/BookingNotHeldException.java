@@ -0,0 +1,16 @@
+package domain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Se lanza cuando se intenta confirmar como retención de plaza un booking que no lo es
+ * (ya confirmado, cancelado o creado sin retención).
+ * Mapea a un código de estado HTTP 409 Conflict.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class BookingNotHeldException extends RuntimeException {
+    public BookingNotHeldException(String message) {
+        super(message);
+    }
+}
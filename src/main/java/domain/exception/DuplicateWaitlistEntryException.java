@@ -0,0 +1,16 @@
+package domain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Se lanza cuando un cliente intenta apuntarse a la lista de espera de un TimeSlot
+ * en la que ya está esperando.
+ * Mapea a un código de estado HTTP 409 Conflict.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class DuplicateWaitlistEntryException extends RuntimeException {
+    public DuplicateWaitlistEntryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package domain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Se lanza cuando se reutiliza una Idempotency-Key con una petición distinta de la original.
+ * Mapea a un código de estado HTTP 422 Unprocessable Entity.
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package domain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Se lanza cuando llega un duplicado de una petición idempotente cuya ejecución original
+ * sigue en curso (normalmente en otro nodo). El cliente puede reintentar en unos instantes.
+ * Mapea a un código de estado HTTP 409 Conflict.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotentRequestInProgressException extends RuntimeException {
+    public IdempotentRequestInProgressException(String message) {
+        super(message);
+    }
+}
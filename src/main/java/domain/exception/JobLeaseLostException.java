@@ -0,0 +1,10 @@
+package domain.exception;
+
+/**
+ * El nodo ya no tiene el lease del trabajo (ha caducado y lo tiene otro): el lote en curso se deshace.
+ */
+public class JobLeaseLostException extends RuntimeException {
+    public JobLeaseLostException(String message) {
+        super(message);
+    }
+}
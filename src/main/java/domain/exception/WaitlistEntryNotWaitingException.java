@@ -0,0 +1,16 @@
+package domain.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Se lanza cuando se intenta sacar de la cola una entrada de lista de espera que ya no está
+ * esperando (ya promocionada, cerrada o abandonada).
+ * Mapea a un código de estado HTTP 409 Conflict.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class WaitlistEntryNotWaitingException extends RuntimeException {
+    public WaitlistEntryNotWaitingException(String message) {
+        super(message);
+    }
+}
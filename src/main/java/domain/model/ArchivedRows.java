@@ -0,0 +1,11 @@
+package domain.model;
+
+/**
+ * Filas movidas al archivo en un lote.
+ * @param timeSlots slots archivados.
+ * @param bookings bookings archivados junto con sus slots.
+ */
+public record ArchivedRows(int timeSlots, int bookings) {
+
+    public static final ArchivedRows NONE = new ArchivedRows(0, 0);
+}
@@ -0,0 +1,6 @@
+package domain.model;
+
+public enum BatchBookingMode {
+    ALL_OR_NOTHING, // Si algún slot no se puede reservar, no se reserva ninguno
+    BEST_EFFORT     // Se reservan los slots que se puedan
+}
@@ -0,0 +1,11 @@
+package domain.model;
+
+public enum BatchBookingOutcome {
+    BOOKED,          // Plaza reservada
+    NOT_FOUND,       // El slot no existe
+    OWN_SLOT,        // El slot es de un servicio del propio usuario
+    NOT_AVAILABLE,   // El slot está cancelado
+    FULL,            // No quedan plazas suficientes para el grupo
+    ALREADY_BOOKED,  // El cliente ya tiene un booking en el slot
+    SKIPPED          // Se podía reservar, pero otro slot del lote falló (modo ALL_OR_NOTHING)
+}
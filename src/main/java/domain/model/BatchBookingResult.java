@@ -0,0 +1,28 @@
+package domain.model;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Resultado de reservar varios slots de una vez, con una entrada por slot en el orden pedido.
+ * @param mode el modo con el que se pidió el lote.
+ * @param items el resultado de cada slot.
+ */
+public record BatchBookingResult(BatchBookingMode mode, List<Item> items) {
+
+    public boolean allBooked() {
+        return items.stream().allMatch(item -> item.outcome() == BatchBookingOutcome.BOOKED);
+    }
+
+    public List<Booking> bookings() {
+        return items.stream().filter(item -> item.booking() != null).map(Item::booking).toList();
+    }
+
+    /**
+     * @param timeSlotUuid el slot pedido.
+     * @param outcome qué ha pasado con él.
+     * @param booking el booking creado, solo si outcome es BOOKED.
+     */
+    public record Item(UUID timeSlotUuid, BatchBookingOutcome outcome, Booking booking) {
+    }
+}
@@ -27,20 +27,31 @@ public class Booking {
     // Estado del booking
     private BookingStatus status;
 
-    // El precio que se pagó, por si hay descuentos o cambios
+    // Plazas que ocupa (p. ej. una familia o un equipo en un solo booking); null equivale a 1
+    private Integer partySize;
+
+    // El precio que se pagó (por todas sus plazas), por si hay descuentos o cambios
     private BigDecimal pricePaid;
 
     // Notas adicionales del cliente
     private String notes;
 
+    // Fin de la retención de plaza mientras el booking está en PENDING_PAYMENT (null si no es una retención)
+    private Instant holdExpiresAt;
+
     private Instant createdAt;
     private Instant updatedAt;
 
     // --- Lógica de Dominio ---
 
+    public int occupiedSeats() {
+        return partySize == null ? 1 : partySize;
+    }
+
     public void confirm() {
         if (this.status == BookingStatus.PENDING_PAYMENT || this.status == BookingStatus.AWAITING_CONFIRMATION) {
             this.status = BookingStatus.CONFIRMED;
+            this.holdExpiresAt = null;
             this.updatedAt = Instant.now();
         } else {
             throw new IllegalStateException("Booking cannot be confirmed from status: " + this.status);
@@ -50,9 +61,30 @@ public class Booking {
     public void cancel() {
         if (this.status == BookingStatus.CONFIRMED || this.status == BookingStatus.PENDING_PAYMENT) {
             this.status = BookingStatus.CANCELLED_BY_CLIENT;
+            this.holdExpiresAt = null;
             this.updatedAt = Instant.now();
         } else {
             throw new IllegalStateException("Booking cannot be cancelled from status: " + this.status);
         }
     }
+
+    /**
+     * Una retención caducada ya no ocupa plaza aunque el barrido aún no la haya marcado como HOLD_EXPIRED.
+     */
+    public boolean isHoldExpired(Instant now) {
+        return this.status == BookingStatus.PENDING_PAYMENT && this.holdExpiresAt != null && !this.holdExpiresAt.isAfter(now);
+    }
+
+    /**
+     * Reactiva como nueva retención o reserva un booking cuya retención caducó
+     * (la restricción única cliente/slot impide crear una fila nueva).
+     */
+    public void reopen(BookingStatus newStatus, Instant newHoldExpiresAt) {
+        if (this.status != BookingStatus.HOLD_EXPIRED) {
+            throw new IllegalStateException("Booking cannot be reopened from status: " + this.status);
+        }
+        this.status = newStatus;
+        this.holdExpiresAt = newHoldExpiresAt;
+        this.updatedAt = Instant.now();
+    }
 }
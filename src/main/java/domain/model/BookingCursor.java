@@ -0,0 +1,15 @@
+package domain.model;
+
+import java.time.Instant;
+
+/**
+ * Posición en un listado de bookings ordenado por la hora de inicio de su slot y el id del booking.
+ * @param startTime hora de inicio del slot del último booking devuelto.
+ * @param id id del último booking devuelto (desempata bookings de slots a la misma hora).
+ */
+public record BookingCursor(Instant startTime, Long id) {
+
+    public static BookingCursor after(Booking booking) {
+        return new BookingCursor(booking.getTimeSlot().getStartTime(), booking.getId());
+    }
+}
@@ -1,5 +1,8 @@
 package domain.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum BookingStatus {
     PENDING_PAYMENT,        // Esperando el pago del cliente
     AWAITING_CONFIRMATION,  // Pagado, esperando confirmación del proveedor (si es necesario)
@@ -7,5 +10,55 @@ public enum BookingStatus {
     CANCELLED_BY_CLIENT,    // Cancelado por el cliente
     CANCELLED_BY_PROVIDER,  // Cancelado porque el proveedor canceló el TimeSlot
     COMPLETED,              // El cliente asistió
-    NO_SHOW                 // El cliente no se presentó
+    NO_SHOW,                // El cliente no se presentó
+    HOLD_EXPIRED;           // La retención de plaza caducó sin completarse el pago
+
+    /**
+     * Estados en los que el booking ocupa una plaza del TimeSlot.
+     */
+    public static final Set<BookingStatus> SEAT_HOLDING = EnumSet.of(PENDING_PAYMENT, AWAITING_CONFIRMATION, CONFIRMED);
+
+    /**
+     * Estados que cuentan como plaza vendida en las estadísticas del proveedor.
+     * Una retención (PENDING_PAYMENT) no es una venta hasta que se paga.
+     */
+    public static final Set<BookingStatus> SOLD = EnumSet.of(AWAITING_CONFIRMATION, CONFIRMED, COMPLETED, NO_SHOW);
+
+    public boolean holdsSeat() {
+        return SEAT_HOLDING.contains(this);
+    }
+
+    public boolean isSold() {
+        return SOLD.contains(this);
+    }
+
+    public boolean isCancelled() {
+        return this == CANCELLED_BY_CLIENT || this == CANCELLED_BY_PROVIDER;
+    }
+
+    /**
+     * Estado final de un booking que sigue ocupando plaza cuando su slot ya ha terminado:
+     * el confirmado se da por asistido, el que nadie confirmó pasa a no presentado (sigue siendo una venta)
+     * y la retención sin pagar caduca (nunca fue una venta). Los demás estados ya son finales.
+     */
+    public BookingStatus settledStatus() {
+        return switch (this) {
+            case CONFIRMED -> COMPLETED;
+            case AWAITING_CONFIRMATION -> NO_SHOW;
+            case PENDING_PAYMENT -> HOLD_EXPIRED;
+            default -> this;
+        };
+    }
+
+    /**
+     * Estado final de un booking que sigue ocupando plaza cuando su slot, cancelado por el proveedor, ya ha terminado:
+     * lo vendido queda cancelado por el proveedor y la retención sin pagar caduca.
+     */
+    public BookingStatus settledStatusOfCancelledSlot() {
+        return switch (this) {
+            case CONFIRMED, AWAITING_CONFIRMATION -> CANCELLED_BY_PROVIDER;
+            case PENDING_PAYMENT -> HOLD_EXPIRED;
+            default -> this;
+        };
+    }
 }
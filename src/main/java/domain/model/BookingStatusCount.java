@@ -0,0 +1,9 @@
+package domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Número de bookings de un slot en un estado, las plazas que ocupan y la suma de lo pagado por ellos.
+ */
+public record BookingStatusCount(Long timeSlotId, BookingStatus status, int count, int seats, BigDecimal totalPaid) {
+}
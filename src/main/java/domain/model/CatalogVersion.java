@@ -0,0 +1,19 @@
+package domain.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Versión del catálogo visible de un servicio o de un proveedor. Se incrementa con cada cambio
+ * de sus slots, bookings o servicios, y sirve para responder peticiones condicionales (ETag)
+ * sin consultar esas tablas.
+ * @param scopeUuid el UUID del servicio o del proveedor.
+ * @param version contador de cambios (0 si nunca ha cambiado).
+ * @param updatedAt instante del último cambio, o null si nunca ha cambiado.
+ */
+public record CatalogVersion(UUID scopeUuid, long version, Instant updatedAt) {
+
+    public static CatalogVersion initial(UUID scopeUuid) {
+        return new CatalogVersion(scopeUuid, 0, null);
+    }
+}
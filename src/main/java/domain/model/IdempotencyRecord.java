@@ -0,0 +1,46 @@
+package domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Respuesta registrada para una petición con cabecera Idempotency-Key.
+ * Las claves son por usuario: dos clientes pueden usar la misma clave sin interferir.
+ * Mientras la petición original se ejecuta, el registro es una reserva de la clave sin respuesta
+ * (responseStatus nulo) que caduca pronto, por si el nodo que la ejecuta se cae.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdempotencyRecord {
+
+    private Long id;
+
+    // Usuario que hizo la petición original
+    private UUID requesterUuid;
+    private String idempotencyKey;
+
+    // Huella (SHA-256) de la petición original, para detectar reutilizaciones de la clave con otro cuerpo
+    private String requestHash;
+
+    // Respuesta original (nula mientras la petición sigue en curso)
+    private Integer responseStatus;
+    private String responseBody;
+
+    private Instant createdAt;
+    private Instant expiresAt;
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+
+    public boolean isPending() {
+        return responseStatus == null;
+    }
+}
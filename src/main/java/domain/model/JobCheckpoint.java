@@ -0,0 +1,23 @@
+package domain.model;
+
+import java.time.Instant;
+
+/**
+ * Marca de avance de un trabajo por lotes. Se guarda en la misma transacción que cada lote,
+ * así que tras una caída el trabajo continúa justo después del último lote confirmado.
+ * La marca es una clave (instante, id) cuyo significado decide cada trabajo (inicio o fin del slot...).
+ * @param jobName nombre del trabajo.
+ * @param watermarkTime instante de la clave del último elemento procesado, o null si aún no ha procesado ninguno.
+ * @param watermarkId id del último elemento procesado, o null si aún no ha procesado ninguno.
+ * @param updatedAt instante del último avance.
+ */
+public record JobCheckpoint(String jobName, Instant watermarkTime, Long watermarkId, Instant updatedAt) {
+
+    public static JobCheckpoint initial(String jobName) {
+        return new JobCheckpoint(jobName, null, null, null);
+    }
+
+    public boolean isInitial() {
+        return watermarkTime == null;
+    }
+}
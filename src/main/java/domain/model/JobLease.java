@@ -0,0 +1,15 @@
+package domain.model;
+
+import java.time.Instant;
+
+/**
+ * Derecho temporal de un nodo a ejecutar un trabajo (o una de sus partes).
+ * @param name nombre del lease (ver JobShard.name).
+ * @param owner nodo que lo tiene.
+ * @param fencingToken crece cada vez que el lease cambia de manos; las escrituras del trabajo solo se
+ *                     confirman si el token sigue siendo el vigente, así que un nodo que lo ha perdido sin
+ *                     enterarse (pausa larga, red partida) no puede pisar el trabajo del nuevo dueño.
+ * @param expiresAt instante en que otro nodo puede quedárselo si no se renueva.
+ */
+public record JobLease(String name, String owner, long fencingToken, Instant expiresAt) {
+}
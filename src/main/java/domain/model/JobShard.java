@@ -0,0 +1,31 @@
+package domain.model;
+
+/**
+ * Parte de un trabajo por lotes: los elementos cuyo id cumple {@code id % count == index}.
+ * Cada parte tiene su propio lease y su propia marca de avance, así que varios nodos pueden
+ * recorrer a la vez partes distintas de la misma tabla.
+ * @param index número de la parte (0..count-1).
+ * @param count número total de partes.
+ */
+public record JobShard(int index, int count) {
+
+    public static final JobShard ALL = new JobShard(0, 1);
+
+    public JobShard {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid job shard " + index + " of " + count);
+        }
+    }
+
+    /**
+     * Nombre del lease y de la marca de avance de esta parte. Con una sola parte es el nombre del trabajo,
+     * y el número de partes forma parte del nombre: si cambia, cada parte empieza su recorrido desde el principio.
+     */
+    public String name(String jobName) {
+        return count == 1 ? jobName : jobName + "/" + index + "-of-" + count;
+    }
+
+    public boolean contains(long id) {
+        return Math.floorMod(id, count) == index;
+    }
+}
@@ -0,0 +1,14 @@
+package domain.model;
+
+/**
+ * Filtros del listado de servicios ofrecidos.
+ * @param nameContains texto que debe contener el nombre, sin distinguir mayúsculas (opcional).
+ * @param ownerId id interno del proveedor dueño (opcional).
+ * @param activeOnly true para incluir solo los servicios activos.
+ */
+public record OfferedServiceFilter(String nameContains, Long ownerId, boolean activeOnly) {
+
+    public OfferedServiceFilter {
+        nameContains = (nameContains == null || nameContains.isBlank()) ? null : nameContains;
+    }
+}
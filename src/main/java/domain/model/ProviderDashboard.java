@@ -0,0 +1,11 @@
+package domain.model;
+
+import java.util.List;
+
+/**
+ * Resumen del panel de un proveedor.
+ * @param upcomingSlots los próximos slots de sus servicios, por hora de inicio.
+ * @param weeklyStats estadísticas por servicio y semana del rango pedido.
+ */
+public record ProviderDashboard(List<TimeSlot> upcomingSlots, List<ServiceWeeklyStats> weeklyStats) {
+}
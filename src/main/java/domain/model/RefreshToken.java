@@ -0,0 +1,17 @@
+package domain.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Token de refresco guardado. Del token solo se guarda su hash: quien lea la tabla no puede usarlo.
+ * @param tokenHash SHA-256 (hex) del token que tiene el cliente.
+ * @param familyId los tokens que salen unos de otros al refrescar comparten familia; si uno ya usado
+ *                 vuelve a presentarse (lo ha robado alguien), se revoca la familia entera.
+ * @param userId el usuario al que pertenece.
+ * @param expiresAt a partir de cuándo no sirve.
+ * @param usedAt cuándo se cambió por otro (null si sigue vigente).
+ * @param revokedAt cuándo se revocó (logout o reutilización detectada), o null.
+ */
+public record RefreshToken(String tokenHash, UUID familyId, Long userId, Instant expiresAt, Instant usedAt, Instant revokedAt) {
+}
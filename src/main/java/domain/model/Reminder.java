@@ -0,0 +1,9 @@
+package domain.model;
+
+/**
+ * Recordatorio de un booking próximo, listo para enviarse al cliente.
+ * @param kind qué recordatorio es (24 h o 1 h antes).
+ * @param booking el booking, con su cliente, slot y servicio.
+ */
+public record Reminder(ReminderKind kind, Booking booking) {
+}
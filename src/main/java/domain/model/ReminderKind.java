@@ -0,0 +1,40 @@
+package domain.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Recordatorios que recibe un cliente antes de su slot.
+ */
+public enum ReminderKind {
+    DAY_BEFORE(Duration.ofHours(24)),
+    HOUR_BEFORE(Duration.ofHours(1));
+
+    private final Duration leadTime;
+
+    ReminderKind(Duration leadTime) {
+        this.leadTime = leadTime;
+    }
+
+    /**
+     * Antelación respecto a la hora de inicio del slot.
+     */
+    public Duration leadTime() {
+        return leadTime;
+    }
+
+    /**
+     * Instante en el que toca enviar este recordatorio para un booking.
+     */
+    public Instant dueAt(Booking booking) {
+        return booking.getTimeSlot().getStartTime().minus(leadTime);
+    }
+
+    /**
+     * Nombre de la marca de avance de este recordatorio en job_checkpoints.
+     */
+    public String jobName() {
+        return "booking-reminder-" + name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
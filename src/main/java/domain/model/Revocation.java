@@ -0,0 +1,19 @@
+package domain.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Revocación de tokens de acceso antes de que caduquen.
+ * @param type TOKEN revoca un token concreto; USER, todos los emitidos a un usuario hasta {@code revokedAt}.
+ * @param subject el id (jti) del token, o el UUID del usuario.
+ * @param revokedAt instante de la revocación.
+ * @param expiresAt a partir de cuándo ya no hace falta: los tokens afectados han caducado todos.
+ */
+public record Revocation(Type type, UUID subject, Instant revokedAt, Instant expiresAt) {
+
+    public enum Type {
+        TOKEN,
+        USER
+    }
+}
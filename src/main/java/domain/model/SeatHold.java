@@ -0,0 +1,11 @@
+package domain.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Retención temporal de plaza: un booking en PENDING_PAYMENT que caduca en {@code expiresAt}.
+ * Es lo mínimo que necesita el barrido de caducidad, sin cargar el booking completo.
+ */
+public record SeatHold(Long bookingId, UUID timeSlotUuid, Instant expiresAt) {
+}
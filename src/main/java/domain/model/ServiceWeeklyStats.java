@@ -0,0 +1,46 @@
+package domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Estadísticas de un servicio en una semana (de lunes a domingo, UTC) según la hora de inicio de sus slots.
+ * Se mantienen de forma incremental con los eventos de slots y bookings.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ServiceWeeklyStats {
+
+    private UUID serviceUuid;
+    private String serviceName;
+    private LocalDate weekStart;
+
+    // Slots no cancelados y plazas que ofrecen
+    private int slotCount;
+    private int capacity;
+
+    // Plazas vendidas (BookingStatus.SOLD) y lo cobrado por ellas
+    private int bookedSeats;
+    private BigDecimal revenue;
+
+    private int cancellations;
+    private int noShows;
+    private int completed;
+
+    // --- Lógica de Dominio ---
+
+    /**
+     * Fracción de plazas vendidas sobre las ofrecidas (0 si la semana no tiene plazas).
+     */
+    public double getFillRate() {
+        return capacity <= 0 ? 0.0 : (double) bookedSeats / capacity;
+    }
+}
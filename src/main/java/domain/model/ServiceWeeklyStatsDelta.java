@@ -0,0 +1,25 @@
+package domain.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Variación de las estadísticas semanales de un servicio provocada por un único evento.
+ * Se suma tal cual sobre la fila agregada, así que cada campo puede ser negativo.
+ */
+public record ServiceWeeklyStatsDelta(int slotCount, int capacity, int bookedSeats, BigDecimal revenue,
+                                      int cancellations, int noShows, int completed) {
+
+    public static final ServiceWeeklyStatsDelta ZERO =
+            new ServiceWeeklyStatsDelta(0, 0, 0, BigDecimal.ZERO, 0, 0, 0);
+
+    public ServiceWeeklyStatsDelta plus(ServiceWeeklyStatsDelta other) {
+        return new ServiceWeeklyStatsDelta(slotCount + other.slotCount, capacity + other.capacity,
+                bookedSeats + other.bookedSeats, revenue.add(other.revenue), cancellations + other.cancellations,
+                noShows + other.noShows, completed + other.completed);
+    }
+
+    public boolean isZero() {
+        return slotCount == 0 && capacity == 0 && bookedSeats == 0 && revenue.signum() == 0
+                && cancellations == 0 && noShows == 0 && completed == 0;
+    }
+}
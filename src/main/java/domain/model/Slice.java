@@ -0,0 +1,38 @@
+package domain.model;
+
+import java.util.List;
+
+/**
+ * Porción de un listado paginado por clave (keyset): no se cuenta el total, solo se sabe
+ * si hay más elementos detrás del último devuelto.
+ * @param content los elementos de esta porción, en el orden del listado.
+ * @param hasNext true si existen más elementos después del último.
+ */
+public record Slice<T>(List<T> content, boolean hasNext) {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    // Ningún listado devuelve más filas por petición, pida lo que pida el cliente
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Ajusta el tamaño de página pedido al rango permitido (por defecto si no es positivo).
+     */
+    public static int boundedPageSize(int requested) {
+        return requested <= 0 ? DEFAULT_PAGE_SIZE : Math.min(requested, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Construye la porción a partir de una consulta que pidió un elemento de más (limit + 1)
+     * para saber si hay página siguiente sin contar.
+     */
+    public static <T> Slice<T> fromOverfetched(List<T> rows, int limit) {
+        if (rows.size() > limit) {
+            return new Slice<>(List.copyOf(rows.subList(0, limit)), true);
+        }
+        return new Slice<>(List.copyOf(rows), false);
+    }
+
+    public T last() {
+        return content.isEmpty() ? null : content.get(content.size() - 1);
+    }
+}
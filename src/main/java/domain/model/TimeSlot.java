@@ -34,6 +34,12 @@ public class TimeSlot {
     // Estado del slot
     private TimeSlotStatus status;
 
+    // Versión de la fila cuando se leyó; al guardar, si otro la ha cambiado entre tanto, falla
+    private Long version;
+
+    // Plazas ocupadas según el contador de la fila (bookings que retienen plaza)
+    private Integer bookedSeats;
+
     // Las reservas (bookings) asociadas a este slot
     @Builder.Default // Para que Lombok inicialice el set aunque no se especifique en el builder
     private Set<Booking> bookings = new HashSet<>();
@@ -41,6 +47,9 @@ public class TimeSlot {
     // --- Lógica de Dominio ---
 
     public int getBookedCount() {
+        if (bookedSeats != null) {
+            return bookedSeats;
+        }
         return bookings == null ? 0 : bookings.size();
     }
 
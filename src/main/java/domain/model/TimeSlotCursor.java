@@ -0,0 +1,16 @@
+package domain.model;
+
+import java.time.Instant;
+
+/**
+ * Posición en un listado de slots ordenado por (startTime, id). La página siguiente empieza
+ * justo después de esta clave, así que su coste no depende de cuántas páginas haya delante.
+ * @param startTime hora de inicio del último slot devuelto.
+ * @param id id interno del último slot devuelto (desempata slots a la misma hora).
+ */
+public record TimeSlotCursor(Instant startTime, Long id) {
+
+    public static TimeSlotCursor after(TimeSlot timeSlot) {
+        return new TimeSlotCursor(timeSlot.getStartTime(), timeSlot.getId());
+    }
+}
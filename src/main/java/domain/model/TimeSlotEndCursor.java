@@ -0,0 +1,15 @@
+package domain.model;
+
+import java.time.Instant;
+
+/**
+ * Posición en un recorrido de slots ordenado por hora de fin y id.
+ * @param endTime hora de fin del último slot procesado.
+ * @param id id del último slot procesado (desempata slots que terminan a la misma hora).
+ */
+public record TimeSlotEndCursor(Instant endTime, Long id) {
+
+    public static TimeSlotEndCursor after(TimeSlot timeSlot) {
+        return new TimeSlotEndCursor(timeSlot.getEndTime(), timeSlot.getId());
+    }
+}
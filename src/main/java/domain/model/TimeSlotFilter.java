@@ -0,0 +1,18 @@
+package domain.model;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Filtros del listado de slots de un proveedor.
+ * @param statuses estados a incluir (todos si es null o vacío).
+ * @param from incluye solo los slots que empiezan en este instante o después (opcional).
+ * @param to incluye solo los slots que empiezan antes de este instante (opcional).
+ */
+public record TimeSlotFilter(Set<TimeSlotStatus> statuses, Instant from, Instant to) {
+
+    public TimeSlotFilter {
+        statuses = (statuses == null || statuses.isEmpty()) ? EnumSet.allOf(TimeSlotStatus.class) : EnumSet.copyOf(statuses);
+    }
+}
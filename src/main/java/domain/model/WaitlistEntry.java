@@ -0,0 +1,53 @@
+package domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class WaitlistEntry {
+
+    private Long id;
+    private UUID uuid;
+
+    // El slot lleno para el que el cliente espera plaza
+    private TimeSlot timeSlot;
+
+    // El cliente que espera
+    private User client;
+
+    private WaitlistStatus status;
+
+    // Posición en la cola (1 = el siguiente en ser promocionado). Calculado, no persistido.
+    private Integer position;
+
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    // --- Lógica de Dominio ---
+
+    public void promote() {
+        if (this.status != WaitlistStatus.WAITING) {
+            throw new IllegalStateException("Waitlist entry cannot be promoted from status: " + this.status);
+        }
+        this.status = WaitlistStatus.PROMOTED;
+        this.position = null;
+        this.updatedAt = Instant.now();
+    }
+
+    public void leave() {
+        if (this.status != WaitlistStatus.WAITING) {
+            throw new IllegalStateException("Waitlist entry cannot be left from status: " + this.status);
+        }
+        this.status = WaitlistStatus.LEFT;
+        this.position = null;
+        this.updatedAt = Instant.now();
+    }
+}
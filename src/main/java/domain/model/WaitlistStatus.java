@@ -0,0 +1,8 @@
+package domain.model;
+
+public enum WaitlistStatus {
+    WAITING,    // En la cola, esperando a que se libere una plaza
+    PROMOTED,   // Se liberó una plaza y se convirtió en un booking confirmado
+    LEFT,       // El cliente abandonó la lista de espera
+    CLOSED      // Se cerró sin promoción: el cliente consiguió plaza en el slot por otra vía
+}
@@ -0,0 +1,41 @@
+package domain.port.in;
+
+import domain.model.Booking;
+import domain.model.BookingCursor;
+import domain.model.Slice;
+import domain.model.TimeSlot;
+import domain.model.TimeSlotCursor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Puerto de entrada para consultar los slots y bookings archivados (solo administración).
+ */
+public interface ArchiveService {
+
+    /**
+     * Slots archivados de un proveedor por hora de inicio, paginados por cursor.
+     * @param providerUuid UUID del proveedor.
+     * @param after posición del último slot de la página anterior, o null para la primera página.
+     * @param pageSize tamaño de página pedido (se limita a Slice.MAX_PAGE_SIZE).
+     * @return una página de slots archivados.
+     */
+    Slice<TimeSlot> findArchivedTimeSlotsByProvider(UUID providerUuid, TimeSlotCursor after, int pageSize);
+
+    /**
+     * Bookings archivados de un slot archivado.
+     * @param timeSlotUuid UUID del slot.
+     * @return los bookings del slot (vacío si el slot no está en el archivo).
+     */
+    List<Booking> findArchivedBookingsByTimeSlot(UUID timeSlotUuid);
+
+    /**
+     * Bookings archivados de un cliente, del más reciente al más antiguo, paginados por cursor.
+     * @param clientUuid UUID del cliente.
+     * @param before posición del último booking de la página anterior, o null para la primera página.
+     * @param pageSize tamaño de página pedido (se limita a Slice.MAX_PAGE_SIZE).
+     * @return una página de bookings archivados.
+     */
+    Slice<Booking> findArchivedBookingsByClient(UUID clientUuid, BookingCursor before, int pageSize);
+}
@@ -1,6 +1,10 @@
 package domain.port.in;
 
+import domain.model.BatchBookingMode;
+import domain.model.BatchBookingResult;
 import domain.model.Booking;
+import domain.model.BookingCursor;
+import domain.model.Slice;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,11 +19,42 @@ public interface BookingService {
     /**
      * Crea un nuevo booking para el usuario autenticado en un TimeSlot específico.
      * @param timeSlotUuid el UUID del TimeSlot al que el cliente desea unirse.
+     * @param partySize plazas que ocupa el booking (el cliente y sus acompañantes); todas o ninguna.
      * @param notes notas adicionales del cliente para el booking.
      * @return el Booking creado y confirmado.
      * @throws // ... excepciones de negocio
      */
-    Booking createBooking(UUID timeSlotUuid, String notes);
+    Booking createBooking(UUID timeSlotUuid, int partySize, String notes);
+
+    /**
+     * Reserva de una vez varios TimeSlots para el usuario autenticado (por ejemplo, todas las sesiones de un curso).
+     * Los slots de servicios propios, cancelados, llenos o ya reservados no se reservan y se indican en el resultado.
+     * @param timeSlotUuids los UUID de los slots (los repetidos cuentan una vez).
+     * @param partySize plazas que ocupa cada booking.
+     * @param notes notas adicionales del cliente para cada booking.
+     * @param mode ALL_OR_NOTHING no reserva ninguno si falla alguno; BEST_EFFORT reserva los que puede.
+     * @return el resultado de cada slot, en el orden pedido.
+     */
+    BatchBookingResult createBookings(List<UUID> timeSlotUuids, int partySize, String notes, BatchBookingMode mode);
+
+    /**
+     * Retiene temporalmente una plaza para el usuario autenticado mientras completa el pago.
+     * La retención cuenta para la capacidad del slot y caduca sola si no se confirma a tiempo.
+     * @param timeSlotUuid el UUID del TimeSlot.
+     * @param partySize plazas que se retienen.
+     * @param notes notas adicionales del cliente para el booking.
+     * @return el Booking en estado PENDING_PAYMENT, con la fecha de caducidad de la retención.
+     */
+    Booking holdSeat(UUID timeSlotUuid, int partySize, String notes);
+
+    /**
+     * Confirma una retención de plaza (por ejemplo, tras recibir el pago).
+     * @param bookingUuid el UUID del booking retenido.
+     * @return el booking confirmado.
+     * @throws domain.exception.ServiceNotAvailableException si la retención ya ha caducado.
+     * @throws domain.exception.BookingNotHeldException si el booking no es una retención pendiente.
+     */
+    Booking confirmHold(UUID bookingUuid);
 
     /**
      * Busca un booking por su UUID.
@@ -29,10 +64,20 @@ public interface BookingService {
     Optional<Booking> findBookingByUuid(UUID bookingUuid);
 
     /**
-     * Obtiene todos los bookings del usuario autenticado.
-     * @return una lista de los bookings del cliente.
+     * Obtiene los próximos bookings del usuario autenticado (slots que aún no han empezado), del más cercano al más lejano.
+     * @param after posición del último booking de la página anterior, o null para la primera página.
+     * @param pageSize tamaño de página pedido (se limita a Slice.MAX_PAGE_SIZE).
+     * @return una página de los próximos bookings del cliente.
+     */
+    Slice<Booking> findMyUpcomingBookings(BookingCursor after, int pageSize);
+
+    /**
+     * Obtiene el histórico del usuario autenticado (slots ya empezados, incluidos los archivados), del más reciente al más antiguo.
+     * @param before posición del último booking de la página anterior, o null para la primera página.
+     * @param pageSize tamaño de página pedido (se limita a Slice.MAX_PAGE_SIZE).
+     * @return una página del histórico del cliente.
      */
-    List<Booking> findMyBookings();
+    Slice<Booking> findMyBookingHistory(BookingCursor before, int pageSize);
 
     /**
      * Permite a un cliente cancelar uno de sus bookings.
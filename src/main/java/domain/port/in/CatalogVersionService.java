@@ -0,0 +1,19 @@
+package domain.port.in;
+
+import domain.model.CatalogVersion;
+
+import java.util.UUID;
+
+/**
+ * Puerto de entrada para consultar las versiones del catálogo público.
+ * Las versiones se incrementan solas al recibir los eventos de dominio de slots, bookings y servicios.
+ */
+public interface CatalogVersionService {
+
+    /**
+     * Obtiene la versión actual del calendario de un servicio o del listado de servicios de un proveedor.
+     * @param scopeUuid el UUID del servicio o del proveedor.
+     * @return la versión actual (0 si nunca ha cambiado).
+     */
+    CatalogVersion getVersion(UUID scopeUuid);
+}
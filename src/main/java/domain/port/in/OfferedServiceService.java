@@ -2,6 +2,7 @@ package domain.port.in;
 
 import domain.exception.*;
 import domain.model.OfferedService;
+import domain.model.Slice;
 
 import java.util.List;
 import java.util.Optional;
@@ -59,15 +60,16 @@ public interface OfferedServiceService {
     void deleteOfferedService(UUID serviceUuid);
 
     /**
-     * Lista todos los servicios ofrecidos en el sistema (generalmente para administradores).
+     * Lista los servicios ofrecidos en el sistema por páginas (generalmente para administradores).
      *
-     *                  verificar si el solicitante tiene permisos de administrador.
-     * @return Una lista de todos los servicios.
+     * @param afterId id del último servicio de la página anterior, o null para la primera página.
+     * @param pageSize tamaño de página pedido (se limita a Slice.MAX_PAGE_SIZE).
+     * @return Una página de servicios.
      * @throws org.springframework.security.access.AccessDeniedException Si el solicitante no es un administrador.
      */
-    List<OfferedService> findAllServices();
+    Slice<OfferedService> findAllServices(Long afterId, int pageSize);
 
-    public List<OfferedService> findAllActiveServices();
+    public Slice<OfferedService> findAllActiveServices(Long afterId, int pageSize);
 
     /**
      * Lista los servicios ofrecidos que pertenecen al usuario autenticado.
@@ -79,7 +81,14 @@ public interface OfferedServiceService {
      */
     List<OfferedService> findMyServices(String nameContains, boolean activeOnly);
 
-    public List<OfferedService> findAllServicesForAdmin(String nameContains, Optional<UUID> ownerUuid, boolean activeOnly);
+    /**
+     * Lista por páginas los servicios que cumplen los filtros (solo administradores).
+     * @param activeOnly `true` para obtener solo los servicios activos, `false` para todos.
+     * @param afterId id del último servicio de la página anterior, o null para la primera página.
+     * @param pageSize tamaño de página pedido (se limita a Slice.MAX_PAGE_SIZE).
+     */
+    public Slice<OfferedService> findAllServicesForAdmin(String nameContains, Optional<UUID> ownerUuid, boolean activeOnly,
+                                                         Long afterId, int pageSize);
 
     /**
      * Busca todos los servicios activos de un proveedor específico.
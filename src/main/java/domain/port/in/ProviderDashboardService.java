@@ -0,0 +1,19 @@
+package domain.port.in;
+
+import domain.model.ProviderDashboard;
+
+import java.time.LocalDate;
+
+/**
+ * Puerto de entrada para el panel del proveedor autenticado.
+ */
+public interface ProviderDashboardService {
+
+    /**
+     * Obtiene los próximos slots y las estadísticas semanales de los servicios del proveedor autenticado.
+     * @param from un día de la primera semana a incluir.
+     * @param to un día de la última semana a incluir.
+     * @return el panel del proveedor.
+     */
+    ProviderDashboard getMyDashboard(LocalDate from, LocalDate to);
+}
@@ -1,6 +1,9 @@
 package domain.port.in;
 
+import domain.model.Slice;
 import domain.model.TimeSlot;
+import domain.model.TimeSlotCursor;
+import domain.model.TimeSlotFilter;
 
 import java.time.Instant;
 import java.util.List;
@@ -45,4 +48,14 @@ public interface TimeSlotService {
      * @return una lista de TimeSlots disponibles.
      */
     List<TimeSlot> findAvailableTimeSlots(UUID serviceUuid, Instant from, Instant to);
-}
\ No newline at end of file
+
+    /**
+     * Lista los slots de un proveedor por hora de inicio, paginando por clave (requiere ser el proveedor o ADMIN).
+     * @param providerUuid el UUID del proveedor.
+     * @param filter estados y rango de fechas a incluir.
+     * @param after la posición del último slot de la página anterior, o null para la primera página.
+     * @param pageSize tamaño de página pedido (se limita a Slice.MAX_PAGE_SIZE).
+     * @return la página de slots.
+     */
+    Slice<TimeSlot> findTimeSlotsByProvider(UUID providerUuid, TimeSlotFilter filter, TimeSlotCursor after, int pageSize);
+}
@@ -1,5 +1,6 @@
 package domain.port.in;
 
+import domain.model.Slice;
 import domain.model.User;
 import domain.exception.*;
 import org.springframework.security.access.AccessDeniedException;
@@ -73,13 +74,15 @@ public interface UserService {
     void deleteUserByUuid(UUID uuid);
 
     /**
-     * Lista todos los usuarios del sistema.
+     * Lista los usuarios del sistema por páginas, ordenados por id.
      * Esta operación está restringida a usuarios con rol de administrador.
      *
-     * @return Una lista de todos los usuarios.
+     * @param afterId id del último usuario de la página anterior, o null para la primera página.
+     * @param pageSize tamaño de página pedido (se limita a Slice.MAX_PAGE_SIZE).
+     * @return Una página de usuarios.
      * @throws AccessDeniedException Si el 'requester' no es un administrador.
      */
-    List<User> getAllUsers();
+    Slice<User> getAllUsers(Long afterId, int pageSize);
 
     // Métodos para la gestión del propio usuario (ej. /api/me/user)
     /**
@@ -110,9 +113,10 @@ public interface UserService {
     /**
      * Busca perfiles públicos de proveedores.
      * @param searchQuery Término de búsqueda para el nombre de usuario.
-     * @return Una lista de usuarios con rol PROVIDER que coincidan.
+     * @param limit Número máximo de resultados (se limita a un máximo).
+     * @return Una lista de usuarios con rol PROVIDER que coincidan, por relevancia.
      */
-    List<User> findPublicProviders(String searchQuery);
+    List<User> findPublicProviders(String searchQuery, int limit);
 
 
 
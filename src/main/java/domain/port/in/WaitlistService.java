@@ -0,0 +1,38 @@
+package domain.port.in;
+
+import domain.model.Slice;
+import domain.model.WaitlistEntry;
+
+import java.util.UUID;
+
+/**
+ * Puerto de entrada para la gestión de las listas de espera de TimeSlots llenos.
+ * Cuando un cliente cancela su booking, la plaza pasa automáticamente al primero de la cola.
+ */
+public interface WaitlistService {
+
+    /**
+     * Apunta al usuario autenticado a la lista de espera de un TimeSlot lleno.
+     * @param timeSlotUuid el UUID del TimeSlot.
+     * @return la entrada creada, con su posición en la cola.
+     * @throws domain.exception.ServiceNotAvailableException si el slot no está lleno o ya ha pasado.
+     * @throws domain.exception.DuplicateWaitlistEntryException si el cliente ya está en la cola.
+     */
+    WaitlistEntry joinWaitlist(UUID timeSlotUuid);
+
+    /**
+     * Saca una entrada de la lista de espera.
+     * @param entryUuid el UUID de la entrada.
+     * @return la entrada actualizada con estado LEFT.
+     * @throws domain.exception.WaitlistEntryNotWaitingException si la entrada ya no estaba esperando.
+     */
+    WaitlistEntry leaveWaitlist(UUID entryUuid);
+
+    /**
+     * Obtiene las entradas en espera del usuario autenticado, con su posición, en orden de inscripción.
+     * @param afterId id de la última entrada de la página anterior, o null para la primera.
+     * @param pageSize tamaño de página pedido (se limita a Slice.MAX_PAGE_SIZE).
+     * @return una porción de las entradas WAITING.
+     */
+    Slice<WaitlistEntry> findMyWaitlistEntries(Long afterId, int pageSize);
+}
@@ -0,0 +1,75 @@
+package domain.port.out;
+
+import domain.model.ArchivedRows;
+import domain.model.Booking;
+import domain.model.BookingCursor;
+import domain.model.JobShard;
+import domain.model.Slice;
+import domain.model.TimeSlot;
+import domain.model.TimeSlotCursor;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Puerto de persistencia para el archivo de slots y bookings pasados (tablas time_slots_archive y bookings_archive).
+ * Las filas archivadas guardan una copia de los datos del servicio, de modo que se leen sin tocar las tablas vivas.
+ */
+public interface ArchivePersistencePort {
+
+    /**
+     * Claves (startTime, id) de los slots vivos que empezaron antes de un instante, en orden y a partir de una posición.
+     * @param cutoff solo slots que empiezan antes de este instante.
+     * @param shard solo slots de esta parte del recorrido.
+     * @param after la posición del último slot archivado, o null para empezar desde el principio.
+     * @param limit número máximo de claves.
+     * @return las claves de los slots que se pueden archivar.
+     */
+    List<TimeSlotCursor> findArchivableTimeSlots(Instant cutoff, JobShard shard, TimeSlotCursor after, int limit);
+
+    /**
+     * Slots, de entre los indicados, que aún tienen bookings sin cerrar (que ocupan plaza): no se pueden archivar
+     * hasta que el cierre de bookings los pase a su estado final.
+     * @param timeSlotIds ids internos de los slots.
+     * @return los ids de los que aún no están cerrados.
+     */
+    Set<Long> findUnsettledTimeSlots(Collection<Long> timeSlotIds);
+
+    /**
+     * Mueve al archivo los slots indicados junto con sus bookings, en la transacción actual.
+     * Respeta la cadena de claves foráneas: primero copia slots y bookings, luego borra bookings y
+     * entradas de lista de espera, y por último los slots (nunca uno que conserve bookings sin archivar).
+     * @param timeSlotIds ids internos de los slots.
+     * @param archivedAt instante del archivado.
+     * @return las filas movidas.
+     */
+    ArchivedRows archiveTimeSlots(Collection<Long> timeSlotIds, Instant archivedAt);
+
+    /**
+     * Página de slots archivados de un proveedor, por hora de inicio ascendente.
+     * @param providerUuid UUID del proveedor.
+     * @param after la posición del último slot de la página anterior, o null para la primera página.
+     * @param limit número máximo de slots de la página.
+     * @return la página de slots archivados.
+     */
+    Slice<TimeSlot> findArchivedTimeSlotsByProvider(UUID providerUuid, TimeSlotCursor after, int limit);
+
+    /**
+     * Bookings archivados de un slot archivado (acotados por su capacidad).
+     * @param timeSlotUuid UUID del slot.
+     * @return los bookings de ese slot, vacío si el slot no está archivado.
+     */
+    List<Booking> findArchivedBookingsByTimeSlot(UUID timeSlotUuid);
+
+    /**
+     * Página de bookings archivados de un cliente, del más reciente al más antiguo.
+     * @param clientUuid UUID del cliente.
+     * @param before la posición del último booking de la página anterior, o null para la primera página.
+     * @param limit número máximo de bookings de la página.
+     * @return la página de bookings archivados.
+     */
+    Slice<Booking> findArchivedBookingsByClient(UUID clientUuid, BookingCursor before, int limit);
+}
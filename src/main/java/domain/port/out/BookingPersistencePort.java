@@ -1,9 +1,16 @@
 package domain.port.out;
 
 import domain.model.Booking;
+import domain.model.BookingCursor;
+import domain.model.BookingStatus;
+import domain.model.BookingStatusCount;
+import domain.model.SeatHold;
+import domain.model.Slice;
 import domain.model.TimeSlot;
 import domain.model.User;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,6 +28,13 @@ public interface BookingPersistencePort {
      */
     Booking save(Booking booking);
 
+    /**
+     * Guarda varios bookings cuyos TimeSlots ya se han cargado en la misma transacción.
+     * @param bookings los bookings a guardar.
+     * @return los bookings guardados, en el mismo orden.
+     */
+    List<Booking> saveAll(List<Booking> bookings);
+
     /**
      * Busca un booking por su UUID.
      * @param bookingUuid el UUID del booking.
@@ -36,11 +50,55 @@ public interface BookingPersistencePort {
     void deleteByUuid(UUID bookingUuid);
 
     /**
-     * Busca todos los bookings realizados por un cliente específico.
+     * Página de bookings de un cliente en slots que aún no han empezado, por hora de inicio ascendente.
+     * Solo lee la tabla viva (el conjunto pequeño de bookings próximos).
+     * @param client el usuario cliente.
+     * @param now instante a partir del cual un slot se considera próximo.
+     * @param after la posición del último booking de la página anterior, o null para la primera página.
+     * @param limit número máximo de bookings de la página.
+     * @return la página de bookings próximos.
+     */
+    Slice<Booking> findUpcomingByClient(User client, Instant now, BookingCursor after, int limit);
+
+    /**
+     * Página del histórico de un cliente (slots ya empezados), del más reciente al más antiguo.
+     * Incluye los bookings archivados y los pasados que aún no se han archivado.
      * @param client el usuario cliente.
-     * @return una lista de bookings para ese cliente.
+     * @param now instante antes del cual un slot se considera pasado.
+     * @param before la posición del último booking de la página anterior, o null para la primera página.
+     * @param limit número máximo de bookings de la página.
+     * @return la página del histórico.
+     */
+    Slice<Booking> findHistoryByClient(User client, Instant now, BookingCursor before, int limit);
+
+    /**
+     * Cuenta, por slot y estado, los bookings de esos slots que aún ocupan plaza, bloqueándolos
+     * hasta el final de la transacción para que el recuento coincida con lo que cambie {@link #settle}.
+     * @param timeSlotIds ids internos de los slots.
+     * @return un recuento por cada (slot, estado) con bookings.
      */
-    List<Booking> findByClient(User client);
+    List<BookingStatusCount> lockSeatHoldingByTimeSlots(Collection<Long> timeSlotIds);
+
+    /**
+     * Pasa en una sola sentencia todos los bookings de esos slots de un estado a otro.
+     * @param timeSlotIds ids internos de los slots.
+     * @param from estado actual de los bookings que se cambian.
+     * @param to estado nuevo.
+     * @param now instante del cambio.
+     * @return número de bookings cambiados.
+     */
+    int settle(Collection<Long> timeSlotIds, BookingStatus from, BookingStatus to, Instant now);
+
+    /**
+     * Bookings en alguno de los estados dados (con cliente, slot y servicio) cuyos slots empiezan
+     * después de una posición y no más tarde de un instante, por hora de inicio.
+     * @param statuses estados de los bookings buscados.
+     * @param after posición del último booking ya leído.
+     * @param until hora de inicio máxima (incluida).
+     * @param limit número máximo de bookings.
+     * @return los bookings encontrados.
+     */
+    List<Booking> findStartingBetween(Collection<BookingStatus> statuses, BookingCursor after, Instant until, int limit);
 
     /**
      * Busca todos los bookings asociados a un TimeSlot específico.
@@ -50,10 +108,12 @@ public interface BookingPersistencePort {
     List<Booking> findByTimeSlot(TimeSlot timeSlot);
 
     /**
-     * Cuenta el número de bookings existentes para un TimeSlot específico.
+     * Cuenta el número de bookings que ocupan plaza en un TimeSlot específico
+     * (ver {@link domain.model.BookingStatus#SEAT_HOLDING}); los cancelados y las retenciones
+     * vencidas no cuentan.
      * Es crucial para validar la capacidad del slot antes de crear un nuevo booking.
      * @param timeSlot el slot de tiempo a consultar.
-     * @return el número de bookings asociados.
+     * @return el número de bookings que ocupan plaza.
      */
     long countByTimeSlot(TimeSlot timeSlot);
 
@@ -65,4 +125,55 @@ public interface BookingPersistencePort {
      * @return true si ya existe un booking, false en caso contrario.
      */
     boolean existsByClientAndTimeSlot(User client, TimeSlot timeSlot);
+
+    /**
+     * Busca el booking de un cliente para un TimeSlot, sea cual sea su estado.
+     * @param client el usuario cliente.
+     * @param timeSlot el slot de tiempo.
+     * @return un Optional con el booking si existe.
+     */
+    Optional<Booking> findByClientAndTimeSlot(User client, TimeSlot timeSlot);
+
+    /**
+     * Busca en una sola consulta los bookings de un cliente en varios TimeSlots, sea cual sea su estado.
+     * @param client el usuario cliente.
+     * @param timeSlotIds los ids de los slots.
+     * @return los bookings encontrados (como mucho uno por slot).
+     */
+    List<Booking> findByClientAndTimeSlots(User client, Collection<Long> timeSlotIds);
+
+    /**
+     * Busca las retenciones de plaza (PENDING_PAYMENT con caducidad) que vencen antes de un instante,
+     * ordenadas por caducidad.
+     * @param until límite superior de caducidad.
+     * @param limit número máximo de retenciones a devolver.
+     * @return las retenciones encontradas.
+     */
+    List<SeatHold> findHoldsExpiringBefore(Instant until, int limit);
+
+    /**
+     * Marca como HOLD_EXPIRED, en una sola sentencia, las retenciones del lote que sigan pendientes y hayan vencido.
+     * @param bookingIds los IDs de los bookings retenidos.
+     * @param now el instante de referencia.
+     * @return el número de retenciones caducadas.
+     */
+    int expireHolds(Collection<Long> bookingIds, Instant now);
+
+    /**
+     * Confirma una retención si sigue pendiente y no ha vencido (UPDATE condicional, sin bloqueos).
+     * @param booking el booking retenido.
+     * @param now el instante de referencia.
+     * @return true si se ha confirmado, false si ya había caducado o cambiado de estado.
+     */
+    boolean confirmHold(Booking booking, Instant now);
+
+    /**
+     * Cancela un booking si sigue en el estado en que se leyó (UPDATE condicional, sin bloqueos): compite
+     * limpiamente con otra cancelación, con el barrido de retenciones y con la confirmación del pago.
+     * @param booking el booking, ya cancelado en memoria.
+     * @param from el estado en que se leyó.
+     * @param now el instante de referencia.
+     * @return true si se ha cancelado, false si entre tanto había cambiado de estado.
+     */
+    boolean cancel(Booking booking, BookingStatus from, Instant now);
 }
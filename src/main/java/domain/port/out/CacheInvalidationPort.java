@@ -0,0 +1,34 @@
+package domain.port.out;
+
+import java.util.function.Consumer;
+
+/**
+ * Puerto de salida para que las cachés en memoria de cada nodo se enteren de los cambios hechos en los demás.
+ * El nodo que hace un cambio ya actualiza sus propias cachés (con los eventos de dominio tras el commit);
+ * este puerto solo lo anuncia al resto, que lo recibe con un retraso acotado. La implementación se elige
+ * con reservas.cache-bus.type.
+ */
+public interface CacheInvalidationPort {
+
+    /** Clave: UUID del usuario. */
+    String USERS = "users";
+    /** Clave: UUID del slot cuyas plazas libres han cambiado. */
+    String TIME_SLOTS = "time-slots";
+    /** Clave: id del slot cuya cola de espera ha cambiado. */
+    String WAITLIST = "waitlist";
+
+    /**
+     * Anuncia a los demás nodos que una clave ha cambiado. Se llama después del commit.
+     * Un fallo se registra y no se propaga: el cambio ya está confirmado.
+     * @param namespace espacio de claves (una de las constantes de este puerto).
+     * @param key la clave que ha cambiado.
+     */
+    void publish(String namespace, String key);
+
+    /**
+     * Registra una caché para recibir las claves que cambian en otros nodos.
+     * @param namespace espacio de claves que interesa.
+     * @param handler recibe cada clave; no debería bloquear ni consultar la BD durante mucho tiempo.
+     */
+    void subscribe(String namespace, Consumer<String> handler);
+}
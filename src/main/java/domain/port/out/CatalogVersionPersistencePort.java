@@ -0,0 +1,27 @@
+package domain.port.out;
+
+import domain.model.CatalogVersion;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Puerto de persistencia para las versiones del catálogo (tabla catalog_versions).
+ */
+public interface CatalogVersionPersistencePort {
+
+    /**
+     * Busca la versión actual de un servicio o proveedor (lectura por clave primaria).
+     * @param scopeUuid el UUID del servicio o del proveedor.
+     * @return un Optional con la versión si alguna vez ha cambiado.
+     */
+    Optional<CatalogVersion> findByScope(UUID scopeUuid);
+
+    /**
+     * Incrementa la versión, creándola si no existe.
+     * @param scopeUuid el UUID del servicio o del proveedor.
+     * @param now el instante del cambio.
+     */
+    void increment(UUID scopeUuid, Instant now);
+}
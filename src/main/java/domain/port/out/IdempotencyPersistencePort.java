@@ -0,0 +1,59 @@
+package domain.port.out;
+
+import domain.model.IdempotencyRecord;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Puerto de persistencia para las respuestas registradas con Idempotency-Key.
+ */
+public interface IdempotencyPersistencePort {
+
+    /**
+     * Guarda la respuesta de una petición idempotente.
+     * @param record el registro a guardar.
+     * @return el registro guardado.
+     */
+    IdempotencyRecord save(IdempotencyRecord record);
+
+    /**
+     * Reserva la clave para ejecutar la petición original: inserta el registro pendiente o,
+     * si ya existía uno caducado, lo sustituye.
+     * Si otra petición inserta la misma clave a la vez, la restricción única hace fallar la transacción.
+     * @param claim el registro pendiente (sin respuesta) con la caducidad de la reserva.
+     * @param now el instante de referencia.
+     * @return true si la clave queda reservada para esta petición, false si ya hay un registro vigente.
+     */
+    boolean claim(IdempotencyRecord claim, Instant now);
+
+    /**
+     * Registra la respuesta en la reserva de la clave, solo si sigue pendiente y es de la misma petición.
+     * @param record el registro con la respuesta y su caducidad definitiva.
+     * @return true si se ha registrado.
+     */
+    boolean complete(IdempotencyRecord record);
+
+    /**
+     * Libera la reserva pendiente de una clave (la petición original no ha tenido éxito).
+     * @param requesterUuid el UUID del usuario.
+     * @param idempotencyKey la clave enviada por el cliente.
+     */
+    void release(UUID requesterUuid, String idempotencyKey);
+
+    /**
+     * Busca la respuesta registrada para una clave de un usuario.
+     * @param requesterUuid el UUID del usuario.
+     * @param idempotencyKey la clave enviada por el cliente.
+     * @return un Optional con el registro si existe.
+     */
+    Optional<IdempotencyRecord> findByRequesterAndKey(UUID requesterUuid, String idempotencyKey);
+
+    /**
+     * Elimina los registros caducados.
+     * @param now el instante de referencia.
+     * @return el número de registros eliminados.
+     */
+    int deleteExpired(Instant now);
+}
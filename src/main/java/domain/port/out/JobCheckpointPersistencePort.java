@@ -0,0 +1,24 @@
+package domain.port.out;
+
+import domain.model.JobCheckpoint;
+
+import java.util.Optional;
+
+/**
+ * Puerto de persistencia para las marcas de avance de los trabajos por lotes (tabla job_checkpoints).
+ */
+public interface JobCheckpointPersistencePort {
+
+    /**
+     * Busca la marca de avance de un trabajo.
+     * @param jobName nombre del trabajo.
+     * @return un Optional con la marca si el trabajo ha avanzado alguna vez.
+     */
+    Optional<JobCheckpoint> findByJobName(String jobName);
+
+    /**
+     * Guarda (crea o sustituye) la marca de avance de un trabajo.
+     * @param checkpoint la nueva marca.
+     */
+    void save(JobCheckpoint checkpoint);
+}
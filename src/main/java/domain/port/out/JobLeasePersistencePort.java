@@ -0,0 +1,38 @@
+package domain.port.out;
+
+import domain.model.JobLease;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Puerto de persistencia para los leases de los trabajos programados (tabla job_leases),
+ * que garantizan que cada trabajo (o parte) lo ejecuta un solo nodo a la vez.
+ */
+public interface JobLeasePersistencePort {
+
+    /**
+     * Se queda el lease si está libre o caducado, en una transacción propia, y aumenta su token.
+     * @param name nombre del lease.
+     * @param owner nodo que lo pide.
+     * @param now instante actual.
+     * @param expiresAt hasta cuándo se lo queda si no lo renueva.
+     * @return el lease obtenido, o vacío si lo tiene otro nodo.
+     */
+    Optional<JobLease> tryAcquire(String name, String owner, Instant now, Instant expiresAt);
+
+    /**
+     * Renueva el lease en la transacción actual, solo si su token sigue siendo el vigente.
+     * La fila queda bloqueada hasta el commit, así que nadie puede quitárselo mientras el lote se confirma.
+     * @param lease el lease que se tiene.
+     * @param expiresAt nuevo vencimiento.
+     * @return false si el lease ya es de otro nodo.
+     */
+    boolean renew(JobLease lease, Instant expiresAt);
+
+    /**
+     * Libera el lease, en una transacción propia, si sigue siendo de este nodo con el mismo token.
+     * @param lease el lease que se tiene.
+     */
+    void release(JobLease lease);
+}
@@ -0,0 +1,16 @@
+package domain.port.out;
+
+import domain.model.Reminder;
+
+/**
+ * Puerto de salida para avisar a los clientes (email, push...).
+ * Las implementaciones se eligen con reservas.notifications.channel.
+ */
+public interface NotificationPort {
+
+    /**
+     * Envía un recordatorio. Se llama como mucho una vez por booking y tipo de recordatorio.
+     * @param reminder el recordatorio a enviar.
+     */
+    void send(Reminder reminder);
+}
@@ -1,6 +1,8 @@
 package domain.port.out;
 
 import domain.model.OfferedService;
+import domain.model.OfferedServiceFilter;
+import domain.model.Slice;
 
 import java.util.List;
 import java.util.Optional;
@@ -30,18 +32,13 @@ public interface OfferedServicePersistencePort {
     void deleteByUuid(UUID serviceUuid); // Podría devolver boolean para indicar si se eliminó
 
     /**
-     * Obtiene todos los servicios ofrecidos.
-     * (Considerar la paginación).
-     * @return una lista de todos los servicios ofrecidos.
+     * Obtiene una página de servicios ofrecidos que cumplen los filtros, por id ascendente.
+     * @param filter nombre, proveedor y estado a incluir.
+     * @param afterId id del último servicio de la página anterior, o null para la primera página.
+     * @param limit número máximo de servicios de la página.
+     * @return la página de servicios.
      */
-    List<OfferedService> findAll();
-
-    /**
-     * Obtiene todos los servicios ofrecidos que están activos.
-     * Útil para mostrar a los clientes solo los servicios disponibles.
-     * @return una lista de todos los servicios activos.
-     */
-    List<OfferedService> findAllActive();
+    Slice<OfferedService> findAll(OfferedServiceFilter filter, Long afterId, int limit);
 
     /**
      * Busca un servicio ofrecido por su nombre.
@@ -0,0 +1,53 @@
+package domain.port.out;
+
+import domain.model.User;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Puerto para el índice de búsqueda de proveedores por nombre de usuario.
+ * Se mantiene con los cambios de usuarios ya confirmados y se precarga al arrancar,
+ * de modo que la búsqueda pública no consulta la base de datos.
+ */
+public interface ProviderSearchPort {
+
+    /**
+     * Añade o sustituye un proveedor en el índice.
+     * @param provider el proveedor con sus datos actuales.
+     */
+    void index(User provider);
+
+    /**
+     * Quita un usuario del índice (si estaba).
+     * @param userUuid el UUID del usuario.
+     */
+    void remove(UUID userUuid);
+
+    /**
+     * Carga un lote de la precarga inicial. No sobrescribe proveedores que ya se hayan indexado
+     * o eliminado por un cambio posterior al inicio de la precarga.
+     * @param providers los proveedores leídos de la base de datos.
+     */
+    void warmUp(Collection<User> providers);
+
+    /**
+     * Marca la precarga como terminada: a partir de aquí el índice está completo.
+     */
+    void markReady();
+
+    /**
+     * @return true si la precarga ha terminado.
+     */
+    boolean isReady();
+
+    /**
+     * Busca proveedores cuyo nombre de usuario contenga el texto, sin distinguir mayúsculas.
+     * Los resultados se ordenan por relevancia: coincidencia exacta, prefijo y después el resto.
+     * @param query el texto a buscar (vacío devuelve los primeros proveedores por nombre).
+     * @param limit número máximo de resultados.
+     * @return los proveedores encontrados, por relevancia.
+     */
+    List<User> search(String query, int limit);
+}
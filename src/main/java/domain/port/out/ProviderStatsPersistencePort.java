@@ -0,0 +1,32 @@
+package domain.port.out;
+
+import domain.model.ServiceWeeklyStats;
+import domain.model.ServiceWeeklyStatsDelta;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Puerto de persistencia para las estadísticas agregadas de los proveedores
+ * (tabla provider_service_weekly_stats).
+ */
+public interface ProviderStatsPersistencePort {
+
+    /**
+     * Suma una variación a la fila de un servicio y semana, creándola si no existe.
+     * @param serviceId el id interno del servicio.
+     * @param providerId el id interno del proveedor dueño del servicio.
+     * @param weekStart el lunes de la semana.
+     * @param delta la variación a sumar.
+     */
+    void applyDelta(Long serviceId, Long providerId, LocalDate weekStart, ServiceWeeklyStatsDelta delta);
+
+    /**
+     * Busca las estadísticas de todos los servicios de un proveedor en un rango de semanas.
+     * @param providerId el id interno del proveedor.
+     * @param fromWeek el lunes de la primera semana (incluida).
+     * @param toWeek el lunes de la última semana (incluida).
+     * @return las filas ordenadas por semana y nombre de servicio.
+     */
+    List<ServiceWeeklyStats> findByProvider(Long providerId, LocalDate fromWeek, LocalDate toWeek);
+}
@@ -0,0 +1,50 @@
+package domain.port.out;
+
+import domain.model.RefreshToken;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Puerto de persistencia para los tokens de refresco (tabla refresh_tokens).
+ */
+public interface RefreshTokenPersistencePort {
+
+    /**
+     * Guarda un token nuevo.
+     * @param token el token, sin usar ni revocar.
+     */
+    void save(RefreshToken token);
+
+    /**
+     * Busca un token por el hash del valor que presenta el cliente.
+     * @param tokenHash SHA-256 (hex) del token.
+     * @return un Optional con el token, usado o no, si existe.
+     */
+    Optional<RefreshToken> findByHash(String tokenHash);
+
+    /**
+     * Marca el token como usado solo si aún no lo estaba ni estaba revocado (UPDATE condicional),
+     * para que de dos refrescos simultáneos con el mismo token solo uno lo consiga.
+     * @param tokenHash SHA-256 (hex) del token.
+     * @param now el instante del uso.
+     * @return true si este uso es el primero.
+     */
+    boolean markUsed(String tokenHash, Instant now);
+
+    /**
+     * Revoca todos los tokens aún no revocados de una familia.
+     * @param familyId la familia.
+     * @param now el instante de la revocación.
+     * @return el número de tokens revocados.
+     */
+    int revokeFamily(UUID familyId, Instant now);
+
+    /**
+     * Elimina los tokens caducados.
+     * @param now el instante de referencia.
+     * @return el número de tokens eliminados.
+     */
+    int deleteExpired(Instant now);
+}
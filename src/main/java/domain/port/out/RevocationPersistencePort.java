@@ -0,0 +1,56 @@
+package domain.port.out;
+
+import domain.model.Revocation;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Puerto de persistencia para las revocaciones de tokens de acceso (tabla revocations),
+ * que cada nodo copia en memoria leyendo las filas nuevas periódicamente.
+ */
+public interface RevocationPersistencePort {
+
+    /**
+     * Página de revocaciones junto con el cursor para pedir la siguiente.
+     * @param revocations las revocaciones, por id creciente.
+     * @param lastId id de la última fila, o el recibido si no hay filas.
+     * @param latestCreatedAt hora (de la BD) de la fila más reciente de la página, o null si no hay filas.
+     */
+    record Page(List<Revocation> revocations, long lastId, Instant latestCreatedAt) {
+    }
+
+    /**
+     * Guarda una revocación; la hora de creación la pone la BD.
+     */
+    void save(Revocation revocation);
+
+    /**
+     * Revocaciones aún vigentes (para cargar la lista al arrancar).
+     * @param now el instante de referencia.
+     * @param afterId cursor: solo filas con id mayor.
+     * @param limit máximo de filas.
+     */
+    Page findActive(Instant now, long afterId, int limit);
+
+    /**
+     * Revocaciones creadas (según la hora de la BD) desde un instante.
+     * @param from el instante desde el que se lee.
+     * @param afterId cursor: solo filas con id mayor.
+     * @param limit máximo de filas.
+     */
+    Page findCreatedSince(Instant from, long afterId, int limit);
+
+    /**
+     * @return hora (de la BD) de la revocación más reciente.
+     */
+    Optional<Instant> findLatestCreatedAt();
+
+    /**
+     * Elimina las revocaciones que ya no afectan a ningún token vigente.
+     * @param now el instante de referencia.
+     * @return el número de filas eliminadas.
+     */
+    int deleteExpired(Instant now);
+}
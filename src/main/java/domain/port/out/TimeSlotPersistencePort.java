@@ -1,9 +1,16 @@
 package domain.port.out;
 
+import domain.model.JobShard;
+import domain.model.Slice;
 import domain.model.TimeSlot;
+import domain.model.TimeSlotCursor;
+import domain.model.TimeSlotEndCursor;
+import domain.model.TimeSlotFilter;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -63,4 +70,72 @@ public interface TimeSlotPersistencePort {
      * @return true si existe al menos un TimeSlot futuro, false en caso contrario.
      */
     boolean hasFutureTimeSlots(UUID serviceUuid);
-}
\ No newline at end of file
+
+    /**
+     * Busca los próximos slots no cancelados de los servicios de un proveedor, por hora de inicio.
+     * @param providerUuid el UUID del proveedor.
+     * @param from instante a partir del cual empiezan los slots.
+     * @param limit número máximo de slots a devolver.
+     * @return los slots encontrados.
+     */
+    List<TimeSlot> findUpcomingByProvider(UUID providerUuid, Instant from, int limit);
+
+    /**
+     * Lista los slots de los servicios de un proveedor ordenados por (startTime, id), paginando por clave.
+     * @param providerUuid el UUID del proveedor.
+     * @param filter estados y rango de fechas a incluir.
+     * @param after la posición del último slot de la página anterior, o null para la primera página.
+     * @param limit número máximo de slots de la página.
+     * @return la página de slots.
+     */
+    Slice<TimeSlot> findTimeSlotsByProvider(UUID providerUuid, TimeSlotFilter filter, TimeSlotCursor after, int limit);
+
+    /**
+     * Slots (con su servicio y proveedor) que terminaron antes de un instante, por hora de fin, a partir de una posición.
+     * @param until solo slots que terminan antes de este instante.
+     * @param shard solo slots de esta parte del recorrido.
+     * @param after la posición del último slot procesado, o null para empezar desde el principio.
+     * @param limit número máximo de slots.
+     * @return los slots encontrados.
+     */
+    List<TimeSlot> findEndedBefore(Instant until, JobShard shard, TimeSlotEndCursor after, int limit);
+
+    /**
+     * Busca varios TimeSlots (con su servicio y proveedor) en una sola consulta.
+     * @param timeSlotUuids los UUID de los slots.
+     * @return los slots encontrados, en cualquier orden; los UUID inexistentes se omiten.
+     */
+    List<TimeSlot> findAllByUuids(Collection<UUID> timeSlotUuids);
+
+    /**
+     * Plazas libres de un slot según su contador, sin cargar el slot (0 si no está AVAILABLE).
+     * @param timeSlotUuid el UUID del slot.
+     * @return las plazas libres, o vacío si el slot no existe.
+     */
+    Optional<Integer> findFreeSeats(UUID timeSlotUuid);
+
+    /**
+     * Bloquea hasta el final de la transacción las filas de los slots no cancelados y devuelve sus plazas libres.
+     * @param timeSlotIds los ids de los slots.
+     * @return plazas libres por id de slot; los slots cancelados o inexistentes no aparecen.
+     */
+    Map<Long, Integer> lockFreeSeats(Collection<Long> timeSlotIds);
+
+    /**
+     * Ocupa plazas en cada slot indicado con un único UPDATE condicional: solo en los que no están
+     * cancelados y tienen hueco para todas. El slot pasa a FULL al ocupar la última plaza.
+     * @param timeSlotIds los ids de los slots.
+     * @param seats plazas a ocupar en cada slot (el tamaño del grupo).
+     * @return el número de slots en los que se han ocupado las plazas.
+     */
+    int claimSeats(Collection<Long> timeSlotIds, int seats);
+
+    /**
+     * Recalcula las plazas ocupadas de un slot (suma del tamaño de grupo de sus bookings) tras liberar alguna,
+     * y lo deja FULL o AVAILABLE según el resultado (salvo que esté cancelado).
+     * @param timeSlotId el id del slot.
+     * @param now las retenciones que caducan antes de este instante ya no cuentan.
+     * @return las plazas ocupadas.
+     */
+    int recountBookedSeats(Long timeSlotId, Instant now);
+}
@@ -2,6 +2,7 @@ package domain.port.out;
 
 
 import domain.model.Role;
+import domain.model.Slice;
 import domain.model.User;
 
 import java.util.List;
@@ -15,10 +16,19 @@ public interface UserPersistencePort {
     Optional<User> findByUuid(UUID uuid);
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
-    List<User> findAll();
+    /**
+     * Página de usuarios por id ascendente.
+     * @param afterId id del último usuario de la página anterior, o null para la primera página.
+     */
+    Slice<User> findAll(Long afterId, int limit);
     void deleteById(Long id);
     void deleteByUuid(UUID uuid);
     Boolean existsByEmail(String email);
     Boolean existsByUsername(String username);
-    List<User> findUsersByRoleAndUsernameContaining(Role role, String usernameQuery);
+    List<User> findUsersByRoleAndUsernameContaining(Role role, String usernameQuery, int limit);
+
+    /**
+     * Lote de usuarios con un rol, por id ascendente a partir de un id (para recorrer la tabla por partes).
+     */
+    List<User> findByRoleAfterId(Role role, Long afterId, int limit);
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package domain.port.out;
+
+import domain.model.Slice;
+import domain.model.TimeSlot;
+import domain.model.User;
+import domain.model.WaitlistEntry;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Puerto de persistencia para las listas de espera de TimeSlots llenos.
+ * El orden de la cola es FIFO por orden de inscripción.
+ */
+public interface WaitlistPersistencePort {
+
+    /**
+     * Guarda una nueva entrada o actualiza una existente.
+     * @param entry la entrada a guardar.
+     * @return la entrada guardada.
+     */
+    WaitlistEntry save(WaitlistEntry entry);
+
+    /**
+     * Busca una entrada por su UUID.
+     * @param entryUuid el UUID de la entrada.
+     * @return un Optional conteniendo la entrada si se encuentra.
+     */
+    Optional<WaitlistEntry> findByUuid(UUID entryUuid);
+
+    /**
+     * Busca las entradas en espera de un cliente, en orden de inscripción.
+     * @param client el usuario cliente.
+     * @param afterId id de la última entrada de la página anterior, o null para la primera.
+     * @param limit número máximo de entradas.
+     * @return una porción de las entradas con estado WAITING del cliente.
+     */
+    Slice<WaitlistEntry> findWaitingByClient(User client, Long afterId, int limit);
+
+    /**
+     * Verifica si el cliente ya está esperando plaza en el TimeSlot.
+     * @param client el usuario cliente.
+     * @param timeSlot el slot de tiempo.
+     * @return true si existe una entrada WAITING para ese cliente y slot.
+     */
+    boolean existsWaitingByClientAndTimeSlot(User client, TimeSlot timeSlot);
+
+    /**
+     * Devuelve la primera entrada en espera de la cola de un TimeSlot detrás de un id, sin reclamarla.
+     * La lectura puede venir de una instantánea ya superada (REPEATABLE READ): quien reclama con
+     * {@link #markPromoted} y no lo consigue debe seguir detrás de esa entrada, no volver a pedir la cabeza.
+     * @param timeSlot el slot de tiempo.
+     * @param afterId id de la última entrada ya probada, o null para empezar por la cabeza.
+     * @return la entrada WAITING más antigua detrás de {@code afterId}, si la hay.
+     */
+    Optional<WaitlistEntry> findNextWaiting(TimeSlot timeSlot, Long afterId);
+
+    /**
+     * Marca la entrada como PROMOTED solo si sigue en espera (UPDATE condicional).
+     * Dos cancelaciones concurrentes nunca promocionan la misma entrada.
+     * @param entry la entrada a reclamar.
+     * @return true si esta llamada la ha reclamado, false si otra transacción se adelantó.
+     */
+    boolean markPromoted(WaitlistEntry entry);
+
+    /**
+     * Marca la entrada como LEFT solo si sigue en espera (UPDATE condicional).
+     * @param entry la entrada a sacar de la cola.
+     * @return true si esta llamada la ha sacado, false si ya no estaba esperando.
+     */
+    boolean markLeft(WaitlistEntry entry);
+
+    /**
+     * Marca la entrada como CLOSED solo si sigue en espera (UPDATE condicional).
+     * @param entry la entrada a cerrar.
+     * @return true si esta llamada la ha cerrado.
+     */
+    boolean markClosed(WaitlistEntry entry);
+
+    /**
+     * Cierra (CLOSED) las entradas en espera de un cliente en esos TimeSlots: ya tiene plaza en ellos.
+     * @param client el usuario cliente.
+     * @param timeSlots los slots en los que ha conseguido plaza.
+     */
+    void closeWaitingByClient(User client, Collection<TimeSlot> timeSlots);
+
+    /**
+     * Calcula la posición (1..n) de una entrada en espera dentro de la cola de su TimeSlot.
+     * @param entry la entrada en espera.
+     * @return la posición en la cola.
+     */
+    int findPosition(WaitlistEntry entry);
+
+    /**
+     * Calcula la posición de varias entradas en espera, sin una consulta por entrada.
+     * @param entries las entradas en espera.
+     * @return la posición de cada una, por id de entrada.
+     */
+    Map<Long, Integer> findPositions(List<WaitlistEntry> entries);
+}
@@ -0,0 +1,201 @@
+package infrastructure.adapter.in.web.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import domain.event.BookingStatusChangedEvent;
+import domain.event.OfferedServiceChangedEvent;
+import domain.event.TimeSlotChangedEvent;
+import infrastructure.concurrency.SingleFlightGroup;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Caché de respuestas JSON ya serializadas (UTF-8) de los endpoints públicos de catálogo.
+ * Un acierto devuelve el mismo byte[] que se escribe tal cual en la respuesta: sin mapear a DTOs
+ * ni pasar por Jackson.
+ * <ul>
+ *     <li>La clave incluye la versión del catálogo, así que nunca se sirve una respuesta de una versión anterior.</li>
+ *     <li>El tamaño está acotado por el total de bytes, con expulsión LRU.</li>
+ *     <li>Los mismos eventos de dominio que incrementan la versión liberan las entradas obsoletas.</li>
+ *     <li>Los fallos simultáneos de la misma clave generan la respuesta una sola vez; el resto la espera.</li>
+ * </ul>
+ */
+@Component
+public class SerializedResponseCache {
+
+    /**
+     * @param endpoint nombre del listado ("timeslots", "provider-services"...).
+     * @param scopeUuid servicio o proveedor cuya versión determina la respuesta.
+     * @param variant resto de parámetros de la petición (rango de fechas, etc.).
+     * @param version versión del catálogo con la que se generó la respuesta.
+     */
+    public record Key(String endpoint, UUID scopeUuid, String variant, long version) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final long maxEntryBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // accessOrder=true: el primer elemento es el menos usado recientemente
+    private final LinkedHashMap<Key, byte[]> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<UUID, Set<Key>> keysByScope = new HashMap<>();
+    private long totalBytes;
+    private final SingleFlightGroup<Key, byte[]> loads = new SingleFlightGroup<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter shared;
+
+    public SerializedResponseCache(ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${reservas.response-cache.max-bytes:33554432}") long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+        // Una única respuesta enorme no debe vaciar la caché entera
+        this.maxEntryBytes = maxBytes / 8;
+        this.hits = Counter.builder("reservas.response.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("reservas.response.cache").tag("result", "miss").register(meterRegistry);
+        this.shared = Counter.builder("reservas.response.cache").tag("result", "shared").register(meterRegistry);
+        Gauge.builder("reservas.response.cache.bytes", this, SerializedResponseCache::getTotalBytes)
+                .description("Bytes ocupados por las respuestas serializadas en caché")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Devuelve la respuesta serializada de la caché o la genera, la serializa y la guarda.
+     * Si otra petición ya está generando la misma clave, espera su resultado en lugar de repetir la consulta.
+     * @param key la clave, con la versión actual del catálogo.
+     * @param body genera el cuerpo de la respuesta (DTOs) si no está en caché.
+     */
+    public byte[] getOrCompute(Key key, Supplier<?> body) {
+        byte[] cached = get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        SingleFlightGroup.Result<byte[]> result;
+        try {
+            result = loads.execute(key, () -> load(key, body));
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+        if (result.shared()) {
+            shared.increment();
+        }
+        return result.value();
+    }
+
+    private byte[] load(Key key, Supplier<?> body) {
+        // La ejecución anterior de esta clave puede haber terminado justo después de la primera lectura
+        byte[] cached = get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        byte[] serialized = serialize(body.get());
+        put(key, serialized);
+        return serialized;
+    }
+
+    public long getTotalBytes() {
+        lock.lock();
+        try {
+            return totalBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --- Invalidación: libera las entradas de versiones que ya no se van a pedir ---
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        evictScope(event.booking().getTimeSlot().getOfferedService().getUuid());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTimeSlotChanged(TimeSlotChangedEvent event) {
+        evictScope(event.serviceUuid());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOfferedServiceChanged(OfferedServiceChangedEvent event) {
+        evictScope(event.serviceUuid());
+        evictScope(event.providerUuid());
+    }
+
+    public void evictScope(UUID scopeUuid) {
+        lock.lock();
+        try {
+            Set<Key> keys = keysByScope.remove(scopeUuid);
+            if (keys != null) {
+                for (Key key : keys) {
+                    byte[] removed = entries.remove(key);
+                    if (removed != null) {
+                        totalBytes -= removed.length;
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] get(Key key) {
+        lock.lock();
+        try {
+            return entries.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(Key key, byte[] value) {
+        if (value.length > maxEntryBytes) {
+            return;
+        }
+        lock.lock();
+        try {
+            byte[] previous = entries.put(key, value);
+            if (previous != null) {
+                totalBytes -= previous.length;
+            }
+            totalBytes += value.length;
+            keysByScope.computeIfAbsent(key.scopeUuid(), scope -> new HashSet<>()).add(key);
+
+            Iterator<Map.Entry<Key, byte[]>> eldest = entries.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<Key, byte[]> entry = eldest.next();
+                eldest.remove();
+                totalBytes -= entry.getValue().length;
+                Set<Key> scopeKeys = keysByScope.get(entry.getKey().scopeUuid());
+                if (scopeKeys != null && scopeKeys.remove(entry.getKey()) && scopeKeys.isEmpty()) {
+                    keysByScope.remove(entry.getKey().scopeUuid());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize cached response", e);
+        }
+    }
+}
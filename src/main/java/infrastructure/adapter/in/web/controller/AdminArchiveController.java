@@ -0,0 +1,68 @@
+package infrastructure.adapter.in.web.controller;
+
+import domain.model.Booking;
+import domain.model.Slice;
+import domain.model.TimeSlot;
+import domain.port.in.ArchiveService;
+import infrastructure.adapter.in.web.dto.BookingResponseDTO;
+import infrastructure.adapter.in.web.dto.SliceResponseDTO;
+import infrastructure.adapter.in.web.dto.TimeSlotResponseDTO;
+import infrastructure.adapter.in.web.mapper.BookingDTOMapper;
+import infrastructure.adapter.in.web.mapper.TimeSlotDTOMapper;
+import infrastructure.adapter.in.web.util.CursorPagination;
+import infrastructure.adapter.in.web.util.UuidValidator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Consulta de los slots y bookings que el trabajo de archivado ha sacado de las tablas vivas.
+ */
+@RestController
+@RequestMapping("/api/admin/archive")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminArchiveController extends AbstractBaseController {
+
+    private final ArchiveService archiveService;
+    private final TimeSlotDTOMapper timeSlotMapper;
+    private final BookingDTOMapper bookingMapper;
+    private final UuidValidator uuidValidator;
+    private final CursorPagination cursorPagination;
+
+    @GetMapping("/timeslots")
+    public ResponseEntity<SliceResponseDTO<TimeSlotResponseDTO>> getArchivedTimeSlotsByProvider(
+            @RequestParam("providerUuid") String providerUuidStr,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
+        UUID providerUuid = uuidValidator.UUIDvalidateAndConvert(providerUuidStr);
+        Slice<TimeSlot> slice = archiveService.findArchivedTimeSlotsByProvider(
+                providerUuid, cursorPagination.decodeTimeSlotCursor(cursor), size);
+        return ResponseEntity.ok(cursorPagination.toTimeSlotResponse(slice, timeSlotMapper::toResponseDTO));
+    }
+
+    @GetMapping("/timeslots/{timeSlotUuid}/bookings")
+    public ResponseEntity<List<BookingResponseDTO>> getArchivedBookingsByTimeSlot(@PathVariable("timeSlotUuid") String timeSlotUuidStr) {
+        UUID timeSlotUuid = uuidValidator.UUIDvalidateAndConvert(timeSlotUuidStr);
+        List<BookingResponseDTO> bookings = archiveService.findArchivedBookingsByTimeSlot(timeSlotUuid).stream()
+                .map(bookingMapper::toResponseDTO)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(bookings);
+    }
+
+    @GetMapping("/bookings")
+    public ResponseEntity<SliceResponseDTO<BookingResponseDTO>> getArchivedBookingsByClient(
+            @RequestParam("clientUuid") String clientUuidStr,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
+        UUID clientUuid = uuidValidator.UUIDvalidateAndConvert(clientUuidStr);
+        Slice<Booking> slice = archiveService.findArchivedBookingsByClient(
+                clientUuid, cursorPagination.decodeBookingCursor(cursor), size);
+        return ResponseEntity.ok(cursorPagination.toBookingResponse(slice, bookingMapper::toResponseDTO));
+    }
+}
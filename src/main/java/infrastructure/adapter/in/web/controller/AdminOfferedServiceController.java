@@ -1,12 +1,15 @@
 package infrastructure.adapter.in.web.controller;
 
 import domain.model.OfferedService;
+import domain.model.Slice;
 import domain.port.in.OfferedServiceService;
 import infrastructure.adapter.in.web.dto.CreateOfferedServiceRequestDTO;
 import infrastructure.adapter.in.web.dto.OfferedServiceResponseDTO;
+import infrastructure.adapter.in.web.dto.SliceResponseDTO;
 import infrastructure.adapter.in.web.dto.UpdateOfferedServiceRequestDTO;
 import infrastructure.adapter.in.web.mapper.OfferedServiceDTOMapper;
 import infrastructure.adapter.in.web.security.RequesterContext;
+import infrastructure.adapter.in.web.util.CursorPagination;
 import infrastructure.adapter.in.web.util.UuidValidator;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -16,7 +19,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -29,6 +31,7 @@ public class AdminOfferedServiceController extends AbstractBaseController {
     private final OfferedServiceService offeredServiceService;
     private final OfferedServiceDTOMapper offeredServiceDTOMapper;
     private final UuidValidator uuidValidator;
+    private final CursorPagination cursorPagination;
 
     @PostMapping
     public ResponseEntity<OfferedServiceResponseDTO> createOfferedService(
@@ -57,20 +60,20 @@ public class AdminOfferedServiceController extends AbstractBaseController {
     }
 
     @GetMapping
-    public ResponseEntity<List<OfferedServiceResponseDTO>> getAllOfferedServices(
+    public ResponseEntity<SliceResponseDTO<OfferedServiceResponseDTO>> getAllOfferedServices(
             @RequestParam(name = "activeOnly", defaultValue = "false") boolean activeOnly, // Admin puede ver inactivos por defecto
             @RequestParam(name = "nameContains", required = false) String nameContains,
-            @RequestParam(name = "ownerUuid", required = false) String ownerUuid // Admin puede filtrar por ownerId
+            @RequestParam(name = "ownerUuid", required = false) String ownerUuid, // Admin puede filtrar por ownerId
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size
             ) {
 
-        List<OfferedService> services;
-        UUID uuid = uuidValidator.UUIDvalidateAndConvert(ownerUuid);
+        UUID uuid = uuidValidator.validateAndConvertOptional(ownerUuid);
 
-        services = offeredServiceService.findAllServicesForAdmin(nameContains, Optional.ofNullable(uuid), activeOnly);
+        Slice<OfferedService> services = offeredServiceService.findAllServicesForAdmin(
+                nameContains, Optional.ofNullable(uuid), activeOnly, cursorPagination.decodeId(cursor), size);
 
-        List<OfferedServiceResponseDTO> responseDTOs = services.stream().map(offeredServiceDTOMapper::toResponseDTO).toList();
-
-        return new ResponseEntity<>(responseDTOs, HttpStatus.OK);
+        return new ResponseEntity<>(cursorPagination.toResponse(services, offeredServiceDTOMapper::toResponseDTO, OfferedService::getServiceId), HttpStatus.OK);
     }
 
     @PutMapping("/{uuid}")
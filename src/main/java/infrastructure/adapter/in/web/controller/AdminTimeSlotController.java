@@ -1,18 +1,26 @@
 package infrastructure.adapter.in.web.controller;
 
+import domain.model.Slice;
 import domain.model.TimeSlot;
+import domain.model.TimeSlotFilter;
+import domain.model.TimeSlotStatus;
 import domain.port.in.TimeSlotService;
 import infrastructure.adapter.in.web.dto.CreateTimeSlotRequestDTO;
+import infrastructure.adapter.in.web.dto.SliceResponseDTO;
 import infrastructure.adapter.in.web.dto.TimeSlotResponseDTO;
 import infrastructure.adapter.in.web.mapper.TimeSlotDTOMapper;
+import infrastructure.adapter.in.web.util.CursorPagination;
 import infrastructure.adapter.in.web.util.UuidValidator;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -24,6 +32,7 @@ public class AdminTimeSlotController extends AbstractBaseController {
     private final TimeSlotService timeSlotService;
     private final TimeSlotDTOMapper timeSlotMapper;
     private final UuidValidator uuidValidator;
+    private final CursorPagination cursorPagination;
 
     @PostMapping
     public ResponseEntity<TimeSlotResponseDTO> createTimeSlotAsAdmin(@Valid @RequestBody CreateTimeSlotRequestDTO requestDTO) {
@@ -54,10 +63,21 @@ public class AdminTimeSlotController extends AbstractBaseController {
         return ResponseEntity.ok(timeSlotMapper.toResponseDTO(cancelledTimeSlot));
     }
 
-    // Un admin podría querer listar todos los TimeSlots del sistema,
-    // posiblemente con filtros por proveedor, servicio, etc.
-    // Esto requeriría un nuevo método en el servicio, por ejemplo:
-    // `findAllTimeSlots(FilterCriteria criteria)`
-    // @GetMapping
-    // public ResponseEntity<List<TimeSlotResponseDTO>> getAllTimeSlots() { ... }
+    /**
+     * Calendario de un proveedor, por hora de inicio y paginado por cursor.
+     */
+    @GetMapping
+    public ResponseEntity<SliceResponseDTO<TimeSlotResponseDTO>> getTimeSlotsByProviderAsAdmin(
+            @RequestParam("providerUuid") String providerUuidStr,
+            @RequestParam(name = "status", required = false) Set<TimeSlotStatus> statuses,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
+        UUID providerUuid = uuidValidator.UUIDvalidateAndConvert(providerUuidStr);
+
+        Slice<TimeSlot> slice = timeSlotService.findTimeSlotsByProvider(
+                providerUuid, new TimeSlotFilter(statuses, from, to), cursorPagination.decodeTimeSlotCursor(cursor), size);
+        return ResponseEntity.ok(cursorPagination.toTimeSlotResponse(slice, timeSlotMapper::toResponseDTO));
+    }
 }
\ No newline at end of file
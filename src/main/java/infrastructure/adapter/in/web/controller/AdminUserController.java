@@ -1,12 +1,15 @@
 package infrastructure.adapter.in.web.controller;
 
+import domain.model.Slice;
 import domain.model.User;
 import domain.port.in.UserService;
 import infrastructure.adapter.in.web.dto.AdminUserCreationDTO;
+import infrastructure.adapter.in.web.dto.SliceResponseDTO;
 import infrastructure.adapter.in.web.dto.UserResponseDTO;
 import infrastructure.adapter.in.web.dto.UserUpdateDTO;
 import infrastructure.adapter.in.web.mapper.UserDTOMapper;
 import infrastructure.adapter.in.web.security.RequesterContext;
+import infrastructure.adapter.in.web.util.CursorPagination;
 import infrastructure.adapter.in.web.util.UuidValidator;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -16,7 +19,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -28,14 +30,15 @@ public class AdminUserController extends AbstractBaseController {
     private final UserService userService;
     private final UserDTOMapper userDTOMapper;
     private final UuidValidator uuidValidator;
+    private final CursorPagination cursorPagination;
 
     @GetMapping
-    public ResponseEntity<List<UserResponseDTO>> getAllUsers() {
+    public ResponseEntity<SliceResponseDTO<UserResponseDTO>> getAllUsers(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
 
-        List<User> users = userService.getAllUsers();
-        List<UserResponseDTO> responseDTOs = users.stream()
-                .map(userDTOMapper::toDTO).toList();
-        return new ResponseEntity<>(responseDTOs, HttpStatus.OK);
+        Slice<User> users = userService.getAllUsers(cursorPagination.decodeId(cursor), size);
+        return new ResponseEntity<>(cursorPagination.toResponse(users, userDTOMapper::toDTO, User::getId), HttpStatus.OK);
     }
 
     @GetMapping("/{uuid}")
@@ -1,15 +1,19 @@
 package infrastructure.adapter.in.web.controller;
 
+import domain.exception.ServerBusyException;
 import infrastructure.adapter.in.web.dto.AuthResponseDTO;
 import infrastructure.adapter.in.web.dto.LoginRequestDTO;
+import infrastructure.adapter.in.web.dto.RefreshTokenRequestDTO;
 import infrastructure.adapter.in.web.dto.RegisterRequestDTO;
 import infrastructure.adapter.in.web.security.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -27,6 +31,9 @@ public class AuthController {
             return new ResponseEntity<>("Usuario registrado exitosamente!", HttpStatus.CREATED);
         } catch (IllegalArgumentException e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (ServerBusyException e) {
+            // 503 con Retry-After desde GlobalExceptionHandler, no un 500
+            throw e;
         } catch (Exception e) {
             return new ResponseEntity<>("Error al registrar usuario: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -37,4 +44,17 @@ public class AuthController {
         AuthResponseDTO authResponse = authService.loginUser(request);
         return new ResponseEntity<>(authResponse, HttpStatus.OK);
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponseDTO> refresh(@Valid @RequestBody RefreshTokenRequestDTO request) {
+        return ResponseEntity.ok(authService.refresh(request.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequestDTO request,
+                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        authService.logout(request.getRefreshToken(), accessToken);
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -1,22 +1,35 @@
 package infrastructure.adapter.in.web.controller;
 
+import domain.model.BatchBookingMode;
+import domain.model.BatchBookingResult;
 import domain.model.Booking;
-import domain.model.TimeSlot;
+import domain.model.CatalogVersion;
+import domain.model.Slice;
 import domain.port.in.BookingService;
 import domain.port.in.TimeSlotService;
+import infrastructure.adapter.in.web.cache.SerializedResponseCache;
+import infrastructure.adapter.in.web.dto.BatchBookingRequestDTO;
+import infrastructure.adapter.in.web.dto.BatchBookingResponseDTO;
 import infrastructure.adapter.in.web.dto.BookingResponseDTO;
 import infrastructure.adapter.in.web.dto.CreateBookingRequestDTO;
-import infrastructure.adapter.in.web.dto.TimeSlotResponseDTO;
+import infrastructure.adapter.in.web.dto.SliceResponseDTO;
+import infrastructure.adapter.in.web.idempotency.IdempotentRequestExecutor;
 import infrastructure.adapter.in.web.mapper.BookingDTOMapper;
 import infrastructure.adapter.in.web.mapper.TimeSlotDTOMapper;
+import infrastructure.adapter.in.web.util.CatalogConditionalGet;
+import infrastructure.adapter.in.web.util.CursorPagination;
 import infrastructure.adapter.in.web.util.UuidValidator;
+import infrastructure.concurrency.SeatAdmissionControl;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.Instant;
 import java.util.List;
@@ -33,42 +46,120 @@ public class MyBookingController extends AbstractBaseController {
     private final BookingDTOMapper bookingMapper;
     private final TimeSlotDTOMapper timeSlotMapper;
     private final UuidValidator uuidValidator;
+    private final IdempotentRequestExecutor idempotentRequestExecutor;
+    private final CatalogConditionalGet catalogConditionalGet;
+    private final SerializedResponseCache responseCache;
+    private final CursorPagination cursorPagination;
+    private final SeatAdmissionControl seatAdmissionControl;
 
     // --- Endpoints Públicos para ver la Oferta ---
 
     @GetMapping("/timeslots")
-    public ResponseEntity<List<TimeSlotResponseDTO>> findAvailableTimeSlots(
+    public ResponseEntity<byte[]> findAvailableTimeSlots(
             @RequestParam("serviceUuid") String serviceUuidStr,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            WebRequest webRequest) {
 
         UUID serviceUuid = uuidValidator.UUIDvalidateAndConvert(serviceUuidStr);
-        List<TimeSlot> slots = timeSlotService.findAvailableTimeSlots(serviceUuid, from, to);
-        List<TimeSlotResponseDTO> response = slots.stream()
+        // Si el calendario del servicio no ha cambiado, 304 sin consultar slots ni bookings
+        CatalogVersion version = catalogConditionalGet.currentVersion(serviceUuid);
+        if (catalogConditionalGet.checkNotModified(webRequest, "timeslots", version)) {
+            return null;
+        }
+        // List<TimeSlotResponseDTO> ya serializada; en caché se escribe tal cual
+        SerializedResponseCache.Key key = new SerializedResponseCache.Key("timeslots", serviceUuid, from + "/" + to, version.version());
+        byte[] response = responseCache.getOrCompute(key, () -> timeSlotService.findAvailableTimeSlots(serviceUuid, from, to).stream()
                 .map(timeSlotMapper::toResponseDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+                .collect(Collectors.toList()));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .body(response);
     }
 
     // --- Endpoints Protegidos para Clientes Autenticados ---
 
     @PostMapping("/me/bookings")
     @PreAuthorize("hasRole('CLIENT')")
-    public ResponseEntity<BookingResponseDTO> createMyBooking(@Valid @RequestBody CreateBookingRequestDTO requestDTO) {
+    public ResponseEntity<BookingResponseDTO> createMyBooking(
+            @RequestHeader(value = IdempotentRequestExecutor.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody CreateBookingRequestDTO requestDTO) {
         UUID timeSlotUuid = uuidValidator.UUIDvalidateAndConvert(requestDTO.getTimeSlotUuid());
-        Booking createdBooking = bookingService.createBooking(timeSlotUuid, requestDTO.getNotes());
-        BookingResponseDTO response = bookingMapper.toResponseDTO(createdBooking);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        // Un reintento con la misma Idempotency-Key devuelve la respuesta original sin volver a reservar
+        int partySize = partySizeOf(requestDTO.getPartySize());
+        return idempotentRequestExecutor.execute(idempotencyKey, requestDTO, BookingResponseDTO.class, () -> {
+            // Un slot que se sabe lleno se rechaza sin llegar a la BD
+            Booking createdBooking = seatAdmissionControl.execute(timeSlotUuid, partySize,
+                    () -> bookingService.createBooking(timeSlotUuid, partySize, requestDTO.getNotes()));
+            BookingResponseDTO response = bookingMapper.toResponseDTO(createdBooking);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        });
     }
 
-    @GetMapping("/me/bookings")
+    /**
+     * Reserva varios slots de una vez (p. ej. todas las sesiones de un curso), con un resultado por slot.
+     * 201 si se han reservado todos; 409 si en ALL_OR_NOTHING alguno no se podía y no se ha reservado ninguno;
+     * 200 si en BEST_EFFORT solo se han reservado algunos.
+     */
+    @PostMapping("/me/bookings/batch")
+    @PreAuthorize("hasRole('CLIENT')")
+    public ResponseEntity<BatchBookingResponseDTO> createMyBookings(@Valid @RequestBody BatchBookingRequestDTO requestDTO) {
+        List<UUID> timeSlotUuids = requestDTO.getTimeSlotUuids().stream()
+                .map(uuidValidator::UUIDvalidateAndConvert)
+                .toList();
+        BatchBookingMode mode = requestDTO.getMode() == null
+                ? BatchBookingMode.ALL_OR_NOTHING
+                : BatchBookingMode.valueOf(requestDTO.getMode());
+
+        BatchBookingResult result = bookingService.createBookings(timeSlotUuids, partySizeOf(requestDTO.getPartySize()), requestDTO.getNotes(), mode);
+        HttpStatus status;
+        if (result.allBooked()) {
+            status = HttpStatus.CREATED;
+        } else if (mode == BatchBookingMode.ALL_OR_NOTHING) {
+            status = HttpStatus.CONFLICT;
+        } else {
+            status = HttpStatus.OK;
+        }
+        return new ResponseEntity<>(bookingMapper.toBatchResponseDTO(result), status);
+    }
+
+    @PostMapping("/me/bookings/holds")
+    @PreAuthorize("hasRole('CLIENT')")
+    public ResponseEntity<BookingResponseDTO> holdMySeat(@Valid @RequestBody CreateBookingRequestDTO requestDTO) {
+        UUID timeSlotUuid = uuidValidator.UUIDvalidateAndConvert(requestDTO.getTimeSlotUuid());
+        int partySize = partySizeOf(requestDTO.getPartySize());
+        Booking hold = seatAdmissionControl.execute(timeSlotUuid, partySize,
+                () -> bookingService.holdSeat(timeSlotUuid, partySize, requestDTO.getNotes()));
+        return new ResponseEntity<>(bookingMapper.toResponseDTO(hold), HttpStatus.CREATED);
+    }
+
+    @PostMapping("/me/bookings/{bookingUuid}/confirm")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<BookingResponseDTO>> getMyBookings() {
-        List<Booking> bookings = bookingService.findMyBookings();
-        List<BookingResponseDTO> response = bookings.stream()
-                .map(bookingMapper::toResponseDTO)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+    public ResponseEntity<BookingResponseDTO> confirmMyHold(@PathVariable("bookingUuid") String bookingUuidStr) {
+        UUID bookingUuid = uuidValidator.UUIDvalidateAndConvert(bookingUuidStr);
+        Booking confirmedBooking = bookingService.confirmHold(bookingUuid);
+        return ResponseEntity.ok(bookingMapper.toResponseDTO(confirmedBooking));
+    }
+
+    // Próximos bookings (slots que aún no han empezado), del más cercano al más lejano
+    @GetMapping({"/me/bookings", "/me/bookings/upcoming"})
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<SliceResponseDTO<BookingResponseDTO>> getMyUpcomingBookings(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
+        Slice<Booking> bookings = bookingService.findMyUpcomingBookings(cursorPagination.decodeBookingCursor(cursor), size);
+        return ResponseEntity.ok(cursorPagination.toBookingResponse(bookings, bookingMapper::toResponseDTO));
+    }
+
+    // Histórico (slots ya empezados, incluidos los bookings archivados), del más reciente al más antiguo
+    @GetMapping("/me/bookings/history")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<SliceResponseDTO<BookingResponseDTO>> getMyBookingHistory(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
+        Slice<Booking> bookings = bookingService.findMyBookingHistory(cursorPagination.decodeBookingCursor(cursor), size);
+        return ResponseEntity.ok(cursorPagination.toBookingResponse(bookings, bookingMapper::toResponseDTO));
     }
 
     @GetMapping("/me/bookings/{bookingUuid}")
@@ -89,4 +180,8 @@ public class MyBookingController extends AbstractBaseController {
         Booking cancelledBooking = bookingService.cancelMyBooking(bookingUuid);
         return ResponseEntity.ok(bookingMapper.toResponseDTO(cancelledBooking));
     }
-}
\ No newline at end of file
+
+    private static int partySizeOf(Integer partySize) {
+        return partySize == null ? 1 : partySize;
+    }
+}
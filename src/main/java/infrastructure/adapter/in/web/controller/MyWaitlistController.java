@@ -0,0 +1,56 @@
+package infrastructure.adapter.in.web.controller;
+
+import domain.model.Slice;
+import domain.model.WaitlistEntry;
+import domain.port.in.WaitlistService;
+import infrastructure.adapter.in.web.dto.JoinWaitlistRequestDTO;
+import infrastructure.adapter.in.web.dto.SliceResponseDTO;
+import infrastructure.adapter.in.web.dto.WaitlistEntryResponseDTO;
+import infrastructure.adapter.in.web.mapper.WaitlistEntryDTOMapper;
+import infrastructure.adapter.in.web.util.CursorPagination;
+import infrastructure.adapter.in.web.util.UuidValidator;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/me/waitlist")
+@RequiredArgsConstructor
+public class MyWaitlistController extends AbstractBaseController {
+
+    private final WaitlistService waitlistService;
+    private final WaitlistEntryDTOMapper waitlistMapper;
+    private final UuidValidator uuidValidator;
+    private final CursorPagination cursorPagination;
+
+    @PostMapping
+    @PreAuthorize("hasRole('CLIENT')")
+    public ResponseEntity<WaitlistEntryResponseDTO> joinWaitlist(@Valid @RequestBody JoinWaitlistRequestDTO requestDTO) {
+        UUID timeSlotUuid = uuidValidator.UUIDvalidateAndConvert(requestDTO.getTimeSlotUuid());
+        WaitlistEntry entry = waitlistService.joinWaitlist(timeSlotUuid);
+        return new ResponseEntity<>(waitlistMapper.toResponseDTO(entry), HttpStatus.CREATED);
+    }
+
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<SliceResponseDTO<WaitlistEntryResponseDTO>> getMyWaitlistEntries(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
+
+        Slice<WaitlistEntry> entries = waitlistService.findMyWaitlistEntries(cursorPagination.decodeId(cursor), size);
+        return ResponseEntity.ok(cursorPagination.toResponse(entries, waitlistMapper::toResponseDTO, WaitlistEntry::getId));
+    }
+
+    @DeleteMapping("/{entryUuid}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<WaitlistEntryResponseDTO> leaveWaitlist(@PathVariable("entryUuid") String entryUuidStr) {
+        UUID entryUuid = uuidValidator.UUIDvalidateAndConvert(entryUuidStr);
+        WaitlistEntry entry = waitlistService.leaveWaitlist(entryUuid);
+        return ResponseEntity.ok(waitlistMapper.toResponseDTO(entry));
+    }
+}
@@ -0,0 +1,42 @@
+package infrastructure.adapter.in.web.controller;
+
+import domain.port.in.ProviderDashboardService;
+import infrastructure.adapter.in.web.dto.ProviderDashboardResponseDTO;
+import infrastructure.adapter.in.web.mapper.ProviderDashboardDTOMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+@RestController
+@RequestMapping("/api/me/provider/dashboard")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('PROVIDER')")
+public class ProviderDashboardController extends AbstractBaseController {
+
+    private final ProviderDashboardService providerDashboardService;
+    private final ProviderDashboardDTOMapper providerDashboardMapper;
+
+    /**
+     * Panel del proveedor: próximos slots y estadísticas por servicio y semana.
+     * Sin rango, se devuelven las 3 semanas anteriores, la actual y las 4 siguientes.
+     */
+    @GetMapping
+    public ResponseEntity<ProviderDashboardResponseDTO> getMyDashboard(
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate rangeFrom = from != null ? from : today.minusWeeks(3);
+        LocalDate rangeTo = to != null ? to : today.plusWeeks(4);
+
+        return ResponseEntity.ok(providerDashboardMapper.toResponseDTO(
+                providerDashboardService.getMyDashboard(rangeFrom, rangeTo)));
+    }
+}
@@ -1,17 +1,21 @@
 package infrastructure.adapter.in.web.controller;
 
-import domain.model.OfferedService;
+import domain.model.CatalogVersion;
 import domain.model.User;
 import domain.port.in.OfferedServiceService;
 import domain.port.in.UserService;
-import infrastructure.adapter.in.web.dto.OfferedServiceResponseDTO;
+import infrastructure.adapter.in.web.cache.SerializedResponseCache;
 import infrastructure.adapter.in.web.dto.UserResponseDTO; // Reutilizamos el DTO existente
 import infrastructure.adapter.in.web.mapper.OfferedServiceDTOMapper;
 import infrastructure.adapter.in.web.mapper.UserDTOMapper;
+import infrastructure.adapter.in.web.util.CatalogConditionalGet;
 import infrastructure.adapter.in.web.util.UuidValidator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -27,16 +31,20 @@ public class ProviderDiscoveryController {
     private final UserDTOMapper userMapper;
     private final OfferedServiceDTOMapper offeredServiceMapper;
     private final UuidValidator uuidValidator;
+    private final CatalogConditionalGet catalogConditionalGet;
+    private final SerializedResponseCache responseCache;
 
     /**
      * Busca perfiles públicos de proveedores por nombre de usuario.
      * Este endpoint es público.
      * @param search El término de búsqueda para el nombre del proveedor.
-     * @return Una lista de DTOs de usuario que representan a los proveedores encontrados.
+     * @param limit Número máximo de resultados.
+     * @return Una lista de DTOs de usuario que representan a los proveedores encontrados, por relevancia.
      */
     @GetMapping
-    public ResponseEntity<List<UserResponseDTO>> findProviders(@RequestParam(required = false, defaultValue = "") String search) {
-        List<User> providers = userService.findPublicProviders(search);
+    public ResponseEntity<List<UserResponseDTO>> findProviders(@RequestParam(required = false, defaultValue = "") String search,
+                                                               @RequestParam(required = false, defaultValue = "20") int limit) {
+        List<User> providers = userService.findPublicProviders(search, limit);
 
         // Mapeamos los usuarios a DTOs. El UserResponseDTO es adecuado porque no expone
         // información sensible como el hash de la contraseña.
@@ -54,14 +62,24 @@ public class ProviderDiscoveryController {
      * @return Una lista de DTOs de los servicios ofrecidos.
      */
     @GetMapping("/{providerUuid}/services")
-    public ResponseEntity<List<OfferedServiceResponseDTO>> findServicesByProvider(@PathVariable("providerUuid") String providerUuidStr) {
+    public ResponseEntity<byte[]> findServicesByProvider(@PathVariable("providerUuid") String providerUuidStr,
+                                                         WebRequest webRequest) {
         UUID providerUuid = uuidValidator.UUIDvalidateAndConvert(providerUuidStr);
-        List<OfferedService> services = offeredServiceService.findAllActiveServicesByProvider(providerUuid);
+        // Si los servicios del proveedor no han cambiado, 304 sin consultarlos
+        CatalogVersion version = catalogConditionalGet.currentVersion(providerUuid);
+        if (catalogConditionalGet.checkNotModified(webRequest, "provider-services", version)) {
+            return null;
+        }
 
-        List<OfferedServiceResponseDTO> response = services.stream()
+        // List<OfferedServiceResponseDTO> ya serializada; en caché se escribe tal cual
+        SerializedResponseCache.Key key = new SerializedResponseCache.Key("provider-services", providerUuid, "", version.version());
+        byte[] response = responseCache.getOrCompute(key, () -> offeredServiceService.findAllActiveServicesByProvider(providerUuid).stream()
                 .map(offeredServiceMapper::toResponseDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .body(response);
     }
 }
@@ -1,18 +1,28 @@
 package infrastructure.adapter.in.web.controller;
 
+import domain.model.Slice;
 import domain.model.TimeSlot;
+import domain.model.TimeSlotFilter;
+import domain.model.TimeSlotStatus;
 import domain.port.in.TimeSlotService;
 import infrastructure.adapter.in.web.dto.CreateTimeSlotRequestDTO;
+import infrastructure.adapter.in.web.dto.SliceResponseDTO;
 import infrastructure.adapter.in.web.dto.TimeSlotResponseDTO;
 import infrastructure.adapter.in.web.mapper.TimeSlotDTOMapper;
+import infrastructure.adapter.in.web.security.SpringSecurityUser;
+import infrastructure.adapter.in.web.util.CursorPagination;
 import infrastructure.adapter.in.web.util.UuidValidator;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -24,6 +34,7 @@ public class ProviderTimeSlotController extends AbstractBaseController {
     private final TimeSlotService timeSlotService;
     private final TimeSlotDTOMapper timeSlotMapper;
     private final UuidValidator uuidValidator;
+    private final CursorPagination cursorPagination;
 
     @PostMapping
     public ResponseEntity<TimeSlotResponseDTO> createTimeSlot(@Valid @RequestBody CreateTimeSlotRequestDTO requestDTO) {
@@ -61,8 +72,21 @@ public class ProviderTimeSlotController extends AbstractBaseController {
         return ResponseEntity.ok(timeSlotMapper.toResponseDTO(cancelledTimeSlot));
     }
 
-    // Un proveedor también podría querer ver una lista de sus propios TimeSlots,
-    // lo cual requeriría un nuevo método en el servicio como `findTimeSlotsByProvider`.
-    // @GetMapping
-    // public ResponseEntity<List<TimeSlotResponseDTO>> getMyTimeSlots() { ... }
+    /**
+     * Calendario del proveedor autenticado, por hora de inicio y paginado por cursor.
+     */
+    @GetMapping
+    public ResponseEntity<SliceResponseDTO<TimeSlotResponseDTO>> getMyTimeSlots(
+            @RequestParam(name = "status", required = false) Set<TimeSlotStatus> statuses,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            Authentication authentication) {
+        UUID providerUuid = ((SpringSecurityUser) authentication.getPrincipal()).getUuid();
+
+        Slice<TimeSlot> slice = timeSlotService.findTimeSlotsByProvider(
+                providerUuid, new TimeSlotFilter(statuses, from, to), cursorPagination.decodeTimeSlotCursor(cursor), size);
+        return ResponseEntity.ok(cursorPagination.toTimeSlotResponse(slice, timeSlotMapper::toResponseDTO));
+    }
 }
\ No newline at end of file
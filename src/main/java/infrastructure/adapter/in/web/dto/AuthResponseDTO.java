@@ -11,8 +11,13 @@ public class AuthResponseDTO {
 
     private String accessToken;
     private String tokenType = "Bearer";
+    // Segundos de vida del token de acceso; antes de que caduque se pide otro con el de refresco
+    private long expiresIn;
+    private String refreshToken;
 
-    public AuthResponseDTO(String accessToken){
+    public AuthResponseDTO(String accessToken, long expiresIn, String refreshToken) {
         this.accessToken = accessToken;
+        this.expiresIn = expiresIn;
+        this.refreshToken = refreshToken;
     }
 }
@@ -0,0 +1,19 @@
+package infrastructure.adapter.in.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchBookingItemDTO {
+
+    private String timeSlotUuid;
+    private String outcome; // "BOOKED", "FULL", "ALREADY_BOOKED", etc.
+
+    // Solo si outcome es BOOKED
+    private BookingResponseDTO booking;
+}
@@ -0,0 +1,38 @@
+package infrastructure.adapter.in.web.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.validator.constraints.UUID;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchBookingRequestDTO {
+
+    public static final int MAX_TIME_SLOTS = 50;
+
+    @NotEmpty(message = "At least one TimeSlot UUID is required")
+    @Size(max = MAX_TIME_SLOTS, message = "At most " + MAX_TIME_SLOTS + " time slots can be booked at once")
+    private List<@NotNull(message = "TimeSlot UUID cannot be null")
+                 @UUID(message = "TimeSlot UUID must be a valid UUID") String> timeSlotUuids;
+
+    // Plazas de cada booking (por defecto 1)
+    @Positive(message = "Party size must be at least 1")
+    private Integer partySize;
+
+    private String notes;
+
+    // ALL_OR_NOTHING (por defecto) o BEST_EFFORT
+    @Pattern(regexp = "ALL_OR_NOTHING|BEST_EFFORT", message = "Mode must be ALL_OR_NOTHING or BEST_EFFORT")
+    private String mode;
+}
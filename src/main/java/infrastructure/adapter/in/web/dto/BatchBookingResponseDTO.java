@@ -0,0 +1,21 @@
+package infrastructure.adapter.in.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchBookingResponseDTO {
+
+    private String mode;
+    private boolean allBooked;
+
+    // Un resultado por slot, en el orden pedido
+    private List<BatchBookingItemDTO> results;
+}
@@ -30,9 +30,13 @@ public class BookingResponseDTO {
     private String serviceUuid;
     private String serviceName;
 
-    private BigDecimal pricePaid;
+    private Integer partySize;
+    private BigDecimal pricePaid; // Por todas las plazas del booking
     private String notes;
 
+    // Solo para retenciones de plaza (status PENDING_PAYMENT): la plaza se libera a esta hora si no se confirma
+    private Instant holdExpiresAt;
+
     private Instant createdAt;
     private Instant updatedAt;
 }
\ No newline at end of file
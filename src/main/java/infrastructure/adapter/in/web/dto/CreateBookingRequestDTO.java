@@ -1,6 +1,7 @@
 package infrastructure.adapter.in.web.dto;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,5 +18,9 @@ public class CreateBookingRequestDTO {
     @UUID(message = "TimeSlot UUID must be a valid UUID")
     private String timeSlotUuid;
 
+    // Plazas a reservar en un solo booking (por defecto 1)
+    @Positive(message = "Party size must be at least 1")
+    private Integer partySize;
+
     private String notes;
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package infrastructure.adapter.in.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProviderDashboardResponseDTO {
+
+    private List<TimeSlotResponseDTO> upcomingSlots;
+    private List<ServiceWeeklyStatsDTO> weeklyStats;
+}
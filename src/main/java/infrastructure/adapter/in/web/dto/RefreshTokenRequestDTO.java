@@ -0,0 +1,13 @@
+package infrastructure.adapter.in.web.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class RefreshTokenRequestDTO {
+
+    @Size(max = 100, message = "El token de refresco no es válido")
+    @NotBlank(message = "El token de refresco no puede estar vacío")
+    private String refreshToken;
+}
@@ -0,0 +1,32 @@
+package infrastructure.adapter.in.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceWeeklyStatsDTO {
+
+    private String serviceUuid;
+    private String serviceName;
+
+    // Lunes (UTC) de la semana
+    private LocalDate weekStart;
+
+    private int slotCount;
+    private int capacity;
+    private int bookedSeats;
+    private double fillRate; // bookedSeats / capacity, entre 0 y 1
+    private BigDecimal revenue;
+
+    private int cancellations;
+    private int noShows;
+    private int completed;
+}
@@ -0,0 +1,21 @@
+package infrastructure.adapter.in.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SliceResponseDTO<T> {
+
+    private List<T> content;
+    private boolean hasNext;
+
+    // Cursor opaco para pedir la página siguiente (nulo si no hay más)
+    private String nextCursor;
+}
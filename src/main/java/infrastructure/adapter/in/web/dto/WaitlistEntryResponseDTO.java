@@ -0,0 +1,29 @@
+package infrastructure.adapter.in.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntryResponseDTO {
+
+    private String entryUuid;
+    private String status; // "WAITING", "PROMOTED", "LEFT", "CLOSED"
+
+    // Información del slot por el que se espera
+    private String timeSlotUuid;
+    private Instant startTime;
+    private Instant endTime;
+    private String serviceName;
+
+    // Posición en la cola (1 = siguiente en recibir plaza). Nulo si ya no está esperando.
+    private Integer position;
+
+    private Instant createdAt;
+}
@@ -1,6 +1,7 @@
 package infrastructure.adapter.in.web.exception;
 
 import domain.exception.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -27,7 +28,8 @@ public class GlobalExceptionHandler {
             UserNotFoundException.class,
             BookingNotFoundException.class,
             TimeSlotNotFoundException.class,
-            OfferedServiceNotFoundException.class
+            OfferedServiceNotFoundException.class,
+            WaitlistEntryNotFoundException.class
     })
     public ResponseEntity<Object> handleResourceNotFoundException(RuntimeException ex, WebRequest request) {
         return buildErrorResponse(ex, HttpStatus.NOT_FOUND, request);
@@ -41,6 +43,10 @@ public class GlobalExceptionHandler {
             DuplicateUserInfoException.class,
             DuplicateServiceNameException.class,
             DuplicateBookingException.class,
+            BookingNotHeldException.class,
+            BookingNotCancellableException.class,
+            DuplicateWaitlistEntryException.class,
+            WaitlistEntryNotWaitingException.class,
             TimeSlotClashException.class,
             ServiceInUseException.class,
             ServiceNotAvailableException.class
@@ -70,13 +76,34 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
 
-    @ExceptionHandler(InvalidUuidFormatException.class)
-    public ResponseEntity<Object> handleInvalidUuidFormat(InvalidUuidFormatException ex, WebRequest request) {
+    @ExceptionHandler({
+            InvalidUuidFormatException.class,
+            InvalidIdempotencyKeyException.class,
+            InvalidDateRangeException.class,
+            InvalidCursorException.class
+    })
+    public ResponseEntity<Object> handleInvalidUuidFormat(RuntimeException ex, WebRequest request) {
         return buildErrorResponse(ex, HttpStatus.BAD_REQUEST, request);
     }
 
+    /**
+     * Maneja la reutilización de una Idempotency-Key con una petición distinta (422 Unprocessable Entity).
+     */
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<Object> handleIdempotencyKeyReuse(IdempotencyKeyReuseException ex, WebRequest request) {
+        return buildErrorResponse(ex, HttpStatus.UNPROCESSABLE_ENTITY, request);
+    }
+
     // --- Manejadores para Errores de Seguridad (4xx) ---
 
+    /**
+     * Maneja los tokens de refresco que ya no sirven (401 Unauthorized): el cliente debe iniciar sesión de nuevo.
+     */
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<Object> handleInvalidRefreshToken(InvalidRefreshTokenException ex, WebRequest request) {
+        return buildErrorResponse(ex, HttpStatus.UNAUTHORIZED, request);
+    }
+
     /**
      * Maneja excepciones de acceso denegado (403 Forbidden).
      * Ocurre cuando un usuario está autenticado pero no tiene los roles/permisos necesarios.
@@ -86,7 +113,32 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex, "Access Denied. You do not have permission to perform this action.", HttpStatus.FORBIDDEN, request);
     }
 
-    // --- Manejador General para Errores del Servidor (5xx) ---
+    /**
+     * Maneja un duplicado de una petición idempotente que aún se está ejecutando (409 Conflict),
+     * con Retry-After para que el cliente repita cuando la original haya terminado.
+     */
+    @ExceptionHandler(IdempotentRequestInProgressException.class)
+    public ResponseEntity<Object> handleIdempotentRequestInProgress(IdempotentRequestInProgressException ex, WebRequest request) {
+        Map<String, Object> body = buildBaseErrorBody(HttpStatus.CONFLICT, request);
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
+
+    // --- Manejadores para Errores del Servidor (5xx) ---
+
+    /**
+     * Maneja la saturación temporal del servidor (503 Service Unavailable), con Retry-After para que el cliente espere.
+     */
+    @ExceptionHandler(ServerBusyException.class)
+    public ResponseEntity<Object> handleServerBusy(ServerBusyException ex, WebRequest request) {
+        Map<String, Object> body = buildBaseErrorBody(HttpStatus.SERVICE_UNAVAILABLE, request);
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
 
     /**
      * Manejador de último recurso para cualquier excepción no capturada.
@@ -0,0 +1,65 @@
+package infrastructure.adapter.in.web.idempotency;
+
+import domain.model.IdempotencyRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caché LRU acotada de respuestas idempotentes recientes, delante de la tabla idempotency_keys.
+ * Los reintentos suelen llegar segundos después de la petición original, así que casi todos
+ * se resuelven aquí sin tocar la BD.
+ */
+@Component
+public class IdempotencyResponseCache {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, IdempotencyRecord> entries;
+
+    public IdempotencyResponseCache(@Value("${reservas.idempotency.cache-size:10000}") int maxEntries) {
+        // accessOrder=true: cada get mueve la entrada al final; la primera es la menos usada
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public Optional<IdempotencyRecord> get(String cacheKey, Instant now) {
+        lock.lock();
+        try {
+            IdempotencyRecord record = entries.get(cacheKey);
+            if (record != null && record.isExpired(now)) {
+                entries.remove(cacheKey);
+                return Optional.empty();
+            }
+            return Optional.ofNullable(record);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(String cacheKey, IdempotencyRecord record) {
+        lock.lock();
+        try {
+            entries.put(cacheKey, record);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package infrastructure.adapter.in.web.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import domain.exception.IdempotencyKeyReuseException;
+import domain.exception.IdempotentRequestInProgressException;
+import domain.exception.InvalidIdempotencyKeyException;
+import domain.model.IdempotencyRecord;
+import domain.port.out.IdempotencyPersistencePort;
+import infrastructure.adapter.in.web.security.SpringSecurityUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta peticiones con cabecera Idempotency-Key.
+ * <ul>
+ *     <li>Un reintento con la misma clave devuelve la respuesta original sin volver a ejecutar la acción
+ *     (primero desde la caché LRU, después desde la tabla idempotency_keys).</li>
+ *     <li>Antes de ejecutar, la clave se reserva en idempotency_keys con una transacción corta; la acción
+ *     se ejecuta fuera de ella (con sus propias transacciones y reintentos) y la respuesta se registra
+ *     después en otra transacción corta. Así no se retiene una conexión mientras la acción espera.</li>
+ *     <li>Los duplicados concurrentes del mismo nodo esperan a la ejecución en curso y comparten su resultado;
+ *     los de otro nodo encuentran la reserva y reciben 409 con Retry-After hasta que haya respuesta.</li>
+ * </ul>
+ * Solo se registran las respuestas 2xx. Si la acción falla, la reserva se libera y los duplicados que
+ * esperaban la ejecutan ellos mismos. Si el nodo cae a mitad, la reserva caduca sola pasado el claim-timeout.
+ */
+@Component
+public class IdempotentRequestExecutor {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotentRequestExecutor.class);
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyPersistencePort idempotencyPersistencePort;
+    private final IdempotencyResponseCache responseCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+
+    // Ejecuciones en curso en este nodo; se completan con null si la original no deja respuesta que repetir
+    private final Map<String, CompletableFuture<IdempotencyRecord>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotentRequestExecutor(IdempotencyPersistencePort idempotencyPersistencePort,
+                                     IdempotencyResponseCache responseCache,
+                                     TransactionTemplate transactionTemplate,
+                                     ObjectMapper objectMapper,
+                                     @Value("${reservas.idempotency.ttl:PT24H}") Duration ttl,
+                                     @Value("${reservas.idempotency.claim-timeout:PT1M}") Duration claimTimeout) {
+        this.idempotencyPersistencePort = idempotencyPersistencePort;
+        this.responseCache = responseCache;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.claimTimeout = claimTimeout;
+    }
+
+    /**
+     * @param idempotencyKey valor de la cabecera, o null si el cliente no la envía (se ejecuta sin más).
+     * @param request cuerpo de la petición, para detectar que se reutiliza la clave con otra petición.
+     * @param responseType tipo del cuerpo de la respuesta, para reconstruirla al repetirla.
+     * @param action la ejecución real del endpoint. No debe ejecutarse dentro de una transacción abierta.
+     */
+    public <T> ResponseEntity<T> execute(String idempotencyKey, Object request, Class<T> responseType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters.");
+        }
+
+        UUID requesterUuid = ((SpringSecurityUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).getUuid();
+        String cacheKey = requesterUuid + ":" + idempotencyKey;
+        String requestHash = hash(request);
+
+        while (true) {
+            Optional<IdempotencyRecord> cached = responseCache.get(cacheKey, Instant.now());
+            if (cached.isPresent()) {
+                return replay(cached.get(), requestHash, responseType);
+            }
+
+            CompletableFuture<IdempotencyRecord> mine = new CompletableFuture<>();
+            CompletableFuture<IdempotencyRecord> running = inFlight.putIfAbsent(cacheKey, mine);
+            if (running != null) {
+                IdempotencyRecord original = running.join();
+                if (original == null) {
+                    // La original falló y liberó la clave: este duplicado la ejecuta
+                    continue;
+                }
+                return replay(original, requestHash, responseType);
+            }
+
+            try {
+                Optional<ResponseEntity<T>> response = executeClaimed(requesterUuid, idempotencyKey, cacheKey, requestHash,
+                        responseType, action, mine);
+                if (response.isPresent()) {
+                    return response.get();
+                }
+            } finally {
+                // Sin respuesta que compartir (error, no 2xx, clave en curso en otro nodo):
+                // cada duplicado que esperaba vuelve a intentarlo por su cuenta
+                mine.complete(null);
+                inFlight.remove(cacheKey, mine);
+            }
+        }
+    }
+
+    /**
+     * Reserva la clave y ejecuta la acción, o repite la respuesta registrada si ya la hay.
+     * @return vacío si la clave se liberó mientras se consultaba y hay que volver a empezar.
+     */
+    private <T> Optional<ResponseEntity<T>> executeClaimed(UUID requesterUuid, String idempotencyKey, String cacheKey,
+                                                           String requestHash, Class<T> responseType,
+                                                           Supplier<ResponseEntity<T>> action,
+                                                           CompletableFuture<IdempotencyRecord> mine) {
+        Instant now = Instant.now();
+        IdempotencyRecord claim = IdempotencyRecord.builder()
+                .requesterUuid(requesterUuid)
+                .idempotencyKey(idempotencyKey)
+                .requestHash(requestHash)
+                .createdAt(now)
+                .expiresAt(now.plus(claimTimeout))
+                .build();
+        if (!claim(claim, now)) {
+            Optional<IdempotencyRecord> stored = idempotencyPersistencePort.findByRequesterAndKey(requesterUuid, idempotencyKey)
+                    .filter(record -> !record.isExpired(Instant.now()));
+            if (stored.isEmpty()) {
+                return Optional.empty();
+            }
+            IdempotencyRecord record = stored.get();
+            if (record.isPending()) {
+                requireSameRequest(record, requestHash);
+                throw new IdempotentRequestInProgressException("A request with this Idempotency-Key is still in progress.");
+            }
+            responseCache.put(cacheKey, record);
+            mine.complete(record);
+            return Optional.of(replay(record, requestHash, responseType));
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException ex) {
+            release(requesterUuid, idempotencyKey);
+            throw ex;
+        }
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            release(requesterUuid, idempotencyKey);
+            return Optional.of(response);
+        }
+
+        Instant completedAt = Instant.now();
+        IdempotencyRecord record = IdempotencyRecord.builder()
+                .requesterUuid(requesterUuid)
+                .idempotencyKey(idempotencyKey)
+                .requestHash(requestHash)
+                .responseStatus(response.getStatusCode().value())
+                .responseBody(toJson(response.getBody()))
+                .createdAt(claim.getCreatedAt())
+                .expiresAt(completedAt.plus(ttl))
+                .build();
+        try {
+            if (!Boolean.TRUE.equals(transactionTemplate.execute(status -> idempotencyPersistencePort.complete(record)))) {
+                logger.warn("La reserva de una Idempotency-Key caducó antes de registrar su respuesta");
+            }
+        } catch (RuntimeException ex) {
+            // La acción ya está hecha: se responde igual; los reintentos de otros nodos verán la reserva hasta que caduque
+            logger.warn("No se pudo registrar la respuesta de una petición idempotente: {}", ex.getMessage());
+        }
+        responseCache.put(cacheKey, record);
+        mine.complete(record);
+        return Optional.of(response);
+    }
+
+    private boolean claim(IdempotencyRecord claim, Instant now) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> idempotencyPersistencePort.claim(claim, now)));
+        } catch (DataIntegrityViolationException ex) {
+            // Otro nodo ha insertado la misma clave a la vez
+            return false;
+        }
+    }
+
+    private void release(UUID requesterUuid, String idempotencyKey) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> idempotencyPersistencePort.release(requesterUuid, idempotencyKey));
+        } catch (RuntimeException ex) {
+            logger.warn("No se pudo liberar una Idempotency-Key, caducará sola: {}", ex.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reservas.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        try {
+            int deleted = idempotencyPersistencePort.deleteExpired(Instant.now());
+            if (deleted > 0) {
+                logger.info("Eliminadas {} claves de idempotencia caducadas", deleted);
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("No se pudieron purgar las claves de idempotencia: {}", ex.getMessage());
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotencyRecord record, String requestHash, Class<T> responseType) {
+        requireSameRequest(record, requestHash);
+        try {
+            T body = record.getResponseBody() == null ? null : objectMapper.readValue(record.getResponseBody(), responseType);
+            return ResponseEntity.status(record.getResponseStatus())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response cannot be read", e);
+        }
+    }
+
+    private static void requireSameRequest(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReuseException("Idempotency-Key was already used with a different request.");
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(toJson(request).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize value for idempotency", e);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package infrastructure.adapter.in.web.mapper;
 
+import domain.model.BatchBookingResult;
 import domain.model.Booking;
 import domain.model.BookingStatus;
+import infrastructure.adapter.in.web.dto.BatchBookingItemDTO;
+import infrastructure.adapter.in.web.dto.BatchBookingResponseDTO;
 import infrastructure.adapter.in.web.dto.CreateBookingRequestDTO;
 import infrastructure.adapter.in.web.dto.BookingResponseDTO;
 import org.mapstruct.Mapper;
@@ -24,6 +27,7 @@ public interface BookingDTOMapper {
     @Mapping(target = "client", ignore = true)
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "pricePaid", ignore = true)
+    @Mapping(target = "holdExpiresAt", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     Booking fromRequestDTO(CreateBookingRequestDTO dto);
@@ -42,6 +46,15 @@ public interface BookingDTOMapper {
     @Mapping(source = "timeSlot.offeredService.name", target = "serviceName")
     BookingResponseDTO toResponseDTO(Booking booking);
 
+    /**
+     * Convierte el resultado de una reserva por lotes, con un elemento por slot pedido.
+     */
+    @Mapping(target = "allBooked", expression = "java(result.allBooked())")
+    @Mapping(source = "items", target = "results")
+    BatchBookingResponseDTO toBatchResponseDTO(BatchBookingResult result);
+
+    BatchBookingItemDTO toBatchItemDTO(BatchBookingResult.Item item);
+
     @Named("bookingStatusToString")
     default String bookingStatusToString(BookingStatus status) {
         return (status == null) ? null : status.name();
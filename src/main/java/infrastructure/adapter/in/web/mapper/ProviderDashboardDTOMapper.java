@@ -0,0 +1,18 @@
+package infrastructure.adapter.in.web.mapper;
+
+import domain.model.ProviderDashboard;
+import domain.model.ServiceWeeklyStats;
+import infrastructure.adapter.in.web.dto.ProviderDashboardResponseDTO;
+import infrastructure.adapter.in.web.dto.ServiceWeeklyStatsDTO;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring", uses = {TimeSlotDTOMapper.class})
+public interface ProviderDashboardDTOMapper {
+
+    /**
+     * Convierte el panel del proveedor a un DTO de respuesta.
+     */
+    ProviderDashboardResponseDTO toResponseDTO(ProviderDashboard dashboard);
+
+    ServiceWeeklyStatsDTO toResponseDTO(ServiceWeeklyStats stats);
+}
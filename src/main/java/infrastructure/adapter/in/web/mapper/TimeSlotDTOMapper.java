@@ -16,13 +16,16 @@ public interface TimeSlotDTOMapper {
 
     /**
      * Convierte un DTO de creación a un objeto de dominio TimeSlot.
-     * Los campos como 'offeredService' o 'status' serán asignados por el servicio.
+     * Los campos como 'offeredService' o 'status' serán asignados por el servicio; las plazas ocupadas
+     * y la versión las lleva la persistencia.
      */
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "uuid", ignore = true)
     @Mapping(target = "offeredService", ignore = true)
     @Mapping(target = "status", ignore = true)
     @Mapping(target = "bookings", ignore = true)
+    @Mapping(target = "bookedSeats", ignore = true)
+    @Mapping(target = "version", ignore = true)
     TimeSlot fromRequestDTO(CreateTimeSlotRequestDTO dto);
 
     /**
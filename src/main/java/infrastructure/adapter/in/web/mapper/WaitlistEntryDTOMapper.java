@@ -0,0 +1,28 @@
+package infrastructure.adapter.in.web.mapper;
+
+import domain.model.WaitlistEntry;
+import domain.model.WaitlistStatus;
+import infrastructure.adapter.in.web.dto.WaitlistEntryResponseDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+
+@Mapper(componentModel = "spring")
+public interface WaitlistEntryDTOMapper {
+
+    /**
+     * Convierte una entrada de lista de espera a un DTO de respuesta.
+     */
+    @Mapping(source = "uuid", target = "entryUuid")
+    @Mapping(source = "status", target = "status", qualifiedByName = "waitlistStatusToString")
+    @Mapping(source = "timeSlot.uuid", target = "timeSlotUuid")
+    @Mapping(source = "timeSlot.startTime", target = "startTime")
+    @Mapping(source = "timeSlot.endTime", target = "endTime")
+    @Mapping(source = "timeSlot.offeredService.name", target = "serviceName")
+    WaitlistEntryResponseDTO toResponseDTO(WaitlistEntry entry);
+
+    @Named("waitlistStatusToString")
+    default String waitlistStatusToString(WaitlistStatus status) {
+        return (status == null) ? null : status.name();
+    }
+}
@@ -0,0 +1,103 @@
+package infrastructure.adapter.in.web.ratelimit;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Petición cuyo cuerpo se ha leído por adelantado (como mucho {@code limit} bytes) para mirarlo en un filtro.
+ * El controlador vuelve a leer el cuerpo completo: lo leído más lo que quedara en la petición original.
+ */
+class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
+
+    private final byte[] head;
+    private final boolean complete;
+    private final InputStream rest;
+
+    CachedBodyHttpServletRequest(HttpServletRequest request, int limit) throws IOException {
+        super(request);
+        InputStream original = request.getInputStream();
+        this.head = original.readNBytes(limit + 1);
+        this.complete = head.length <= limit;
+        this.rest = original;
+    }
+
+    /**
+     * @return el cuerpo si cabía entero en el límite, o null.
+     */
+    byte[] getCachedBody() {
+        return complete ? head : null;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream cached = new ByteArrayInputStream(head);
+        InputStream replay = complete ? cached : new SequenceInputStream(cached, rest);
+        return new ServletInputStream() {
+            private boolean finished;
+
+            @Override
+            public int read() throws IOException {
+                int b = replay.read();
+                finished = b < 0;
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = replay.read(buffer, offset, length);
+                finished = read < 0;
+                return read;
+            }
+
+            @Override
+            public boolean isFinished() {
+                if (!finished && complete) {
+                    // El cuerpo en memoria se ha terminado aunque aún nadie haya leído el -1
+                    finished = cached.available() == 0;
+                }
+                return finished;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            /**
+             * Lo que queda por leer ya está en memoria (o llega de la petición original, que se lee igual):
+             * se avisa en el acto de que hay datos y, cuando el listener los ha consumido, de que se han leído todos.
+             */
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                try {
+                    if (!finished) {
+                        readListener.onDataAvailable();
+                    }
+                    if (isFinished()) {
+                        readListener.onAllDataRead();
+                    }
+                } catch (IOException ex) {
+                    readListener.onError(ex);
+                }
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        String encoding = getCharacterEncoding();
+        Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+}
@@ -0,0 +1,50 @@
+package infrastructure.adapter.in.web.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Límites de peticiones por ruta (reservas.rate-limit.*). Cada ruta tiene un nombre (el de las métricas),
+ * los patrones de URL a los que se aplica y un límite por IP y, opcionalmente, por nombre de usuario.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "reservas.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Cubos como máximo en memoria (uno por ruta, tipo de clave y valor)
+    private int maxBuckets = 100_000;
+
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class Route {
+
+        private List<String> patterns = new ArrayList<>();
+
+        private Limit perIp;
+
+        // Solo en rutas cuyo cuerpo JSON lleva "username" (login)
+        private Limit perUsername;
+    }
+
+    /**
+     * Hasta {@code capacity} peticiones seguidas, que se recuperan de forma continua a lo largo de {@code period}.
+     */
+    @Data
+    public static class Limit {
+
+        private int capacity;
+
+        private Duration period;
+    }
+}
@@ -0,0 +1,122 @@
+package infrastructure.adapter.in.web.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cubos de tokens en memoria por ruta y clave (IP o nombre de usuario), en un mapa LRU acotado.
+ * El mapa (orden de acceso) se protege con un lock solo para buscar o crear el cubo; consumir es sin locks.
+ * Los cubos que se han vuelto a llenar no guardan nada y se quitan periódicamente. Si el mapa llega al máximo,
+ * una clave nueva desplaza al cubo menos usado de entre los primeros que no esté frenando a su clave
+ * (quitar uno frenado le regalaría un cubo lleno); si todos lo están, la clave nueva se rechaza.
+ * Así, inundar el mapa con claves nuevas cuesta O(1) por petición y no sirve para vaciar el cubo propio.
+ * Cada nodo limita por su cuenta: con N nodos tras el balanceador, el límite efectivo es hasta N veces mayor.
+ */
+@Component
+public class RateLimiter {
+
+    // Cubos que se miran, desde el menos usado, para hacer sitio a una clave nueva
+    private static final int EVICTION_SCAN = 16;
+
+    private record Key(String route, String keyType, String value) {
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Key, TokenBucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final int maxBuckets;
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.maxBuckets = properties.getMaxBuckets();
+        Gauge.builder("reservas.rate-limit.buckets", this, RateLimiter::getBucketCount)
+                .description("Cubos de tokens en memoria")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Consume un token del cubo de la clave.
+     * @param route nombre de la ruta.
+     * @param keyType "ip" o "username".
+     * @param value la IP o el nombre de usuario.
+     * @param limit el límite de la ruta para ese tipo de clave.
+     * @return 0 si se admite la petición, o los nanosegundos que faltan para que se admita.
+     */
+    public long tryAcquire(String route, String keyType, String value, RateLimitProperties.Limit limit) {
+        long now = System.nanoTime();
+        long periodNanos = limit.getPeriod().toNanos();
+        long intervalNanos = periodNanos / Math.max(1, limit.getCapacity());
+        Key key = new Key(route, keyType, value);
+
+        TokenBucket bucket;
+        lock.lock();
+        try {
+            bucket = buckets.get(key);
+            if (bucket == null && (buckets.size() < maxBuckets || makeRoom(now))) {
+                bucket = new TokenBucket(now, intervalNanos, periodNanos);
+                buckets.put(key, bucket);
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Sin sitio para la clave: se la trata como frenada hasta que se libere un cubo
+        long retryAfter = bucket == null ? intervalNanos : bucket.tryConsume(now);
+        counter(route, keyType, retryAfter == 0 ? "allowed" : "rejected").increment();
+        return retryAfter;
+    }
+
+    @Scheduled(fixedDelayString = "${reservas.rate-limit.purge-interval-ms:60000}")
+    public void purgeIdle() {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getBucketCount() {
+        lock.lock();
+        try {
+            return buckets.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Quita el cubo menos usado que no esté frenando a su clave, mirando solo los primeros. Con el lock del mapa.
+     * @return false si no se ha podido hacer sitio.
+     */
+    private boolean makeRoom(long now) {
+        Iterator<TokenBucket> leastRecentlyUsed = buckets.values().iterator();
+        for (int i = 0; i < EVICTION_SCAN && leastRecentlyUsed.hasNext(); i++) {
+            if (!leastRecentlyUsed.next().isThrottled(now)) {
+                leastRecentlyUsed.remove();
+                counter("all", "any", "evicted").increment();
+                return true;
+            }
+        }
+        counter("all", "any", "no-room").increment();
+        return false;
+    }
+
+    private Counter counter(String route, String keyType, String result) {
+        return counters.computeIfAbsent(route + '|' + keyType + '|' + result, name -> Counter.builder("reservas.rate-limit")
+                .tag("route", route)
+                .tag("key", keyType)
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,104 @@
+package infrastructure.adapter.in.web.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita las peticiones a las rutas públicas (descubrimiento y autenticación) antes de validar el JWT,
+ * para que el scraping o el relleno de credenciales se corten sin llegar a la BD ni a BCrypt.
+ * La IP es la de la conexión ({@code getRemoteAddr()}): detrás de un proxy, el servidor debe
+ * configurarse para fiarse de X-Forwarded-For (server.forward-headers-strategy), no este filtro.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitingFilter extends OncePerRequestFilter {
+
+    // Cuerpo máximo que se lee para sacar el nombre de usuario; uno mayor no es un login legítimo
+    private static final int MAX_INSPECTED_BODY = 4_096;
+
+    private final RateLimitProperties properties;
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Map.Entry<String, RateLimitProperties.Route> entry : properties.getRoutes().entrySet()) {
+            RateLimitProperties.Route route = entry.getValue();
+            if (route.getPatterns().stream().noneMatch(pattern -> pathMatcher.match(pattern, path))) {
+                continue;
+            }
+            if (route.getPerIp() != null
+                    && reject(response, rateLimiter.tryAcquire(entry.getKey(), "ip", request.getRemoteAddr(), route.getPerIp()))) {
+                return;
+            }
+            if (route.getPerUsername() != null && HttpMethod.POST.matches(request.getMethod())) {
+                if (!(request instanceof CachedBodyHttpServletRequest)) {
+                    request = new CachedBodyHttpServletRequest(request, MAX_INSPECTED_BODY);
+                }
+                // Sin el cuerpo entero no hay usuario que limitar: un cuerpo inflado no puede saltarse el límite
+                if (((CachedBodyHttpServletRequest) request).getCachedBody() == null) {
+                    response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), "Request body too large.");
+                    return;
+                }
+                String username = readUsername((CachedBodyHttpServletRequest) request);
+                if (username != null
+                        && reject(response, rateLimiter.tryAcquire(entry.getKey(), "username", username, route.getPerUsername()))) {
+                    return;
+                }
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private String readUsername(CachedBodyHttpServletRequest request) {
+        byte[] body = request.getCachedBody();
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode username = objectMapper.readTree(body).path("username");
+            // Mismo usuario con otras mayúsculas o espacios cuenta igual
+            return username.isTextual() && StringUtils.hasText(username.asText())
+                    ? username.asText().trim().toLowerCase(Locale.ROOT)
+                    : null;
+        } catch (IOException ex) {
+            // JSON inválido: el controlador responderá 400
+            return null;
+        }
+    }
+
+    private boolean reject(HttpServletResponse response, long retryAfterNanos) throws IOException {
+        if (retryAfterNanos == 0) {
+            return false;
+        }
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setHeader("Retry-After", Long.toString(seconds));
+        response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many requests. Please try again later.");
+        return true;
+    }
+}
@@ -0,0 +1,53 @@
+package infrastructure.adapter.in.web.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cubo de tokens sin locks, guardado como un único instante (algoritmo GCRA): el momento en que el cubo
+ * volverá a estar lleno. Cada petición lo adelanta un intervalo (periodo / capacidad); se admite mientras
+ * no quede más de un periodo por delante de ahora. Consumir es un compareAndSet sobre un long.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long periodNanos;
+    // System.nanoTime() en que el cubo vuelve a estar lleno
+    private final AtomicLong fullAt;
+
+    TokenBucket(long now, long intervalNanos, long periodNanos) {
+        this.intervalNanos = intervalNanos;
+        this.periodNanos = periodNanos;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * @return 0 si se admite la petición, o los nanosegundos que faltan para que quede un token.
+     */
+    long tryConsume(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current - now, 0) + now + intervalNanos;
+            long ahead = next - now;
+            if (ahead > periodNanos) {
+                return ahead - periodNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Un cubo lleno no guarda información: se puede quitar del mapa sin cambiar ningún límite.
+     */
+    boolean isFull(long now) {
+        return fullAt.get() - now <= 0;
+    }
+
+    /**
+     * Un cubo sin tokens está frenando a su clave: quitarlo la dejaría empezar otra vez con el cubo lleno.
+     */
+    boolean isThrottled(long now) {
+        return fullAt.get() - now + intervalNanos > periodNanos;
+    }
+}
@@ -0,0 +1,14 @@
+package infrastructure.adapter.in.web.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Token de acceso ya verificado.
+ * @param user el usuario, reconstruido a partir de los claims.
+ * @param id el jti, para revocar este token en concreto.
+ * @param issuedAt cuándo se emitió, con milisegundos (claim iat_ms; en tokens anteriores, el iat de JWT en segundos).
+ * @param expiresAt cuándo caduca.
+ */
+public record AccessToken(SpringSecurityUser user, UUID id, Instant issuedAt, Instant expiresAt) {
+}
@@ -1,5 +1,6 @@
 package infrastructure.adapter.in.web.security;
 
+import domain.event.UserChangedEvent;
 import infrastructure.adapter.in.web.dto.AuthResponseDTO;
 import infrastructure.adapter.in.web.dto.LoginRequestDTO;
 import infrastructure.adapter.in.web.dto.RegisterRequestDTO;
@@ -7,6 +8,7 @@ import domain.model.Role;
 import domain.model.User;
 import domain.port.out.UserPersistencePort;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -26,6 +28,9 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationList tokenRevocationList;
+    private final ApplicationEventPublisher eventPublisher;
 
     public User registerUser(RegisterRequestDTO request) {
         if (userRepository.existsByEmail(request.getEmail())) {
@@ -61,7 +66,9 @@ public class AuthService {
                 .roles(domainRoles)
                 .build();
 
-        return userRepository.save(newUser);
+        User savedUser = userRepository.save(newUser);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser, false));
+        return savedUser;
     }
 
     private String getValidPublicRoles() {
@@ -78,8 +85,33 @@ public class AuthService {
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
-        String jwt = jwtTokenProvider.generateToken(authentication);
-        return new AuthResponseDTO(jwt);
+        SpringSecurityUser user = (SpringSecurityUser) authentication.getPrincipal();
+        String refreshToken = refreshTokenService.issue(user.getId());
+        return buildResponse(jwtTokenProvider.generateToken(user), refreshToken);
+    }
+
+    /**
+     * Cambia el token de refresco por uno nuevo y un token de acceso con los datos actuales del usuario.
+     */
+    public AuthResponseDTO refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        String jwt = jwtTokenProvider.generateToken(new SpringSecurityUser(rotation.user()));
+        return buildResponse(jwt, rotation.refreshToken());
+    }
+
+    /**
+     * Revoca el token de refresco del cliente y, si lo envía, también su token de acceso.
+     * @param accessToken el token de acceso de la cabecera Authorization, o null.
+     */
+    public void logout(String refreshToken, String accessToken) {
+        refreshTokenService.revoke(refreshToken);
+        if (accessToken != null) {
+            jwtTokenProvider.parseAccessToken(accessToken).ifPresent(tokenRevocationList::revokeToken);
+        }
+    }
+
+    private AuthResponseDTO buildResponse(String jwt, String refreshToken) {
+        return new AuthResponseDTO(jwt, jwtTokenProvider.getExpirationMs() / 1000, refreshToken);
     }
 
     public User getCurrentAuthenticatedUser() {
@@ -0,0 +1,157 @@
+package infrastructure.adapter.in.web.security;
+
+import domain.exception.ServerBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * BCrypt en un pool propio de pocos hilos con cola acotada, en lugar de en el hilo de la petición.
+ * Las peticiones son hilos virtuales: sin este pool, una avalancha de logins ocupa todos los hilos
+ * portadores con hashes y las reservas se quedan sin CPU. Con él, a la vez solo hay tantos hashes como
+ * hilos del pool; si la cola está llena o el hash no empieza a tiempo se responde 503 enseguida.
+ *
+ * El coste (strength) se calcula al arrancar a partir de lo que tarda un hash en esta máquina, para que
+ * uno dure como mucho {@code reservas.password.target-hash-time}, o se fija con {@code reservas.password.strength}.
+ * Los hashes guardados con un coste menor se rehacen con el nuevo en el siguiente login correcto
+ * ({@link #upgradeEncoding} y {@link CustomUserDetailsService#updatePassword}).
+ */
+@Component
+public class BoundedBCryptPasswordEncoder implements PasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedBCryptPasswordEncoder.class);
+
+    // Coste con el que se mide la máquina: lo bastante alto para que domine el trabajo por ronda
+    private static final int CALIBRATION_STRENGTH = 8;
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final long maxWaitNanos;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public BoundedBCryptPasswordEncoder(MeterRegistry meterRegistry,
+                                        @Value("${reservas.password.strength:0}") int fixedStrength,
+                                        @Value("${reservas.password.target-hash-time:PT0.25S}") Duration targetHashTime,
+                                        @Value("${reservas.password.min-strength:10}") int minStrength,
+                                        @Value("${reservas.password.max-strength:14}") int maxStrength,
+                                        @Value("${reservas.password.threads:0}") int threads,
+                                        @Value("${reservas.password.queue-capacity:64}") int queueCapacity,
+                                        @Value("${reservas.password.max-wait:PT2S}") Duration maxWait) {
+        this.strength = fixedStrength > 0 ? fixedStrength : calibrate(targetHashTime, minStrength, maxStrength);
+        this.delegate = new BCryptPasswordEncoder(strength);
+        // Por defecto, la mitad de los núcleos: el resto queda para las demás peticiones
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hash-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.maxWaitNanos = maxWait.toNanos();
+
+        this.encodeTimer = Timer.builder("reservas.password.hash").tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("reservas.password.hash").tag("operation", "matches").register(meterRegistry);
+        this.rejected = Counter.builder("reservas.password.rejected").register(meterRegistry);
+        Gauge.builder("reservas.password.queue", executor, e -> e.getQueue().size())
+                .description("Hashes esperando un hilo del pool")
+                .register(meterRegistry);
+        Gauge.builder("reservas.password.strength", () -> strength).register(meterRegistry);
+        logger.info("BCrypt con coste {} en {} hilos (cola de {})", strength, poolSize, queueCapacity);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return offload(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return offload(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Un hash con un coste menor que el actual se rehace al siguiente login (nunca se baja el coste).
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T offload(Callable<T> hash) {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        Future<T> future;
+        try {
+            future = executor.submit(hash);
+        } catch (RejectedExecutionException ex) {
+            rejected.increment();
+            throw new ServerBusyException("Too many authentication requests right now. Please try again later.");
+        }
+        try {
+            return future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            // Si aún estaba en la cola no llega a ejecutarse
+            future.cancel(true);
+            rejected.increment();
+            throw new ServerBusyException("Too many authentication requests right now. Please try again later.");
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServerBusyException("Interrupted while waiting for password hashing.");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Cada punto de coste duplica el tiempo: se mide uno bajo y se sube desde el mínimo hasta el mayor que cabe en el objetivo.
+     */
+    private static int calibrate(Duration targetHashTime, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(CALIBRATION_STRENGTH);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        // Tiempo estimado con el coste mínimo; desde ahí se sube mientras el siguiente quepa en el objetivo
+        double time = best * Math.pow(2, minStrength - CALIBRATION_STRENGTH);
+        int calibrated = minStrength;
+        while (calibrated < maxStrength && time * 2 <= targetHashTime.toNanos()) {
+            time *= 2;
+            calibrated++;
+        }
+        return Math.max(minStrength, Math.min(maxStrength, calibrated));
+    }
+}
@@ -3,6 +3,7 @@ package infrastructure.adapter.in.web.security;
 import domain.port.out.OfferedServicePersistencePort;
 import domain.port.out.BookingPersistencePort;
 import domain.port.out.TimeSlotPersistencePort;
+import domain.port.out.WaitlistPersistencePort;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,6 +21,7 @@ public class CustomSecurityExpressions {
     private final OfferedServicePersistencePort offeredServicePersistencePort;
     private final BookingPersistencePort bookingPersistencePort;
     private final TimeSlotPersistencePort timeSlotPersistencePort;
+    private final WaitlistPersistencePort waitlistPersistencePort;
 
     // --- Métodos de Autorización ---
 
@@ -48,6 +50,18 @@ public class CustomSecurityExpressions {
                 .orElse(false);
     }
 
+    /**
+     * Verifica si el usuario autenticado es el cliente de una entrada de lista de espera.
+     */
+    public boolean isWaitlistEntryClient(UUID entryUuid) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        RequesterContext requester = createRequesterContext(authentication);
+
+        return waitlistPersistencePort.findByUuid(entryUuid)
+                .map(entry -> entry.getClient().getUuid().equals(requester.userUuid().orElse(null)))
+                .orElse(false);
+    }
+
     public boolean isBookingParticipant(UUID bookingUuid) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         // Es participante si es el cliente O el proveedor del servicio del slot
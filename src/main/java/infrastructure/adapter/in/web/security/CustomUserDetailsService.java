@@ -1,24 +1,140 @@
 package infrastructure.adapter.in.web.security;
 
+import domain.event.UserChangedEvent;
 import domain.model.User;
+import domain.port.out.CacheInvalidationPort;
 import infrastructure.adapter.out.persistence.repository.UserPersistenceAdapter;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Carga el usuario de cada petición autenticada. Se cachea por nombre de usuario para no consultar
+ * la BD en cada petición con JWT; la entrada se descarta cuando el usuario cambia (roles, contraseña,
+ * baja), en este nodo con el evento de dominio y en los demás con el aviso de {@link CacheInvalidationPort}.
+ * El TTL acota lo que dura una entrada si se pierde un aviso. Al pasar de max-size se descarta la usada hace más tiempo.
+ * Cada descarte sube una generación: un usuario leído de la BD antes de un descarte se devuelve, pero no se
+ * guarda, para que la entrada descartada no vuelva con los datos de antes del cambio.
+ *
+ * También guarda el hash rehecho tras un login correcto cuando el coste de BCrypt ha subido.
+ */
 @Service
-@RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserPersistenceAdapter userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long ttlNanos;
+    private final int maxSize;
+
+    // Orden de acceso: la primera entrada es la usada hace más tiempo. Todos los accesos, con lock.
+    private final Map<String, CachedUser> cache;
+    // Nombre con el que está cacheado cada usuario, para descartarlo por UUID sin recorrer la caché
+    private final Map<UUID, String> usernames = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long generation;
+
+    public CustomUserDetailsService(UserPersistenceAdapter userRepository,
+                                    CacheInvalidationPort cacheInvalidationPort,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${reservas.security.user-cache.ttl:PT5M}") Duration ttl,
+                                    @Value("${reservas.security.user-cache.max-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUser> eldest) {
+                if (size() <= CustomUserDetailsService.this.maxSize) {
+                    return false;
+                }
+                usernames.remove(eldest.getValue().userUuid(), eldest.getKey());
+                return true;
+            }
+        };
+        cacheInvalidationPort.subscribe(CacheInvalidationPort.USERS, key -> evict(UUID.fromString(key)));
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        long now = System.nanoTime();
+        long loadGeneration;
+        lock.lock();
+        try {
+            CachedUser cached = cache.get(username);
+            if (cached != null && now - cached.loadedAt() <= ttlNanos) {
+                return cached.details();
+            }
+            loadGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+
         User usuario = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con nombre de usuario: " + username));
 
-        return new SpringSecurityUser(usuario);
+        SpringSecurityUser details = new SpringSecurityUser(usuario);
+        lock.lock();
+        try {
+            if (generation == loadGeneration) {
+                String previous = usernames.put(usuario.getUuid(), username);
+                if (previous != null && !previous.equals(username)) {
+                    // Ha cambiado de nombre: la entrada con el nombre antiguo ya no vale
+                    cache.remove(previous);
+                }
+                cache.put(username, new CachedUser(usuario.getUuid(), details, now));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return details;
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User usuario = userRepository.findByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con nombre de usuario: " + user.getUsername()));
+        usuario.setPasswordHash(newPassword);
+        User saved = userRepository.save(usuario);
+        // Descarta la entrada cacheada aquí y en los demás nodos, que aún tienen el hash antiguo
+        eventPublisher.publishEvent(new UserChangedEvent(saved, false));
+        return new SpringSecurityUser(saved);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.user().getUuid());
+    }
+
+    /**
+     * Descarta el usuario por su UUID: si ha cambiado de nombre, la entrada está con el nombre antiguo.
+     */
+    public void evict(UUID userUuid) {
+        lock.lock();
+        try {
+            generation++;
+            String username = usernames.remove(userUuid);
+            if (username != null) {
+                cache.remove(username);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record CachedUser(UUID userUuid, SpringSecurityUser details, long loadedAt) {
     }
-}
\ No newline at end of file
+}
@@ -1,10 +1,13 @@
 package infrastructure.adapter.in.web.security;
 
+import domain.model.Role;
+import domain.model.User;
 import jakarta.annotation.PostConstruct;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.RequiredTypeException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -19,8 +22,13 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
@@ -28,6 +36,11 @@ public class JwtTokenProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+    private static final String UUID_CLAIM = "uid";
+    private static final String ROLES_CLAIM = "roles";
+    // iat con milisegundos: el estándar va en segundos y no basta para compararlo con una revocación de usuario
+    private static final String ISSUED_AT_MS_CLAIM = "iat_ms";
+
     @Value("${jwt.secret}")
     private String jwtSecretString;
 
@@ -48,72 +61,96 @@ public class JwtTokenProvider {
     }
 
     public String generateToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        return buildToken(userPrincipal.getUsername(), getRoles(userPrincipal));
-    }
-
-    public String generateToken(UserDetails userDetails) {
-        return buildToken(userDetails.getUsername(), getRoles(userDetails));
-    }
-
-    private List<String> getRoles(UserDetails userDetails) {
-        return userDetails.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.toList());
+        return generateToken((SpringSecurityUser) authentication.getPrincipal());
     }
 
-    private String buildToken(String username, List<String> roles) {
+    /**
+     * Token de acceso de vida corta con todo lo que necesita el principal ({@link SpringSecurityUser}),
+     * para que autorizar una petición no consulte la BD: los cambios del usuario (roles, baja) se
+     * aplican al refrescar, que sí la consulta.
+     */
+    public String generateToken(SpringSecurityUser user) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
         return Jwts.builder()
-                .subject(username)
-                .claim("roles", roles)
-                .issuedAt(new Date())
+                .id(UUID.randomUUID().toString())
+                .subject(user.getUsername())
+                .claim(UUID_CLAIM, user.getUuid().toString())
+                .claim(ROLES_CLAIM, getRoles(user))
+                .issuedAt(now)
+                .claim(ISSUED_AT_MS_CLAIM, now.getTime())
                 .expiration(expiryDate)
                 .signWith(key)
                 .compact();
     }
 
-
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.getSubject();
+    public long getExpirationMs() {
+        return jwtExpirationMs;
     }
 
-    public List<String> getRolesFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.get("roles", List.class);
+    private List<String> getRoles(UserDetails userDetails) {
+        return userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
     }
 
-    public boolean validateToken(String authToken) {
+    /**
+     * Valida el token y reconstruye el usuario a partir de sus claims, con una sola verificación de firma.
+     * No comprueba si está revocado: eso lo dice {@link TokenRevocationList}.
+     * @return el token, o vacío si no es válido, ha caducado o no lleva los claims necesarios.
+     */
+    public Optional<AccessToken> parseAccessToken(String authToken) {
         try {
-            Jwts.parser()
+            Claims claims = Jwts.parser()
                     .verifyWith(key)
                     .build()
-                    .parseSignedClaims(authToken);
-            return true;
+                    .parseSignedClaims(authToken)
+                    .getPayload();
+            String uuid = claims.get(UUID_CLAIM, String.class);
+            if (uuid == null || claims.getId() == null || claims.getIssuedAt() == null) {
+                // Token de antes de los claims (de 24 h): se vuelve a iniciar sesión
+                logger.debug("Token JWT sin los claims {}, jti o iat", UUID_CLAIM);
+                return Optional.empty();
+            }
+            List<?> roles = claims.get(ROLES_CLAIM, List.class);
+            // Los tokens emitidos antes de iat_ms (de vida corta) usan iat, que redondea hacia abajo: nunca aceptan de más
+            Long issuedAtMs = claims.get(ISSUED_AT_MS_CLAIM, Long.class);
+            Instant issuedAt = issuedAtMs != null ? Instant.ofEpochMilli(issuedAtMs) : claims.getIssuedAt().toInstant();
+            User user = User.builder()
+                    .uuid(UUID.fromString(uuid))
+                    .username(claims.getSubject())
+                    .active(Boolean.TRUE)
+                    .roles(toRoles(roles))
+                    .build();
+            return Optional.of(new AccessToken(new SpringSecurityUser(user), UUID.fromString(claims.getId()),
+                    issuedAt, claims.getExpiration().toInstant()));
         } catch (SecurityException ex) {
             logger.error("Firma JWT inválida: {}", ex.getMessage());
         } catch (MalformedJwtException ex) {
             logger.error("Token JWT malformado: {}", ex.getMessage());
         } catch (ExpiredJwtException ex) {
-            logger.error("Token JWT expirado: {}", ex.getMessage());
+            // Normal con tokens de vida corta: el cliente debe refrescarlo
+            logger.debug("Token JWT expirado: {}", ex.getMessage());
         } catch (UnsupportedJwtException ex) {
             logger.error("Token JWT no soportado: {}", ex.getMessage());
-        } catch (IllegalArgumentException ex) {
-            // Esta excepción puede ocurrir si el token es nulo o vacío antes de ser pasado
-            // o si la clave es inválida durante la construcción del parser.
+        } catch (IllegalArgumentException | RequiredTypeException ex) {
+            // Token nulo o vacío, clave inválida, o claims con un tipo o valor inesperado
             logger.error("Argumento JWT inválido: {}", ex.getMessage());
         }
-        return false;
+        return Optional.empty();
+    }
+
+    private static Set<Role> toRoles(List<?> authorities) {
+        if (authorities == null) {
+            return Set.of();
+        }
+        Set<Role> roles = EnumSet.noneOf(Role.class);
+        for (Role role : Role.values()) {
+            if (authorities.contains(role.getAuthority())) {
+                roles.add(role);
+            }
+        }
+        return roles;
     }
 }
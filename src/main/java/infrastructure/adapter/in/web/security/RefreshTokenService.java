@@ -0,0 +1,149 @@
+package infrastructure.adapter.in.web.security;
+
+import domain.exception.InvalidRefreshTokenException;
+import domain.model.RefreshToken;
+import domain.model.User;
+import domain.port.out.RefreshTokenPersistencePort;
+import domain.port.out.UserPersistencePort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Tokens de refresco opacos y rotatorios. Cada refresco gasta el token y entrega otro de la misma familia;
+ * presentar uno ya gastado significa que lo tienen dos clientes (uno lo ha robado), así que se revoca
+ * la familia entera y ambos tienen que volver a iniciar sesión. Es el único paso de la autenticación
+ * que consulta la BD: ahí se recogen los cambios del usuario (roles, baja).
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenPersistencePort refreshTokenPersistencePort;
+    private final UserPersistencePort userPersistencePort;
+    private final SecureRandom random = new SecureRandom();
+    private final Duration ttl;
+
+    private final Counter rotated;
+    private final Counter reused;
+    private final Counter invalid;
+
+    public RefreshTokenService(RefreshTokenPersistencePort refreshTokenPersistencePort,
+                               UserPersistencePort userPersistencePort,
+                               MeterRegistry meterRegistry,
+                               @Value("${jwt.refresh.expiration.ms:1209600000}") long ttlMs) {
+        this.refreshTokenPersistencePort = refreshTokenPersistencePort;
+        this.userPersistencePort = userPersistencePort;
+        this.ttl = Duration.ofMillis(ttlMs);
+        this.rotated = Counter.builder("reservas.auth.refresh").tag("result", "rotated").register(meterRegistry);
+        this.reused = Counter.builder("reservas.auth.refresh").tag("result", "reused").register(meterRegistry);
+        this.invalid = Counter.builder("reservas.auth.refresh").tag("result", "invalid").register(meterRegistry);
+    }
+
+    /**
+     * Resultado de un refresco: el usuario tal y como está ahora en la BD y el nuevo token de refresco.
+     */
+    public record Rotation(User user, String refreshToken) {
+    }
+
+    /**
+     * Emite el primer token de una familia nueva (al iniciar sesión).
+     * @return el token para el cliente; en la BD solo queda su hash.
+     */
+    public String issue(Long userId) {
+        return issue(userId, UUID.randomUUID());
+    }
+
+    /**
+     * Gasta el token y emite el siguiente de su familia.
+     * @throws InvalidRefreshTokenException si el token no sirve; si ya se había gastado, además revoca su familia.
+     */
+    public Rotation rotate(String rawToken) {
+        Instant now = Instant.now();
+        RefreshToken token = find(rawToken);
+        if (token.revokedAt() != null || !now.isBefore(token.expiresAt())) {
+            invalid.increment();
+            throw new InvalidRefreshTokenException("Refresh token is expired or revoked. Please log in again.");
+        }
+        if (token.usedAt() != null || !refreshTokenPersistencePort.markUsed(token.tokenHash(), now)) {
+            // Ya gastado, antes o en una carrera con otra petición: el token está en dos sitios
+            int revoked = refreshTokenPersistencePort.revokeFamily(token.familyId(), now);
+            reused.increment();
+            logger.warn("Reutilización de un token de refresco del usuario {}: revocados {} tokens de su familia", token.userId(), revoked);
+            throw new InvalidRefreshTokenException("Refresh token was already used. Please log in again.");
+        }
+
+        Optional<User> user = userPersistencePort.findById(token.userId());
+        if (user.isEmpty() || !Boolean.TRUE.equals(user.get().getActive())) {
+            refreshTokenPersistencePort.revokeFamily(token.familyId(), now);
+            invalid.increment();
+            throw new InvalidRefreshTokenException("User is no longer active.");
+        }
+        rotated.increment();
+        return new Rotation(user.get(), issue(token.userId(), token.familyId()));
+    }
+
+    /**
+     * Revoca la familia del token (cierre de sesión en ese cliente). Un token desconocido se ignora.
+     */
+    public void revoke(String rawToken) {
+        refreshTokenPersistencePort.findByHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenPersistencePort.revokeFamily(token.familyId(), Instant.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        try {
+            int deleted = refreshTokenPersistencePort.deleteExpired(Instant.now());
+            if (deleted > 0) {
+                logger.info("Eliminados {} tokens de refresco caducados", deleted);
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("No se pudieron purgar los tokens de refresco: {}", ex.getMessage());
+        }
+    }
+
+    private RefreshToken find(String rawToken) {
+        return refreshTokenPersistencePort.findByHash(hash(rawToken))
+                .orElseThrow(() -> {
+                    invalid.increment();
+                    return new InvalidRefreshTokenException("Invalid refresh token. Please log in again.");
+                });
+    }
+
+    private String issue(Long userId, UUID familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenPersistencePort.save(new RefreshToken(hash(rawToken), familyId, userId,
+                Instant.now().plus(ttl), null, null));
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package infrastructure.adapter.in.web.security;
+
+import domain.event.UserChangedEvent;
+import domain.model.Revocation;
+import domain.port.out.RevocationPersistencePort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Copia en memoria de la tabla revocations, para comprobar en cada petición si su token de acceso está
+ * revocado sin consultar la BD. Los tokens revocados están en un conjunto exacto (jti -> caducidad) con un
+ * filtro de Bloom delante: casi todas las peticiones llevan un token no revocado, y el filtro lo descarta
+ * con unos pocos accesos a memoria. Las revocaciones de usuario (baja o borrado) son un mapa
+ * usuario -> instante: se rechazan los tokens suyos emitidos hasta ese milisegundo (iat_ms), así que uno
+ * emitido justo después (al reactivarlo o volver a iniciar sesión) vale.
+ *
+ * Las revocaciones de este nodo se aplican al momento; las de los demás, al leer las filas nuevas cada
+ * {@code reservas.revocations.poll-interval-ms}. Como en {@code DatabaseCacheInvalidationAdapter}, cada
+ * lectura repite los últimos segundos (commit-grace) por las filas que se confirman tarde; aplicar una
+ * revocación dos veces no cambia nada. Las entradas se quitan cuando ya no queda ningún token al que afecten.
+ *
+ * La lista se carga al crear el bean, antes de que el nodo atienda peticiones. Si no se ha podido cargar, o
+ * lleva más de {@code reservas.revocations.max-staleness} sin poder leer la tabla, no se sabe qué tokens están
+ * revocados: se rechazan todos (el cliente tendrá que renovar el suyo). La entrada y la salida de ese estado
+ * quedan en el log, y el gauge {@code reservas.revocations.stale} vale 1 mientras dura; en cuanto un sondeo
+ * lee la tabla se vuelven a aceptar.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final RevocationPersistencePort revocationPersistencePort;
+    private final Duration accessTokenTtl;
+    private final Duration commitGrace;
+    private final Duration maxStaleness;
+    private final int expectedTokens;
+
+    private final Map<UUID, Instant> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<UUID, Instant> revokedUsers = new ConcurrentHashMap<>();
+    // Se sustituye entero al purgar; las altas se hacen con el lock para no perder ninguna en el cambio
+    private volatile BloomFilter filter;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Hora (de la BD) de la revocación más reciente leída; null hasta la primera carga
+    private Instant since;
+    // Inicio (hora local) de la última lectura completa de la tabla; null hasta la primera carga
+    private volatile Instant syncedAt;
+    // Si se están rechazando todos los tokens por lista desfasada; solo para avisar al entrar y al salir
+    private final AtomicBoolean failingClosed = new AtomicBoolean();
+
+    private final Counter rejected;
+    private final Counter falsePositives;
+    private final Counter staleRejections;
+
+    public TokenRevocationList(RevocationPersistencePort revocationPersistencePort,
+                               MeterRegistry meterRegistry,
+                               @Value("${jwt.expiration.ms}") long accessTokenTtlMs,
+                               @Value("${reservas.revocations.commit-grace:PT5S}") Duration commitGrace,
+                               @Value("${reservas.revocations.expected-tokens:100000}") int expectedTokens,
+                               @Value("${reservas.revocations.max-staleness:PT30S}") Duration maxStaleness) {
+        this.revocationPersistencePort = revocationPersistencePort;
+        this.accessTokenTtl = Duration.ofMillis(accessTokenTtlMs);
+        this.commitGrace = commitGrace;
+        this.maxStaleness = maxStaleness;
+        this.expectedTokens = expectedTokens;
+        this.filter = new BloomFilter(expectedTokens, FALSE_POSITIVE_RATE);
+        this.rejected = Counter.builder("reservas.revocations.checks").tag("result", "revoked").register(meterRegistry);
+        this.falsePositives = Counter.builder("reservas.revocations.checks").tag("result", "false_positive").register(meterRegistry);
+        this.staleRejections = Counter.builder("reservas.revocations.checks").tag("result", "stale").register(meterRegistry);
+        Gauge.builder("reservas.revocations.tokens", revokedTokens, Map::size).register(meterRegistry);
+        Gauge.builder("reservas.revocations.users", revokedUsers, Map::size).register(meterRegistry);
+        // Segundos desde la última lectura completa (infinito si nunca se ha cargado): para alertar si pasa de max-staleness
+        Gauge.builder("reservas.revocations.age", this, TokenRevocationList::ageSeconds).baseUnit("seconds").register(meterRegistry);
+        Gauge.builder("reservas.revocations.stale", this, list -> list.isStale() ? 1 : 0).register(meterRegistry);
+    }
+
+    /**
+     * Carga las revocaciones vigentes antes de que el nodo empiece a aceptar peticiones. Si falla, el nodo
+     * arranca igualmente, rechazando todos los tokens hasta que un sondeo consiga cargarlas.
+     */
+    @PostConstruct
+    public void loadOnStartup() {
+        poll();
+        if (syncedAt == null && failingClosed.compareAndSet(false, true)) {
+            logger.error("Sin lista de revocaciones al arrancar: se rechazan todos los tokens de acceso hasta poder leerla");
+        }
+    }
+
+    /**
+     * @return true si el token se ha revocado, él o todos los de su usuario, o si la lista está desfasada.
+     */
+    public boolean isRevoked(AccessToken token) {
+        if (isStale()) {
+            if (failingClosed.compareAndSet(false, true)) {
+                logger.error("Lista de revocaciones sin leer desde {}: se rechazan todos los tokens de acceso", syncedAt);
+            }
+            staleRejections.increment();
+            return true;
+        }
+        Instant userRevokedAt = revokedUsers.get(token.user().getUuid());
+        if (userRevokedAt != null && !token.issuedAt().isAfter(userRevokedAt)) {
+            rejected.increment();
+            return true;
+        }
+        if (!filter.mightContain(token.id())) {
+            return false;
+        }
+        if (revokedTokens.containsKey(token.id())) {
+            rejected.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Revoca un token concreto (cierre de sesión) hasta que caduque.
+     */
+    public void revokeToken(AccessToken token) {
+        revoke(new Revocation(Revocation.Type.TOKEN, token.id(), Instant.now(), token.expiresAt()));
+    }
+
+    /**
+     * Revoca todos los tokens emitidos hasta ahora a un usuario.
+     */
+    public void revokeUser(UUID userUuid) {
+        // Con la precisión de iat_ms, para que la comparación sea la misma aquí y tras leerla de la BD
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        revoke(new Revocation(Revocation.Type.USER, userUuid, now, now.plus(accessTokenTtl)));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.deleted() || !Boolean.TRUE.equals(event.user().getActive())) {
+            revokeUser(event.user().getUuid());
+        }
+    }
+
+    /**
+     * Lee las revocaciones nuevas (de todos los nodos). La primera vez carga todas las vigentes.
+     */
+    @Scheduled(fixedDelayString = "${reservas.revocations.poll-interval-ms:1000}")
+    public void poll() {
+        Instant started = Instant.now();
+        try {
+            if (since == null) {
+                load();
+                synced(started);
+                return;
+            }
+            Instant from = since.minus(commitGrace);
+            RevocationPersistencePort.Page page;
+            long afterId = 0;
+            do {
+                page = revocationPersistencePort.findCreatedSince(from, afterId, BATCH_SIZE);
+                page.revocations().forEach(this::apply);
+                afterId = page.lastId();
+                if (page.latestCreatedAt() != null && page.latestCreatedAt().isAfter(since)) {
+                    since = page.latestCreatedAt();
+                }
+            } while (page.revocations().size() == BATCH_SIZE);
+            synced(started);
+        } catch (RuntimeException ex) {
+            // Se sigue con lo que se sabe; lo que falte llegará en el siguiente sondeo
+            if (isStale()) {
+                failingClosed.set(true);
+                logger.error("Lista de revocaciones desfasada, se rechazan todos los tokens de acceso: {}", ex.getMessage());
+            } else {
+                logger.warn("No se pudieron leer las revocaciones de tokens: {}", ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return true si la lista no se ha cargado nunca o lleva más de max-staleness sin leerse entera.
+     */
+    public boolean isStale() {
+        Instant synced = syncedAt;
+        return synced == null || synced.plus(maxStaleness).isBefore(Instant.now());
+    }
+
+    /**
+     * Quita las revocaciones que ya no afectan a ningún token vigente y reconstruye el filtro sin ellas
+     * (y con más capacidad si hace falta). Una instancia borra además las filas de la BD; hacerlo desde
+     * varios nodos a la vez no causa problemas.
+     */
+    @Scheduled(fixedDelayString = "${reservas.revocations.purge-interval-ms:60000}")
+    public void purge() {
+        Instant now = Instant.now();
+        lock.lock();
+        try {
+            revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+            revokedUsers.values().removeIf(revokedAt -> !revokedAt.plus(accessTokenTtl).isAfter(now));
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, revokedTokens.size() * 2), FALSE_POSITIVE_RATE);
+            revokedTokens.keySet().forEach(rebuilt::add);
+            filter = rebuilt;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            int deleted = revocationPersistencePort.deleteExpired(now);
+            if (deleted > 0) {
+                logger.debug("Borradas {} revocaciones caducadas", deleted);
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("No se pudieron borrar las revocaciones caducadas: {}", ex.getMessage());
+        }
+    }
+
+    private void load() {
+        // El cursor se fija antes de leer: lo que se inserte mientras tanto llega en el siguiente sondeo
+        Instant latest = revocationPersistencePort.findLatestCreatedAt().orElse(Instant.EPOCH);
+        Instant now = Instant.now();
+        RevocationPersistencePort.Page page;
+        long afterId = 0;
+        int loaded = 0;
+        do {
+            page = revocationPersistencePort.findActive(now, afterId, BATCH_SIZE);
+            page.revocations().forEach(this::apply);
+            loaded += page.revocations().size();
+            afterId = page.lastId();
+        } while (page.revocations().size() == BATCH_SIZE);
+        since = latest;
+        logger.info("Cargadas {} revocaciones de tokens vigentes", loaded);
+    }
+
+    private void synced(Instant started) {
+        syncedAt = started;
+        if (failingClosed.compareAndSet(true, false)) {
+            logger.warn("Lista de revocaciones leída de nuevo: se vuelven a aceptar los tokens de acceso");
+        }
+    }
+
+    private double ageSeconds() {
+        Instant synced = syncedAt;
+        return synced == null ? Double.POSITIVE_INFINITY : Duration.between(synced, Instant.now()).toMillis() / 1000.0;
+    }
+
+    private void revoke(Revocation revocation) {
+        apply(revocation);
+        try {
+            revocationPersistencePort.save(revocation);
+        } catch (RuntimeException ex) {
+            // En este nodo ya está revocado; los demás no se enterarán
+            logger.error("No se pudo guardar la revocación de {} {}: {}", revocation.type(), revocation.subject(), ex.getMessage());
+        }
+    }
+
+    private void apply(Revocation revocation) {
+        if (!revocation.expiresAt().isAfter(Instant.now())) {
+            return;
+        }
+        if (revocation.type() == Revocation.Type.USER) {
+            revokedUsers.merge(revocation.subject(), revocation.revokedAt(), (a, b) -> a.isAfter(b) ? a : b);
+            return;
+        }
+        lock.lock();
+        try {
+            revokedTokens.put(revocation.subject(), revocation.expiresAt());
+            filter.add(revocation.subject());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package infrastructure.adapter.in.web.util;
+
+import domain.model.CatalogVersion;
+import domain.port.in.CatalogVersionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class CatalogConditionalGet {
+
+    private final CatalogVersionService catalogVersionService;
+
+    /**
+     * Versión actual del catálogo de un servicio o proveedor.
+     * Debe leerse antes de consultar los datos: si la versión cambia mientras tanto, el cliente
+     * recibe datos nuevos con la versión anterior y simplemente volverá a recibir un 200.
+     */
+    public CatalogVersion currentVersion(UUID scopeUuid) {
+        return catalogVersionService.getVersion(scopeUuid);
+    }
+
+    /**
+     * Compara If-None-Match / If-Modified-Since con la versión del catálogo y añade
+     * ETag y Last-Modified a la respuesta.
+     *
+     * @param request la petición actual.
+     * @param resource nombre del recurso, para que dos listados del mismo scope no compartan ETag.
+     * @param version la versión obtenida con {@link #currentVersion(UUID)}.
+     * @return true si el cliente ya tiene la versión actual; el controlador debe devolver null (304 Not Modified).
+     */
+    public boolean checkNotModified(WebRequest request, String resource, CatalogVersion version) {
+        String etag = "\"" + resource + "-" + version.scopeUuid() + "-" + version.version() + "\"";
+        long lastModified = version.updatedAt() == null ? -1 : version.updatedAt().toEpochMilli();
+        return request.checkNotModified(etag, lastModified);
+    }
+}
@@ -0,0 +1,118 @@
+package infrastructure.adapter.in.web.util;
+
+import domain.exception.InvalidCursorException;
+import domain.model.Booking;
+import domain.model.BookingCursor;
+import domain.model.Slice;
+import domain.model.TimeSlot;
+import domain.model.TimeSlotCursor;
+import infrastructure.adapter.in.web.dto.SliceResponseDTO;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cursores opacos de los listados paginados por clave, y construcción de sus respuestas.
+ * El cliente solo debe devolver el 'nextCursor' recibido en el parámetro 'cursor' para pedir la página siguiente.
+ */
+@Component
+public class CursorPagination {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Respuesta de un listado ordenado por id: el cursor es el id del último elemento.
+     */
+    public <D, T> SliceResponseDTO<T> toResponse(Slice<D> slice, Function<D, T> mapper, Function<D, Long> idOf) {
+        return build(slice, mapper, last -> encode(String.valueOf(idOf.apply(last))));
+    }
+
+    /**
+     * Respuesta de un listado de slots ordenado por (startTime, id).
+     */
+    public <T> SliceResponseDTO<T> toTimeSlotResponse(Slice<TimeSlot> slice, Function<TimeSlot, T> mapper) {
+        return build(slice, mapper, last -> {
+            TimeSlotCursor cursor = TimeSlotCursor.after(last);
+            return encodeTimeKey(cursor.startTime(), cursor.id());
+        });
+    }
+
+    /**
+     * Respuesta de un listado de bookings ordenado por (hora de inicio del slot, id).
+     */
+    public <T> SliceResponseDTO<T> toBookingResponse(Slice<Booking> slice, Function<Booking, T> mapper) {
+        return build(slice, mapper, last -> {
+            BookingCursor cursor = BookingCursor.after(last);
+            return encodeTimeKey(cursor.startTime(), cursor.id());
+        });
+    }
+
+    /**
+     * @return el id codificado, o null si el cursor es nulo o vacío (primera página).
+     * @throws InvalidCursorException si el cursor no tiene el formato esperado.
+     */
+    public Long decodeId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(decode(cursor));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid pagination cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * @return la posición codificada, o null si el cursor es nulo o vacío (primera página).
+     * @throws InvalidCursorException si el cursor no tiene el formato esperado.
+     */
+    public TimeSlotCursor decodeTimeSlotCursor(String cursor) {
+        return decodeTimeKey(cursor, TimeSlotCursor::new);
+    }
+
+    /**
+     * @return la posición codificada, o null si el cursor es nulo o vacío (primera página).
+     * @throws InvalidCursorException si el cursor no tiene el formato esperado.
+     */
+    public BookingCursor decodeBookingCursor(String cursor) {
+        return decodeTimeKey(cursor, BookingCursor::new);
+    }
+
+    private static <C> C decodeTimeKey(String cursor, BiFunction<Instant, Long, C> factory) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = decode(cursor);
+            int separator = raw.indexOf(SEPARATOR);
+            return factory.apply(Instant.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid pagination cursor: " + cursor, e);
+        }
+    }
+
+    private static String encodeTimeKey(Instant instant, Long id) {
+        return encode(instant.toString() + SEPARATOR + id);
+    }
+
+    private <D, T> SliceResponseDTO<T> build(Slice<D> slice, Function<D, T> mapper, Function<D, String> cursorOf) {
+        return SliceResponseDTO.<T>builder()
+                .content(slice.content().stream().map(mapper).collect(Collectors.toList()))
+                .hasNext(slice.hasNext())
+                .nextCursor(slice.hasNext() ? cursorOf.apply(slice.last()) : null)
+                .build();
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+}
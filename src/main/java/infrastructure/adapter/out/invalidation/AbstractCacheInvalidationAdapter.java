@@ -0,0 +1,111 @@
+package infrastructure.adapter.out.invalidation;
+
+import domain.port.out.CacheInvalidationPort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Parte común de los buses de invalidación: cada nodo escribe sus cambios en un registro compartido
+ * y lee periódicamente los de los demás (reservas.cache-bus.poll-interval-ms), así que una caché
+ * se entera de un cambio remoto como mucho un intervalo de sondeo después de que se publique.
+ * Los mensajes del propio nodo se ignoran al leerlos: sus cachés ya se actualizaron con los eventos de dominio.
+ */
+public abstract class AbstractCacheInvalidationAdapter implements CacheInvalidationPort {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbstractCacheInvalidationAdapter.class);
+
+    /**
+     * @param origin nodo que publicó el mensaje.
+     * @param namespace espacio de claves.
+     * @param key la clave que ha cambiado.
+     */
+    protected record Message(String origin, String namespace, String key) {
+    }
+
+    private final String nodeId;
+    private final Map<String, List<Consumer<String>>> handlers = new ConcurrentHashMap<>();
+
+    private final Counter published;
+    private final Counter received;
+
+    protected AbstractCacheInvalidationAdapter(String nodeId, MeterRegistry meterRegistry) {
+        // Sin id configurado, uno nuevo en cada arranque: los mensajes de una ejecución anterior son de "otro" nodo
+        this.nodeId = nodeId == null || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.published = Counter.builder("reservas.cache.invalidations").tag("direction", "published").register(meterRegistry);
+        this.received = Counter.builder("reservas.cache.invalidations").tag("direction", "received").register(meterRegistry);
+    }
+
+    @Override
+    public void publish(String namespace, String key) {
+        try {
+            append(new Message(nodeId, namespace, key));
+            published.increment();
+        } catch (RuntimeException ex) {
+            // Los demás nodos servirán datos caducados hasta que caduquen por sí solos
+            logger.warn("No se pudo publicar la invalidación {}:{}: {}", namespace, key, ex.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(String namespace, Consumer<String> handler) {
+        handlers.computeIfAbsent(namespace, ns -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+
+    /**
+     * Lee los mensajes publicados desde el último sondeo y se los pasa a las cachés suscritas.
+     */
+    @Scheduled(fixedDelayString = "${reservas.cache-bus.poll-interval-ms:1000}")
+    public void poll() {
+        List<Message> messages;
+        try {
+            messages = fetch();
+        } catch (RuntimeException ex) {
+            logger.warn("No se pudieron leer las invalidaciones de caché: {}", ex.getMessage());
+            return;
+        }
+        for (Message message : messages) {
+            if (!nodeId.equals(message.origin())) {
+                dispatch(message);
+            }
+        }
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Añade un mensaje al registro compartido.
+     */
+    protected abstract void append(Message message);
+
+    /**
+     * Devuelve, en orden de publicación, los mensajes que este nodo aún no ha leído (incluidos los suyos).
+     */
+    protected abstract List<Message> fetch();
+
+    private void dispatch(Message message) {
+        List<Consumer<String>> subscribed = handlers.get(message.namespace());
+        if (subscribed == null) {
+            return;
+        }
+        received.increment();
+        for (Consumer<String> handler : subscribed) {
+            try {
+                handler.accept(message.key());
+            } catch (RuntimeException ex) {
+                logger.warn("Fallo al aplicar la invalidación {}:{}: {}", message.namespace(), message.key(), ex.getMessage());
+            }
+        }
+    }
+}
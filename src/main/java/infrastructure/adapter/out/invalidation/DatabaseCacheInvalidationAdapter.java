@@ -0,0 +1,110 @@
+package infrastructure.adapter.out.invalidation;
+
+import infrastructure.adapter.out.persistence.entity.CacheInvalidationEntity;
+import infrastructure.adapter.out.persistence.repository.CacheInvalidationJpaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bus por defecto (reservas.cache-bus.type=database): los mensajes son filas de cache_invalidations.
+ * No se lee por id creciente porque dos nodos pueden confirmar sus inserciones en orden distinto al de
+ * sus ids, y una fila confirmada tarde quedaría detrás del cursor. Cada sondeo vuelve a leer las filas
+ * de los últimos segundos (reservas.cache-bus.commit-grace, por la hora de la BD) y se salta las ya vistas.
+ * Las filas más antiguas que reservas.cache-bus.retention se borran periódicamente.
+ */
+@Component
+@ConditionalOnProperty(name = "reservas.cache-bus.type", havingValue = "database", matchIfMissing = true)
+public class DatabaseCacheInvalidationAdapter extends AbstractCacheInvalidationAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseCacheInvalidationAdapter.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final CacheInvalidationJpaRepository cacheInvalidationJpaRepository;
+    private final Duration commitGrace;
+    private final Duration retention;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Hora (de la BD) del mensaje más reciente leído; null hasta el primer sondeo
+    private Instant since;
+    // Mensajes ya leídos dentro de la ventana que se vuelve a leer
+    private final Map<Long, Instant> seen = new HashMap<>();
+
+    public DatabaseCacheInvalidationAdapter(CacheInvalidationJpaRepository cacheInvalidationJpaRepository,
+                                            MeterRegistry meterRegistry,
+                                            @Value("${reservas.cache-bus.node-id:}") String nodeId,
+                                            @Value("${reservas.cache-bus.commit-grace:PT5S}") Duration commitGrace,
+                                            @Value("${reservas.cache-bus.retention:PT1H}") Duration retention) {
+        super(nodeId, meterRegistry);
+        this.cacheInvalidationJpaRepository = cacheInvalidationJpaRepository;
+        this.commitGrace = commitGrace;
+        this.retention = retention;
+    }
+
+    @Override
+    protected void append(Message message) {
+        cacheInvalidationJpaRepository.insert(message.namespace(), message.key(), message.origin());
+    }
+
+    @Override
+    protected List<Message> fetch() {
+        lock.lock();
+        try {
+            // En el primer sondeo, lo que ya estaba publicado es anterior a este nodo y no se entrega
+            boolean firstPoll = since == null;
+            if (firstPoll) {
+                since = cacheInvalidationJpaRepository.findLatestCreatedAt().orElse(Instant.EPOCH);
+            }
+            Instant from = since.minus(commitGrace);
+            Instant latest = since;
+            List<Message> messages = new ArrayList<>();
+            long afterId = 0;
+            List<CacheInvalidationEntity> page;
+            do {
+                page = cacheInvalidationJpaRepository.findPublishedSince(from, afterId, PageRequest.of(0, BATCH_SIZE));
+                for (CacheInvalidationEntity row : page) {
+                    afterId = row.getId();
+                    if (seen.putIfAbsent(row.getId(), row.getCreatedAt()) == null && !firstPoll) {
+                        messages.add(new Message(row.getOriginNode(), row.getNamespace(), row.getCacheKey()));
+                    }
+                    if (row.getCreatedAt().isAfter(latest)) {
+                        latest = row.getCreatedAt();
+                    }
+                }
+            } while (page.size() == BATCH_SIZE);
+
+            since = latest;
+            Instant windowStart = since.minus(commitGrace);
+            seen.values().removeIf(createdAt -> createdAt.isBefore(windowStart));
+            return messages;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${reservas.cache-bus.purge-interval-ms:600000}")
+    public void purge() {
+        try {
+            int deleted = cacheInvalidationJpaRepository.deleteCreatedBefore(Instant.now().minus(retention));
+            if (deleted > 0) {
+                logger.debug("Borradas {} invalidaciones de caché antiguas", deleted);
+            }
+        } catch (RuntimeException ex) {
+            logger.warn("No se pudieron borrar las invalidaciones de caché antiguas: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package infrastructure.adapter.out.invalidation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bus de sustitución para tests y desarrollo (reservas.cache-bus.type=file): los nodos de una misma
+ * máquina comparten un fichero al que cada uno añade una línea por mensaje (origen, espacio y clave
+ * separados por tabuladores) y del que lee lo añadido desde su último sondeo.
+ * Las escrituras en modo append de una línea corta no se mezclan entre procesos; el fichero no se
+ * recorta nunca, así que no está pensado para producción.
+ */
+@Component
+@ConditionalOnProperty(name = "reservas.cache-bus.type", havingValue = "file")
+public class FileCacheInvalidationAdapter extends AbstractCacheInvalidationAdapter {
+
+    private final Path file;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Posición del fichero hasta la que ya se ha leído (siempre al final de una línea completa)
+    private long offset;
+
+    public FileCacheInvalidationAdapter(MeterRegistry meterRegistry,
+                                        @Value("${reservas.cache-bus.node-id:}") String nodeId,
+                                        @Value("${reservas.cache-bus.file:${java.io.tmpdir}/reservas-cache-invalidations.log}") Path file) {
+        super(nodeId, meterRegistry);
+        this.file = file;
+        try {
+            if (Files.notExists(file)) {
+                Files.createFile(file);
+            }
+            // Lo publicado antes de arrancar no se entrega
+            this.offset = Files.size(file);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open cache invalidation file " + file, ex);
+        }
+    }
+
+    @Override
+    protected void append(Message message) {
+        String line = message.origin() + '\t' + message.namespace() + '\t' + message.key() + '\n';
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    protected List<Message> fetch() {
+        lock.lock();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= offset) {
+                return List.of();
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size - offset, Integer.MAX_VALUE));
+            while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) > 0) {
+                // Lee hasta llenar el buffer
+            }
+            byte[] bytes = buffer.array();
+            List<Message> messages = new ArrayList<>();
+            int lineStart = 0;
+            for (int i = 0; i < buffer.position(); i++) {
+                if (bytes[i] == '\n') {
+                    String[] fields = new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8).split("\t", 3);
+                    if (fields.length == 3) {
+                        messages.add(new Message(fields[0], fields[1], fields[2]));
+                    }
+                    lineStart = i + 1;
+                }
+            }
+            // Una línea a medio escribir se leerá entera en el siguiente sondeo
+            offset += lineStart;
+            return messages;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
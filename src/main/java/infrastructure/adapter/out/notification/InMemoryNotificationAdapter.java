@@ -0,0 +1,32 @@
+package infrastructure.adapter.out.notification;
+
+import domain.model.Reminder;
+import domain.port.out.NotificationPort;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Guarda los recordatorios enviados en memoria, para tests y entornos locales (reservas.notifications.channel=memory).
+ */
+@Component
+@ConditionalOnProperty(name = "reservas.notifications.channel", havingValue = "memory")
+public class InMemoryNotificationAdapter implements NotificationPort {
+
+    private final List<Reminder> sent = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(Reminder reminder) {
+        sent.add(reminder);
+    }
+
+    public List<Reminder> getSent() {
+        return List.copyOf(sent);
+    }
+
+    public void clear() {
+        sent.clear();
+    }
+}
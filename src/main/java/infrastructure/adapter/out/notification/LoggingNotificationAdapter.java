@@ -0,0 +1,31 @@
+package infrastructure.adapter.out.notification;
+
+import domain.model.Booking;
+import domain.model.Reminder;
+import domain.port.out.NotificationPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Canal por defecto: escribe los recordatorios en el log hasta que haya un proveedor de email o push.
+ */
+@Component
+@ConditionalOnProperty(name = "reservas.notifications.channel", havingValue = "log", matchIfMissing = true)
+public class LoggingNotificationAdapter implements NotificationPort {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingNotificationAdapter.class);
+
+    @Override
+    public void send(Reminder reminder) {
+        Booking booking = reminder.booking();
+        logger.info("Recordatorio {} para {} <{}>: '{}' el {} (booking {})",
+                reminder.kind(),
+                booking.getClient().getUsername(),
+                booking.getClient().getEmail(),
+                booking.getTimeSlot().getOfferedService().getName(),
+                booking.getTimeSlot().getStartTime(),
+                booking.getUuid());
+    }
+}
@@ -0,0 +1,212 @@
+package infrastructure.adapter.out.persistence.cache;
+
+import domain.model.User;
+import domain.port.out.ProviderSearchPort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice en memoria de los nombres de usuario de los proveedores por trigramas.
+ * Cada nombre se trocea en sus subcadenas de 3 caracteres; una búsqueda de 3 o más caracteres
+ * solo examina los proveedores que contienen todos los trigramas del texto (la lista más corta
+ * primero), y después comprueba que el texto aparezca entero. Las búsquedas más cortas recorren
+ * los nombres en memoria, que sigue siendo mucho más barato que un LIKE '%…%' sobre la tabla.
+ */
+@Component
+public class TrigramProviderSearchIndex implements ProviderSearchPort {
+
+    private static final int GRAM = 3;
+
+    // Relevancia: coincidencia exacta, luego prefijo, luego posición de la coincidencia, luego nombres más cortos
+    private static final Comparator<Match> RANKING = Comparator
+            .comparingInt((Match m) -> m.entry().name().length() == m.queryLength() ? 0 : 1)
+            .thenComparingInt(Match::position)
+            .thenComparingInt(m -> m.entry().name().length())
+            .thenComparing(Match::entry, Entry.BY_NAME);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final Map<String, Set<UUID>> postings = new HashMap<>();
+    private final TreeSet<Entry> byName = new TreeSet<>(Entry.BY_NAME);
+
+    // Usuarios eliminados mientras dura la precarga, para que un lote leído antes no los resucite
+    private final Set<UUID> removedDuringWarmUp = new HashSet<>();
+    private volatile boolean ready;
+
+    @Override
+    public void index(User provider) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(provider.getUuid());
+            removedDuringWarmUp.remove(provider.getUuid());
+            addEntry(provider);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(UUID userUuid) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(userUuid);
+            if (!ready) {
+                removedDuringWarmUp.add(userUuid);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void warmUp(Collection<User> providers) {
+        lock.writeLock().lock();
+        try {
+            for (User provider : providers) {
+                if (!entries.containsKey(provider.getUuid()) && !removedDuringWarmUp.contains(provider.getUuid())) {
+                    addEntry(provider);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markReady() {
+        lock.writeLock().lock();
+        try {
+            ready = true;
+            removedDuringWarmUp.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public List<User> search(String query, int limit) {
+        String normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (normalized.isEmpty()) {
+                return byName.stream().limit(limit).map(Entry::user).toList();
+            }
+            List<Match> matches = new ArrayList<>();
+            for (Entry entry : candidates(normalized)) {
+                int position = entry.name().indexOf(normalized);
+                if (position >= 0) {
+                    matches.add(new Match(entry, position, normalized.length()));
+                }
+            }
+            matches.sort(RANKING);
+            return matches.stream().limit(limit).map(match -> match.entry().user()).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Proveedores que contienen todos los trigramas del texto (todos, si el texto es más corto que un trigrama).
+     */
+    private Collection<Entry> candidates(String normalized) {
+        if (normalized.length() < GRAM) {
+            return byName;
+        }
+        List<Set<UUID>> lists = new ArrayList<>();
+        for (String gram : trigrams(normalized)) {
+            Set<UUID> posting = postings.get(gram);
+            if (posting == null) {
+                return List.of();
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        List<Entry> result = new ArrayList<>();
+        for (UUID uuid : lists.get(0)) {
+            if (lists.stream().skip(1).allMatch(posting -> posting.contains(uuid))) {
+                result.add(entries.get(uuid));
+            }
+        }
+        return result;
+    }
+
+    private void addEntry(User provider) {
+        // Solo se guardan datos públicos: nunca el hash de la contraseña
+        User snapshot = User.builder()
+                .id(provider.getId())
+                .uuid(provider.getUuid())
+                .username(provider.getUsername())
+                .email(provider.getEmail())
+                .active(provider.getActive())
+                .roles(provider.getRoles() == null ? null : Set.copyOf(provider.getRoles()))
+                .build();
+        Entry entry = new Entry(snapshot, normalize(provider.getUsername()));
+        entries.put(provider.getUuid(), entry);
+        byName.add(entry);
+        for (String gram : trigrams(entry.name())) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(provider.getUuid());
+        }
+    }
+
+    private void removeEntry(UUID uuid) {
+        Entry entry = entries.remove(uuid);
+        if (entry == null) {
+            return;
+        }
+        byName.remove(entry);
+        for (String gram : trigrams(entry.name())) {
+            Set<UUID> posting = postings.get(gram);
+            if (posting != null && posting.remove(uuid) && posting.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> trigrams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(User user, String name) {
+
+        static final Comparator<Entry> BY_NAME = Comparator.comparing(Entry::name)
+                .thenComparing(entry -> entry.user().getUuid());
+    }
+
+    private record Match(Entry entry, int position, int queryLength) {
+    }
+}
@@ -0,0 +1,255 @@
+package infrastructure.adapter.out.persistence.cache;
+
+import domain.port.out.CacheInvalidationPort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Copia en memoria de las colas de espera (IDs de entradas WAITING por TimeSlot).
+ * La base de datos es la fuente de verdad: cada cola se hidrata la primera vez que se consulta
+ * y después se mantiene con los cambios confirmados (after commit), de modo que calcular la
+ * posición de un cliente no necesita un COUNT sobre la tabla.
+ * Los IDs son autoincrementales, así que el orden natural del TreeSet es el orden FIFO.
+ * Los cambios de otros nodos llegan como avisos por {@link CacheInvalidationPort} y descartan la cola
+ * del slot, que se vuelve a hidratar en la siguiente consulta.
+ * Como mucho se guardan {@value #MAX_CACHED_SLOTS} colas: al pasar del límite se descarta la usada hace más tiempo.
+ * La hidratación consulta la BD sin cerrojo; si mientras tanto cambia la cola de ese slot (alta, baja o aviso),
+ * lo leído puede no incluir el cambio, así que se usa para esa consulta pero no se guarda.
+ */
+@Component
+public class WaitlistQueueCache {
+
+    private static final int MAX_CACHED_SLOTS = 10_000;
+
+    // Orden de acceso: la primera entrada es la cola usada hace más tiempo. Todos los accesos, con mapLock.
+    private final Map<Long, SlotQueue> queues = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, SlotQueue> eldest) {
+            return size() > MAX_CACHED_SLOTS;
+        }
+    };
+    // Hidrataciones en curso por slot, con mapLock: cada cambio del slot mientras tanto sube su generación
+    private final Map<Long, PendingLoad> pendingLoads = new HashMap<>();
+    private final ReentrantLock mapLock = new ReentrantLock();
+    private final CacheInvalidationPort cacheInvalidationPort;
+
+    public WaitlistQueueCache(CacheInvalidationPort cacheInvalidationPort) {
+        this.cacheInvalidationPort = cacheInvalidationPort;
+        cacheInvalidationPort.subscribe(CacheInvalidationPort.WAITLIST, key -> evict(Long.valueOf(key)));
+    }
+
+    /**
+     * Posición (1..n) de la entrada en la cola de su slot. Si la entrada aún no está en la cola
+     * (transacción sin confirmar), devuelve la posición que ocupará.
+     */
+    public int position(Long timeSlotId, Long entryId, Supplier<List<Long>> loader) {
+        return queueFor(timeSlotId, loader).position(entryId);
+    }
+
+    /**
+     * Posición de la entrada si la cola de su slot ya está en memoria, sin hidratarla.
+     * @return la posición, o null si la cola no está cargada.
+     */
+    public Integer cachedPosition(Long timeSlotId, Long entryId) {
+        SlotQueue queue = get(timeSlotId);
+        return queue == null ? null : queue.position(entryId);
+    }
+
+    public void addAfterCommit(Long timeSlotId, Long entryId) {
+        runAfterCommit(() -> {
+            SlotQueue queue = changed(timeSlotId);
+            if (queue != null) {
+                queue.add(entryId);
+            }
+            cacheInvalidationPort.publish(CacheInvalidationPort.WAITLIST, timeSlotId.toString());
+        });
+    }
+
+    public void removeAfterCommit(Long timeSlotId, Long entryId) {
+        runAfterCommit(() -> {
+            SlotQueue queue = changed(timeSlotId);
+            if (queue != null && queue.remove(entryId)) {
+                remove(timeSlotId, queue);
+            }
+            cacheInvalidationPort.publish(CacheInvalidationPort.WAITLIST, timeSlotId.toString());
+        });
+    }
+
+    /**
+     * Descarta la cola del slot tras el commit, en este nodo y en los demás; se usa cuando
+     * cambian entradas de las que no se conoce el id.
+     */
+    public void evictAfterCommit(Long timeSlotId) {
+        runAfterCommit(() -> {
+            evict(timeSlotId);
+            cacheInvalidationPort.publish(CacheInvalidationPort.WAITLIST, timeSlotId.toString());
+        });
+    }
+
+    public void evict(Long timeSlotId) {
+        mapLock.lock();
+        try {
+            queues.remove(timeSlotId);
+            bumpPendingLoad(timeSlotId);
+        } finally {
+            mapLock.unlock();
+        }
+    }
+
+    private SlotQueue queueFor(Long timeSlotId, Supplier<List<Long>> loader) {
+        PendingLoad pending;
+        long generation;
+        mapLock.lock();
+        try {
+            SlotQueue queue = queues.get(timeSlotId);
+            if (queue != null) {
+                return queue;
+            }
+            pending = pendingLoads.computeIfAbsent(timeSlotId, id -> new PendingLoad());
+            pending.loaders++;
+            generation = pending.generation;
+        } finally {
+            mapLock.unlock();
+        }
+        // La carga se hace sin el cerrojo del mapa: no queremos consultar la BD con todas las colas bloqueadas
+        SlotQueue loaded = null;
+        try {
+            loaded = new SlotQueue(loader.get());
+        } finally {
+            mapLock.lock();
+            try {
+                if (--pending.loaders == 0) {
+                    pendingLoads.remove(timeSlotId);
+                }
+                if (loaded != null) {
+                    loaded = install(timeSlotId, loaded, pending.generation == generation);
+                }
+            } finally {
+                mapLock.unlock();
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Con mapLock: deja en el mapa lo recién leído si sigue al día y no se ha cargado ya otra copia.
+     */
+    private SlotQueue install(Long timeSlotId, SlotQueue loaded, boolean upToDate) {
+        SlotQueue existing = queues.get(timeSlotId);
+        if (existing != null) {
+            return existing;
+        }
+        if (upToDate) {
+            queues.put(timeSlotId, loaded);
+        }
+        return loaded;
+    }
+
+    /**
+     * Anota un cambio en la cola del slot (para descartar las hidrataciones en curso).
+     * @return la cola en memoria, o null si no está cargada.
+     */
+    private SlotQueue changed(Long timeSlotId) {
+        mapLock.lock();
+        try {
+            bumpPendingLoad(timeSlotId);
+            return queues.get(timeSlotId);
+        } finally {
+            mapLock.unlock();
+        }
+    }
+
+    private void bumpPendingLoad(Long timeSlotId) {
+        PendingLoad pending = pendingLoads.get(timeSlotId);
+        if (pending != null) {
+            pending.generation++;
+        }
+    }
+
+    private SlotQueue get(Long timeSlotId) {
+        mapLock.lock();
+        try {
+            return queues.get(timeSlotId);
+        } finally {
+            mapLock.unlock();
+        }
+    }
+
+    private void remove(Long timeSlotId, SlotQueue queue) {
+        mapLock.lock();
+        try {
+            queues.remove(timeSlotId, queue);
+        } finally {
+            mapLock.unlock();
+        }
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class PendingLoad {
+
+        private int loaders;
+        private long generation;
+    }
+
+    private static final class SlotQueue {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final TreeSet<Long> entryIds;
+
+        private SlotQueue(List<Long> initialIds) {
+            this.entryIds = new TreeSet<>(initialIds);
+        }
+
+        private void add(Long entryId) {
+            lock.lock();
+            try {
+                entryIds.add(entryId);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return true si la cola ha quedado vacía.
+         */
+        private boolean remove(Long entryId) {
+            lock.lock();
+            try {
+                entryIds.remove(entryId);
+                return entryIds.isEmpty();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int position(Long entryId) {
+            lock.lock();
+            try {
+                return entryIds.headSet(entryId, false).size() + 1;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
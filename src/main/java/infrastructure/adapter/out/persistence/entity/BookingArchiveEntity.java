@@ -0,0 +1,86 @@
+package infrastructure.adapter.out.persistence.entity;
+
+import domain.model.BookingStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Booking archivado. Copia los datos del slot y del servicio en el momento del archivado
+ * para que el histórico no dependa de las tablas vivas. Las filas solo se escriben
+ * con el INSERT ... SELECT nativo del repositorio.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(name = "bookings_archive")
+public class BookingArchiveEntity {
+
+    // Mismo id que tenía en la tabla bookings
+    @Id
+    private Long id;
+
+    @Column(name = "public_uuid", nullable = false)
+    private UUID uuid;
+
+    @Column(name = "client_id", nullable = false)
+    private Long clientId;
+
+    // Solo lectura: el cliente sigue siendo un usuario vivo (para los listados de administración)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "client_id", insertable = false, updatable = false)
+    private UserEntity client;
+
+    @Column(name = "timeslot_id", nullable = false)
+    private Long timeSlotId;
+
+    @Column(name = "timeslot_uuid", nullable = false)
+    private UUID timeSlotUuid;
+
+    @Column(name = "service_id", nullable = false)
+    private Long serviceId;
+
+    @Column(name = "service_uuid", nullable = false)
+    private UUID serviceUuid;
+
+    @Column(name = "service_name", nullable = false)
+    private String serviceName;
+
+    @Column(nullable = false)
+    private Instant startTime;
+
+    @Column(nullable = false)
+    private Instant endTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingStatus status;
+
+    @Column(name = "party_size", nullable = false)
+    private Integer partySize;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal pricePaid;
+
+    @Column(columnDefinition = "TEXT")
+    private String notes;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+}
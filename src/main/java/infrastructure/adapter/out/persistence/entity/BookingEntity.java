@@ -40,12 +40,18 @@ public class BookingEntity {
     @Column(nullable = false)
     private BookingStatus status;
 
+    @Column(name = "party_size", nullable = false)
+    private Integer partySize;
+
     @Column(precision = 10, scale = 2)
     private BigDecimal pricePaid;
 
     @Column(columnDefinition = "TEXT")
     private String notes;
 
+    @Column(name = "hold_expires_at")
+    private Instant holdExpiresAt;
+
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
@@ -57,6 +63,9 @@ public class BookingEntity {
         if (uuid == null) {
             this.uuid = UUID.randomUUID();
         }
+        if (partySize == null) {
+            partySize = 1;
+        }
         Instant now = Instant.now();
         createdAt = now;
         updatedAt = now;
@@ -0,0 +1,30 @@
+package infrastructure.adapter.out.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "catalog_versions")
+public class CatalogVersionEntity {
+
+    // UUID del servicio o del proveedor cuyo catálogo se versiona
+    @Id
+    @Column(name = "scope_uuid", nullable = false, updatable = false)
+    private UUID scopeUuid;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
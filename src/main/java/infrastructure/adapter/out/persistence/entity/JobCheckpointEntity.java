@@ -0,0 +1,31 @@
+package infrastructure.adapter.out.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "job_checkpoints")
+public class JobCheckpointEntity {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "watermark_time")
+    private Instant watermarkTime;
+
+    @Column(name = "watermark_id")
+    private Long watermarkId;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
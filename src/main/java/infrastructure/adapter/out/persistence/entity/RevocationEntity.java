@@ -0,0 +1,41 @@
+package infrastructure.adapter.out.persistence.entity;
+
+import domain.model.Revocation;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "revocations")
+public class RevocationEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "revocation_type", nullable = false, length = 10)
+    private Revocation.Type type;
+
+    @Column(nullable = false)
+    private UUID subject;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // Reloj de la BD, el mismo para todos los nodos
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,66 @@
+package infrastructure.adapter.out.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "provider_service_weekly_stats")
+public class ServiceWeeklyStatsEntity {
+
+    @EmbeddedId
+    private Key id;
+
+    // Desnormalizado para leer el panel de un proveedor sin pasar por offered_services
+    @Column(name = "provider_id", nullable = false, updatable = false)
+    private Long providerId;
+
+    // Solo lectura: las filas se escriben con el upsert nativo del repositorio
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "service_id", insertable = false, updatable = false)
+    private OfferedServiceEntity offeredService;
+
+    @Column(nullable = false)
+    private int slotCount;
+
+    @Column(nullable = false)
+    private int capacity;
+
+    @Column(nullable = false)
+    private int bookedSeats;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(nullable = false)
+    private int cancellations;
+
+    @Column(nullable = false)
+    private int noShows;
+
+    @Column(nullable = false)
+    private int completed;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "service_id", nullable = false)
+        private Long serviceId;
+
+        @Column(name = "week_start", nullable = false)
+        private LocalDate weekStart;
+    }
+}
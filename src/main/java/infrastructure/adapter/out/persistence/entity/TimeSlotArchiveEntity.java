@@ -0,0 +1,67 @@
+package infrastructure.adapter.out.persistence.entity;
+
+import domain.model.TimeSlotStatus;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Slot archivado, con una copia de los datos de su servicio en el momento del archivado.
+ * Las filas solo se escriben con el INSERT ... SELECT nativo del repositorio.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Immutable
+@Table(name = "time_slots_archive")
+public class TimeSlotArchiveEntity {
+
+    // Mismo id que tenía en la tabla time_slots
+    @Id
+    private Long id;
+
+    @Column(name = "public_uuid", nullable = false)
+    private UUID uuid;
+
+    @Column(name = "service_id", nullable = false)
+    private Long serviceId;
+
+    @Column(name = "service_uuid", nullable = false)
+    private UUID serviceUuid;
+
+    @Column(name = "service_name", nullable = false)
+    private String serviceName;
+
+    // El proveedor sigue siendo un usuario vivo: se enlaza para filtrar y mostrar su UUID
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "provider_id", nullable = false)
+    private UserEntity provider;
+
+    @Column(nullable = false)
+    private Instant startTime;
+
+    @Column(nullable = false)
+    private Instant endTime;
+
+    @Column(nullable = false)
+    private Integer capacity;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal price;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TimeSlotStatus status;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+}
@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -32,6 +33,10 @@ public class TimeSlotEntity {
     @JoinColumn(name = "service_id", nullable = false)
     private OfferedServiceEntity offeredService;
 
+    // Copia del dueño del servicio, para paginar los slots de un proveedor con un solo índice
+    @Column(name = "provider_id", nullable = false, updatable = false)
+    private Long providerId;
+
     @Column(nullable = false)
     private Instant startTime;
 
@@ -48,9 +53,20 @@ public class TimeSlotEntity {
     @Column(nullable = false)
     private TimeSlotStatus status;
 
+    // Versión optimista: una escritura desde una copia leída antes de otro cambio del slot falla en vez de pisarlo.
+    // Los UPDATE nativos de TimeSlotJpaRepository también la incrementan.
+    @Version
+    private Long version;
+
+    // Contador de plazas ocupadas: solo lo modifican los UPDATE condicionales de TimeSlotJpaRepository
+    @Column(name = "booked_seats", insertable = false, updatable = false)
+    private Integer bookedSeats;
+
     // Relación bidireccional: Un TimeSlot tiene muchos Bookings.
     // 'mappedBy' indica que la entidad BookingEntity es la dueña de la relación.
+    // Añadir un booking no cambia la versión del slot (las plazas se cuentan en booked_seats)
     @OneToMany(mappedBy = "timeSlot", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @OptimisticLock(excluded = true)
     @Builder.Default
     private Set<BookingEntity> bookings = new HashSet<>();
 
@@ -59,6 +75,9 @@ public class TimeSlotEntity {
         if (uuid == null) {
             this.uuid = UUID.randomUUID();
         }
+        if (providerId == null) {
+            this.providerId = offeredService.getOwner().getId();
+        }
     }
 
     public void addBooking(BookingEntity booking) {
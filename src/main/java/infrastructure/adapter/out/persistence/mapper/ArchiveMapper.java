@@ -0,0 +1,38 @@
+package infrastructure.adapter.out.persistence.mapper;
+
+import domain.model.Booking;
+import domain.model.TimeSlot;
+import infrastructure.adapter.out.persistence.entity.BookingArchiveEntity;
+import infrastructure.adapter.out.persistence.entity.TimeSlotArchiveEntity;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+// Las filas archivadas llevan los datos del slot y del servicio copiados en columnas planas
+@Mapper(componentModel = "spring", uses = {UserMapper.class})
+public interface ArchiveMapper {
+
+    @Mapping(target = "offeredService.serviceId", source = "serviceId")
+    @Mapping(target = "offeredService.uuid", source = "serviceUuid")
+    @Mapping(target = "offeredService.name", source = "serviceName")
+    @Mapping(target = "offeredService.owner", source = "provider")
+    @Mapping(target = "bookings", ignore = true)
+    @Mapping(target = "bookedSeats", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    TimeSlot toDomain(TimeSlotArchiveEntity entity);
+
+    List<TimeSlot> toTimeSlotList(List<TimeSlotArchiveEntity> entities);
+
+    @Mapping(target = "timeSlot.id", source = "timeSlotId")
+    @Mapping(target = "timeSlot.uuid", source = "timeSlotUuid")
+    @Mapping(target = "timeSlot.startTime", source = "startTime")
+    @Mapping(target = "timeSlot.endTime", source = "endTime")
+    @Mapping(target = "timeSlot.offeredService.serviceId", source = "serviceId")
+    @Mapping(target = "timeSlot.offeredService.uuid", source = "serviceUuid")
+    @Mapping(target = "timeSlot.offeredService.name", source = "serviceName")
+    @Mapping(target = "holdExpiresAt", ignore = true)
+    Booking toDomain(BookingArchiveEntity entity);
+
+    List<Booking> toBookingList(List<BookingArchiveEntity> entities);
+}
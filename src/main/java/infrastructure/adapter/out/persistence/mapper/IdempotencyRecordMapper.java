@@ -0,0 +1,13 @@
+package infrastructure.adapter.out.persistence.mapper;
+
+import domain.model.IdempotencyRecord;
+import infrastructure.adapter.out.persistence.entity.IdempotencyKeyEntity;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface IdempotencyRecordMapper {
+
+    IdempotencyKeyEntity toEntity(IdempotencyRecord record);
+
+    IdempotencyRecord toDomain(IdempotencyKeyEntity entity);
+}
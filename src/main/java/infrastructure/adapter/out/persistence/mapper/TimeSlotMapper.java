@@ -14,6 +14,7 @@ public interface TimeSlotMapper {
     TimeSlotMapper INSTANCE = Mappers.getMapper(TimeSlotMapper.class);
 
     @Mapping(target = "bookings", ignore = true)
+    @Mapping(target = "providerId", ignore = true)
     TimeSlotEntity toEntity(TimeSlot timeSlot);
 
     @Mapping(target = "bookings", ignore = true)
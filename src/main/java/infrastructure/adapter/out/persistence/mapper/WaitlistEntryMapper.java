@@ -0,0 +1,26 @@
+package infrastructure.adapter.out.persistence.mapper;
+
+import domain.model.WaitlistEntry;
+import infrastructure.adapter.out.persistence.entity.WaitlistEntryEntity;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+import java.util.List;
+
+@Mapper(componentModel = "spring", uses = {TimeSlotMapper.class, UserMapper.class})
+public interface WaitlistEntryMapper {
+
+    WaitlistEntryMapper INSTANCE = Mappers.getMapper(WaitlistEntryMapper.class);
+
+    // Las relaciones se resuelven en el adaptador con referencias gestionadas por JPA
+    @Mapping(target = "timeSlot", ignore = true)
+    @Mapping(target = "client", ignore = true)
+    WaitlistEntryEntity toEntity(WaitlistEntry entry);
+
+    @Mapping(target = "timeSlot.bookings", ignore = true)
+    @Mapping(target = "position", ignore = true)
+    WaitlistEntry toDomain(WaitlistEntryEntity entity);
+
+    List<WaitlistEntry> toDomainList(List<WaitlistEntryEntity> entities);
+}
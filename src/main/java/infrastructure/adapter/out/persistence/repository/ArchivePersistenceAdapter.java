@@ -0,0 +1,89 @@
+package infrastructure.adapter.out.persistence.repository;
+
+import domain.model.ArchivedRows;
+import domain.model.Booking;
+import domain.model.BookingCursor;
+import domain.model.BookingStatus;
+import domain.model.JobShard;
+import domain.model.Slice;
+import domain.model.TimeSlot;
+import domain.model.TimeSlotCursor;
+import domain.port.out.ArchivePersistencePort;
+import infrastructure.adapter.out.persistence.mapper.ArchiveMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class ArchivePersistenceAdapter implements ArchivePersistencePort {
+
+    private final TimeSlotJpaRepository timeSlotJpaRepository;
+    private final BookingJpaRepository bookingJpaRepository;
+    private final TimeSlotArchiveJpaRepository timeSlotArchiveJpaRepository;
+    private final BookingArchiveJpaRepository bookingArchiveJpaRepository;
+    private final ArchiveMapper archiveMapper;
+
+    @Override
+    public List<TimeSlotCursor> findArchivableTimeSlots(Instant cutoff, JobShard shard, TimeSlotCursor after, int limit) {
+        return timeSlotJpaRepository.findKeysStartedBefore(cutoff,
+                shard.count(), shard.index(),
+                after != null ? after.startTime() : null,
+                after != null ? after.id() : null,
+                PageRequest.of(0, limit));
+    }
+
+    @Override
+    public Set<Long> findUnsettledTimeSlots(Collection<Long> timeSlotIds) {
+        if (timeSlotIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(bookingJpaRepository.findTimeSlotIdsWithStatusIn(timeSlotIds, BookingStatus.SEAT_HOLDING));
+    }
+
+    @Override
+    public ArchivedRows archiveTimeSlots(Collection<Long> timeSlotIds, Instant archivedAt) {
+        if (timeSlotIds.isEmpty()) {
+            return ArchivedRows.NONE;
+        }
+        // Padres antes que hijos al copiar, hijos antes que padres al borrar
+        timeSlotArchiveJpaRepository.copyTimeSlots(timeSlotIds, archivedAt);
+        bookingArchiveJpaRepository.copyBookingsOfTimeSlots(timeSlotIds, archivedAt);
+        int bookings = bookingArchiveJpaRepository.deleteArchivedBookingsOfTimeSlots(timeSlotIds);
+        timeSlotArchiveJpaRepository.deleteWaitlistEntriesOfTimeSlots(timeSlotIds);
+        int timeSlots = timeSlotArchiveJpaRepository.deleteArchivedTimeSlots(timeSlotIds);
+        return new ArchivedRows(timeSlots, bookings);
+    }
+
+    @Override
+    public Slice<TimeSlot> findArchivedTimeSlotsByProvider(UUID providerUuid, TimeSlotCursor after, int limit) {
+        List<TimeSlot> page = archiveMapper.toTimeSlotList(timeSlotArchiveJpaRepository.findPageByProvider(providerUuid,
+                after != null ? after.startTime() : null,
+                after != null ? after.id() : null,
+                PageRequest.of(0, limit + 1)));
+        return Slice.fromOverfetched(page, limit);
+    }
+
+    @Override
+    public List<Booking> findArchivedBookingsByTimeSlot(UUID timeSlotUuid) {
+        return timeSlotArchiveJpaRepository.findByUuid(timeSlotUuid)
+                .map(timeSlot -> archiveMapper.toBookingList(bookingArchiveJpaRepository.findByTimeSlotId(timeSlot.getId())))
+                .orElse(List.of());
+    }
+
+    @Override
+    public Slice<Booking> findArchivedBookingsByClient(UUID clientUuid, BookingCursor before, int limit) {
+        List<Booking> page = archiveMapper.toBookingList(bookingArchiveJpaRepository.findHistoryPageByClientUuid(clientUuid,
+                before != null ? before.startTime() : null,
+                before != null ? before.id() : null,
+                PageRequest.of(0, limit + 1)));
+        return Slice.fromOverfetched(page, limit);
+    }
+}
@@ -0,0 +1,73 @@
+package infrastructure.adapter.out.persistence.repository;
+
+import infrastructure.adapter.out.persistence.entity.BookingArchiveEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BookingArchiveJpaRepository extends JpaRepository<BookingArchiveEntity, Long> {
+
+    /**
+     * Copia al archivo los bookings de los slots indicados, que ya deben estar en time_slots_archive
+     * (de ahí toma los datos del slot y del servicio).
+     * Ignora los que ya estuvieran archivados, así que repetir un lote tras un fallo es seguro.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO bookings_archive " +
+            "(id, public_uuid, client_id, timeslot_id, timeslot_uuid, service_id, service_uuid, service_name, " +
+            "start_time, end_time, status, party_size, price_paid, notes, created_at, updated_at, archived_at) " +
+            "SELECT b.id, b.public_uuid, b.client_id, a.id, a.public_uuid, a.service_id, a.service_uuid, a.service_name, " +
+            "a.start_time, a.end_time, b.status, b.party_size, b.price_paid, b.notes, b.created_at, b.updated_at, :archivedAt " +
+            "FROM bookings b " +
+            "JOIN time_slots_archive a ON a.id = b.timeslot_id " +
+            "WHERE b.timeslot_id IN (:timeSlotIds)",
+            nativeQuery = true)
+    int copyBookingsOfTimeSlots(@Param("timeSlotIds") Collection<Long> timeSlotIds,
+                                @Param("archivedAt") Instant archivedAt);
+
+    /**
+     * Borra de la tabla viva los bookings de esos slots que ya están en el archivo
+     * (un booking que no se llegó a copiar nunca se borra). Con subconsulta en vez de DELETE ... JOIN,
+     * que es propio de MySQL, para poder probar la sentencia en H2.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM bookings WHERE timeslot_id IN (:timeSlotIds) " +
+            "AND id IN (SELECT a.id FROM bookings_archive a WHERE a.timeslot_id IN (:timeSlotIds))",
+            nativeQuery = true)
+    int deleteArchivedBookingsOfTimeSlots(@Param("timeSlotIds") Collection<Long> timeSlotIds);
+
+    /**
+     * Histórico archivado de un cliente, del más reciente al más antiguo, desde una clave (startTime, id).
+     * Recorre el índice (client_id, start_time, id).
+     */
+    @Query("SELECT a FROM BookingArchiveEntity a WHERE a.clientId = :clientId " +
+            "AND (:beforeStart IS NULL OR a.startTime < :beforeStart OR (a.startTime = :beforeStart AND a.id < :beforeId)) " +
+            "ORDER BY a.startTime DESC, a.id DESC")
+    List<BookingArchiveEntity> findHistoryPage(@Param("clientId") Long clientId,
+                                               @Param("beforeStart") Instant beforeStart,
+                                               @Param("beforeId") Long beforeId,
+                                               Pageable pageable);
+
+    /**
+     * Historial archivado de un cliente por su UUID (para administración), con el cliente ya cargado.
+     */
+    @Query("SELECT a FROM BookingArchiveEntity a JOIN FETCH a.client c WHERE c.uuid = :clientUuid " +
+            "AND (:beforeStart IS NULL OR a.startTime < :beforeStart OR (a.startTime = :beforeStart AND a.id < :beforeId)) " +
+            "ORDER BY a.startTime DESC, a.id DESC")
+    List<BookingArchiveEntity> findHistoryPageByClientUuid(@Param("clientUuid") UUID clientUuid,
+                                                           @Param("beforeStart") Instant beforeStart,
+                                                           @Param("beforeId") Long beforeId,
+                                                           Pageable pageable);
+
+    @Query("SELECT a FROM BookingArchiveEntity a JOIN FETCH a.client WHERE a.timeSlotId = :timeSlotId ORDER BY a.id")
+    List<BookingArchiveEntity> findByTimeSlotId(@Param("timeSlotId") Long timeSlotId);
+}
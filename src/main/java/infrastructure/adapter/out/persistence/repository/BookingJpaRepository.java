@@ -1,11 +1,20 @@
 package infrastructure.adapter.out.persistence.repository;
 
+import domain.model.BookingStatus;
+import domain.model.SeatHold;
 import infrastructure.adapter.out.persistence.entity.BookingEntity;
 import infrastructure.adapter.out.persistence.entity.TimeSlotEntity;
 import infrastructure.adapter.out.persistence.entity.UserEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,9 +27,37 @@ public interface BookingJpaRepository extends JpaRepository<BookingEntity, Long>
     void deleteByUuid(UUID uuid);
 
     /**
-     * Busca todos los bookings de un cliente específico.
+     * Bookings de un cliente en slots que empiezan desde {@code now}, por hora de inicio, desde una clave (startTime, id).
      */
-    List<BookingEntity> findByClient(UserEntity client);
+    @Query("SELECT b FROM BookingEntity b JOIN FETCH b.timeSlot ts JOIN FETCH ts.offeredService " +
+            "WHERE b.client = :client AND ts.startTime >= :now " +
+            "AND (:afterStart IS NULL OR ts.startTime > :afterStart OR (ts.startTime = :afterStart AND b.id > :afterId)) " +
+            "ORDER BY ts.startTime, b.id")
+    List<BookingEntity> findUpcomingPage(@Param("client") UserEntity client,
+                                         @Param("now") Instant now,
+                                         @Param("afterStart") Instant afterStart,
+                                         @Param("afterId") Long afterId,
+                                         Pageable pageable);
+
+    /**
+     * Bookings de un cliente en slots ya empezados que aún no se han archivado, del más reciente al más antiguo.
+     */
+    @Query("SELECT b FROM BookingEntity b JOIN FETCH b.timeSlot ts JOIN FETCH ts.offeredService " +
+            "WHERE b.client = :client AND ts.startTime < :now " +
+            "AND (:beforeStart IS NULL OR ts.startTime < :beforeStart OR (ts.startTime = :beforeStart AND b.id < :beforeId)) " +
+            "ORDER BY ts.startTime DESC, b.id DESC")
+    List<BookingEntity> findPastPage(@Param("client") UserEntity client,
+                                     @Param("now") Instant now,
+                                     @Param("beforeStart") Instant beforeStart,
+                                     @Param("beforeId") Long beforeId,
+                                     Pageable pageable);
+
+    /**
+     * Ids de los slots, de entre los dados, con algún booking en alguno de los estados indicados.
+     */
+    @Query("SELECT DISTINCT b.timeSlot.id FROM BookingEntity b WHERE b.timeSlot.id IN :timeSlotIds AND b.status IN :statuses")
+    List<Long> findTimeSlotIdsWithStatusIn(@Param("timeSlotIds") Collection<Long> timeSlotIds,
+                                           @Param("statuses") Collection<BookingStatus> statuses);
 
     /**
      * Busca todos los bookings de un TimeSlot específico.
@@ -28,9 +65,122 @@ public interface BookingJpaRepository extends JpaRepository<BookingEntity, Long>
     List<BookingEntity> findByTimeSlot(TimeSlotEntity timeSlot);
 
     /**
-     * Cuenta el número de bookings para un TimeSlot. Mucho más eficiente que traer la lista y contarla.
+     * Cuenta el número de bookings para un TimeSlot con alguno de los estados dados,
+     * descontando las retenciones ya caducadas que el barrido aún no ha marcado.
+     * Mucho más eficiente que traer la lista y contarla.
+     */
+    @Query("SELECT COUNT(b) FROM BookingEntity b WHERE b.timeSlot = :timeSlot AND b.status IN :statuses " +
+            "AND (b.holdExpiresAt IS NULL OR b.holdExpiresAt > :now)")
+    long countOccupyingSeats(@Param("timeSlot") TimeSlotEntity timeSlot,
+                             @Param("statuses") Collection<BookingStatus> statuses,
+                             @Param("now") Instant now);
+
+    Optional<BookingEntity> findByClientAndTimeSlot(UserEntity client, TimeSlotEntity timeSlot);
+
+    /**
+     * Bookings de un cliente en varios slots, con su slot, servicio y proveedor ya cargados.
+     */
+    @Query("SELECT b FROM BookingEntity b JOIN FETCH b.timeSlot ts JOIN FETCH ts.offeredService s JOIN FETCH s.owner " +
+            "WHERE b.client = :client AND ts.id IN :timeSlotIds")
+    List<BookingEntity> findByClientAndTimeSlotIds(@Param("client") UserEntity client,
+                                                   @Param("timeSlotIds") Collection<Long> timeSlotIds);
+
+    /**
+     * Retenciones vigentes o caducadas (status PENDING_PAYMENT con fecha de caducidad) que vencen antes de {@code until}.
+     */
+    @Query("SELECT new domain.model.SeatHold(b.id, b.timeSlot.uuid, b.holdExpiresAt) FROM BookingEntity b " +
+            "WHERE b.status = :status AND b.holdExpiresAt <= :until ORDER BY b.holdExpiresAt")
+    List<SeatHold> findHoldsExpiringBefore(@Param("status") BookingStatus status,
+                                           @Param("until") Instant until,
+                                           Pageable pageable);
+
+    /**
+     * Caduca en un único UPDATE un lote de retenciones, solo si siguen pendientes y han vencido
+     * (una retención pagada entre tanto no se toca).
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookingEntity b SET b.status = :expiredStatus, b.holdExpiresAt = NULL, b.updatedAt = :now " +
+            "WHERE b.id IN :ids AND b.status = :holdStatus AND b.holdExpiresAt <= :now")
+    int expireHolds(@Param("ids") Collection<Long> ids,
+                    @Param("holdStatus") BookingStatus holdStatus,
+                    @Param("expiredStatus") BookingStatus expiredStatus,
+                    @Param("now") Instant now);
+
+    /**
+     * Confirma una retención solo si sigue pendiente y no ha vencido; compite limpiamente con el barrido.
      */
-    long countByTimeSlot(TimeSlotEntity timeSlot);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookingEntity b SET b.status = :confirmedStatus, b.holdExpiresAt = NULL, b.updatedAt = :now " +
+            "WHERE b.id = :id AND b.status = :holdStatus AND b.holdExpiresAt > :now")
+    int confirmHold(@Param("id") Long id,
+                    @Param("holdStatus") BookingStatus holdStatus,
+                    @Param("confirmedStatus") BookingStatus confirmedStatus,
+                    @Param("now") Instant now);
+
+    /**
+     * Cancela un booking solo si sigue en el estado leído: de dos cancelaciones (o una cancelación y la caducidad
+     * o el pago de la retención) solo una cambia la fila.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookingEntity b SET b.status = :cancelledStatus, b.holdExpiresAt = NULL, b.updatedAt = :now " +
+            "WHERE b.id = :id AND b.status = :fromStatus")
+    int cancel(@Param("id") Long id,
+               @Param("fromStatus") BookingStatus fromStatus,
+               @Param("cancelledStatus") BookingStatus cancelledStatus,
+               @Param("now") Instant now);
+
+    /**
+     * Recuento por slot y estado de los bookings que ocupan plaza en esos slots.
+     * Es una lectura con bloqueo (FOR UPDATE): nadie cambia esos bookings hasta que la transacción termine.
+     */
+    @Query(value = "SELECT b.timeslot_id AS timeSlotId, b.status AS status, COUNT(*) AS count, SUM(b.party_size) AS seats, " +
+            "COALESCE(SUM(b.price_paid), 0) AS totalPaid " +
+            "FROM bookings b WHERE b.timeslot_id IN (:timeSlotIds) AND b.status IN (:statuses) " +
+            "GROUP BY b.timeslot_id, b.status FOR UPDATE",
+            nativeQuery = true)
+    List<StatusCountView> lockCountsByTimeSlots(@Param("timeSlotIds") Collection<Long> timeSlotIds,
+                                                @Param("statuses") Collection<String> statuses);
+
+    /**
+     * Cambia en bloque el estado de los bookings de esos slots que siguen en {@code from}.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookingEntity b SET b.status = :to, b.holdExpiresAt = NULL, b.updatedAt = :now " +
+            "WHERE b.timeSlot.id IN :timeSlotIds AND b.status = :from")
+    int updateStatusByTimeSlots(@Param("timeSlotIds") Collection<Long> timeSlotIds,
+                                @Param("from") BookingStatus from,
+                                @Param("to") BookingStatus to,
+                                @Param("now") Instant now);
+
+    /**
+     * Bookings en esos estados de los slots no cancelados que empiezan tras una clave (startTime, id) y hasta
+     * {@code until}, con cliente, slot y servicio ya cargados. Recorre el índice de start_time de time_slots.
+     */
+    @Query("SELECT b FROM BookingEntity b JOIN FETCH b.client JOIN FETCH b.timeSlot ts JOIN FETCH ts.offeredService " +
+            "WHERE b.status IN :statuses AND ts.startTime <= :until " +
+            "AND ts.status <> domain.model.TimeSlotStatus.CANCELLED " +
+            "AND (ts.startTime > :afterStart OR (ts.startTime = :afterStart AND b.id > :afterId)) " +
+            "ORDER BY ts.startTime, b.id")
+    List<BookingEntity> findStartingBetween(@Param("statuses") Collection<BookingStatus> statuses,
+                                            @Param("afterStart") Instant afterStart,
+                                            @Param("afterId") Long afterId,
+                                            @Param("until") Instant until,
+                                            Pageable pageable);
+
+    /**
+     * Proyección del recuento por slot y estado.
+     */
+    interface StatusCountView {
+        Long getTimeSlotId();
+
+        String getStatus();
+
+        Long getCount();
+
+        Long getSeats();
+
+        BigDecimal getTotalPaid();
+    }
 
     /**
      * Verifica si existe un booking para una combinación de cliente y TimeSlot.
@@ -1,18 +1,29 @@
 package infrastructure.adapter.out.persistence.repository;
 
 import domain.model.Booking;
+import domain.model.BookingCursor;
+import domain.model.BookingStatus;
+import domain.model.BookingStatusCount;
+import domain.model.SeatHold;
+import domain.model.Slice;
 import domain.model.TimeSlot;
 import domain.model.User;
 import domain.port.out.BookingPersistencePort;
 import infrastructure.adapter.out.persistence.entity.BookingEntity;
 import infrastructure.adapter.out.persistence.entity.TimeSlotEntity;
 import infrastructure.adapter.out.persistence.entity.UserEntity;
+import infrastructure.adapter.out.persistence.mapper.ArchiveMapper;
 import infrastructure.adapter.out.persistence.mapper.BookingMapper;
 import infrastructure.adapter.out.persistence.mapper.TimeSlotMapper;
 import infrastructure.adapter.out.persistence.mapper.UserMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,9 +32,17 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class BookingPersistenceAdapter implements BookingPersistencePort {
 
+    // Histórico: hora de inicio del slot descendente, y el id desempata
+    private static final Comparator<Booking> HISTORY_ORDER = Comparator
+            .comparing((Booking booking) -> booking.getTimeSlot().getStartTime())
+            .thenComparing(Booking::getId)
+            .reversed();
+
     private final BookingJpaRepository bookingJpaRepository;
+    private final BookingArchiveJpaRepository bookingArchiveJpaRepository;
     private final TimeSlotJpaRepository timeSlotJpaRepository;
     private final BookingMapper bookingMapper;
+    private final ArchiveMapper archiveMapper;
     private final UserMapper userMapper;
     private final TimeSlotMapper timeSlotMapper;
 
@@ -51,6 +70,21 @@ public class BookingPersistenceAdapter implements BookingPersistencePort {
         return bookingMapper.toDomain(savedEntity);
     }
 
+    /**
+     * Los slots se referencian sin consultarlos: el llamador ya los ha cargado en esta transacción.
+     */
+    @Override
+    public List<Booking> saveAll(List<Booking> bookings) {
+        List<BookingEntity> entities = bookings.stream()
+                .map(booking -> {
+                    BookingEntity entity = bookingMapper.toEntity(booking);
+                    entity.setTimeSlot(timeSlotJpaRepository.getReferenceById(booking.getTimeSlot().getId()));
+                    return entity;
+                })
+                .toList();
+        return bookingMapper.toDomainList(bookingJpaRepository.saveAll(entities));
+    }
+
     @Override
     public Optional<Booking> findByUuid(UUID bookingUuid) {
         return bookingJpaRepository.findByUuid(bookingUuid)
@@ -63,10 +97,55 @@ public class BookingPersistenceAdapter implements BookingPersistencePort {
     }
 
     @Override
-    public List<Booking> findByClient(User client) {
+    public Slice<Booking> findUpcomingByClient(User client, Instant now, BookingCursor after, int limit) {
         UserEntity clientEntity = userMapper.toEntity(client);
-        List<BookingEntity> entities = bookingJpaRepository.findByClient(clientEntity);
-        return bookingMapper.toDomainList(entities);
+        List<BookingEntity> entities = bookingJpaRepository.findUpcomingPage(clientEntity, now,
+                after != null ? after.startTime() : null,
+                after != null ? after.id() : null,
+                PageRequest.of(0, limit + 1));
+        return Slice.fromOverfetched(bookingMapper.toDomainList(entities), limit);
+    }
+
+    @Override
+    public Slice<Booking> findHistoryByClient(User client, Instant now, BookingCursor before, int limit) {
+        Instant beforeStart = before != null ? before.startTime() : null;
+        Long beforeId = before != null ? before.id() : null;
+        PageRequest overfetch = PageRequest.of(0, limit + 1);
+
+        // Pasados aún sin archivar + archivados: cada fuente aporta como mucho limit + 1 y se mezclan por la misma clave
+        List<Booking> merged = new ArrayList<>(bookingMapper.toDomainList(
+                bookingJpaRepository.findPastPage(userMapper.toEntity(client), now, beforeStart, beforeId, overfetch)));
+        merged.addAll(archiveMapper.toBookingList(
+                bookingArchiveJpaRepository.findHistoryPage(client.getId(), beforeStart, beforeId, overfetch)));
+        merged.sort(HISTORY_ORDER);
+
+        return Slice.fromOverfetched(merged.subList(0, Math.min(merged.size(), limit + 1)), limit);
+    }
+
+    @Override
+    public List<BookingStatusCount> lockSeatHoldingByTimeSlots(Collection<Long> timeSlotIds) {
+        if (timeSlotIds.isEmpty()) {
+            return List.of();
+        }
+        List<String> statuses = BookingStatus.SEAT_HOLDING.stream().map(BookingStatus::name).toList();
+        return bookingJpaRepository.lockCountsByTimeSlots(timeSlotIds, statuses).stream()
+                .map(view -> new BookingStatusCount(view.getTimeSlotId(), BookingStatus.valueOf(view.getStatus()),
+                        view.getCount().intValue(), view.getSeats().intValue(), view.getTotalPaid()))
+                .toList();
+    }
+
+    @Override
+    public int settle(Collection<Long> timeSlotIds, BookingStatus from, BookingStatus to, Instant now) {
+        if (timeSlotIds.isEmpty()) {
+            return 0;
+        }
+        return bookingJpaRepository.updateStatusByTimeSlots(timeSlotIds, from, to, now);
+    }
+
+    @Override
+    public List<Booking> findStartingBetween(Collection<BookingStatus> statuses, BookingCursor after, Instant until, int limit) {
+        return bookingMapper.toDomainList(bookingJpaRepository.findStartingBetween(
+                statuses, after.startTime(), after.id(), until, PageRequest.of(0, limit)));
     }
 
     @Override
@@ -79,7 +158,7 @@ public class BookingPersistenceAdapter implements BookingPersistencePort {
     @Override
     public long countByTimeSlot(TimeSlot timeSlot) {
         TimeSlotEntity timeSlotEntity = timeSlotMapper.toEntity(timeSlot);
-        return bookingJpaRepository.countByTimeSlot(timeSlotEntity);
+        return bookingJpaRepository.countOccupyingSeats(timeSlotEntity, BookingStatus.SEAT_HOLDING, Instant.now());
     }
 
     @Override
@@ -88,4 +167,43 @@ public class BookingPersistenceAdapter implements BookingPersistencePort {
         TimeSlotEntity timeSlotEntity = timeSlotMapper.toEntity(timeSlot);
         return bookingJpaRepository.existsByClientAndTimeSlot(clientEntity, timeSlotEntity);
     }
-}
\ No newline at end of file
+
+    @Override
+    public Optional<Booking> findByClientAndTimeSlot(User client, TimeSlot timeSlot) {
+        UserEntity clientEntity = userMapper.toEntity(client);
+        TimeSlotEntity timeSlotEntity = timeSlotMapper.toEntity(timeSlot);
+        return bookingJpaRepository.findByClientAndTimeSlot(clientEntity, timeSlotEntity)
+                .map(bookingMapper::toDomain);
+    }
+
+    @Override
+    public List<SeatHold> findHoldsExpiringBefore(Instant until, int limit) {
+        return bookingJpaRepository.findHoldsExpiringBefore(BookingStatus.PENDING_PAYMENT, until, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public int expireHolds(Collection<Long> bookingIds, Instant now) {
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        return bookingJpaRepository.expireHolds(bookingIds, BookingStatus.PENDING_PAYMENT, BookingStatus.HOLD_EXPIRED, now);
+    }
+
+    @Override
+    public boolean confirmHold(Booking booking, Instant now) {
+        return bookingJpaRepository.confirmHold(booking.getId(), BookingStatus.PENDING_PAYMENT, BookingStatus.CONFIRMED, now) == 1;
+    }
+
+    @Override
+    public boolean cancel(Booking booking, BookingStatus from, Instant now) {
+        return bookingJpaRepository.cancel(booking.getId(), from, booking.getStatus(), now) == 1;
+    }
+
+    @Override
+    public List<Booking> findByClientAndTimeSlots(User client, Collection<Long> timeSlotIds) {
+        if (timeSlotIds.isEmpty()) {
+            return List.of();
+        }
+        return bookingMapper.toDomainList(bookingJpaRepository.findByClientAndTimeSlotIds(userMapper.toEntity(client), timeSlotIds));
+    }
+}
@@ -0,0 +1,44 @@
+package infrastructure.adapter.out.persistence.repository;
+
+import infrastructure.adapter.out.persistence.entity.CacheInvalidationEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CacheInvalidationJpaRepository extends JpaRepository<CacheInvalidationEntity, Long> {
+
+    /**
+     * Inserta un mensaje en su propia transacción: se publica después del commit del cambio,
+     * cuando la transacción de negocio ya no puede confirmar nada.
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO cache_invalidations (namespace, cache_key, origin_node) VALUES (:namespace, :cacheKey, :originNode)",
+            nativeQuery = true)
+    void insert(@Param("namespace") String namespace,
+                @Param("cacheKey") String cacheKey,
+                @Param("originNode") String originNode);
+
+    @Query("SELECT c FROM CacheInvalidationEntity c WHERE c.createdAt >= :from AND c.id > :afterId ORDER BY c.id")
+    List<CacheInvalidationEntity> findPublishedSince(@Param("from") Instant from,
+                                                     @Param("afterId") Long afterId,
+                                                     Pageable pageable);
+
+    @Query("SELECT MAX(c.createdAt) FROM CacheInvalidationEntity c")
+    Optional<Instant> findLatestCreatedAt();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CacheInvalidationEntity c WHERE c.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,24 @@
+package infrastructure.adapter.out.persistence.repository;
+
+import infrastructure.adapter.out.persistence.entity.CatalogVersionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Repository
+public interface CatalogVersionJpaRepository extends JpaRepository<CatalogVersionEntity, UUID> {
+
+    /**
+     * Incrementa la versión en una sola sentencia atómica (crea la fila la primera vez).
+     * Consulta nativa: el UUID se pasa ya como los 16 bytes de la columna BINARY(16).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO catalog_versions (scope_uuid, version, updated_at) VALUES (:scopeUuid, 1, :now) " +
+            "ON DUPLICATE KEY UPDATE version = version + 1, updated_at = :now", nativeQuery = true)
+    void increment(@Param("scopeUuid") byte[] scopeUuid, @Param("now") Instant now);
+}
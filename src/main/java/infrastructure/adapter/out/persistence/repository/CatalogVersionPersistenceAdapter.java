@@ -0,0 +1,42 @@
+package infrastructure.adapter.out.persistence.repository;
+
+import domain.model.CatalogVersion;
+import domain.port.out.CatalogVersionPersistencePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class CatalogVersionPersistenceAdapter implements CatalogVersionPersistencePort {
+
+    private final CatalogVersionJpaRepository catalogVersionJpaRepository;
+
+    @Override
+    public Optional<CatalogVersion> findByScope(UUID scopeUuid) {
+        return catalogVersionJpaRepository.findById(scopeUuid)
+                .map(entity -> new CatalogVersion(entity.getScopeUuid(), entity.getVersion(), entity.getUpdatedAt()));
+    }
+
+    /**
+     * Se une a la transacción del cambio de negocio; sin ella (eventos publicados fuera de una
+     * transacción) abre la suya.
+     */
+    @Override
+    @Transactional
+    public void increment(UUID scopeUuid, Instant now) {
+        catalogVersionJpaRepository.increment(toBytes(scopeUuid), now);
+    }
+
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+}
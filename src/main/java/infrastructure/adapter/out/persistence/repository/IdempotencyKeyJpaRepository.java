@@ -0,0 +1,60 @@
+package infrastructure.adapter.out.persistence.repository;
+
+import infrastructure.adapter.out.persistence.entity.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface IdempotencyKeyJpaRepository extends JpaRepository<IdempotencyKeyEntity, Long> {
+
+    Optional<IdempotencyKeyEntity> findByRequesterUuidAndIdempotencyKey(UUID requesterUuid, String idempotencyKey);
+
+    boolean existsByRequesterUuidAndIdempotencyKey(UUID requesterUuid, String idempotencyKey);
+
+    /**
+     * Sustituye un registro caducado (respondido o pendiente) por una nueva reserva de la clave.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyKeyEntity k SET k.requestHash = :requestHash, k.responseStatus = NULL, " +
+            "k.responseBody = NULL, k.expiresAt = :expiresAt " +
+            "WHERE k.requesterUuid = :requesterUuid AND k.idempotencyKey = :idempotencyKey AND k.expiresAt <= :now")
+    int takeOverExpired(@Param("requesterUuid") UUID requesterUuid,
+                        @Param("idempotencyKey") String idempotencyKey,
+                        @Param("requestHash") String requestHash,
+                        @Param("expiresAt") Instant expiresAt,
+                        @Param("now") Instant now);
+
+    /**
+     * Registra la respuesta en una reserva pendiente de la misma petición.
+     */
+    @Modifying
+    @Query("UPDATE IdempotencyKeyEntity k SET k.responseStatus = :responseStatus, k.responseBody = :responseBody, " +
+            "k.expiresAt = :expiresAt " +
+            "WHERE k.requesterUuid = :requesterUuid AND k.idempotencyKey = :idempotencyKey " +
+            "AND k.requestHash = :requestHash AND k.responseStatus IS NULL")
+    int completePending(@Param("requesterUuid") UUID requesterUuid,
+                        @Param("idempotencyKey") String idempotencyKey,
+                        @Param("requestHash") String requestHash,
+                        @Param("responseStatus") Integer responseStatus,
+                        @Param("responseBody") String responseBody,
+                        @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntity k " +
+            "WHERE k.requesterUuid = :requesterUuid AND k.idempotencyKey = :idempotencyKey AND k.responseStatus IS NULL")
+    int deletePending(@Param("requesterUuid") UUID requesterUuid, @Param("idempotencyKey") String idempotencyKey);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntity k WHERE k.expiresAt <= :now")
+    int deleteByExpiresAtBefore(@Param("now") Instant now);
+}
@@ -0,0 +1,63 @@
+package infrastructure.adapter.out.persistence.repository;
+
+import domain.model.IdempotencyRecord;
+import domain.port.out.IdempotencyPersistencePort;
+import infrastructure.adapter.out.persistence.entity.IdempotencyKeyEntity;
+import infrastructure.adapter.out.persistence.mapper.IdempotencyRecordMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class IdempotencyPersistenceAdapter implements IdempotencyPersistencePort {
+
+    private final IdempotencyKeyJpaRepository idempotencyKeyJpaRepository;
+    private final IdempotencyRecordMapper idempotencyRecordMapper;
+
+    @Override
+    public IdempotencyRecord save(IdempotencyRecord record) {
+        IdempotencyKeyEntity entity = idempotencyRecordMapper.toEntity(record);
+        IdempotencyKeyEntity savedEntity = idempotencyKeyJpaRepository.save(entity);
+        return idempotencyRecordMapper.toDomain(savedEntity);
+    }
+
+    @Override
+    public boolean claim(IdempotencyRecord claim, Instant now) {
+        if (idempotencyKeyJpaRepository.takeOverExpired(claim.getRequesterUuid(), claim.getIdempotencyKey(),
+                claim.getRequestHash(), claim.getExpiresAt(), now) == 1) {
+            return true;
+        }
+        if (idempotencyKeyJpaRepository.existsByRequesterUuidAndIdempotencyKey(claim.getRequesterUuid(), claim.getIdempotencyKey())) {
+            return false;
+        }
+        // Dos inserciones simultáneas de la misma clave: la segunda falla por la restricción única
+        idempotencyKeyJpaRepository.saveAndFlush(idempotencyRecordMapper.toEntity(claim));
+        return true;
+    }
+
+    @Override
+    public boolean complete(IdempotencyRecord record) {
+        return idempotencyKeyJpaRepository.completePending(record.getRequesterUuid(), record.getIdempotencyKey(),
+                record.getRequestHash(), record.getResponseStatus(), record.getResponseBody(), record.getExpiresAt()) == 1;
+    }
+
+    @Override
+    public void release(UUID requesterUuid, String idempotencyKey) {
+        idempotencyKeyJpaRepository.deletePending(requesterUuid, idempotencyKey);
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> findByRequesterAndKey(UUID requesterUuid, String idempotencyKey) {
+        return idempotencyKeyJpaRepository.findByRequesterUuidAndIdempotencyKey(requesterUuid, idempotencyKey)
+                .map(idempotencyRecordMapper::toDomain);
+    }
+
+    @Override
+    public int deleteExpired(Instant now) {
+        return idempotencyKeyJpaRepository.deleteByExpiresAtBefore(now);
+    }
+}
@@ -0,0 +1,9 @@
+package infrastructure.adapter.out.persistence.repository;
+
+import infrastructure.adapter.out.persistence.entity.JobCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobCheckpointJpaRepository extends JpaRepository<JobCheckpointEntity, String> {
+}
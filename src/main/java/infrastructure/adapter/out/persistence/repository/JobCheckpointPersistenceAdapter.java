@@ -0,0 +1,33 @@
+package infrastructure.adapter.out.persistence.repository;
+
+import domain.model.JobCheckpoint;
+import domain.port.out.JobCheckpointPersistencePort;
+import infrastructure.adapter.out.persistence.entity.JobCheckpointEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class JobCheckpointPersistenceAdapter implements JobCheckpointPersistencePort {
+
+    private final JobCheckpointJpaRepository jobCheckpointJpaRepository;
+
+    @Override
+    public Optional<JobCheckpoint> findByJobName(String jobName) {
+        return jobCheckpointJpaRepository.findById(jobName)
+                .map(entity -> new JobCheckpoint(entity.getJobName(), entity.getWatermarkTime(),
+                        entity.getWatermarkId(), entity.getUpdatedAt()));
+    }
+
+    @Override
+    public void save(JobCheckpoint checkpoint) {
+        jobCheckpointJpaRepository.save(JobCheckpointEntity.builder()
+                .jobName(checkpoint.jobName())
+                .watermarkTime(checkpoint.watermarkTime())
+                .watermarkId(checkpoint.watermarkId())
+                .updatedAt(checkpoint.updatedAt())
+                .build());
+    }
+}
@@ -0,0 +1,44 @@
+package infrastructure.adapter.out.persistence.repository;
+
+import infrastructure.adapter.out.persistence.entity.JobLeaseEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface JobLeaseJpaRepository extends JpaRepository<JobLeaseEntity, String> {
+
+    /**
+     * Crea la fila del lease, libre, si aún no existe.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO job_leases (lease_name, fencing_token) VALUES (:name, 0)", nativeQuery = true)
+    void insertIfAbsent(@Param("name") String name);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE JobLeaseEntity l SET l.ownerNode = :owner, l.fencingToken = l.fencingToken + 1, l.expiresAt = :expiresAt " +
+            "WHERE l.leaseName = :name AND (l.ownerNode IS NULL OR l.expiresAt < :now)")
+    int acquire(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("now") Instant now,
+                @Param("expiresAt") Instant expiresAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE JobLeaseEntity l SET l.expiresAt = :expiresAt " +
+            "WHERE l.leaseName = :name AND l.ownerNode = :owner AND l.fencingToken = :token")
+    int renew(@Param("name") String name,
+              @Param("owner") String owner,
+              @Param("token") long token,
+              @Param("expiresAt") Instant expiresAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE JobLeaseEntity l SET l.ownerNode = NULL, l.expiresAt = NULL " +
+            "WHERE l.leaseName = :name AND l.ownerNode = :owner AND l.fencingToken = :token")
+    int release(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("token") long token);
+}
@@ -0,0 +1,42 @@
+package infrastructure.adapter.out.persistence.repository;
+
+import domain.model.JobLease;
+import domain.port.out.JobLeasePersistencePort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class JobLeasePersistenceAdapter implements JobLeasePersistencePort {
+
+    private final JobLeaseJpaRepository jobLeaseJpaRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<JobLease> tryAcquire(String name, String owner, Instant now, Instant expiresAt) {
+        jobLeaseJpaRepository.insertIfAbsent(name);
+        if (jobLeaseJpaRepository.acquire(name, owner, now, expiresAt) == 0) {
+            return Optional.empty();
+        }
+        return jobLeaseJpaRepository.findById(name)
+                .map(entity -> new JobLease(entity.getLeaseName(), entity.getOwnerNode(),
+                        entity.getFencingToken(), entity.getExpiresAt()));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean renew(JobLease lease, Instant expiresAt) {
+        return jobLeaseJpaRepository.renew(lease.name(), lease.owner(), lease.fencingToken(), expiresAt) > 0;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(JobLease lease) {
+        jobLeaseJpaRepository.release(lease.name(), lease.owner(), lease.fencingToken());
+    }
+}
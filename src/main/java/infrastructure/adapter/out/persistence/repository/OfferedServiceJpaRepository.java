@@ -1,6 +1,7 @@
 package infrastructure.adapter.out.persistence.repository;
 
 import infrastructure.adapter.out.persistence.entity.OfferedServiceEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -24,7 +25,20 @@ public interface OfferedServiceJpaRepository extends JpaRepository<OfferedServic
     @Query("UPDATE OfferedServiceEntity s SET s.isActive = :isActive WHERE s.uuid = :uuid")
     int updateActiveStatusByUuid(@Param("uuid") UUID uuid, @Param("isActive") boolean isActive);
 
-    List<OfferedServiceEntity> findByIsActiveTrue();
+    /**
+     * Página de servicios por id ascendente con filtros opcionales de nombre, dueño y estado.
+     */
+    @Query("SELECT s FROM OfferedServiceEntity s " +
+            "WHERE (:ownerId IS NULL OR s.owner.id = :ownerId) " +
+            "AND (:activeOnly = false OR s.isActive = true) " +
+            "AND (:nameContains IS NULL OR LOWER(s.name) LIKE LOWER(CONCAT('%', :nameContains, '%'))) " +
+            "AND s.serviceId > :afterId " +
+            "ORDER BY s.serviceId")
+    List<OfferedServiceEntity> findPage(@Param("nameContains") String nameContains,
+                                        @Param("ownerId") Long ownerId,
+                                        @Param("activeOnly") boolean activeOnly,
+                                        @Param("afterId") Long afterId,
+                                        Pageable pageable);
 
     List<OfferedServiceEntity> findByNameContainingIgnoreCase(String name);
 
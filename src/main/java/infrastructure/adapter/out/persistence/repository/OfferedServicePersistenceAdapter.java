@@ -1,10 +1,13 @@
 package infrastructure.adapter.out.persistence.repository;
 
 import domain.model.OfferedService;
+import domain.model.OfferedServiceFilter;
+import domain.model.Slice;
 import domain.port.out.OfferedServicePersistencePort;
 import infrastructure.adapter.out.persistence.entity.OfferedServiceEntity;
 import infrastructure.adapter.out.persistence.mapper.OfferedServiceMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -39,17 +42,11 @@ public class OfferedServicePersistenceAdapter implements OfferedServicePersisten
     }
 
     @Override
-    public List<OfferedService> findAll() {
-        return offeredServiceJpaRepository.findAll().stream()
-                .map(offeredServiceMapper::toDomain)
-                .collect(Collectors.toList());
-    }
-
-    @Override
-    public List<OfferedService> findAllActive() {
-        return offeredServiceJpaRepository.findByIsActiveTrue().stream()
-                .map(offeredServiceMapper::toDomain)
-                .collect(Collectors.toList());
+    public Slice<OfferedService> findAll(OfferedServiceFilter filter, Long afterId, int limit) {
+        List<OfferedServiceEntity> entities = offeredServiceJpaRepository.findPage(
+                filter.nameContains(), filter.ownerId(), filter.activeOnly(),
+                afterId == null ? 0L : afterId, PageRequest.of(0, limit + 1));
+        return Slice.fromOverfetched(offeredServiceMapper.toDomainList(entities), limit);
     }
 
     @Override
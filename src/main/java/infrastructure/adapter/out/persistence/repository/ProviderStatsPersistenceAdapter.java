@@ -0,0 +1,48 @@
+package infrastructure.adapter.out.persistence.repository;
+
+import domain.model.ServiceWeeklyStats;
+import domain.model.ServiceWeeklyStatsDelta;
+import domain.port.out.ProviderStatsPersistencePort;
+import infrastructure.adapter.out.persistence.entity.ServiceWeeklyStatsEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class ProviderStatsPersistenceAdapter implements ProviderStatsPersistencePort {
+
+    private final ServiceWeeklyStatsJpaRepository serviceWeeklyStatsJpaRepository;
+
+    @Override
+    public void applyDelta(Long serviceId, Long providerId, LocalDate weekStart, ServiceWeeklyStatsDelta delta) {
+        serviceWeeklyStatsJpaRepository.upsertDelta(serviceId, weekStart, providerId,
+                delta.slotCount(), delta.capacity(), delta.bookedSeats(), delta.revenue(),
+                delta.cancellations(), delta.noShows(), delta.completed());
+    }
+
+    @Override
+    public List<ServiceWeeklyStats> findByProvider(Long providerId, LocalDate fromWeek, LocalDate toWeek) {
+        return serviceWeeklyStatsJpaRepository.findByProvider(providerId, fromWeek, toWeek).stream()
+                .map(ProviderStatsPersistenceAdapter::toDomain)
+                .collect(Collectors.toList());
+    }
+
+    private static ServiceWeeklyStats toDomain(ServiceWeeklyStatsEntity entity) {
+        return ServiceWeeklyStats.builder()
+                .serviceUuid(entity.getOfferedService().getUuid())
+                .serviceName(entity.getOfferedService().getName())
+                .weekStart(entity.getId().getWeekStart())
+                .slotCount(entity.getSlotCount())
+                .capacity(entity.getCapacity())
+                .bookedSeats(entity.getBookedSeats())
+                .revenue(entity.getRevenue())
+                .cancellations(entity.getCancellations())
+                .noShows(entity.getNoShows())
+                .completed(entity.getCompleted())
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package infrastructure.adapter.out.persistence.repository;
+
+import domain.model.RefreshToken;
+import domain.port.out.RefreshTokenPersistencePort;
+import infrastructure.adapter.out.persistence.entity.RefreshTokenEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenPersistenceAdapter implements RefreshTokenPersistencePort {
+
+    private final RefreshTokenJpaRepository refreshTokenJpaRepository;
+
+    @Override
+    @Transactional
+    public void save(RefreshToken token) {
+        refreshTokenJpaRepository.save(RefreshTokenEntity.builder()
+                .tokenHash(token.tokenHash())
+                .familyId(token.familyId())
+                .userId(token.userId())
+                .expiresAt(token.expiresAt())
+                .usedAt(token.usedAt())
+                .revokedAt(token.revokedAt())
+                .build());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<RefreshToken> findByHash(String tokenHash) {
+        return refreshTokenJpaRepository.findById(tokenHash)
+                .map(entity -> new RefreshToken(entity.getTokenHash(), entity.getFamilyId(), entity.getUserId(),
+                        entity.getExpiresAt(), entity.getUsedAt(), entity.getRevokedAt()));
+    }
+
+    @Override
+    @Transactional
+    public boolean markUsed(String tokenHash, Instant now) {
+        return refreshTokenJpaRepository.markUsed(tokenHash, now) > 0;
+    }
+
+    @Override
+    @Transactional
+    public int revokeFamily(UUID familyId, Instant now) {
+        return refreshTokenJpaRepository.revokeFamily(familyId, now);
+    }
+
+    @Override
+    @Transactional
+    public int deleteExpired(Instant now) {
+        return refreshTokenJpaRepository.deleteByExpiresAtBefore(now);
+    }
+}
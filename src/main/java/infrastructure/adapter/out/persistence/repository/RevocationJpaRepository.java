@@ -0,0 +1,34 @@
+package infrastructure.adapter.out.persistence.repository;
+
+import infrastructure.adapter.out.persistence.entity.RevocationEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RevocationJpaRepository extends JpaRepository<RevocationEntity, Long> {
+
+    @Query("SELECT r FROM RevocationEntity r WHERE r.expiresAt > :now AND r.id > :afterId ORDER BY r.id")
+    List<RevocationEntity> findActive(@Param("now") Instant now,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    @Query("SELECT r FROM RevocationEntity r WHERE r.createdAt >= :from AND r.id > :afterId ORDER BY r.id")
+    List<RevocationEntity> findCreatedSince(@Param("from") Instant from,
+                                            @Param("afterId") Long afterId,
+                                            Pageable pageable);
+
+    @Query("SELECT MAX(r.createdAt) FROM RevocationEntity r")
+    Optional<Instant> findLatestCreatedAt();
+
+    @Modifying
+    @Query("DELETE FROM RevocationEntity r WHERE r.expiresAt <= :now")
+    int deleteByExpiresAtBefore(@Param("now") Instant now);
+}
@@ -0,0 +1,74 @@
+package infrastructure.adapter.out.persistence.repository;
+
+import domain.model.Revocation;
+import domain.port.out.RevocationPersistencePort;
+import infrastructure.adapter.out.persistence.entity.RevocationEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class RevocationPersistenceAdapter implements RevocationPersistencePort {
+
+    private final RevocationJpaRepository revocationJpaRepository;
+
+    /**
+     * En su propia transacción: se llama después del commit del cambio que la provoca.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void save(Revocation revocation) {
+        revocationJpaRepository.save(RevocationEntity.builder()
+                .type(revocation.type())
+                .subject(revocation.subject())
+                .revokedAt(revocation.revokedAt())
+                .expiresAt(revocation.expiresAt())
+                .build());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page findActive(Instant now, long afterId, int limit) {
+        return toPage(revocationJpaRepository.findActive(now, afterId, PageRequest.of(0, limit)), afterId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page findCreatedSince(Instant from, long afterId, int limit) {
+        return toPage(revocationJpaRepository.findCreatedSince(from, afterId, PageRequest.of(0, limit)), afterId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Instant> findLatestCreatedAt() {
+        return revocationJpaRepository.findLatestCreatedAt();
+    }
+
+    @Override
+    @Transactional
+    public int deleteExpired(Instant now) {
+        return revocationJpaRepository.deleteByExpiresAtBefore(now);
+    }
+
+    private static Page toPage(List<RevocationEntity> rows, long afterId) {
+        long lastId = afterId;
+        Instant latest = null;
+        List<Revocation> revocations = new ArrayList<>(rows.size());
+        for (RevocationEntity row : rows) {
+            revocations.add(new Revocation(row.getType(), row.getSubject(), row.getRevokedAt(), row.getExpiresAt()));
+            lastId = row.getId();
+            if (latest == null || row.getCreatedAt().isAfter(latest)) {
+                latest = row.getCreatedAt();
+            }
+        }
+        return new Page(revocations, lastId, latest);
+    }
+}
@@ -0,0 +1,49 @@
+package infrastructure.adapter.out.persistence.repository;
+
+import infrastructure.adapter.out.persistence.entity.ServiceWeeklyStatsEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ServiceWeeklyStatsJpaRepository extends JpaRepository<ServiceWeeklyStatsEntity, ServiceWeeklyStatsEntity.Key> {
+
+    /**
+     * Suma la variación sobre la fila del servicio y semana en una sola sentencia (la crea la primera vez).
+     * Solo bloquea esa fila, y hasta el commit de la transacción que la llama.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO provider_service_weekly_stats " +
+            "(service_id, week_start, provider_id, slot_count, capacity, booked_seats, revenue, cancellations, no_shows, completed) " +
+            "VALUES (:serviceId, :weekStart, :providerId, :slotCount, :capacity, :bookedSeats, :revenue, :cancellations, :noShows, :completed) " +
+            "ON DUPLICATE KEY UPDATE slot_count = slot_count + :slotCount, capacity = capacity + :capacity, " +
+            "booked_seats = booked_seats + :bookedSeats, revenue = revenue + :revenue, " +
+            "cancellations = cancellations + :cancellations, no_shows = no_shows + :noShows, completed = completed + :completed",
+            nativeQuery = true)
+    void upsertDelta(@Param("serviceId") Long serviceId,
+                     @Param("weekStart") LocalDate weekStart,
+                     @Param("providerId") Long providerId,
+                     @Param("slotCount") int slotCount,
+                     @Param("capacity") int capacity,
+                     @Param("bookedSeats") int bookedSeats,
+                     @Param("revenue") BigDecimal revenue,
+                     @Param("cancellations") int cancellations,
+                     @Param("noShows") int noShows,
+                     @Param("completed") int completed);
+
+    /**
+     * Filas de un proveedor en un rango de semanas, con el servicio ya cargado (una sola consulta por el índice del proveedor).
+     */
+    @Query("SELECT s FROM ServiceWeeklyStatsEntity s JOIN FETCH s.offeredService " +
+            "WHERE s.providerId = :providerId AND s.id.weekStart BETWEEN :fromWeek AND :toWeek " +
+            "ORDER BY s.id.weekStart, s.offeredService.name")
+    List<ServiceWeeklyStatsEntity> findByProvider(@Param("providerId") Long providerId,
+                                                  @Param("fromWeek") LocalDate fromWeek,
+                                                  @Param("toWeek") LocalDate toWeek);
+}
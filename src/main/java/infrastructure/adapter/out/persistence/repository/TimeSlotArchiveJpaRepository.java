@@ -0,0 +1,68 @@
+package infrastructure.adapter.out.persistence.repository;
+
+import infrastructure.adapter.out.persistence.entity.TimeSlotArchiveEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TimeSlotArchiveJpaRepository extends JpaRepository<TimeSlotArchiveEntity, Long> {
+
+    Optional<TimeSlotArchiveEntity> findByUuid(UUID uuid);
+
+    /**
+     * Copia al archivo los slots indicados junto con los datos de su servicio.
+     * Ignora los que ya estuvieran archivados, así que repetir un lote tras un fallo es seguro.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO time_slots_archive " +
+            "(id, public_uuid, service_id, service_uuid, service_name, provider_id, " +
+            "start_time, end_time, capacity, price, status, archived_at) " +
+            "SELECT ts.id, ts.public_uuid, s.service_id, s.public_uuid, s.name, s.owner_id, " +
+            "ts.start_time, ts.end_time, ts.capacity, ts.price, ts.status, :archivedAt " +
+            "FROM time_slots ts " +
+            "JOIN offered_services s ON s.service_id = ts.service_id " +
+            "WHERE ts.id IN (:timeSlotIds)",
+            nativeQuery = true)
+    int copyTimeSlots(@Param("timeSlotIds") Collection<Long> timeSlotIds,
+                      @Param("archivedAt") Instant archivedAt);
+
+    /**
+     * Entradas de lista de espera de esos slots: ya no pueden promocionar, así que se descartan en vez de archivarse.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM waitlist_entries WHERE timeslot_id IN (:timeSlotIds)", nativeQuery = true)
+    int deleteWaitlistEntriesOfTimeSlots(@Param("timeSlotIds") Collection<Long> timeSlotIds);
+
+    /**
+     * Borra de la tabla viva los slots ya archivados que no conservan bookings, para que el
+     * ON DELETE CASCADE nunca se lleve un booking que no se haya copiado antes.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM time_slots WHERE id IN (:timeSlotIds) " +
+            "AND id IN (SELECT a.id FROM time_slots_archive a WHERE a.id IN (:timeSlotIds)) " +
+            "AND NOT EXISTS (SELECT 1 FROM bookings b WHERE b.timeslot_id = time_slots.id)",
+            nativeQuery = true)
+    int deleteArchivedTimeSlots(@Param("timeSlotIds") Collection<Long> timeSlotIds);
+
+    /**
+     * Slots archivados de un proveedor por hora de inicio, desde una clave (startTime, id).
+     * Recorre el índice (provider_id, start_time, id).
+     */
+    @Query("SELECT a FROM TimeSlotArchiveEntity a JOIN FETCH a.provider p WHERE p.uuid = :providerUuid " +
+            "AND (:afterStart IS NULL OR a.startTime > :afterStart OR (a.startTime = :afterStart AND a.id > :afterId)) " +
+            "ORDER BY a.startTime, a.id")
+    List<TimeSlotArchiveEntity> findPageByProvider(@Param("providerUuid") UUID providerUuid,
+                                                   @Param("afterStart") Instant afterStart,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable pageable);
+}
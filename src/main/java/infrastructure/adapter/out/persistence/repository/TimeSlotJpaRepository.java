@@ -1,12 +1,17 @@
 package infrastructure.adapter.out.persistence.repository;
 
+import domain.model.TimeSlotCursor;
+import domain.model.TimeSlotStatus;
 import infrastructure.adapter.out.persistence.entity.TimeSlotEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -49,4 +54,144 @@ public interface TimeSlotJpaRepository extends JpaRepository<TimeSlotEntity, Lon
      * @return true si existe al menos un registro, false si no.
      */
     boolean existsByOfferedService_UuidAndStartTimeAfter(UUID serviceUuid, Instant now);
-}
\ No newline at end of file
+
+    /**
+     * Próximos slots no cancelados de los servicios de un proveedor, por hora de inicio.
+     */
+    @Query("SELECT ts FROM TimeSlotEntity ts " +
+            "WHERE ts.offeredService.owner.uuid = :providerUuid " +
+            "AND ts.startTime >= :from " +
+            "AND ts.status <> domain.model.TimeSlotStatus.CANCELLED " +
+            "ORDER BY ts.startTime, ts.id")
+    List<TimeSlotEntity> findUpcomingByProvider(@Param("providerUuid") UUID providerUuid,
+                                                @Param("from") Instant from,
+                                                Pageable pageable);
+
+    /**
+     * Primera página de slots de un proveedor desde {@code from}, por clave (startTime, id).
+     * Recorre el índice (provider_id, start_time, id) desde {@code from}, con todos sus servicios a la vez.
+     */
+    @Query("SELECT ts FROM TimeSlotEntity ts JOIN FETCH ts.offeredService s JOIN FETCH s.owner " +
+            "WHERE ts.providerId = (SELECT u.id FROM UserEntity u WHERE u.uuid = :providerUuid) " +
+            "AND ts.status IN :statuses " +
+            "AND ts.startTime >= :from " +
+            "AND (:to IS NULL OR ts.startTime < :to) " +
+            "ORDER BY ts.startTime, ts.id")
+    List<TimeSlotEntity> findFirstPageByProvider(@Param("providerUuid") UUID providerUuid,
+                                                 @Param("statuses") Collection<TimeSlotStatus> statuses,
+                                                 @Param("from") Instant from,
+                                                 @Param("to") Instant to,
+                                                 Pageable pageable);
+
+    /**
+     * Página siguiente a la clave (afterStart, afterId): la misma consulta, con el rango del índice
+     * empezando en la clave del cursor.
+     */
+    @Query("SELECT ts FROM TimeSlotEntity ts JOIN FETCH ts.offeredService s JOIN FETCH s.owner " +
+            "WHERE ts.providerId = (SELECT u.id FROM UserEntity u WHERE u.uuid = :providerUuid) " +
+            "AND ts.status IN :statuses " +
+            "AND ts.startTime >= :afterStart " +
+            "AND (ts.startTime > :afterStart OR ts.id > :afterId) " +
+            "AND (:to IS NULL OR ts.startTime < :to) " +
+            "ORDER BY ts.startTime, ts.id")
+    List<TimeSlotEntity> findNextPageByProvider(@Param("providerUuid") UUID providerUuid,
+                                                @Param("statuses") Collection<TimeSlotStatus> statuses,
+                                                @Param("afterStart") Instant afterStart,
+                                                @Param("afterId") Long afterId,
+                                                @Param("to") Instant to,
+                                                Pageable pageable);
+
+    /**
+     * Claves (startTime, id) de los slots que empezaron antes de {@code cutoff}, desde una clave dada,
+     * solo los ids de una parte (id % shardCount = shardIndex).
+     * Se resuelve solo con el índice de start_time (que en InnoDB ya incluye el id).
+     */
+    @Query("SELECT new domain.model.TimeSlotCursor(ts.startTime, ts.id) FROM TimeSlotEntity ts " +
+            "WHERE ts.startTime < :cutoff AND MOD(ts.id, :shardCount) = :shardIndex " +
+            "AND (:afterStart IS NULL OR ts.startTime > :afterStart OR (ts.startTime = :afterStart AND ts.id > :afterId)) " +
+            "ORDER BY ts.startTime, ts.id")
+    List<TimeSlotCursor> findKeysStartedBefore(@Param("cutoff") Instant cutoff,
+                                               @Param("shardCount") int shardCount,
+                                               @Param("shardIndex") int shardIndex,
+                                               @Param("afterStart") Instant afterStart,
+                                               @Param("afterId") Long afterId,
+                                               Pageable pageable);
+
+    /**
+     * Slots que terminaron antes de {@code until}, por hora de fin desde una clave (endTime, id),
+     * con su servicio y proveedor ya cargados. Recorre el índice (end_time, id) desde la marca,
+     * quedándose solo con los ids de una parte (id % shardCount = shardIndex).
+     */
+    @Query("SELECT ts FROM TimeSlotEntity ts JOIN FETCH ts.offeredService s JOIN FETCH s.owner " +
+            "WHERE ts.endTime < :until AND MOD(ts.id, :shardCount) = :shardIndex " +
+            "AND (:afterEnd IS NULL OR ts.endTime > :afterEnd OR (ts.endTime = :afterEnd AND ts.id > :afterId)) " +
+            "ORDER BY ts.endTime, ts.id")
+    List<TimeSlotEntity> findEndedBefore(@Param("until") Instant until,
+                                         @Param("shardCount") int shardCount,
+                                         @Param("shardIndex") int shardIndex,
+                                         @Param("afterEnd") Instant afterEnd,
+                                         @Param("afterId") Long afterId,
+                                         Pageable pageable);
+
+    /**
+     * Slots con esos UUID, con su servicio y proveedor ya cargados, en una sola consulta.
+     */
+    @Query("SELECT ts FROM TimeSlotEntity ts JOIN FETCH ts.offeredService s JOIN FETCH s.owner WHERE ts.uuid IN :uuids")
+    List<TimeSlotEntity> findAllByUuidIn(@Param("uuids") Collection<UUID> uuids);
+
+    @Query("SELECT CASE WHEN ts.status = :available THEN ts.capacity - ts.bookedSeats ELSE 0 END " +
+            "FROM TimeSlotEntity ts WHERE ts.uuid = :uuid")
+    Optional<Integer> findFreeSeats(@Param("uuid") UUID uuid, @Param("available") TimeSlotStatus available);
+
+    /**
+     * Bloquea (por id, para no cruzarse con otro lote) las filas de los slots no cancelados
+     * y devuelve cuántas plazas les quedan libres.
+     */
+    @Query(value = "SELECT ts.id AS timeSlotId, ts.capacity - ts.booked_seats AS freeSeats " +
+            "FROM time_slots ts WHERE ts.id IN (:ids) AND ts.status <> 'CANCELLED' ORDER BY ts.id FOR UPDATE",
+            nativeQuery = true)
+    List<FreeSeatsView> lockFreeSeats(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Ocupa {@code seats} plazas en cada slot indicado que no esté cancelado y tenga hueco para todas, en un único UPDATE.
+     * El estado se asigna antes que el contador y con el valor nuevo escrito explícitamente: el resultado es el mismo
+     * asigne el motor de izquierda a derecha (MySQL) o con los valores originales de la fila (el estándar).
+     * @return el número de slots en los que se han ocupado las plazas.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE time_slots SET status = CASE WHEN booked_seats + :seats >= capacity THEN 'FULL' ELSE status END, " +
+            "booked_seats = booked_seats + :seats, version = version + 1 " +
+            "WHERE id IN (:ids) AND status <> 'CANCELLED' AND booked_seats + :seats <= capacity",
+            nativeQuery = true)
+    int claimSeats(@Param("ids") Collection<Long> ids, @Param("seats") int seats);
+
+    /**
+     * Recalcula el contador de un slot a partir de sus bookings (sin las retenciones ya caducadas)
+     * y, si no está cancelado, lo marca como lleno o disponible según el resultado.
+     * Como en {@link #claimSeats}, el estado no lee el contador que se asigna en la misma sentencia.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE time_slots ts SET ts.status = CASE WHEN ts.status = 'CANCELLED' THEN ts.status " +
+            "WHEN (SELECT COALESCE(SUM(b.party_size), 0) FROM bookings b WHERE b.timeslot_id = ts.id AND b.status IN (:statuses) " +
+            "AND (b.hold_expires_at IS NULL OR b.hold_expires_at > :now)) >= ts.capacity THEN 'FULL' ELSE 'AVAILABLE' END, " +
+            "ts.booked_seats = (SELECT COALESCE(SUM(b.party_size), 0) FROM bookings b WHERE b.timeslot_id = ts.id AND b.status IN (:statuses) " +
+            "AND (b.hold_expires_at IS NULL OR b.hold_expires_at > :now)), " +
+            "ts.version = ts.version + 1 " +
+            "WHERE ts.id = :id",
+            nativeQuery = true)
+    int recountBookedSeats(@Param("id") Long id,
+                           @Param("statuses") Collection<String> statuses,
+                           @Param("now") Instant now);
+
+    @Query(value = "SELECT booked_seats FROM time_slots WHERE id = :id", nativeQuery = true)
+    int findBookedSeats(@Param("id") Long id);
+
+    /**
+     * Proyección de las plazas libres de un slot.
+     */
+    interface FreeSeatsView {
+        Long getTimeSlotId();
+
+        Integer getFreeSeats();
+    }
+}
@@ -1,16 +1,27 @@
 package infrastructure.adapter.out.persistence.repository;
 
+import domain.model.BookingStatus;
+import domain.model.JobShard;
+import domain.model.Slice;
 import domain.model.TimeSlot;
+import domain.model.TimeSlotCursor;
+import domain.model.TimeSlotEndCursor;
+import domain.model.TimeSlotFilter;
+import domain.model.TimeSlotStatus;
 import domain.port.out.TimeSlotPersistencePort;
 import infrastructure.adapter.out.persistence.entity.TimeSlotEntity;
 import infrastructure.adapter.out.persistence.mapper.TimeSlotMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
@@ -58,4 +69,72 @@ public class TimeSlotPersistenceAdapter implements TimeSlotPersistencePort {
     public boolean hasFutureTimeSlots(UUID serviceUuid) {
         return timeSlotJpaRepository.existsByOfferedService_UuidAndStartTimeAfter(serviceUuid, Instant.now());
     }
-}
\ No newline at end of file
+
+    @Override
+    public List<TimeSlot> findUpcomingByProvider(UUID providerUuid, Instant from, int limit) {
+        List<TimeSlotEntity> entities = timeSlotJpaRepository.findUpcomingByProvider(providerUuid, from, PageRequest.of(0, limit));
+        return timeSlotMapper.toDomainList(entities);
+    }
+
+    /**
+     * Una sola consulta por página, sobre el índice (provider_id, start_time, id): el coste depende del
+     * tamaño de página, no del número de servicios del proveedor ni de los años de histórico.
+     */
+    @Override
+    public Slice<TimeSlot> findTimeSlotsByProvider(UUID providerUuid, TimeSlotFilter filter, TimeSlotCursor after, int limit) {
+        PageRequest overfetch = PageRequest.of(0, limit + 1);
+        List<TimeSlotEntity> page = after == null
+                ? timeSlotJpaRepository.findFirstPageByProvider(providerUuid, filter.statuses(),
+                        filter.from() != null ? filter.from() : Instant.EPOCH, filter.to(), overfetch)
+                : timeSlotJpaRepository.findNextPageByProvider(providerUuid, filter.statuses(),
+                        after.startTime(), after.id(), filter.to(), overfetch);
+        return Slice.fromOverfetched(timeSlotMapper.toDomainList(page), limit);
+    }
+
+    @Override
+    public List<TimeSlot> findEndedBefore(Instant until, JobShard shard, TimeSlotEndCursor after, int limit) {
+        return timeSlotMapper.toDomainList(timeSlotJpaRepository.findEndedBefore(until,
+                shard.count(), shard.index(),
+                after != null ? after.endTime() : null,
+                after != null ? after.id() : null,
+                PageRequest.of(0, limit)));
+    }
+
+    @Override
+    public List<TimeSlot> findAllByUuids(Collection<UUID> timeSlotUuids) {
+        if (timeSlotUuids.isEmpty()) {
+            return List.of();
+        }
+        return timeSlotMapper.toDomainList(timeSlotJpaRepository.findAllByUuidIn(timeSlotUuids));
+    }
+
+    @Override
+    public Optional<Integer> findFreeSeats(UUID timeSlotUuid) {
+        return timeSlotJpaRepository.findFreeSeats(timeSlotUuid, TimeSlotStatus.AVAILABLE);
+    }
+
+    @Override
+    public Map<Long, Integer> lockFreeSeats(Collection<Long> timeSlotIds) {
+        if (timeSlotIds.isEmpty()) {
+            return Map.of();
+        }
+        return timeSlotJpaRepository.lockFreeSeats(timeSlotIds).stream()
+                .collect(Collectors.toMap(TimeSlotJpaRepository.FreeSeatsView::getTimeSlotId,
+                        TimeSlotJpaRepository.FreeSeatsView::getFreeSeats));
+    }
+
+    @Override
+    public int claimSeats(Collection<Long> timeSlotIds, int seats) {
+        if (timeSlotIds.isEmpty()) {
+            return 0;
+        }
+        return timeSlotJpaRepository.claimSeats(timeSlotIds, seats);
+    }
+
+    @Override
+    public int recountBookedSeats(Long timeSlotId, Instant now) {
+        List<String> statuses = BookingStatus.SEAT_HOLDING.stream().map(BookingStatus::name).toList();
+        timeSlotJpaRepository.recountBookedSeats(timeSlotId, statuses, now);
+        return timeSlotJpaRepository.findBookedSeats(timeSlotId);
+    }
+}
@@ -2,6 +2,7 @@ package infrastructure.adapter.out.persistence.repository;
 
 import domain.model.Role;
 import infrastructure.adapter.out.persistence.entity.UserEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,11 +21,20 @@ public interface UserJpaRepository extends JpaRepository<UserEntity, Long> {
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
 
+    List<UserEntity> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
     @Query("SELECT u FROM UserEntity u " +
             "WHERE :role MEMBER OF u.roles " +
             "AND LOWER(u.username) LIKE LOWER(CONCAT('%', :usernameQuery, '%'))")
     List<UserEntity> findByRoleAndUsernameContaining(
             @Param("role") Role role,
-            @Param("usernameQuery") String usernameQuery
+            @Param("usernameQuery") String usernameQuery,
+            Pageable pageable
     );
+
+    @Query("SELECT u FROM UserEntity u " +
+            "WHERE :role MEMBER OF u.roles " +
+            "AND u.id > :afterId " +
+            "ORDER BY u.id")
+    List<UserEntity> findByRoleAfterId(@Param("role") Role role, @Param("afterId") Long afterId, Pageable pageable);
 }
@@ -1,17 +1,18 @@
 package infrastructure.adapter.out.persistence.repository;
 
 import domain.model.Role;
+import domain.model.Slice;
 import domain.model.User;
 import domain.port.out.UserPersistencePort;
 import infrastructure.adapter.out.persistence.entity.UserEntity;
 import infrastructure.adapter.out.persistence.mapper.UserMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
@@ -48,10 +49,10 @@ public class UserPersistenceAdapter implements UserPersistencePort {
     }
 
     @Override
-    public List<User> findAll() {
-        return userJpaRepository.findAll().stream()
-                .map(userMapper::toDomain)
-                .collect(Collectors.toList());
+    public Slice<User> findAll(Long afterId, int limit) {
+        List<UserEntity> entities = userJpaRepository.findByIdGreaterThanOrderByIdAsc(
+                afterId == null ? 0L : afterId, PageRequest.of(0, limit + 1));
+        return Slice.fromOverfetched(userMapper.toDomainList(entities), limit);
     }
 
     @Override
@@ -75,10 +76,15 @@ public class UserPersistenceAdapter implements UserPersistencePort {
     }
 
     @Override
-    public List<User> findUsersByRoleAndUsernameContaining(Role role, String usernameQuery) {
-        List<UserEntity> userEntities = userJpaRepository.findByRoleAndUsernameContaining(role, usernameQuery);
+    public List<User> findUsersByRoleAndUsernameContaining(Role role, String usernameQuery, int limit) {
+        List<UserEntity> userEntities = userJpaRepository.findByRoleAndUsernameContaining(role, usernameQuery, PageRequest.of(0, limit));
 
         return userMapper.toDomainList(userEntities);
     }
+
+    @Override
+    public List<User> findByRoleAfterId(Role role, Long afterId, int limit) {
+        return userMapper.toDomainList(userJpaRepository.findByRoleAfterId(role, afterId, PageRequest.of(0, limit)));
+    }
 }
 
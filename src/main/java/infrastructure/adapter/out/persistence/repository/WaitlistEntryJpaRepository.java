@@ -0,0 +1,81 @@
+package infrastructure.adapter.out.persistence.repository;
+
+import domain.model.WaitlistStatus;
+import infrastructure.adapter.out.persistence.entity.WaitlistEntryEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface WaitlistEntryJpaRepository extends JpaRepository<WaitlistEntryEntity, Long> {
+
+    Optional<WaitlistEntryEntity> findByUuid(UUID uuid);
+
+    /**
+     * Entradas de un cliente con el estado dado a partir de un id, con su slot, servicio y proveedor ya cargados.
+     */
+    @Query("SELECT w FROM WaitlistEntryEntity w JOIN FETCH w.client " +
+            "JOIN FETCH w.timeSlot ts JOIN FETCH ts.offeredService s JOIN FETCH s.owner " +
+            "WHERE w.client.id = :clientId AND w.status = :status AND w.id > :afterId ORDER BY w.id")
+    List<WaitlistEntryEntity> findPageByClient(@Param("clientId") Long clientId,
+                                               @Param("status") WaitlistStatus status,
+                                               @Param("afterId") Long afterId,
+                                               Pageable pageable);
+
+    boolean existsByClient_IdAndTimeSlot_IdAndStatus(Long clientId, Long timeSlotId, WaitlistStatus status);
+
+    /**
+     * Primera entrada con el estado dado detrás de un id de la cola. Usa el índice (timeslot_id, status, id).
+     */
+    Optional<WaitlistEntryEntity> findFirstByTimeSlot_IdAndStatusAndIdGreaterThanOrderByIdAsc(Long timeSlotId,
+                                                                                            WaitlistStatus status,
+                                                                                            Long afterId);
+
+    /**
+     * Posición de varias entradas en las colas de sus slots, en una sola consulta: [id, nº de entradas
+     * con ese estado hasta ella inclusive]. Cada recuento recorre el índice (timeslot_id, status, id).
+     */
+    @Query("SELECT w.id, COUNT(o.id) FROM WaitlistEntryEntity w, WaitlistEntryEntity o " +
+            "WHERE w.id IN :ids AND o.timeSlot.id = w.timeSlot.id AND o.status = :status AND o.id <= w.id " +
+            "GROUP BY w.id")
+    List<Object[]> countPositions(@Param("ids") Collection<Long> ids, @Param("status") WaitlistStatus status);
+
+    /**
+     * IDs de la cola en orden FIFO, para hidratar la cola en memoria sin cargar las entidades.
+     */
+    @Query("SELECT w.id FROM WaitlistEntryEntity w " +
+            "WHERE w.timeSlot.id = :timeSlotId AND w.status = :status ORDER BY w.id")
+    List<Long> findIdsByTimeSlotIdAndStatus(@Param("timeSlotId") Long timeSlotId, @Param("status") WaitlistStatus status);
+
+    /**
+     * Cambia el estado solo si la entrada sigue en el estado esperado. Devuelve las filas afectadas (0 o 1).
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntryEntity w SET w.status = :newStatus, w.updatedAt = :now " +
+            "WHERE w.id = :id AND w.status = :expectedStatus")
+    int updateStatusIfCurrent(@Param("id") Long id,
+                              @Param("expectedStatus") WaitlistStatus expectedStatus,
+                              @Param("newStatus") WaitlistStatus newStatus,
+                              @Param("now") Instant now);
+
+    /**
+     * Cierra las entradas de un cliente en esos slots que sigan en el estado esperado. Devuelve las filas afectadas.
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntryEntity w SET w.status = :newStatus, w.updatedAt = :now " +
+            "WHERE w.client.id = :clientId AND w.timeSlot.id IN :timeSlotIds AND w.status = :expectedStatus")
+    int updateStatusOfClientEntries(@Param("clientId") Long clientId,
+                                    @Param("timeSlotIds") Collection<Long> timeSlotIds,
+                                    @Param("expectedStatus") WaitlistStatus expectedStatus,
+                                    @Param("newStatus") WaitlistStatus newStatus,
+                                    @Param("now") Instant now);
+}
@@ -0,0 +1,157 @@
+package infrastructure.adapter.out.persistence.repository;
+
+import domain.exception.DuplicateWaitlistEntryException;
+import domain.model.Slice;
+import domain.model.TimeSlot;
+import domain.model.User;
+import domain.model.WaitlistEntry;
+import domain.model.WaitlistStatus;
+import domain.port.out.WaitlistPersistencePort;
+import infrastructure.adapter.out.persistence.cache.WaitlistQueueCache;
+import infrastructure.adapter.out.persistence.entity.WaitlistEntryEntity;
+import infrastructure.adapter.out.persistence.mapper.WaitlistEntryMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class WaitlistPersistenceAdapter implements WaitlistPersistencePort {
+
+    private final WaitlistEntryJpaRepository waitlistEntryJpaRepository;
+    private final TimeSlotJpaRepository timeSlotJpaRepository;
+    private final UserJpaRepository userJpaRepository;
+    private final WaitlistEntryMapper waitlistEntryMapper;
+    private final WaitlistQueueCache waitlistQueueCache;
+
+    @Override
+    public WaitlistEntry save(WaitlistEntry entry) {
+        WaitlistEntryEntity entity = waitlistEntryMapper.toEntity(entry);
+        // Referencias sin carga: solo necesitamos las claves foráneas
+        entity.setTimeSlot(timeSlotJpaRepository.getReferenceById(entry.getTimeSlot().getId()));
+        entity.setClient(userJpaRepository.getReferenceById(entry.getClient().getId()));
+
+        WaitlistEntryEntity savedEntity;
+        try {
+            savedEntity = waitlistEntryJpaRepository.save(entity);
+        } catch (DataIntegrityViolationException ex) {
+            // Dos inscripciones simultáneas del mismo cliente: la comprobación previa no las ve, el índice único sí
+            throw new DuplicateWaitlistEntryException("You are already on the waitlist for this time slot.");
+        }
+        Long timeSlotId = entry.getTimeSlot().getId();
+        if (savedEntity.getStatus() == WaitlistStatus.WAITING) {
+            waitlistQueueCache.addAfterCommit(timeSlotId, savedEntity.getId());
+        } else {
+            waitlistQueueCache.removeAfterCommit(timeSlotId, savedEntity.getId());
+        }
+
+        // Evitamos mapear las referencias perezosas: el llamador ya tiene el slot y el cliente
+        entry.setId(savedEntity.getId());
+        entry.setUuid(savedEntity.getUuid());
+        entry.setCreatedAt(savedEntity.getCreatedAt());
+        entry.setUpdatedAt(savedEntity.getUpdatedAt());
+        return entry;
+    }
+
+    @Override
+    public Optional<WaitlistEntry> findByUuid(UUID entryUuid) {
+        return waitlistEntryJpaRepository.findByUuid(entryUuid)
+                .map(waitlistEntryMapper::toDomain);
+    }
+
+    @Override
+    public Slice<WaitlistEntry> findWaitingByClient(User client, Long afterId, int limit) {
+        List<WaitlistEntryEntity> entities = waitlistEntryJpaRepository.findPageByClient(
+                client.getId(), WaitlistStatus.WAITING, afterId == null ? 0L : afterId, PageRequest.of(0, limit + 1));
+        return Slice.fromOverfetched(waitlistEntryMapper.toDomainList(entities), limit);
+    }
+
+    @Override
+    public boolean existsWaitingByClientAndTimeSlot(User client, TimeSlot timeSlot) {
+        return waitlistEntryJpaRepository.existsByClient_IdAndTimeSlot_IdAndStatus(client.getId(), timeSlot.getId(), WaitlistStatus.WAITING);
+    }
+
+    @Override
+    public Optional<WaitlistEntry> findNextWaiting(TimeSlot timeSlot, Long afterId) {
+        return waitlistEntryJpaRepository.findFirstByTimeSlot_IdAndStatusAndIdGreaterThanOrderByIdAsc(
+                        timeSlot.getId(), WaitlistStatus.WAITING, afterId == null ? 0L : afterId)
+                .map(waitlistEntryMapper::toDomain);
+    }
+
+    @Override
+    public boolean markPromoted(WaitlistEntry entry) {
+        return leaveQueue(entry, WaitlistStatus.PROMOTED);
+    }
+
+    @Override
+    public boolean markLeft(WaitlistEntry entry) {
+        return leaveQueue(entry, WaitlistStatus.LEFT);
+    }
+
+    @Override
+    public boolean markClosed(WaitlistEntry entry) {
+        return leaveQueue(entry, WaitlistStatus.CLOSED);
+    }
+
+    @Override
+    public void closeWaitingByClient(User client, Collection<TimeSlot> timeSlots) {
+        if (timeSlots.isEmpty()) {
+            return;
+        }
+        List<Long> timeSlotIds = timeSlots.stream().map(TimeSlot::getId).toList();
+        int updated = waitlistEntryJpaRepository.updateStatusOfClientEntries(
+                client.getId(), timeSlotIds, WaitlistStatus.WAITING, WaitlistStatus.CLOSED, Instant.now());
+        if (updated > 0) {
+            // No sabemos qué entradas eran: se descartan las colas de esos slots
+            timeSlotIds.forEach(waitlistQueueCache::evictAfterCommit);
+        }
+    }
+
+    private boolean leaveQueue(WaitlistEntry entry, WaitlistStatus newStatus) {
+        int updated = waitlistEntryJpaRepository.updateStatusIfCurrent(
+                entry.getId(), WaitlistStatus.WAITING, newStatus, Instant.now());
+        if (updated == 0) {
+            return false;
+        }
+        waitlistQueueCache.removeAfterCommit(entry.getTimeSlot().getId(), entry.getId());
+        return true;
+    }
+
+    @Override
+    public int findPosition(WaitlistEntry entry) {
+        Long timeSlotId = entry.getTimeSlot().getId();
+        return waitlistQueueCache.position(timeSlotId, entry.getId(),
+                () -> waitlistEntryJpaRepository.findIdsByTimeSlotIdAndStatus(timeSlotId, WaitlistStatus.WAITING));
+    }
+
+    @Override
+    public Map<Long, Integer> findPositions(List<WaitlistEntry> entries) {
+        // Las colas ya cargadas responden en memoria; el resto se cuenta en una sola consulta, sin hidratarlas
+        Map<Long, Integer> positions = new HashMap<>();
+        List<Long> uncached = new ArrayList<>();
+        for (WaitlistEntry entry : entries) {
+            Integer cached = waitlistQueueCache.cachedPosition(entry.getTimeSlot().getId(), entry.getId());
+            if (cached != null) {
+                positions.put(entry.getId(), cached);
+            } else {
+                uncached.add(entry.getId());
+            }
+        }
+        if (!uncached.isEmpty()) {
+            for (Object[] row : waitlistEntryJpaRepository.countPositions(uncached, WaitlistStatus.WAITING)) {
+                positions.put((Long) row[0], ((Long) row[1]).intValue());
+            }
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,130 @@
+package infrastructure.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Aplica {@link RetryOnConflict}.
+ * Se ordena después de los interceptores de Spring Security y antes de @Transactional,
+ * para que cada intento abra (y cierre) su propia transacción.
+ * Entre intentos espera un tiempo aleatorio entre 0 y base * 2^intento (con tope), para que
+ * las transacciones que chocaron no vuelvan a chocar a la vez.
+ */
+@Aspect
+@Component
+@Order(ConflictRetryAspect.ORDER)
+public class ConflictRetryAspect {
+
+    public static final int ORDER = SingleFlightAspect.ORDER + 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(ConflictRetryAspect.class);
+
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    // Intentos en total, contando el primero
+    @Value("${reservas.conflicts.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${reservas.conflicts.base-delay-ms:10}")
+    private long baseDelayMs;
+
+    @Value("${reservas.conflicts.max-delay-ms:200}")
+    private long maxDelayMs;
+
+    public ConflictRetryAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        // Dentro de una transacción ajena no se puede repetir: la decide quien la abrió
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+        Counters operation = counters(retryOnConflict, ((MethodSignature) joinPoint.getSignature()).getMethod());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Object result = joinPoint.proceed();
+                if (attempt > 1) {
+                    operation.recovered().increment();
+                }
+                return result;
+            } catch (RuntimeException ex) {
+                if (!isConflict(ex)) {
+                    throw ex;
+                }
+                operation.detected().increment();
+                if (attempt >= maxAttempts) {
+                    operation.aborted().increment();
+                    logger.warn("{} abandonado tras {} conflictos: {}", operation.name(), attempt, ex.getMessage());
+                    throw ex;
+                }
+                operation.retried().increment();
+                pause(attempt);
+            }
+        }
+    }
+
+    static boolean isConflict(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof OptimisticLockingFailureException || cause instanceof PessimisticLockingFailureException
+                    || cause instanceof OptimisticLockException || cause instanceof PessimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void pause(int attempt) {
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry a conflicting transaction", ex);
+        }
+    }
+
+    private Counters counters(RetryOnConflict retryOnConflict, Method method) {
+        String name = retryOnConflict.value().isEmpty()
+                ? method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                : retryOnConflict.value();
+        return counters.computeIfAbsent(name, n -> new Counters(n,
+                counter(n, "detected"), counter(n, "retried"), counter(n, "recovered"), counter(n, "aborted")));
+    }
+
+    /**
+     * detected: intentos que han perdido una carrera; retried: reintentos; recovered: operaciones que
+     * han terminado bien tras reintentar; aborted: operaciones abandonadas tras agotar los intentos.
+     */
+    private Counter counter(String operation, String outcome) {
+        return Counter.builder("reservas.conflicts")
+                .description("Conflictos de concurrencia en transacciones, por operación y resultado")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Counters(String name, Counter detected, Counter retried, Counter recovered, Counter aborted) {
+    }
+}
@@ -0,0 +1,22 @@
+package infrastructure.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Si la transacción de un método anotado pierde una carrera (versión optimista desfasada,
+ * interbloqueo o espera de bloqueo agotada), se vuelve a ejecutar entera en una transacción nueva,
+ * unas pocas veces y con una espera aleatoria creciente entre intentos.
+ * El método debe poder repetirse sin efectos fuera de la BD (los eventos posteriores al commit no cuentan).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    /**
+     * Nombre para las métricas; por defecto, Clase.metodo.
+     */
+    String value() default "";
+}
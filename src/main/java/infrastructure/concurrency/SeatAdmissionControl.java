@@ -0,0 +1,281 @@
+package infrastructure.concurrency;
+
+import domain.event.BookingStatusChangedEvent;
+import domain.event.TimeSlotChangedEvent;
+import domain.exception.ServiceNotAvailableException;
+import domain.port.out.CacheInvalidationPort;
+import domain.port.out.TimeSlotPersistencePort;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Control de admisión por slot delante de la reserva, para lanzamientos en los que miles de
+ * peticiones piden a la vez el mismo slot. Cada slot cae en una franja (lock + condición) según
+ * su hash; la franja recuerda las plazas libres que la BD dio la última vez y cuántas reservas
+ * de este nodo están en curso. Así, un slot que se sabe lleno se rechaza en memoria, y a la BD
+ * solo llegan a la vez tantas peticiones como plazas quedan; el resto espera su turno un tiempo acotado.
+ *
+ * La BD sigue siendo la autoridad: la reserva sigue ocupando la plaza con su UPDATE condicional,
+ * así que una cifra desfasada (otro nodo ha vendido o liberado plazas) nunca provoca overbooking.
+ * Como mucho rechaza de más durante {@code reservas.admission.ttl}, que es lo que tarda en
+ * volver a preguntar a la BD; las liberaciones de este nodo la invalidan al momento, y las de otros
+ * nodos en cuanto llega su aviso por {@link CacheInvalidationPort}.
+ */
+@Component
+public class SeatAdmissionControl {
+
+    private final Stripe[] stripes;
+    private final TimeSlotPersistencePort timeSlotPersistencePort;
+    private final long ttlNanos;
+    private final long maxWaitNanos;
+
+    private final Counter admitted;
+    private final Counter rejectedFull;
+    private final Counter rejectedBusy;
+
+    public SeatAdmissionControl(TimeSlotPersistencePort timeSlotPersistencePort,
+                                CacheInvalidationPort cacheInvalidationPort,
+                                MeterRegistry meterRegistry,
+                                @Value("${reservas.admission.stripes:64}") int stripeCount,
+                                @Value("${reservas.admission.ttl:PT2S}") Duration ttl,
+                                @Value("${reservas.admission.max-wait:PT2S}") Duration maxWait) {
+        this.timeSlotPersistencePort = timeSlotPersistencePort;
+        // Potencia de dos para elegir la franja con una máscara
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maxWaitNanos = maxWait.toNanos();
+        this.admitted = Counter.builder("reservas.admission").tag("result", "admitted").register(meterRegistry);
+        this.rejectedFull = Counter.builder("reservas.admission").tag("result", "rejected_full").register(meterRegistry);
+        this.rejectedBusy = Counter.builder("reservas.admission").tag("result", "rejected_busy").register(meterRegistry);
+        cacheInvalidationPort.subscribe(CacheInvalidationPort.TIME_SLOTS, key -> invalidate(UUID.fromString(key)));
+    }
+
+    /**
+     * Ejecuta la reserva de {@code seats} plazas del slot si hay sitio para ella entre las que están en curso.
+     * @throws ServiceNotAvailableException si se sabe que el slot no tiene plazas suficientes,
+     *         o si no ha llegado su turno en el tiempo máximo de espera.
+     */
+    public <T> T execute(UUID timeSlotUuid, int seats, Supplier<T> reservation) {
+        boolean tracked = admit(timeSlotUuid, seats);
+        boolean booked = false;
+        boolean rejected = false;
+        try {
+            T result = reservation.get();
+            booked = true;
+            return result;
+        } catch (ServiceNotAvailableException ex) {
+            rejected = true;
+            throw ex;
+        } finally {
+            if (tracked) {
+                release(timeSlotUuid, seats, booked, rejected);
+            }
+        }
+    }
+
+    /**
+     * Olvida lo que se sabe del slot: la siguiente petición vuelve a preguntar a la BD.
+     */
+    public void invalidate(UUID timeSlotUuid) {
+        Stripe stripe = stripeOf(timeSlotUuid);
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.get(timeSlotUuid);
+            if (entry != null) {
+                if (entry.inFlight == 0 && !entry.loading) {
+                    stripe.entries.remove(timeSlotUuid);
+                } else {
+                    entry.stale = true;
+                }
+                stripe.changed.signalAll();
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent event) {
+        // Solo interesan las plazas liberadas; las ocupadas desde este nodo ya se han descontado
+        if (event.previousStatus() != null && event.previousStatus().holdsSeat() && !event.booking().getStatus().holdsSeat()) {
+            invalidate(event.booking().getTimeSlot().getUuid());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onTimeSlotChanged(TimeSlotChangedEvent event) {
+        invalidate(event.timeSlotUuid());
+    }
+
+    /**
+     * Quita los slots sin reservas en curso cuya cifra ya ha caducado, para que el mapa no crezca sin límite.
+     */
+    @Scheduled(fixedDelayString = "${reservas.admission.purge-interval-ms:60000}")
+    public void purgeIdle() {
+        long now = System.nanoTime();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.entries.values().removeIf(entry -> entry.inFlight == 0 && !entry.loading && isStale(entry, now));
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    public int trackedSlotCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                count += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return true si la petición cuenta como reserva en curso (false si el slot no existe: que lo diga el servicio).
+     */
+    private boolean admit(UUID timeSlotUuid, int seats) {
+        Stripe stripe = stripeOf(timeSlotUuid);
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (true) {
+            Entry entry;
+            stripe.lock.lock();
+            try {
+                entry = stripe.entries.get(timeSlotUuid);
+                if (entry != null && (entry.loading || !isStale(entry, System.nanoTime()))) {
+                    if (!entry.loading) {
+                        if (entry.freeSeats < seats) {
+                            rejectedFull.increment();
+                            throw new ServiceNotAvailableException("This time slot is full. You can join its waitlist instead.");
+                        }
+                        if (entry.freeSeats - entry.inFlight >= seats) {
+                            entry.inFlight += seats;
+                            admitted.increment();
+                            return true;
+                        }
+                    }
+                    // Otra petición está consultando la BD, o ya hay tantas reservas en curso como plazas: se espera
+                    long left = deadline - System.nanoTime();
+                    if (left <= 0) {
+                        rejectedBusy.increment();
+                        throw new ServiceNotAvailableException("This time slot is being booked by many clients right now. Please try again.");
+                    }
+                    stripe.changed.awaitNanos(left);
+                    continue;
+                }
+                // Cifra desconocida o caducada: consulta esta petición y las demás del slot esperan a que termine
+                entry = stripe.entries.computeIfAbsent(timeSlotUuid, uuid -> new Entry());
+                entry.loading = true;
+                // Una invalidación que llegue durante la consulta la vuelve a dejar caducada
+                entry.stale = false;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new ServiceNotAvailableException("Interrupted while waiting for a seat in this time slot.");
+            } finally {
+                stripe.lock.unlock();
+            }
+            if (!refresh(stripe, timeSlotUuid, entry)) {
+                return false;
+            }
+        }
+    }
+
+    private boolean refresh(Stripe stripe, UUID timeSlotUuid, Entry entry) {
+        Optional<Integer> freeSeats = Optional.empty();
+        try {
+            freeSeats = timeSlotPersistencePort.findFreeSeats(timeSlotUuid);
+            return freeSeats.isPresent();
+        } finally {
+            stripe.lock.lock();
+            try {
+                entry.loading = false;
+                if (freeSeats.isPresent()) {
+                    // Las reservas en curso se mantienen: se descontarán al terminar
+                    entry.freeSeats = Math.max(0, freeSeats.get());
+                    entry.refreshedAt = System.nanoTime();
+                } else if (entry.inFlight == 0) {
+                    // Slot inexistente o error de la BD: no se guarda nada
+                    stripe.entries.remove(timeSlotUuid, entry);
+                } else {
+                    entry.stale = true;
+                }
+                stripe.changed.signalAll();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    private void release(UUID timeSlotUuid, int seats, boolean booked, boolean rejected) {
+        Stripe stripe = stripeOf(timeSlotUuid);
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.get(timeSlotUuid);
+            if (entry == null) {
+                return;
+            }
+            entry.inFlight = Math.max(0, entry.inFlight - seats);
+            if (booked) {
+                entry.freeSeats = Math.max(0, entry.freeSeats - seats);
+            } else if (rejected) {
+                // La BD no tenía las plazas que creíamos: se vuelve a preguntar
+                entry.stale = true;
+            }
+            stripe.changed.signalAll();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private boolean isStale(Entry entry, long now) {
+        return entry.stale || now - entry.refreshedAt > ttlNanos;
+    }
+
+    private Stripe stripeOf(UUID timeSlotUuid) {
+        int hash = timeSlotUuid.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Condition changed = lock.newCondition();
+        final Map<UUID, Entry> entries = new HashMap<>();
+    }
+
+    /**
+     * Lo que se sabe de un slot: plazas libres según la BD (menos las vendidas desde entonces en este nodo)
+     * y plazas de las reservas de este nodo que aún no han terminado.
+     */
+    private static final class Entry {
+        int freeSeats;
+        int inFlight;
+        // System.nanoTime() de la última consulta
+        long refreshedAt;
+        // Hay que volver a preguntar aunque no haya pasado el TTL
+        boolean stale;
+        // Una petición está consultando la BD: las demás del slot esperan su resultado
+        boolean loading;
+    }
+}
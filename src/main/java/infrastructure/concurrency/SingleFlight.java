@@ -0,0 +1,22 @@
+package infrastructure.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Las llamadas concurrentes a un método anotado con los mismos argumentos comparten una sola
+ * ejecución: la primera hace la consulta y el resto espera su resultado (o su excepción).
+ * No es una caché: en cuanto termina la ejecución, la siguiente llamada vuelve a ejecutar.
+ * Solo para lecturas cuyo resultado no dependa del usuario ni se modifique después.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SingleFlight {
+
+    /**
+     * Nombre para las métricas; por defecto, Clase.metodo.
+     */
+    String value() default "";
+}
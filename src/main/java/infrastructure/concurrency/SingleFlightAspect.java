@@ -0,0 +1,90 @@
+package infrastructure.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aplica {@link SingleFlight}.
+ * Se ordena después de los interceptores de Spring Security (cada llamada se sigue autorizando)
+ * y antes de @Transactional y @Cacheable (la espera no retiene ninguna conexión de la BD).
+ * Si el resultado es una lista, quienes esperaban reciben una copia inmodificable hecha antes de
+ * devolverla a la primera llamada: nada de lo que haga esta con su lista llega a los demás.
+ */
+@Aspect
+@Component
+@Order(SingleFlightAspect.ORDER)
+public class SingleFlightAspect {
+
+    // Spring Security usa órdenes entre 100 y 600; la transacción, Ordered.LOWEST_PRECEDENCE
+    public static final int ORDER = 1_000;
+
+    private final SingleFlightGroup<Key, Object> group = new SingleFlightGroup<>();
+    private final Map<String, Counter> sharedCounters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlightAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(singleFlight)")
+    public Object coalesce(ProceedingJoinPoint joinPoint, SingleFlight singleFlight) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Key key = new Key(method, Arrays.asList(joinPoint.getArgs()));
+
+        SingleFlightGroup.Result<Object> result = group.execute(key, () -> {
+            try {
+                return Flight.of(joinPoint.proceed());
+            } catch (Exception | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        Flight flight = (Flight) result.value();
+        if (result.shared()) {
+            sharedCounter(singleFlight, method).increment();
+            return flight.shared();
+        }
+        return flight.value();
+    }
+
+    private Counter sharedCounter(SingleFlight singleFlight, Method method) {
+        String name = singleFlight.value().isEmpty()
+                ? method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                : singleFlight.value();
+        return sharedCounters.computeIfAbsent(name, n -> Counter.builder("reservas.singleflight.shared")
+                .description("Llamadas que han reutilizado una ejecución en curso")
+                .tag("operation", n)
+                .register(meterRegistry));
+    }
+
+    private record Key(Method method, List<Object> args) {
+    }
+
+    /**
+     * Resultado de una ejecución: el valor para la primera llamada y lo que reciben las que esperaban.
+     */
+    private record Flight(Object value, Object shared) {
+
+        static Flight of(Object value) {
+            if (value instanceof List<?> list) {
+                return new Flight(value, Collections.unmodifiableList(new ArrayList<>(list)));
+            }
+            return new Flight(value, value);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package infrastructure.concurrency;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Agrupa llamadas concurrentes con la misma clave en una única ejecución en curso.
+ * El mapa solo contiene las ejecuciones activas, así que no crece con el número de claves distintas.
+ */
+public class SingleFlightGroup<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Resultado de {@link #execute}: el valor y si se ha obtenido esperando a otra llamada.
+     */
+    public record Result<V>(V value, boolean shared) {
+    }
+
+    public Result<V> execute(K key, Callable<V> call) throws Exception {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return new Result<>(await(running), true);
+        }
+        try {
+            V value = call.call();
+            mine.complete(value);
+            return new Result<>(value, false);
+        } catch (Throwable ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> running) throws Exception {
+        try {
+            return running.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+}
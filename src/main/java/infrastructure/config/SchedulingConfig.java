@@ -0,0 +1,15 @@
+package infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Activa las tareas programadas. Siempre están activas: de los sondeos (revocaciones de tokens, avisos de
+ * cachés entre nodos, purgas de límites y de tokens de refresco) depende que el nodo responda bien.
+ * Los trabajos por lotes (caducidad de retenciones, recordatorios, archivado, cierre de bookings) se pueden
+ * desactivar en un nodo con reservas.jobs.enabled=false, por ejemplo en tests (ver LeasedJobRunner).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
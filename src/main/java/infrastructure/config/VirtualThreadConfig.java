@@ -0,0 +1,57 @@
+package infrastructure.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import infrastructure.adapter.out.persistence.datasource.PoolAwareDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Modo de hilos virtuales (spring.threads.virtual.enabled=true, desactivado por defecto).
+ * Spring Boot ya ejecuta Tomcat y los ejecutores asíncronos/programados sobre hilos virtuales;
+ * aquí se añade el semáforo delante del DataSource para que los hilos virtuales no
+ * desborden HikariCP.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public static BeanPostProcessor poolAwareDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari) {
+                    logger.info("Limitando el DataSource '{}' a {} conexiones concurrentes (hilos virtuales)",
+                            beanName, hikari.getMaximumPoolSize());
+                    return new PoolAwareDataSource(hikari, hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder poolAwareDataSourceMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof PoolAwareDataSource poolAware) {
+                Gauge.builder("reservas.datasource.permits.available", poolAware, PoolAwareDataSource::getAvailablePermits)
+                        .description("Permisos libres del semáforo delante del pool de conexiones")
+                        .register(registry);
+                Gauge.builder("reservas.datasource.permits.waiting", poolAware, PoolAwareDataSource::getQueueLength)
+                        .description("Hilos esperando un permiso para pedir conexión")
+                        .register(registry);
+            }
+        };
+    }
+}
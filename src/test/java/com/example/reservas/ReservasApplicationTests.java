@@ -2,10 +2,13 @@ package com.example.reservas;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 
 @SpringBootTest
 @ActiveProfiles("test")
+// Se cierra al terminar: sus sondeos programados no deben seguir reintentando la BD durante el resto de tests
+@DirtiesContext
 class ReservasApplicationTests {
 
 	@Test
@@ -0,0 +1,73 @@
+package com.example.reservas.adapter.in.web;
+
+import domain.exception.ServerBusyException;
+import infrastructure.adapter.in.web.security.BoundedBCryptPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedBCryptPasswordEncoderTest {
+
+    private BoundedBCryptPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    @DisplayName("Con el pool y la cola llenos, el resto de hashes se rechaza enseguida en vez de esperar")
+    void rejectsHashesBeyondQueueCapacity() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        encoder = new BoundedBCryptPasswordEncoder(registry, 12, Duration.ZERO, 4, 16, 1, 2, Duration.ofSeconds(30));
+
+        List<Future<Boolean>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 20; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        encoder.encode("secret");
+                        return true;
+                    } catch (ServerBusyException ex) {
+                        return false;
+                    }
+                }));
+            }
+        }
+        int hashed = 0;
+        for (Future<Boolean> future : futures) {
+            hashed += future.get() ? 1 : 0;
+        }
+
+        // Uno en el hilo y dos en la cola como mínimo; la mayoría no llega a encolarse
+        assertTrue(hashed >= 3 && hashed < 20, "Hashes hechos: " + hashed);
+        assertEquals(20 - hashed, registry.get("reservas.password.rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("Un hash con menos coste sigue valiendo, pero se marca para rehacerlo con el actual")
+    void olderHashesMatchAndAreUpgraded() {
+        encoder = new BoundedBCryptPasswordEncoder(new SimpleMeterRegistry(), 0, Duration.ZERO, 5, 16, 1, 8, Duration.ofSeconds(5));
+        assertEquals(5, encoder.getStrength());
+
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        assertTrue(encoder.matches("secret", legacy));
+        assertFalse(encoder.matches("wrong", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+
+        String rehashed = encoder.encode("secret");
+        assertTrue(encoder.matches("secret", rehashed));
+        assertFalse(encoder.upgradeEncoding(rehashed));
+    }
+}
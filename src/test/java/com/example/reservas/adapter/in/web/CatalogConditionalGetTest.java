@@ -0,0 +1,152 @@
+package com.example.reservas.adapter.in.web;
+
+import application.service.CatalogVersionServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import domain.event.OfferedServiceChangedEvent;
+import domain.model.CatalogVersion;
+import domain.model.OfferedService;
+import domain.port.in.OfferedServiceService;
+import domain.port.in.UserService;
+import domain.port.out.CatalogVersionPersistencePort;
+import infrastructure.adapter.in.web.cache.SerializedResponseCache;
+import infrastructure.adapter.in.web.controller.ProviderDiscoveryController;
+import infrastructure.adapter.in.web.dto.OfferedServiceResponseDTO;
+import infrastructure.adapter.in.web.mapper.OfferedServiceDTOMapper;
+import infrastructure.adapter.in.web.mapper.UserDTOMapper;
+import infrastructure.adapter.in.web.util.CatalogConditionalGet;
+import infrastructure.adapter.in.web.util.UuidValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Peticiones condicionales al listado de servicios de un proveedor: 304 mientras la versión del catálogo
+ * no cambie, 200 con un ETag nuevo en cuanto cambia.
+ */
+class CatalogConditionalGetTest {
+
+    private final UUID providerUuid = UUID.randomUUID();
+    private final UUID serviceUuid = UUID.randomUUID();
+    private final InMemoryCatalogVersions versions = new InMemoryCatalogVersions();
+    private final OfferedServiceService offeredServiceService = mock(OfferedServiceService.class);
+    private final CatalogVersionServiceImpl catalogVersionService = new CatalogVersionServiceImpl(versions);
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        OfferedServiceDTOMapper offeredServiceMapper = mock(OfferedServiceDTOMapper.class);
+        when(offeredServiceService.findAllActiveServicesByProvider(providerUuid))
+                .thenReturn(List.of(OfferedService.builder().uuid(serviceUuid).name("Yoga").build()));
+        when(offeredServiceMapper.toResponseDTO(any()))
+                .thenReturn(OfferedServiceResponseDTO.builder().serviceUuid(serviceUuid.toString()).name("Yoga").build());
+
+        ProviderDiscoveryController controller = new ProviderDiscoveryController(mock(UserService.class),
+                offeredServiceService, mock(UserDTOMapper.class), offeredServiceMapper, new UuidValidator(),
+                new CatalogConditionalGet(catalogVersionService),
+                new SerializedResponseCache(new ObjectMapper(), new SimpleMeterRegistry(), 1_000_000));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    @DisplayName("Con el ETag actual responde 304 sin consultar los servicios")
+    void unchangedCatalogAnswersNotModified() throws Exception {
+        String etag = firstFetch();
+
+        mockMvc.perform(get("/api/providers/{uuid}/services", providerUuid).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        verify(offeredServiceService, times(1)).findAllActiveServicesByProvider(providerUuid);
+    }
+
+    @Test
+    @DisplayName("Tras un cambio del proveedor, el ETag anterior recibe un 200 con los datos nuevos y otro ETag")
+    void changedCatalogAnswersOkWithNewEtag() throws Exception {
+        String etag = firstFetch();
+        catalogVersionService.onOfferedServiceChanged(new OfferedServiceChangedEvent(serviceUuid, providerUuid));
+
+        MvcResult result = mockMvc.perform(get("/api/providers/{uuid}/services", providerUuid)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Yoga"))
+                .andReturn();
+
+        String newEtag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(newEtag);
+        assertNotEquals(etag, newEtag);
+        assertNotNull(result.getResponse().getHeader(HttpHeaders.LAST_MODIFIED));
+        verify(offeredServiceService, times(2)).findAllActiveServicesByProvider(providerUuid);
+    }
+
+    @Test
+    @DisplayName("Si no se puede incrementar la versión, el error llega a la transacción del cambio para deshacerlo")
+    void failedBumpPropagates() throws Exception {
+        String etag = firstFetch();
+        versions.failNextIncrement();
+
+        assertThrows(IllegalStateException.class, () ->
+                catalogVersionService.onOfferedServiceChanged(new OfferedServiceChangedEvent(serviceUuid, providerUuid)));
+
+        // El cambio se ha deshecho: la versión publicada sigue siendo válida
+        mockMvc.perform(get("/api/providers/{uuid}/services", providerUuid).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    private String firstFetch() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/providers/{uuid}/services", providerUuid))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].serviceUuid").value(serviceUuid.toString()))
+                .andReturn();
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+
+    /**
+     * Tabla catalog_versions en memoria.
+     */
+    private static final class InMemoryCatalogVersions implements CatalogVersionPersistencePort {
+
+        private final Map<UUID, CatalogVersion> rows = new ConcurrentHashMap<>();
+        private volatile boolean failNext;
+
+        void failNextIncrement() {
+            failNext = true;
+        }
+
+        @Override
+        public Optional<CatalogVersion> findByScope(UUID scopeUuid) {
+            return Optional.ofNullable(rows.get(scopeUuid));
+        }
+
+        @Override
+        public void increment(UUID scopeUuid, Instant now) {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("Lock wait timeout exceeded");
+            }
+            rows.merge(scopeUuid, new CatalogVersion(scopeUuid, 1, now),
+                    (current, ignored) -> new CatalogVersion(scopeUuid, current.version() + 1, now));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.reservas.adapter.in.web;
+
+import domain.event.UserChangedEvent;
+import domain.model.User;
+import domain.port.out.CacheInvalidationPort;
+import infrastructure.adapter.in.web.security.CustomUserDetailsService;
+import infrastructure.adapter.out.persistence.repository.UserPersistenceAdapter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CustomUserDetailsServiceTest {
+
+    private final User alice = user("alice");
+    private final User bob = user("bob");
+    private final User carol = user("carol");
+
+    private UserPersistenceAdapter users;
+    private CustomUserDetailsService service;
+
+    @BeforeEach
+    void setUp() {
+        users = mock(UserPersistenceAdapter.class);
+        for (User user : new User[]{alice, bob, carol}) {
+            when(users.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
+        }
+        service = new CustomUserDetailsService(users, mock(CacheInvalidationPort.class), mock(ApplicationEventPublisher.class),
+                Duration.ofMinutes(5), 2);
+    }
+
+    @Test
+    @DisplayName("Un cambio del usuario que llega mientras se lee de la BD no se pierde: lo leído no se guarda")
+    void evictionDuringLoadIsNotLost() {
+        when(users.findByUsername("alice")).thenAnswer(invocation -> {
+            // El usuario se da de baja (y se descarta su entrada) justo después de leerlo
+            service.onUserChanged(new UserChangedEvent(alice, false));
+            return Optional.of(alice);
+        });
+
+        service.loadUserByUsername("alice");
+        service.loadUserByUsername("alice");
+
+        verify(users, times(2)).findByUsername("alice");
+    }
+
+    @Test
+    @DisplayName("Al llenarse se descarta la entrada usada hace más tiempo, y se descarta por UUID sin recorrer la caché")
+    void evictsLeastRecentlyUsedAndByUuid() {
+        service.loadUserByUsername("alice");
+        service.loadUserByUsername("bob");
+        service.loadUserByUsername("alice");
+        service.loadUserByUsername("carol");
+
+        // bob era el menos usado: es el único que se vuelve a leer
+        service.loadUserByUsername("alice");
+        service.loadUserByUsername("bob");
+        verify(users, times(1)).findByUsername("alice");
+        verify(users, times(2)).findByUsername("bob");
+
+        service.evict(bob.getUuid());
+        service.loadUserByUsername("bob");
+        verify(users, times(3)).findByUsername("bob");
+    }
+
+    private static User user(String username) {
+        return User.builder().id((long) username.hashCode()).uuid(UUID.randomUUID()).username(username)
+                .passwordHash("hash").active(true).build();
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.reservas.adapter.in.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import domain.exception.IdempotencyKeyReuseException;
+import domain.exception.IdempotentRequestInProgressException;
+import domain.exception.ServiceNotAvailableException;
+import domain.model.IdempotencyRecord;
+import domain.model.User;
+import domain.port.out.IdempotencyPersistencePort;
+import infrastructure.adapter.in.web.idempotency.IdempotencyResponseCache;
+import infrastructure.adapter.in.web.idempotency.IdempotentRequestExecutor;
+import infrastructure.adapter.in.web.security.SpringSecurityUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class IdempotentRequestExecutorTest {
+
+    private static final String KEY = "order-42";
+
+    private final User client = User.builder().id(1L).uuid(UUID.randomUUID()).build();
+    private final FakeIdempotencyKeys keys = new FakeIdempotencyKeys();
+    private final IdempotentRequestExecutor executor = newExecutor();
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Un reintento con la misma clave repite la respuesta original sin volver a ejecutar la acción")
+    void retryReplaysOriginalResponse() {
+        authenticate();
+        AtomicInteger executions = new AtomicInteger();
+
+        ResponseEntity<String> first = executor.execute(KEY, Map.of("slot", "a"), String.class, () -> created(executions));
+        ResponseEntity<String> retry = executor.execute(KEY, Map.of("slot", "a"), String.class, () -> created(executions));
+        // Otro nodo (sin la caché en memoria) la repite desde la tabla
+        ResponseEntity<String> fromOtherNode = newExecutor().execute(KEY, Map.of("slot", "a"), String.class, () -> created(executions));
+
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, first.getStatusCode());
+        assertNull(first.getHeaders().getFirst(IdempotentRequestExecutor.REPLAYED_HEADER));
+        for (ResponseEntity<String> replayed : List.of(retry, fromOtherNode)) {
+            assertEquals(HttpStatus.CREATED, replayed.getStatusCode());
+            assertEquals("booking-1", replayed.getBody());
+            assertEquals("true", replayed.getHeaders().getFirst(IdempotentRequestExecutor.REPLAYED_HEADER));
+        }
+    }
+
+    @Test
+    @DisplayName("Reutilizar la clave con otra petición es un 422, no una repetición")
+    void reusingKeyWithDifferentPayloadIsRejected() {
+        authenticate();
+        AtomicInteger executions = new AtomicInteger();
+        executor.execute(KEY, Map.of("slot", "a"), String.class, () -> created(executions));
+
+        assertThrows(IdempotencyKeyReuseException.class,
+                () -> executor.execute(KEY, Map.of("slot", "b"), String.class, () -> created(executions)));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Los duplicados simultáneos comparten una única ejecución")
+    void concurrentDuplicatesExecuteOnce() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<ResponseEntity<String>>> responses = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 16; i++) {
+                responses.add(pool.submit(() -> {
+                    authenticate();
+                    return executor.execute(KEY, Map.of("slot", "a"), String.class, () -> {
+                        await(release);
+                        return created(executions);
+                    });
+                }));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<ResponseEntity<String>> response : responses) {
+                assertEquals("booking-1", response.get().getBody());
+            }
+        }
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    @DisplayName("Si la original falla, libera la clave y el duplicado que esperaba la ejecuta")
+    void failedOriginalReleasesKeyForWaiters() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch originalStarted = new CountDownLatch(1);
+        CountDownLatch failOriginal = new CountDownLatch(1);
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(2)) {
+            Future<ResponseEntity<String>> original = pool.submit(() -> {
+                authenticate();
+                return executor.execute(KEY, Map.of("slot", "a"), String.class, () -> {
+                    attempts.incrementAndGet();
+                    originalStarted.countDown();
+                    await(failOriginal);
+                    throw new ServiceNotAvailableException("This time slot is full.");
+                });
+            });
+            assertTrue(originalStarted.await(5, TimeUnit.SECONDS));
+            Future<ResponseEntity<String>> duplicate = pool.submit(() -> {
+                authenticate();
+                return executor.execute(KEY, Map.of("slot", "a"), String.class, () -> {
+                    attempts.incrementAndGet();
+                    return ResponseEntity.status(HttpStatus.CREATED).body("booking-2");
+                });
+            });
+            Thread.sleep(100);
+            failOriginal.countDown();
+
+            Exception failure = assertThrows(Exception.class, original::get);
+            assertInstanceOf(ServiceNotAvailableException.class, failure.getCause());
+            assertEquals("booking-2", duplicate.get().getBody());
+        }
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Una reserva de la clave en curso en otro nodo responde 409 para reintentar; caducada, se vuelve a ejecutar")
+    void claimHeldByAnotherNode() {
+        authenticate();
+        AtomicInteger executions = new AtomicInteger();
+        // El otro nodo reservó la clave con la misma petición y aún no ha respondido
+        IdempotentRequestExecutor otherNode = newExecutor();
+        executor.execute(KEY, Map.of("slot", "a"), String.class, () -> {
+            assertThrows(IdempotentRequestInProgressException.class,
+                    () -> otherNode.execute(KEY, Map.of("slot", "a"), String.class, () -> created(executions)));
+            return created(executions);
+        });
+        assertEquals(1, executions.get());
+
+        // Nodo caído: su reserva caduca y el reintento se ejecuta de nuevo
+        keys.expireAll();
+        ResponseEntity<String> retried = newExecutor().execute(KEY, Map.of("slot", "a"), String.class, () -> created(executions));
+        assertEquals(2, executions.get());
+        assertNull(retried.getHeaders().getFirst(IdempotentRequestExecutor.REPLAYED_HEADER));
+    }
+
+    private IdempotentRequestExecutor newExecutor() {
+        return new IdempotentRequestExecutor(keys, new IdempotencyResponseCache(100),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new ObjectMapper(),
+                Duration.ofHours(24), Duration.ofMinutes(1));
+    }
+
+    private void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(new SpringSecurityUser(client), null, List.of()));
+    }
+
+    private static ResponseEntity<String> created(AtomicInteger executions) {
+        return ResponseEntity.status(HttpStatus.CREATED).body("booking-" + executions.incrementAndGet());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Tabla idempotency_keys en memoria: una fila por (usuario, clave) y actualizaciones condicionales atómicas.
+     */
+    private static final class FakeIdempotencyKeys implements IdempotencyPersistencePort {
+
+        private final Map<String, IdempotencyRecord> rows = new ConcurrentHashMap<>();
+
+        void expireAll() {
+            rows.values().forEach(record -> record.setExpiresAt(Instant.now().minusSeconds(1)));
+        }
+
+        @Override
+        public boolean claim(IdempotencyRecord claim, Instant now) {
+            String id = claim.getRequesterUuid() + ":" + claim.getIdempotencyKey();
+            IdempotencyRecord copy = copyOf(claim);
+            return rows.compute(id, (key, existing) -> existing == null || existing.isExpired(now) ? copy : existing) == copy;
+        }
+
+        @Override
+        public boolean complete(IdempotencyRecord record) {
+            String id = record.getRequesterUuid() + ":" + record.getIdempotencyKey();
+            IdempotencyRecord copy = copyOf(record);
+            return rows.computeIfPresent(id, (key, existing) -> existing.isPending()
+                    && existing.getRequestHash().equals(record.getRequestHash()) ? copy : existing) == copy;
+        }
+
+        @Override
+        public void release(UUID requesterUuid, String idempotencyKey) {
+            rows.computeIfPresent(requesterUuid + ":" + idempotencyKey, (key, existing) -> existing.isPending() ? null : existing);
+        }
+
+        @Override
+        public Optional<IdempotencyRecord> findByRequesterAndKey(UUID requesterUuid, String idempotencyKey) {
+            return Optional.ofNullable(rows.get(requesterUuid + ":" + idempotencyKey)).map(FakeIdempotencyKeys::copyOf);
+        }
+
+        @Override
+        public IdempotencyRecord save(IdempotencyRecord record) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int deleteExpired(Instant now) {
+            throw new UnsupportedOperationException();
+        }
+
+        private static IdempotencyRecord copyOf(IdempotencyRecord record) {
+            return new IdempotencyRecord(record.getId(), record.getRequesterUuid(), record.getIdempotencyKey(),
+                    record.getRequestHash(), record.getResponseStatus(), record.getResponseBody(),
+                    record.getCreatedAt(), record.getExpiresAt());
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.reservas.adapter.in.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import infrastructure.adapter.in.web.ratelimit.RateLimitProperties;
+import infrastructure.adapter.in.web.ratelimit.RateLimiter;
+import infrastructure.adapter.in.web.ratelimit.RateLimitingFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitingFilterTest {
+
+    private SimpleMeterRegistry registry;
+    private RateLimiter rateLimiter;
+    private RateLimitingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        RateLimitProperties.Route login = new RateLimitProperties.Route();
+        login.setPatterns(List.of("/api/auth/login"));
+        login.setPerIp(limit(100, Duration.ofMinutes(1)));
+        login.setPerUsername(limit(3, Duration.ofMinutes(1)));
+        properties.getRoutes().put("login", login);
+        RateLimitProperties.Route discovery = new RateLimitProperties.Route();
+        discovery.setPatterns(List.of("/api/providers/**"));
+        discovery.setPerIp(limit(50, Duration.ofMinutes(1)));
+        properties.getRoutes().put("discovery", discovery);
+        RateLimitProperties.Route services = new RateLimitProperties.Route();
+        services.setPatterns(List.of("/api/services/**"));
+        services.setPerIp(limit(2, Duration.ofMillis(400)));
+        properties.getRoutes().put("services", services);
+
+        registry = new SimpleMeterRegistry();
+        rateLimiter = new RateLimiter(properties, registry);
+        filter = new RateLimitingFilter(properties, rateLimiter, new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("Mil peticiones a la vez desde una IP: pasan exactamente las de la capacidad, y el cubo se recupera")
+    void concurrentRequestsFromOneIpAreCappedAtCapacity() throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 1_000; i++) {
+                futures.add(executor.submit(() -> send(get("/api/providers/abc", "10.0.0.1")).getStatus()));
+            }
+        }
+        int allowed = 0;
+        for (Future<Integer> future : futures) {
+            allowed += future.get() == 200 ? 1 : 0;
+        }
+
+        assertEquals(50, allowed);
+        assertEquals(950, registry.get("reservas.rate-limit").tag("route", "discovery").tag("result", "rejected").counter().count());
+        MockHttpServletResponse rejected = send(get("/api/providers/abc", "10.0.0.1"));
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        // Otra IP tiene su propio cubo
+        assertEquals(200, send(get("/api/providers/abc", "10.0.0.2")).getStatus());
+
+    }
+
+    @Test
+    @DisplayName("El cubo se recupera con el tiempo y, una vez lleno, se quita del mapa")
+    void bucketRefillsAndIsPurgedWhenIdle() throws Exception {
+        assertEquals(200, send(get("/api/services", "10.0.0.1")).getStatus());
+        assertEquals(200, send(get("/api/services", "10.0.0.1")).getStatus());
+        assertEquals(429, send(get("/api/services", "10.0.0.1")).getStatus());
+        assertEquals(1, rateLimiter.getBucketCount());
+
+        // Un token cada 200 ms; pasado el periodo entero el cubo vuelve a estar lleno
+        Thread.sleep(450);
+        rateLimiter.purgeIdle();
+        assertEquals(0, rateLimiter.getBucketCount());
+        assertEquals(200, send(get("/api/services", "10.0.0.1")).getStatus());
+    }
+
+    @Test
+    @DisplayName("El login se limita por usuario aunque cambie la IP, y el controlador sigue leyendo el cuerpo")
+    void loginIsLimitedPerUsernameAcrossIps() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockFilterChain chain = new MockFilterChain();
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(login("10.0.1." + i, "Alice"), response, chain);
+            assertEquals(200, response.getStatus());
+            // El cuerpo llega entero a quien viene detrás
+            String body = new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            assertTrue(body.contains("\"password\""), body);
+        }
+
+        assertEquals(429, send(login("10.0.1.99", " alice ")).getStatus());
+        assertEquals(200, send(login("10.0.1.99", "bob")).getStatus());
+    }
+
+    @Test
+    @DisplayName("Un login con el cuerpo inflado para no revelar el usuario se rechaza con 413 sin llegar al controlador")
+    void oversizedLoginBodyIsRejected() throws Exception {
+        MockHttpServletRequest request = login("10.0.2.1", "alice");
+        request.setContent(("{\"username\":\"alice\",\"password\":\"secret\",\"padding\":\"" + "x".repeat(5_000) + "\"}")
+                .getBytes(StandardCharsets.UTF_8));
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(413, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    @DisplayName("El cuerpo reenviado admite lectura asíncrona: el listener recibe los datos y el aviso de fin")
+    void replayedBodySupportsReadListener() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(login("10.0.3.1", "alice"), new MockHttpServletResponse(), chain);
+        ServletInputStream input = chain.getRequest().getInputStream();
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        AtomicBoolean allRead = new AtomicBoolean();
+
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[16];
+                while (input.isReady() && !input.isFinished()) {
+                    int read = input.read(buffer);
+                    if (read > 0) {
+                        received.write(buffer, 0, read);
+                    }
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead.set(true);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                fail(t);
+            }
+        });
+
+        assertTrue(allRead.get());
+        assertTrue(received.toString(StandardCharsets.UTF_8).contains("\"password\""));
+    }
+
+    @Test
+    @DisplayName("Con el mapa lleno, una clave nueva desplaza al cubo menos usado que no esté frenando a su clave")
+    void fullMapNeverEvictsThrottledBuckets() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxBuckets(2);
+        RateLimiter limiter = new RateLimiter(properties, new SimpleMeterRegistry());
+        RateLimitProperties.Limit twoPerMinute = limit(2, Duration.ofMinutes(1));
+
+        assertEquals(0, limiter.tryAcquire("login", "ip", "a", twoPerMinute));
+        assertEquals(0, limiter.tryAcquire("login", "ip", "b", twoPerMinute));
+        assertEquals(0, limiter.tryAcquire("login", "ip", "b", twoPerMinute));
+        // "a" es el menos usado y aún tiene un token: se desplaza; "b" está frenado y se queda
+        assertEquals(0, limiter.tryAcquire("login", "ip", "c", twoPerMinute));
+        assertEquals(0, limiter.tryAcquire("login", "ip", "c", twoPerMinute));
+        assertTrue(limiter.tryAcquire("login", "ip", "b", twoPerMinute) > 0);
+
+        // Los dos cubos están frenados: la clave nueva no entra y las otras no recuperan sus tokens
+        assertTrue(limiter.tryAcquire("login", "ip", "d", twoPerMinute) > 0);
+        assertTrue(limiter.tryAcquire("login", "ip", "b", twoPerMinute) > 0);
+        assertTrue(limiter.tryAcquire("login", "ip", "c", twoPerMinute) > 0);
+        assertEquals(2, limiter.getBucketCount());
+    }
+
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest get(String uri, String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr(ip);
+        return request;
+    }
+
+    private static MockHttpServletRequest login(String ip, String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(("{\"username\":\"" + username + "\",\"password\":\"secret\"}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static RateLimitProperties.Limit limit(int capacity, Duration period) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setCapacity(capacity);
+        limit.setPeriod(period);
+        return limit;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.reservas.adapter.in.web;
+
+import domain.exception.InvalidRefreshTokenException;
+import domain.model.RefreshToken;
+import domain.model.Role;
+import domain.model.User;
+import domain.port.out.RefreshTokenPersistencePort;
+import domain.port.out.UserPersistencePort;
+import infrastructure.adapter.in.web.security.RefreshTokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    private final User user = User.builder().id(7L).uuid(UUID.randomUUID()).username("alice")
+            .active(true).roles(Set.of(Role.CLIENT)).build();
+
+    private InMemoryRefreshTokens tokens;
+    private RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        tokens = new InMemoryRefreshTokens();
+        UserPersistencePort users = mock(UserPersistencePort.class);
+        when(users.findById(7L)).thenReturn(Optional.of(user));
+        service = new RefreshTokenService(tokens, users, new SimpleMeterRegistry(), 60_000);
+    }
+
+    @Test
+    @DisplayName("Cada refresco gasta el token y entrega otro; en la BD solo quedan hashes")
+    void rotatesTokens() {
+        String first = service.issue(7L);
+        RefreshTokenService.Rotation rotation = service.rotate(first);
+
+        assertEquals(user, rotation.user());
+        assertNotEquals(first, rotation.refreshToken());
+        assertTrue(tokens.rows.keySet().stream().noneMatch(hash -> hash.equals(first) || hash.equals(rotation.refreshToken())));
+        assertNotNull(service.rotate(rotation.refreshToken()).refreshToken());
+    }
+
+    @Test
+    @DisplayName("Reutilizar un token ya gastado revoca la familia: el token robado y el legítimo dejan de servir")
+    void reuseRevokesTheWholeFamily() {
+        String stolen = service.issue(7L);
+        String legitimate = service.rotate(stolen).refreshToken();
+        String otherDevice = service.issue(7L);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(stolen));
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(legitimate));
+        // Otra sesión del mismo usuario es otra familia
+        assertNotNull(service.rotate(otherDevice).refreshToken());
+
+        service.revoke(otherDevice);
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(otherDevice));
+    }
+
+    private static final class InMemoryRefreshTokens implements RefreshTokenPersistencePort {
+
+        private final Map<String, RefreshToken> rows = new ConcurrentHashMap<>();
+
+        @Override
+        public void save(RefreshToken token) {
+            rows.put(token.tokenHash(), token);
+        }
+
+        @Override
+        public Optional<RefreshToken> findByHash(String tokenHash) {
+            return Optional.ofNullable(rows.get(tokenHash));
+        }
+
+        @Override
+        public boolean markUsed(String tokenHash, Instant now) {
+            RefreshToken t = rows.get(tokenHash);
+            if (t == null || t.usedAt() != null || t.revokedAt() != null) {
+                return false;
+            }
+            rows.put(tokenHash, new RefreshToken(t.tokenHash(), t.familyId(), t.userId(), t.expiresAt(), now, null));
+            return true;
+        }
+
+        @Override
+        public int revokeFamily(UUID familyId, Instant now) {
+            int[] revoked = {0};
+            rows.replaceAll((hash, t) -> {
+                if (!t.familyId().equals(familyId) || t.revokedAt() != null) {
+                    return t;
+                }
+                revoked[0]++;
+                return new RefreshToken(t.tokenHash(), t.familyId(), t.userId(), t.expiresAt(), t.usedAt(), now);
+            });
+            return revoked[0];
+        }
+
+        @Override
+        public int deleteExpired(Instant now) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
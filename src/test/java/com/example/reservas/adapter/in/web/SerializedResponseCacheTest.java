@@ -0,0 +1,105 @@
+package com.example.reservas.adapter.in.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import infrastructure.adapter.in.web.cache.SerializedResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SerializedResponseCacheTest {
+
+    private static final String BODY = "x".repeat(98); // serializado: 100 bytes con las comillas
+
+    @Test
+    @DisplayName("Un acierto devuelve los mismos bytes sin volver a generar la respuesta")
+    void hitReturnsSameBytesWithoutRecomputing() {
+        SerializedResponseCache cache = new SerializedResponseCache(new ObjectMapper(), new SimpleMeterRegistry(), 10_000);
+        SerializedResponseCache.Key key = new SerializedResponseCache.Key("timeslots", UUID.randomUUID(), "", 1);
+        AtomicInteger computations = new AtomicInteger();
+
+        byte[] first = cache.getOrCompute(key, () -> {
+            computations.incrementAndGet();
+            return BODY;
+        });
+        byte[] second = cache.getOrCompute(key, () -> {
+            computations.incrementAndGet();
+            return BODY;
+        });
+
+        assertSame(first, second);
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    @DisplayName("El total de bytes no supera el límite: se expulsa la entrada menos usada")
+    void evictsLeastRecentlyUsedWhenOverBudget() {
+        SerializedResponseCache cache = new SerializedResponseCache(new ObjectMapper(), new SimpleMeterRegistry(), 2_000);
+        UUID scope = UUID.randomUUID();
+        for (int i = 0; i < 30; i++) {
+            cache.getOrCompute(new SerializedResponseCache.Key("timeslots", scope, "v" + i, 1), () -> BODY);
+        }
+        assertEquals(2_000, cache.getTotalBytes());
+    }
+
+    @Test
+    @DisplayName("Invalidar un scope libera todas sus entradas")
+    void evictScopeReleasesEntries() {
+        SerializedResponseCache cache = new SerializedResponseCache(new ObjectMapper(), new SimpleMeterRegistry(), 10_000);
+        UUID scope = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        cache.getOrCompute(new SerializedResponseCache.Key("timeslots", scope, "a", 1), () -> BODY);
+        cache.getOrCompute(new SerializedResponseCache.Key("timeslots", scope, "b", 1), () -> BODY);
+        cache.getOrCompute(new SerializedResponseCache.Key("timeslots", other, "a", 1), () -> BODY);
+
+        cache.evictScope(scope);
+
+        assertEquals(100, cache.getTotalBytes());
+    }
+
+    @Test
+    @DisplayName("Los fallos simultáneos de la misma clave generan la respuesta una sola vez")
+    void concurrentMissesComputeOnce() throws Exception {
+        SerializedResponseCache cache = new SerializedResponseCache(new ObjectMapper(), new SimpleMeterRegistry(), 10_000);
+        SerializedResponseCache.Key key = new SerializedResponseCache.Key("timeslots", UUID.randomUUID(), "", 1);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<byte[]>> responses = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 16; i++) {
+                responses.add(pool.submit(() -> cache.getOrCompute(key, () -> {
+                    computations.incrementAndGet();
+                    started.countDown();
+                    try {
+                        assertTrue(release.await(5, TimeUnit.SECONDS));
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return BODY;
+                })));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<byte[]> response : responses) {
+                assertEquals(100, response.get().length);
+            }
+        }
+        assertEquals(1, computations.get());
+    }
+}
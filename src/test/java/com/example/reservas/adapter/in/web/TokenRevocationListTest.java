@@ -0,0 +1,145 @@
+package com.example.reservas.adapter.in.web;
+
+import domain.event.UserChangedEvent;
+import domain.model.Revocation;
+import domain.model.User;
+import domain.port.out.RevocationPersistencePort;
+import infrastructure.adapter.in.web.security.AccessToken;
+import infrastructure.adapter.in.web.security.SpringSecurityUser;
+import infrastructure.adapter.in.web.security.TokenRevocationList;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationListTest {
+
+    private final User alice = User.builder().id(1L).uuid(UUID.randomUUID()).username("alice").active(true).build();
+
+    private SimpleMeterRegistry registry;
+    private RevocationPersistencePort port;
+    private TokenRevocationList revocations;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        port = mock(RevocationPersistencePort.class);
+        when(port.findLatestCreatedAt()).thenReturn(Optional.empty());
+        when(port.findActive(any(), anyLong(), anyInt())).thenReturn(new RevocationPersistencePort.Page(List.of(), 0, null));
+        revocations = new TokenRevocationList(port, registry, Duration.ofMinutes(15).toMillis(), Duration.ofSeconds(5), 1_000, Duration.ofSeconds(30));
+        revocations.loadOnStartup();
+    }
+
+    @Test
+    @DisplayName("Los tokens revocados se rechazan siempre; de los demás, el filtro deja pasar casi todos sin mirar el conjunto")
+    void revokedTokensAreRejectedAndFilterKeepsFalsePositivesLow() {
+        List<AccessToken> revoked = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            AccessToken token = token(alice, Instant.now());
+            revocations.revokeToken(token);
+            revoked.add(token);
+        }
+        verify(port, times(1_000)).save(argThat(r -> r.type() == Revocation.Type.TOKEN));
+
+        assertTrue(revoked.stream().allMatch(revocations::isRevoked));
+        for (int i = 0; i < 100_000; i++) {
+            assertFalse(revocations.isRevoked(token(alice, Instant.now())));
+        }
+        double falsePositives = registry.get("reservas.revocations.checks").tag("result", "false_positive").counter().count();
+        assertTrue(falsePositives < 2_000, "Falsos positivos: " + falsePositives);
+
+        // Al purgar se reconstruye el filtro sin perder ninguna revocación vigente
+        revocations.purge();
+        assertTrue(revoked.stream().allMatch(revocations::isRevoked));
+    }
+
+    @Test
+    @DisplayName("Dar de baja a un usuario revoca sus tokens anteriores, aquí al momento y en otro nodo al leer la tabla")
+    void deactivatedUserTokensAreRejectedOnEveryNode() {
+        AccessToken before = token(alice, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+        User deactivated = User.builder().id(1L).uuid(alice.getUuid()).username("alice").active(false).build();
+
+        revocations.onUserChanged(new UserChangedEvent(deactivated, false));
+
+        ArgumentCaptor<Revocation> saved = ArgumentCaptor.forClass(Revocation.class);
+        verify(port).save(saved.capture());
+        Instant revokedAt = saved.getValue().revokedAt();
+        // Se compara al milisegundo: el token emitido justo después (reactivado o nuevo inicio de sesión) vale
+        AccessToken sameMillisecond = token(alice, revokedAt);
+        AccessToken justAfter = token(alice, revokedAt.plusMillis(1));
+
+        assertTrue(revocations.isRevoked(before));
+        assertTrue(revocations.isRevoked(sameMillisecond));
+        assertFalse(revocations.isRevoked(justAfter));
+
+        // Otro nodo recibe la fila en su siguiente sondeo
+        TokenRevocationList otherNode = new TokenRevocationList(port, new SimpleMeterRegistry(), Duration.ofMinutes(15).toMillis(), Duration.ofSeconds(5), 1_000, Duration.ofSeconds(30));
+        otherNode.poll();
+        assertFalse(otherNode.isRevoked(before));
+        when(port.findCreatedSince(any(), anyLong(), anyInt()))
+                .thenReturn(new RevocationPersistencePort.Page(List.of(saved.getValue()), 1, Instant.now()));
+        otherNode.poll();
+        assertTrue(otherNode.isRevoked(before));
+        assertFalse(otherNode.isRevoked(justAfter));
+    }
+
+    @Test
+    @DisplayName("Sin la lista cargada, o si lleva demasiado sin leerse, se rechazan todos los tokens")
+    void staleListFailsClosed() {
+        when(port.findLatestCreatedAt()).thenThrow(new IllegalStateException("Sin BD")).thenReturn(Optional.empty());
+        TokenRevocationList starting = new TokenRevocationList(port, registry, Duration.ofMinutes(15).toMillis(),
+                Duration.ofSeconds(5), 1_000, Duration.ofSeconds(30));
+        AccessToken token = token(alice, Instant.now());
+
+        starting.loadOnStartup();
+        assertTrue(starting.isStale());
+        assertTrue(starting.isRevoked(token));
+
+        // El siguiente sondeo consigue cargarla
+        starting.poll();
+        assertFalse(starting.isRevoked(token));
+
+        // Sin lecturas completas durante más de max-staleness vuelve a rechazarlos
+        ReflectionTestUtils.setField(starting, "syncedAt", Instant.now().minus(Duration.ofMinutes(1)));
+        assertTrue(starting.isRevoked(token));
+        assertEquals(2, registry.get("reservas.revocations.checks").tag("result", "stale").counter().count());
+    }
+
+    @Test
+    @DisplayName("Si la BD no responde durante más de max-staleness se rechaza todo, se mide, y se recupera con el primer sondeo que la lee")
+    void staleListRecoversOnceAPollSucceeds() {
+        AccessToken token = token(alice, Instant.now());
+        when(port.findCreatedSince(any(), anyLong(), anyInt())).thenThrow(new IllegalStateException("Sin BD"));
+        ReflectionTestUtils.setField(revocations, "syncedAt", Instant.now().minus(Duration.ofMinutes(1)));
+
+        revocations.poll();
+        assertTrue(revocations.isRevoked(token));
+        assertEquals(1, registry.get("reservas.revocations.stale").gauge().value());
+        assertTrue(registry.get("reservas.revocations.age").gauge().value() >= 60);
+
+        // Vuelve la BD: el siguiente sondeo la lee y se vuelven a aceptar
+        doReturn(new RevocationPersistencePort.Page(List.of(), 0, null)).when(port).findCreatedSince(any(), anyLong(), anyInt());
+        revocations.poll();
+        assertFalse(revocations.isRevoked(token));
+        assertEquals(0, registry.get("reservas.revocations.stale").gauge().value());
+        assertEquals(1, registry.get("reservas.revocations.checks").tag("result", "stale").counter().count());
+    }
+
+    private static AccessToken token(User user, Instant issuedAt) {
+        return new AccessToken(new SpringSecurityUser(user), UUID.randomUUID(), issuedAt, issuedAt.plus(Duration.ofMinutes(15)));
+    }
+}
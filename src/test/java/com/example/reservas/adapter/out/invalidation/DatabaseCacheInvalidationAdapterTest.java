@@ -0,0 +1,151 @@
+package com.example.reservas.adapter.out.invalidation;
+
+import domain.port.out.CacheInvalidationPort;
+import infrastructure.adapter.out.invalidation.DatabaseCacheInvalidationAdapter;
+import infrastructure.adapter.out.persistence.entity.CacheInvalidationEntity;
+import infrastructure.adapter.out.persistence.repository.CacheInvalidationJpaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bus de invalidación por defecto contra H2 (modo MySQL), con las consultas reales del repositorio.
+ * created_at lo pone la BD, como en MySQL; las filas "confirmadas tarde" se insertan con una hora anterior.
+ */
+class DatabaseCacheInvalidationAdapterTest {
+
+    private static final Duration COMMIT_GRACE = Duration.ofSeconds(5);
+
+    private static ConfigurableApplicationContext context;
+    private static CacheInvalidationJpaRepository repository;
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void startContext() {
+        context = new SpringApplicationBuilder(PersistenceConfig.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:cache-bus;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off");
+        repository = context.getBean(CacheInvalidationJpaRepository.class);
+        jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        jdbc.execute("ALTER TABLE cache_invalidations ALTER COLUMN created_at SET DEFAULT CURRENT_TIMESTAMP");
+    }
+
+    @AfterAll
+    static void stopContext() {
+        context.close();
+    }
+
+    @BeforeEach
+    void clearTable() {
+        jdbc.update("DELETE FROM cache_invalidations");
+    }
+
+    @Test
+    @DisplayName("Un aviso llega una sola vez a los demás nodos, pero no al que lo publica; lo anterior al arranque no llega")
+    void deliversOnceToOtherNodesOnly() {
+        insert("users", "before-start", "c", 0);
+        DatabaseCacheInvalidationAdapter nodeA = node("a");
+        DatabaseCacheInvalidationAdapter nodeB = node("b");
+        List<String> receivedByA = subscribe(nodeA);
+        List<String> receivedByB = subscribe(nodeB);
+        nodeA.poll();
+        nodeB.poll();
+
+        nodeA.publish(CacheInvalidationPort.USERS, "user-1");
+        nodeA.poll();
+        nodeB.poll();
+        nodeB.poll();
+
+        assertEquals(List.of(), receivedByA);
+        assertEquals(List.of("user-1"), receivedByB);
+    }
+
+    @Test
+    @DisplayName("Una fila confirmada tarde (hora anterior a la última leída) llega si cae dentro de commit-grace")
+    void deliversRowsCommittedLateWithinTheGraceWindow() {
+        DatabaseCacheInvalidationAdapter node = node("b");
+        List<String> received = subscribe(node);
+        node.poll();
+
+        insert("users", "user-1", "a", 0);
+        node.poll();
+        // Filas con id mayor pero hora anterior: la primera dentro de la ventana que se vuelve a leer, la segunda no
+        insert("users", "late", "a", -2);
+        insert("users", "too-late", "a", -30);
+        node.poll();
+        node.poll();
+
+        assertEquals(List.of("user-1", "late"), received);
+    }
+
+    @Test
+    @DisplayName("La purga borra las filas más antiguas que la retención y deja las recientes")
+    void purgeDeletesRowsOlderThanRetention() {
+        insert("users", "old", "a", -2 * 3600);
+        insert("users", "recent", "a", -60);
+
+        node("b").purge();
+
+        assertEquals(List.of("recent"), repository.findAll().stream().map(CacheInvalidationEntity::getCacheKey).toList());
+    }
+
+    private static DatabaseCacheInvalidationAdapter node(String nodeId) {
+        return new DatabaseCacheInvalidationAdapter(repository, new SimpleMeterRegistry(), nodeId, COMMIT_GRACE, Duration.ofHours(1));
+    }
+
+    private static List<String> subscribe(DatabaseCacheInvalidationAdapter node) {
+        List<String> received = new CopyOnWriteArrayList<>();
+        node.subscribe(CacheInvalidationPort.USERS, received::add);
+        return received;
+    }
+
+    /**
+     * Inserta un aviso con la hora de la BD desplazada {@code offsetSeconds}.
+     */
+    private static void insert(String namespace, String key, String origin, int offsetSeconds) {
+        jdbc.update("INSERT INTO cache_invalidations (namespace, cache_key, origin_node, created_at) " +
+                "VALUES (?, ?, ?, DATEADD('SECOND', ?, CURRENT_TIMESTAMP))", namespace, key, origin, offsetSeconds);
+    }
+
+    // Sin @Configuration: el escaneo de componentes de ReservasApplication no debe recogerla
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EnableJpaRepositories(basePackageClasses = CacheInvalidationJpaRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = CacheInvalidationJpaRepository.class))
+    static class PersistenceConfig {
+
+        @Bean
+        PersistenceManagedTypes persistenceManagedTypes() {
+            return PersistenceManagedTypes.of(CacheInvalidationEntity.class.getName());
+        }
+    }
+}
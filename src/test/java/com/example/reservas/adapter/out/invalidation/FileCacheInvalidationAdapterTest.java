@@ -0,0 +1,68 @@
+package com.example.reservas.adapter.out.invalidation;
+
+import domain.port.out.CacheInvalidationPort;
+import infrastructure.adapter.out.invalidation.FileCacheInvalidationAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileCacheInvalidationAdapterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Un aviso llega a los demás nodos suscritos a su espacio, pero no al que lo publica")
+    void deliversToOtherNodesOnly() {
+        Path file = dir.resolve("invalidations.log");
+        FileCacheInvalidationAdapter nodeA = new FileCacheInvalidationAdapter(new SimpleMeterRegistry(), "a", file);
+        FileCacheInvalidationAdapter nodeB = new FileCacheInvalidationAdapter(new SimpleMeterRegistry(), "b", file);
+        List<String> receivedByA = new CopyOnWriteArrayList<>();
+        List<String> usersB = new CopyOnWriteArrayList<>();
+        List<String> waitlistB = new CopyOnWriteArrayList<>();
+        nodeA.subscribe(CacheInvalidationPort.USERS, receivedByA::add);
+        nodeB.subscribe(CacheInvalidationPort.USERS, usersB::add);
+        nodeB.subscribe(CacheInvalidationPort.WAITLIST, waitlistB::add);
+
+        nodeA.publish(CacheInvalidationPort.USERS, "user-1");
+        nodeA.publish(CacheInvalidationPort.WAITLIST, "42");
+        nodeA.poll();
+        nodeB.poll();
+
+        assertEquals(List.of(), receivedByA);
+        assertEquals(List.of("user-1"), usersB);
+        assertEquals(List.of("42"), waitlistB);
+
+        // Cada aviso se entrega una sola vez
+        nodeB.poll();
+        assertEquals(List.of("user-1"), usersB);
+    }
+
+    @Test
+    @DisplayName("No se entrega lo publicado antes de arrancar, y una línea a medio escribir espera al siguiente sondeo")
+    void skipsOldMessagesAndWaitsForCompleteLines() throws Exception {
+        Path file = dir.resolve("invalidations.log");
+        Files.writeString(file, "old\tusers\tuser-0\n");
+        FileCacheInvalidationAdapter node = new FileCacheInvalidationAdapter(new SimpleMeterRegistry(), "b", file);
+        List<String> received = new CopyOnWriteArrayList<>();
+        node.subscribe(CacheInvalidationPort.USERS, received::add);
+
+        Files.writeString(file, "a\tusers\tus", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        node.poll();
+        assertEquals(List.of(), received);
+
+        Files.writeString(file, "er-1\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        node.poll();
+        assertEquals(List.of("user-1"), received);
+    }
+}
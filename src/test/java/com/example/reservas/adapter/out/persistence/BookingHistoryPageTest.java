@@ -0,0 +1,260 @@
+package com.example.reservas.adapter.out.persistence;
+
+import domain.model.Booking;
+import domain.model.BookingCursor;
+import domain.model.BookingStatus;
+import domain.model.Role;
+import domain.model.Slice;
+import domain.model.TimeSlotStatus;
+import domain.model.User;
+import domain.port.out.BookingPersistencePort;
+import infrastructure.adapter.out.persistence.entity.BookingArchiveEntity;
+import infrastructure.adapter.out.persistence.entity.BookingEntity;
+import infrastructure.adapter.out.persistence.entity.OfferedServiceEntity;
+import infrastructure.adapter.out.persistence.entity.TimeSlotArchiveEntity;
+import infrastructure.adapter.out.persistence.entity.TimeSlotEntity;
+import infrastructure.adapter.out.persistence.entity.UserEntity;
+import infrastructure.adapter.out.persistence.mapper.ArchiveMapperImpl;
+import infrastructure.adapter.out.persistence.mapper.BookingMapperImpl;
+import infrastructure.adapter.out.persistence.mapper.OfferedServiceMapperImpl;
+import infrastructure.adapter.out.persistence.mapper.TimeSlotMapperImpl;
+import infrastructure.adapter.out.persistence.mapper.UserMapperImpl;
+import infrastructure.adapter.out.persistence.repository.BookingArchiveJpaRepository;
+import infrastructure.adapter.out.persistence.repository.BookingJpaRepository;
+import infrastructure.adapter.out.persistence.repository.BookingPersistenceAdapter;
+import infrastructure.adapter.out.persistence.repository.TimeSlotJpaRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vistas de próximos e histórico de un cliente contra H2 (modo MySQL): el histórico mezcla los bookings
+ * pasados de la tabla viva con los de bookings_archive por la misma clave (startTime, id).
+ */
+class BookingHistoryPageTest {
+
+    private static final Instant NOW = Instant.parse("2026-03-02T12:00:00Z");
+    private static final long ARCHIVED_ID_BASE = 10_000;
+
+    private static ConfigurableApplicationContext context;
+    private static BookingPersistencePort bookings;
+    private static TransactionTemplate readOnly;
+    private static User client;
+    private static final List<Long> expectedUpcoming = new ArrayList<>();
+    private static final List<Long> expectedHistory = new ArrayList<>();
+
+    @BeforeAll
+    static void startContext() {
+        context = new SpringApplicationBuilder(PersistenceConfig.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:booking-history;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off");
+        bookings = context.getBean(BookingPersistencePort.class);
+        // Como en BookingServiceImpl, las lecturas van en una transacción de solo lectura
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        UserEntity provider = persistUser("provider", Role.PROVIDER);
+        UserEntity clientEntity = persistUser("client", Role.CLIENT);
+        UserEntity other = persistUser("other", Role.CLIENT);
+        client = User.builder().id(clientEntity.getId()).uuid(clientEntity.getUuid()).username("client").build();
+        OfferedServiceEntity service = inTransaction(entityManager -> {
+            OfferedServiceEntity entity = OfferedServiceEntity.builder().name("yoga")
+                    .owner(entityManager.getReference(UserEntity.class, provider.getId()))
+                    .defaultDuration(Duration.ofMinutes(45)).capacity(10).isActive(true).build();
+            entityManager.persist(entity);
+            return entity;
+        });
+
+        // Horas -10..5 respecto a NOW: las pares ya archivadas, las impares aún en la tabla viva
+        List<Long> past = new ArrayList<>();
+        for (int hour = -10; hour < 6; hour++) {
+            Instant start = NOW.plus(Duration.ofHours(hour));
+            if (hour < 0 && hour % 2 == 0) {
+                past.add(archive(start, provider, clientEntity, service));
+            } else {
+                Long id = book(start, clientEntity, other, service);
+                (hour < 0 ? past : expectedUpcoming).add(id);
+            }
+        }
+        expectedHistory.addAll(past.reversed());
+    }
+
+    @AfterAll
+    static void stopContext() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Próximos: solo slots aún no empezados, en orden y sin repetir ni saltarse ninguno entre páginas")
+    void walksUpcomingInKeyOrder() {
+        List<Long> seen = new ArrayList<>();
+        BookingCursor cursor = null;
+        Slice<Booking> page;
+        do {
+            page = upcoming(cursor, 2);
+            page.content().forEach(booking -> seen.add(booking.getId()));
+            cursor = cursorOf(page.last());
+        } while (page.hasNext());
+
+        assertEquals(expectedUpcoming, seen);
+    }
+
+    @Test
+    @DisplayName("Histórico: vivos y archivados intercalados por (startTime, id) descendente a través de las páginas")
+    void mergesLiveAndArchivedHistory() {
+        List<Long> seen = new ArrayList<>();
+        BookingCursor cursor = null;
+        Slice<Booking> page;
+        do {
+            page = history(cursor, 3);
+            assertTrue(page.content().size() <= 3);
+            page.content().forEach(booking -> seen.add(booking.getId()));
+            cursor = cursorOf(page.last());
+        } while (page.hasNext());
+
+        assertEquals(10, expectedHistory.size());
+        assertEquals(expectedHistory, seen);
+    }
+
+    @Test
+    @DisplayName("Un booking archivado conserva los datos del slot y del servicio copiados al archivarlo")
+    void archivedBookingKeepsSlotData() {
+        Booking archived = history(null, 20).content().stream()
+                .filter(booking -> booking.getId() >= ARCHIVED_ID_BASE)
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals("yoga", archived.getTimeSlot().getOfferedService().getName());
+        assertNotNull(archived.getTimeSlot().getUuid());
+        assertEquals(BookingStatus.COMPLETED, archived.getStatus());
+        assertEquals(2, archived.getPartySize());
+    }
+
+    private static Slice<Booking> upcoming(BookingCursor after, int limit) {
+        return readOnly.execute(status -> bookings.findUpcomingByClient(client, NOW, after, limit));
+    }
+
+    private static Slice<Booking> history(BookingCursor before, int limit) {
+        return readOnly.execute(status -> bookings.findHistoryByClient(client, NOW, before, limit));
+    }
+
+    private static BookingCursor cursorOf(Booking last) {
+        return last == null ? null : BookingCursor.after(last);
+    }
+
+    /**
+     * Slot vivo con un booking del cliente y otro de un tercero, que no debe aparecer en sus listados.
+     */
+    private static Long book(Instant start, UserEntity clientEntity, UserEntity other, OfferedServiceEntity service) {
+        return inTransaction(entityManager -> {
+            TimeSlotEntity slot = TimeSlotEntity.builder()
+                    .offeredService(entityManager.getReference(OfferedServiceEntity.class, service.getServiceId()))
+                    .startTime(start).endTime(start.plus(Duration.ofMinutes(45)))
+                    .capacity(10).price(BigDecimal.TEN).status(TimeSlotStatus.AVAILABLE).build();
+            entityManager.persist(slot);
+            entityManager.persist(BookingEntity.builder().timeSlot(slot)
+                    .client(entityManager.getReference(UserEntity.class, other.getId()))
+                    .status(BookingStatus.CONFIRMED).pricePaid(BigDecimal.TEN).build());
+            BookingEntity booking = BookingEntity.builder().timeSlot(slot)
+                    .client(entityManager.getReference(UserEntity.class, clientEntity.getId()))
+                    .status(BookingStatus.CONFIRMED).pricePaid(BigDecimal.TEN).build();
+            entityManager.persist(booking);
+            return booking.getId();
+        });
+    }
+
+    /**
+     * Slot y booking ya archivados, escritos directamente en las tablas *_archive.
+     */
+    private static Long archive(Instant start, UserEntity provider, UserEntity clientEntity, OfferedServiceEntity service) {
+        long id = ARCHIVED_ID_BASE + start.getEpochSecond() / 3600 % 1000;
+        return inTransaction(entityManager -> {
+            entityManager.persist(TimeSlotArchiveEntity.builder().id(id).uuid(UUID.randomUUID())
+                    .serviceId(service.getServiceId()).serviceUuid(service.getUuid()).serviceName(service.getName())
+                    .provider(entityManager.getReference(UserEntity.class, provider.getId()))
+                    .startTime(start).endTime(start.plus(Duration.ofMinutes(45)))
+                    .capacity(10).price(BigDecimal.TEN).status(TimeSlotStatus.AVAILABLE).archivedAt(NOW).build());
+            entityManager.persist(BookingArchiveEntity.builder().id(id).uuid(UUID.randomUUID())
+                    .clientId(clientEntity.getId()).timeSlotId(id).timeSlotUuid(UUID.randomUUID())
+                    .serviceId(service.getServiceId()).serviceUuid(service.getUuid()).serviceName(service.getName())
+                    .startTime(start).endTime(start.plus(Duration.ofMinutes(45)))
+                    .status(BookingStatus.COMPLETED).partySize(2).pricePaid(BigDecimal.TEN)
+                    .createdAt(start).updatedAt(start).archivedAt(NOW).build());
+            return id;
+        });
+    }
+
+    private static UserEntity persistUser(String username, Role role) {
+        return inTransaction(entityManager -> {
+            UserEntity user = UserEntity.builder().username(username).email(username + "@example.com")
+                    .passwordHash("hash").roles(Set.of(role)).active(true).build();
+            entityManager.persist(user);
+            return user;
+        });
+    }
+
+    private static <T> T inTransaction(Function<EntityManager, T> work) {
+        EntityManager entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            T result = work.apply(entityManager);
+            entityManager.getTransaction().commit();
+            return result;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    // Sin @Configuration: el escaneo de componentes de ReservasApplication no debe recogerla
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EnableJpaRepositories(basePackageClasses = BookingJpaRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                    classes = {BookingJpaRepository.class, BookingArchiveJpaRepository.class, TimeSlotJpaRepository.class}))
+    @Import({BookingPersistenceAdapter.class, BookingMapperImpl.class, ArchiveMapperImpl.class, TimeSlotMapperImpl.class,
+            OfferedServiceMapperImpl.class, UserMapperImpl.class})
+    static class PersistenceConfig {
+
+        @Bean
+        PersistenceManagedTypes persistenceManagedTypes() {
+            return PersistenceManagedTypes.of(BookingEntity.class.getName(), BookingArchiveEntity.class.getName(),
+                    TimeSlotEntity.class.getName(), TimeSlotArchiveEntity.class.getName(),
+                    OfferedServiceEntity.class.getName(), UserEntity.class.getName());
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.reservas.adapter.out.persistence;
+
+import domain.model.BookingStatus;
+import infrastructure.adapter.out.persistence.repository.TimeSlotJpaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.lang.reflect.Method;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contador de plazas de los slots con grupos (party_size) sobre H2 (modo MySQL),
+ * ejecutando tal cual las consultas nativas de {@link TimeSlotJpaRepository}.
+ */
+class SeatCounterSqlTest {
+
+    private final Instant now = Instant.parse("2026-10-19T10:00:00Z");
+
+    private NamedParameterJdbcTemplate jdbc;
+    private long nextBookingId = 1;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:seats-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new NamedParameterJdbcTemplate(dataSource);
+        jdbc.getJdbcTemplate().execute("CREATE TABLE time_slots (id BIGINT PRIMARY KEY, capacity INT NOT NULL, " +
+                "status VARCHAR(50) NOT NULL, booked_seats INT NOT NULL DEFAULT 0, version BIGINT NOT NULL DEFAULT 0)");
+        jdbc.getJdbcTemplate().execute("CREATE TABLE bookings (id BIGINT PRIMARY KEY, timeslot_id BIGINT NOT NULL, " +
+                "status VARCHAR(50) NOT NULL, party_size INT NOT NULL DEFAULT 1, hold_expires_at TIMESTAMP NULL, " +
+                "CONSTRAINT fk_booking_timeslot FOREIGN KEY (timeslot_id) REFERENCES time_slots(id) ON DELETE CASCADE, " +
+                "CONSTRAINT chk_booking_party_size CHECK (party_size > 0))");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.getJdbcTemplate().execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    @DisplayName("Un grupo ocupa todas sus plazas de una vez, o ninguna si no caben; la última plaza deja el slot FULL")
+    void claimsAllSeatsOfAPartyOrNone() {
+        slot(1L, 10, "AVAILABLE", 6);
+
+        assertEquals(1, claimSeats(List.of(1L), 3));
+        assertEquals(9, bookedSeats(1L));
+        assertEquals("AVAILABLE", status(1L));
+
+        assertEquals(0, claimSeats(List.of(1L), 2));
+        assertEquals(9, bookedSeats(1L));
+        assertEquals(1L, version(1L));
+
+        assertEquals(1, claimSeats(List.of(1L), 1));
+        assertEquals(10, bookedSeats(1L));
+        assertEquals("FULL", status(1L));
+    }
+
+    @Test
+    @DisplayName("En un lote, el grupo solo ocupa plaza en los slots donde cabe entero y no están cancelados")
+    void claimsOnlySlotsWithRoomForTheWholeParty() {
+        slot(1L, 10, "AVAILABLE", 0);
+        slot(2L, 10, "AVAILABLE", 8);
+        slot(3L, 10, "CANCELLED", 0);
+        slot(4L, 4, "AVAILABLE", 0);
+
+        assertEquals(2, claimSeats(List.of(1L, 2L, 3L, 4L), 4));
+
+        assertEquals(4, bookedSeats(1L));
+        assertEquals("AVAILABLE", status(1L));
+        assertEquals(8, bookedSeats(2L));
+        assertEquals(0, bookedSeats(3L));
+        assertEquals("CANCELLED", status(3L));
+        assertEquals(4, bookedSeats(4L));
+        assertEquals("FULL", status(4L));
+    }
+
+    @Test
+    @DisplayName("El recuento suma el party_size de los bookings que retienen plaza, sin las retenciones caducadas")
+    void recountSumsPartySizes() {
+        slot(1L, 10, "AVAILABLE", 0);
+        booking(1L, BookingStatus.CONFIRMED, 3, null);
+        booking(1L, BookingStatus.AWAITING_CONFIRMATION, 2, null);
+        booking(1L, BookingStatus.PENDING_PAYMENT, 4, now.plus(Duration.ofMinutes(5)));
+        booking(1L, BookingStatus.PENDING_PAYMENT, 5, now.minusSeconds(1));
+        booking(1L, BookingStatus.CANCELLED_BY_CLIENT, 6, null);
+        booking(1L, BookingStatus.HOLD_EXPIRED, 7, null);
+
+        assertEquals(1, recountBookedSeats(1L));
+
+        assertEquals(9, bookedSeats(1L));
+        assertEquals("AVAILABLE", status(1L));
+    }
+
+    @Test
+    @DisplayName("Cancelar un grupo libera exactamente sus plazas: el slot lleno vuelve a estar disponible")
+    void cancellingAPartyReleasesItsSeats() {
+        slot(1L, 6, "AVAILABLE", 0);
+        long party = booking(1L, BookingStatus.CONFIRMED, 4, null);
+        booking(1L, BookingStatus.CONFIRMED, 2, null);
+        recountBookedSeats(1L);
+        assertEquals(6, bookedSeats(1L));
+        assertEquals("FULL", status(1L));
+
+        jdbc.update("UPDATE bookings SET status = :status WHERE id = :id",
+                Map.of("status", BookingStatus.CANCELLED_BY_CLIENT.name(), "id", party));
+        recountBookedSeats(1L);
+
+        assertEquals(2, bookedSeats(1L));
+        assertEquals("AVAILABLE", status(1L));
+    }
+
+    @Test
+    @DisplayName("El recuento de un slot cancelado actualiza el contador pero no su estado")
+    void recountKeepsCancelledStatus() {
+        slot(1L, 2, "CANCELLED", 0);
+        booking(1L, BookingStatus.CONFIRMED, 2, null);
+
+        recountBookedSeats(1L);
+
+        assertEquals(2, bookedSeats(1L));
+        assertEquals("CANCELLED", status(1L));
+    }
+
+    private int claimSeats(Collection<Long> ids, int seats) {
+        return jdbc.update(sqlOf("claimSeats"), new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("seats", seats));
+    }
+
+    /**
+     * Mismos parámetros que pasa {@code TimeSlotPersistenceAdapter#recountBookedSeats}.
+     */
+    private int recountBookedSeats(Long id) {
+        return jdbc.update(sqlOf("recountBookedSeats"), new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("statuses", BookingStatus.SEAT_HOLDING.stream().map(BookingStatus::name).toList())
+                .addValue("now", Timestamp.from(now)));
+    }
+
+    private void slot(Long id, int capacity, String status, int bookedSeats) {
+        jdbc.update("INSERT INTO time_slots (id, capacity, status, booked_seats) VALUES (:id, :capacity, :status, :bookedSeats)",
+                Map.of("id", id, "capacity", capacity, "status", status, "bookedSeats", bookedSeats));
+    }
+
+    private long booking(Long timeSlotId, BookingStatus status, int partySize, Instant holdExpiresAt) {
+        long id = nextBookingId++;
+        jdbc.update("INSERT INTO bookings (id, timeslot_id, status, party_size, hold_expires_at) " +
+                        "VALUES (:id, :timeSlotId, :status, :partySize, :holdExpiresAt)",
+                new MapSqlParameterSource()
+                        .addValue("id", id)
+                        .addValue("timeSlotId", timeSlotId)
+                        .addValue("status", status.name())
+                        .addValue("partySize", partySize)
+                        .addValue("holdExpiresAt", holdExpiresAt == null ? null : Timestamp.from(holdExpiresAt)));
+        return id;
+    }
+
+    private int bookedSeats(Long id) {
+        return column(id, "booked_seats", Integer.class);
+    }
+
+    private String status(Long id) {
+        return column(id, "status", String.class);
+    }
+
+    private long version(Long id) {
+        return column(id, "version", Long.class);
+    }
+
+    private <T> T column(Long id, String column, Class<T> type) {
+        return jdbc.queryForObject("SELECT " + column + " FROM time_slots WHERE id = :id", Map.of("id", id), type);
+    }
+
+    private static String sqlOf(String methodName) {
+        Method method = Arrays.stream(TimeSlotJpaRepository.class.getMethods())
+                .filter(candidate -> candidate.getName().equals(methodName))
+                .findFirst()
+                .orElseThrow();
+        return method.getAnnotation(Query.class).value();
+    }
+}
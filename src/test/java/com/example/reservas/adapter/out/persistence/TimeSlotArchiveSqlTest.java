@@ -0,0 +1,288 @@
+package com.example.reservas.adapter.out.persistence;
+
+import domain.model.ArchivedRows;
+import domain.model.BookingStatus;
+import domain.model.JobShard;
+import domain.model.TimeSlotCursor;
+import domain.port.out.ArchivePersistencePort;
+import infrastructure.adapter.out.persistence.entity.BookingArchiveEntity;
+import infrastructure.adapter.out.persistence.entity.BookingEntity;
+import infrastructure.adapter.out.persistence.entity.OfferedServiceEntity;
+import infrastructure.adapter.out.persistence.entity.TimeSlotArchiveEntity;
+import infrastructure.adapter.out.persistence.entity.TimeSlotEntity;
+import infrastructure.adapter.out.persistence.entity.UserEntity;
+import infrastructure.adapter.out.persistence.mapper.ArchiveMapperImpl;
+import infrastructure.adapter.out.persistence.mapper.UserMapperImpl;
+import infrastructure.adapter.out.persistence.repository.ArchivePersistenceAdapter;
+import infrastructure.adapter.out.persistence.repository.BookingArchiveJpaRepository;
+import infrastructure.adapter.out.persistence.repository.BookingJpaRepository;
+import infrastructure.adapter.out.persistence.repository.TimeSlotArchiveJpaRepository;
+import infrastructure.adapter.out.persistence.repository.TimeSlotJpaRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Archivado contra H2 (modo MySQL) con las sentencias nativas reales y las mismas claves foráneas
+ * (y ON DELETE CASCADE) que el esquema de docker/db/init, para comprobar el orden de copias y borrados.
+ */
+class TimeSlotArchiveSqlTest {
+
+    private static final Instant START = Instant.parse("2026-01-05T09:00:00Z");
+    private static final Instant NOW = Instant.parse("2026-03-02T12:00:00Z");
+
+    private static ConfigurableApplicationContext context;
+    private static ArchivePersistencePort archive;
+    private static TransactionTemplate transactionTemplate;
+    private static JdbcTemplate jdbc;
+
+    private long serviceId;
+    private long clientId;
+
+    @BeforeAll
+    static void startContext() {
+        // Sin DDL de Hibernate: las tablas se crean abajo con sus claves foráneas
+        context = new SpringApplicationBuilder(PersistenceConfig.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:archive-sql;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=none",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off");
+        archive = context.getBean(ArchivePersistencePort.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+    }
+
+    @AfterAll
+    static void stopContext() {
+        context.close();
+    }
+
+    @BeforeEach
+    void createSchema() {
+        jdbc.execute("CREATE TABLE usuarios (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "public_uuid BINARY(16) NOT NULL UNIQUE, username VARCHAR(255) NOT NULL UNIQUE)");
+        jdbc.execute("CREATE TABLE offered_services (service_id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "public_uuid BINARY(16) NOT NULL UNIQUE, owner_id BIGINT NOT NULL, name VARCHAR(100) NOT NULL, " +
+                "CONSTRAINT fk_service_owner FOREIGN KEY (owner_id) REFERENCES usuarios(id) ON DELETE CASCADE)");
+        jdbc.execute("CREATE TABLE time_slots (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "public_uuid BINARY(16) NOT NULL UNIQUE, service_id BIGINT NOT NULL, provider_id BIGINT NOT NULL, " +
+                "start_time TIMESTAMP NOT NULL, end_time TIMESTAMP NOT NULL, capacity INT NOT NULL, price DECIMAL(10, 2), " +
+                "status VARCHAR(50) NOT NULL, booked_seats INT NOT NULL DEFAULT 0, version BIGINT NOT NULL DEFAULT 0, " +
+                "CONSTRAINT fk_timeslot_service FOREIGN KEY (service_id) REFERENCES offered_services(service_id) ON DELETE CASCADE, " +
+                "CONSTRAINT fk_timeslot_provider FOREIGN KEY (provider_id) REFERENCES usuarios(id) ON DELETE CASCADE)");
+        jdbc.execute("CREATE TABLE bookings (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "public_uuid BINARY(16) NOT NULL UNIQUE, timeslot_id BIGINT NOT NULL, client_id BIGINT NOT NULL, " +
+                "status VARCHAR(50) NOT NULL, party_size INT NOT NULL DEFAULT 1, price_paid DECIMAL(10, 2), notes TEXT, " +
+                "hold_expires_at TIMESTAMP NULL, created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP NOT NULL, " +
+                "CONSTRAINT fk_booking_timeslot FOREIGN KEY (timeslot_id) REFERENCES time_slots(id) ON DELETE CASCADE, " +
+                "CONSTRAINT fk_booking_client FOREIGN KEY (client_id) REFERENCES usuarios(id) ON DELETE CASCADE)");
+        jdbc.execute("CREATE TABLE waitlist_entries (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "public_uuid BINARY(16) NOT NULL UNIQUE, timeslot_id BIGINT NOT NULL, client_id BIGINT NOT NULL, " +
+                "status VARCHAR(20) NOT NULL, " +
+                "CONSTRAINT fk_waitlist_timeslot FOREIGN KEY (timeslot_id) REFERENCES time_slots(id) ON DELETE CASCADE)");
+        jdbc.execute("CREATE TABLE time_slots_archive (id BIGINT PRIMARY KEY, public_uuid BINARY(16) NOT NULL UNIQUE, " +
+                "service_id BIGINT NOT NULL, service_uuid BINARY(16) NOT NULL, service_name VARCHAR(100) NOT NULL, " +
+                "provider_id BIGINT NOT NULL, start_time TIMESTAMP NOT NULL, end_time TIMESTAMP NOT NULL, " +
+                "capacity INT NOT NULL, price DECIMAL(10, 2), status VARCHAR(50) NOT NULL, archived_at TIMESTAMP NOT NULL, " +
+                "CONSTRAINT fk_timeslot_archive_provider FOREIGN KEY (provider_id) REFERENCES usuarios(id) ON DELETE CASCADE)");
+        jdbc.execute("CREATE TABLE bookings_archive (id BIGINT PRIMARY KEY, public_uuid BINARY(16) NOT NULL UNIQUE, " +
+                "client_id BIGINT NOT NULL, timeslot_id BIGINT NOT NULL, timeslot_uuid BINARY(16) NOT NULL, " +
+                "service_id BIGINT NOT NULL, service_uuid BINARY(16) NOT NULL, service_name VARCHAR(100) NOT NULL, " +
+                "start_time TIMESTAMP NOT NULL, end_time TIMESTAMP NOT NULL, status VARCHAR(50) NOT NULL, " +
+                "party_size INT NOT NULL DEFAULT 1, price_paid DECIMAL(10, 2), notes TEXT, created_at TIMESTAMP NOT NULL, " +
+                "updated_at TIMESTAMP NOT NULL, archived_at TIMESTAMP NOT NULL, " +
+                "CONSTRAINT fk_booking_archive_timeslot FOREIGN KEY (timeslot_id) REFERENCES time_slots_archive(id) ON DELETE CASCADE, " +
+                "CONSTRAINT fk_booking_archive_client FOREIGN KEY (client_id) REFERENCES usuarios(id) ON DELETE CASCADE)");
+
+        long providerId = insertUser("provider");
+        clientId = insertUser("client");
+        jdbc.update("INSERT INTO offered_services (public_uuid, owner_id, name) VALUES (?, ?, 'yoga')", uuid(), providerId);
+        serviceId = jdbc.queryForObject("SELECT service_id FROM offered_services", Long.class);
+    }
+
+    @AfterEach
+    void dropSchema() {
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    @DisplayName("Un lote copia slots y bookings, y borra bookings, lista de espera y slots siguiendo las claves foráneas")
+    void movesSlotsWithBookingsAlongTheForeignKeyChain() {
+        long yoga = insertSlot(0);
+        long pilates = insertSlot(1);
+        insertBooking(yoga, BookingStatus.COMPLETED);
+        insertBooking(yoga, BookingStatus.CANCELLED_BY_CLIENT);
+        insertBooking(pilates, BookingStatus.NO_SHOW);
+        jdbc.update("INSERT INTO waitlist_entries (public_uuid, timeslot_id, client_id, status) VALUES (?, ?, ?, 'EXPIRED')",
+                uuid(), yoga, clientId);
+
+        ArchivedRows rows = archive(List.of(yoga, pilates));
+
+        assertEquals(new ArchivedRows(2, 3), rows);
+        assertEquals(0, count("time_slots"));
+        assertEquals(0, count("bookings"));
+        assertEquals(0, count("waitlist_entries"));
+        assertEquals(2, count("time_slots_archive"));
+        assertEquals(3, count("bookings_archive"));
+        assertEquals("yoga", jdbc.queryForObject("SELECT DISTINCT service_name FROM bookings_archive", String.class));
+    }
+
+    @Test
+    @DisplayName("Repetir un lote ya copiado en parte no duplica filas: INSERT IGNORE se salta lo que ya estaba")
+    void rerunningABatchIsIdempotent() {
+        long yoga = insertSlot(0);
+        long completed = insertBooking(yoga, BookingStatus.COMPLETED);
+        // Un intento anterior dejó copiados el slot y uno de sus bookings, pero no llegó a borrar nada
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbc.update("INSERT INTO time_slots_archive SELECT ts.id, ts.public_uuid, s.service_id, s.public_uuid, s.name, " +
+                    "ts.provider_id, ts.start_time, ts.end_time, ts.capacity, ts.price, ts.status, ? " +
+                    "FROM time_slots ts JOIN offered_services s ON s.service_id = ts.service_id", Timestamp.from(NOW));
+            jdbc.update("INSERT INTO bookings_archive SELECT b.id, b.public_uuid, b.client_id, b.timeslot_id, ts.public_uuid, " +
+                    "ts.service_id, ts.public_uuid, 'yoga', ts.start_time, ts.end_time, b.status, b.party_size, b.price_paid, " +
+                    "b.notes, b.created_at, b.updated_at, ? FROM bookings b JOIN time_slots ts ON ts.id = b.timeslot_id " +
+                    "WHERE b.id = ?", Timestamp.from(NOW), completed);
+        });
+        insertBooking(yoga, BookingStatus.NO_SHOW);
+
+        archive(List.of(yoga));
+        ArchivedRows again = archive(List.of(yoga));
+
+        assertEquals(ArchivedRows.NONE, again);
+        assertEquals(1, count("time_slots_archive"));
+        assertEquals(2, count("bookings_archive"));
+        assertEquals(0, count("bookings"));
+        assertEquals(0, count("time_slots"));
+    }
+
+    @Test
+    @DisplayName("Un slot con un booking que no llegó a copiarse se queda en la tabla viva: el CASCADE no se lo lleva")
+    void slotKeepingAnUncopiedBookingIsNotDeleted() {
+        long yoga = insertSlot(0);
+        long uncopied = insertBooking(yoga, BookingStatus.COMPLETED);
+        // Choque de public_uuid en el archivo: INSERT IGNORE se salta ese booking
+        byte[] clash = jdbc.queryForObject("SELECT public_uuid FROM bookings WHERE id = ?", byte[].class, uncopied);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbc.update("INSERT INTO time_slots_archive (id, public_uuid, service_id, service_uuid, service_name, provider_id, " +
+                    "start_time, end_time, capacity, status, archived_at) VALUES (999, ?, ?, ?, 'old', ?, ?, ?, 10, 'AVAILABLE', ?)",
+                    uuid(), serviceId, uuid(), clientId, Timestamp.from(START), Timestamp.from(START), Timestamp.from(NOW));
+            jdbc.update("INSERT INTO bookings_archive (id, public_uuid, client_id, timeslot_id, timeslot_uuid, service_id, " +
+                    "service_uuid, service_name, start_time, end_time, status, created_at, updated_at, archived_at) " +
+                    "VALUES (999, ?, ?, 999, ?, ?, ?, 'old', ?, ?, 'COMPLETED', ?, ?, ?)",
+                    clash, clientId, uuid(), serviceId, uuid(), Timestamp.from(START), Timestamp.from(START),
+                    Timestamp.from(START), Timestamp.from(START), Timestamp.from(NOW));
+        });
+
+        ArchivedRows rows = archive(List.of(yoga));
+
+        assertEquals(new ArchivedRows(0, 0), rows);
+        assertEquals(1, count("time_slots"));
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM bookings WHERE id = ?", Integer.class, uncopied));
+    }
+
+    @Test
+    @DisplayName("Los slots con bookings que aún ocupan plaza se detectan; los cerrados o cancelados no")
+    void findsUnsettledTimeSlots() {
+        long confirmed = insertSlot(0);
+        long pending = insertSlot(1);
+        long settled = insertSlot(2);
+        long empty = insertSlot(3);
+        insertBooking(confirmed, BookingStatus.COMPLETED);
+        insertBooking(confirmed, BookingStatus.CONFIRMED);
+        insertBooking(pending, BookingStatus.PENDING_PAYMENT);
+        insertBooking(settled, BookingStatus.COMPLETED);
+        insertBooking(settled, BookingStatus.HOLD_EXPIRED);
+
+        Set<Long> unsettled = transactionTemplate.execute(status ->
+                archive.findUnsettledTimeSlots(List.of(confirmed, pending, settled, empty)));
+        List<TimeSlotCursor> keys = transactionTemplate.execute(status ->
+                archive.findArchivableTimeSlots(NOW, JobShard.ALL, null, 10));
+
+        assertEquals(Set.of(confirmed, pending), unsettled);
+        assertEquals(List.of(confirmed, pending, settled, empty), keys.stream().map(TimeSlotCursor::id).toList());
+    }
+
+    private ArchivedRows archive(List<Long> timeSlotIds) {
+        return transactionTemplate.execute(status -> archive.archiveTimeSlots(timeSlotIds, NOW));
+    }
+
+    private long insertUser(String username) {
+        jdbc.update("INSERT INTO usuarios (public_uuid, username) VALUES (?, ?)", uuid(), username);
+        return jdbc.queryForObject("SELECT id FROM usuarios WHERE username = ?", Long.class, username);
+    }
+
+    private long insertSlot(int hour) {
+        Instant start = START.plus(Duration.ofHours(hour));
+        jdbc.update("INSERT INTO time_slots (public_uuid, service_id, provider_id, start_time, end_time, capacity, price, status) " +
+                        "SELECT ?, service_id, owner_id, ?, ?, 10, 10, 'AVAILABLE' FROM offered_services WHERE service_id = ?",
+                uuid(), Timestamp.from(start), Timestamp.from(start.plus(Duration.ofMinutes(45))), serviceId);
+        return jdbc.queryForObject("SELECT MAX(id) FROM time_slots", Long.class);
+    }
+
+    private long insertBooking(long timeSlotId, BookingStatus status) {
+        // Cada booking de un cliente distinto, por la clave única (cliente, slot) de la tabla real
+        long client = insertUser("client-" + UUID.randomUUID());
+        jdbc.update("INSERT INTO bookings (public_uuid, timeslot_id, client_id, status, price_paid, created_at, updated_at) " +
+                        "VALUES (?, ?, ?, ?, 10, ?, ?)",
+                uuid(), timeSlotId, client, status.name(), Timestamp.from(START), Timestamp.from(START));
+        return jdbc.queryForObject("SELECT MAX(id) FROM bookings", Long.class);
+    }
+
+    private int count(String table) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private static byte[] uuid() {
+        UUID uuid = UUID.randomUUID();
+        return ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).array();
+    }
+
+    // Sin @Configuration: el escaneo de componentes de ReservasApplication no debe recogerla
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EnableJpaRepositories(basePackageClasses = TimeSlotJpaRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {TimeSlotJpaRepository.class,
+                    TimeSlotArchiveJpaRepository.class, BookingJpaRepository.class, BookingArchiveJpaRepository.class}))
+    @Import({ArchivePersistenceAdapter.class, ArchiveMapperImpl.class, UserMapperImpl.class})
+    static class PersistenceConfig {
+
+        @Bean
+        PersistenceManagedTypes persistenceManagedTypes() {
+            return PersistenceManagedTypes.of(TimeSlotEntity.class.getName(), TimeSlotArchiveEntity.class.getName(),
+                    BookingEntity.class.getName(), BookingArchiveEntity.class.getName(),
+                    OfferedServiceEntity.class.getName(), UserEntity.class.getName());
+        }
+    }
+}
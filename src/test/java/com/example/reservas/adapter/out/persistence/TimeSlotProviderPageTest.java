@@ -0,0 +1,222 @@
+package com.example.reservas.adapter.out.persistence;
+
+import domain.model.OfferedService;
+import domain.model.Role;
+import domain.model.Slice;
+import domain.model.TimeSlot;
+import domain.model.TimeSlotCursor;
+import domain.model.TimeSlotFilter;
+import domain.model.TimeSlotStatus;
+import domain.model.User;
+import domain.port.out.TimeSlotPersistencePort;
+import infrastructure.adapter.out.persistence.entity.BookingEntity;
+import infrastructure.adapter.out.persistence.entity.OfferedServiceEntity;
+import infrastructure.adapter.out.persistence.entity.TimeSlotEntity;
+import infrastructure.adapter.out.persistence.entity.UserEntity;
+import infrastructure.adapter.out.persistence.mapper.OfferedServiceMapperImpl;
+import infrastructure.adapter.out.persistence.mapper.TimeSlotMapperImpl;
+import infrastructure.adapter.out.persistence.mapper.UserMapperImpl;
+import infrastructure.adapter.out.persistence.repository.TimeSlotJpaRepository;
+import infrastructure.adapter.out.persistence.repository.TimeSlotPersistenceAdapter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Listado paginado de los slots de un proveedor contra H2 (modo MySQL), con las consultas reales del repositorio.
+ */
+class TimeSlotProviderPageTest {
+
+    private static final Instant START = Instant.parse("2026-01-05T09:00:00Z");
+
+    private static ConfigurableApplicationContext context;
+    private static TimeSlotPersistencePort timeSlots;
+    private static Statistics statistics;
+    private static User provider;
+    private static final List<TimeSlot> providerSlots = new ArrayList<>();
+
+    @BeforeAll
+    static void startContext() {
+        context = new SpringApplicationBuilder(PersistenceConfig.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:provider-pages;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off");
+        timeSlots = context.getBean(TimeSlotPersistencePort.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        provider = persistUser("provider");
+        User otherProvider = persistUser("other");
+        List<OfferedService> services = List.of(persistService(provider, "yoga"), persistService(provider, "pilates"),
+                persistService(provider, "spinning"));
+        OfferedService otherService = persistService(otherProvider, "boxing");
+
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int hour = 0; hour < 12; hour++) {
+                // Los tres servicios a la misma hora: el id desempata
+                for (OfferedService service : services) {
+                    TimeSlotStatus slotStatus = hour % 5 == 4 ? TimeSlotStatus.CANCELLED : TimeSlotStatus.AVAILABLE;
+                    providerSlots.add(timeSlots.save(slot(service, hour, slotStatus)));
+                }
+                timeSlots.save(slot(otherService, hour, TimeSlotStatus.AVAILABLE));
+            }
+        });
+        providerSlots.sort(Comparator.comparing(TimeSlot::getStartTime).thenComparing(TimeSlot::getId));
+    }
+
+    @AfterAll
+    static void stopContext() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Recorrer todas las páginas devuelve los slots del proveedor en orden, sin repetir ni saltarse ninguno")
+    void walksAllPagesInKeyOrder() {
+        TimeSlotFilter filter = new TimeSlotFilter(EnumSet.of(TimeSlotStatus.AVAILABLE), null, null);
+
+        List<Long> seen = walk(filter, 5);
+
+        List<Long> expected = providerSlots.stream()
+                .filter(slot -> slot.getStatus() == TimeSlotStatus.AVAILABLE)
+                .map(TimeSlot::getId)
+                .toList();
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    @DisplayName("El rango de fechas se aplica en la primera página y en las siguientes")
+    void appliesDateRangeAcrossPages() {
+        Instant from = START.plus(Duration.ofHours(3));
+        Instant to = START.plus(Duration.ofHours(7));
+        TimeSlotFilter filter = new TimeSlotFilter(null, from, to);
+
+        List<Long> seen = walk(filter, 4);
+
+        List<Long> expected = providerSlots.stream()
+                .filter(slot -> !slot.getStartTime().isBefore(from) && slot.getStartTime().isBefore(to))
+                .map(TimeSlot::getId)
+                .toList();
+        assertEquals(12, expected.size());
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    @DisplayName("Cada página es una sola consulta, tenga el proveedor los servicios que tenga")
+    void eachPageIsASingleQuery() {
+        TimeSlotFilter filter = new TimeSlotFilter(null, null, null);
+        Slice<TimeSlot> first = timeSlots.findTimeSlotsByProvider(provider.getUuid(), filter, null, 5);
+        TimeSlot last = first.last();
+
+        statistics.clear();
+        Slice<TimeSlot> next = timeSlots.findTimeSlotsByProvider(provider.getUuid(), filter,
+                new TimeSlotCursor(last.getStartTime(), last.getId()), 5);
+
+        assertEquals(5, next.content().size());
+        assertEquals(1, statistics.getQueryExecutionCount());
+        assertTrue(next.content().stream().allMatch(slot -> slot.getOfferedService().getOwner().getId().equals(provider.getId())));
+    }
+
+    private static List<Long> walk(TimeSlotFilter filter, int pageSize) {
+        List<Long> seen = new ArrayList<>();
+        TimeSlotCursor cursor = null;
+        Slice<TimeSlot> page;
+        do {
+            page = timeSlots.findTimeSlotsByProvider(provider.getUuid(), filter, cursor, pageSize);
+            page.content().forEach(slot -> seen.add(slot.getId()));
+            TimeSlot last = page.last();
+            cursor = last == null ? null : new TimeSlotCursor(last.getStartTime(), last.getId());
+        } while (page.hasNext());
+        return seen;
+    }
+
+    private static TimeSlot slot(OfferedService service, int hour, TimeSlotStatus status) {
+        Instant start = START.plus(Duration.ofHours(hour));
+        return TimeSlot.builder().offeredService(service).startTime(start).endTime(start.plus(Duration.ofMinutes(45)))
+                .capacity(10).price(BigDecimal.TEN).status(status).build();
+    }
+
+    private static User persistUser(String username) {
+        UserEntity user = UserEntity.builder().username(username).email(username + "@example.com").passwordHash("hash")
+                .roles(Set.of(Role.PROVIDER)).active(true).build();
+        persist(user);
+        return User.builder().id(user.getId()).uuid(user.getUuid()).username(username).build();
+    }
+
+    private static OfferedService persistService(User owner, String name) {
+        EntityManager entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            OfferedServiceEntity service = OfferedServiceEntity.builder().name(name)
+                    .owner(entityManager.getReference(UserEntity.class, owner.getId()))
+                    .defaultDuration(Duration.ofMinutes(45)).capacity(10).isActive(true).build();
+            entityManager.persist(service);
+            entityManager.getTransaction().commit();
+            return OfferedService.builder().serviceId(service.getServiceId()).uuid(service.getUuid()).name(name)
+                    .owner(owner).build();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static void persist(Object entity) {
+        EntityManager entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            entityManager.persist(entity);
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    // Sin @Configuration: el escaneo de componentes de ReservasApplication no debe recogerla
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EnableJpaRepositories(basePackageClasses = TimeSlotJpaRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = TimeSlotJpaRepository.class))
+    @Import({TimeSlotPersistenceAdapter.class, TimeSlotMapperImpl.class, OfferedServiceMapperImpl.class, UserMapperImpl.class})
+    static class PersistenceConfig {
+
+        @Bean
+        PersistenceManagedTypes persistenceManagedTypes() {
+            return PersistenceManagedTypes.of(TimeSlotEntity.class.getName(), OfferedServiceEntity.class.getName(),
+                    UserEntity.class.getName(), BookingEntity.class.getName());
+        }
+    }
+}
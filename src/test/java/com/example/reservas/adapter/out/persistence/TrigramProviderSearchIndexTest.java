@@ -0,0 +1,60 @@
+package com.example.reservas.adapter.out.persistence;
+
+import domain.model.Role;
+import domain.model.User;
+import infrastructure.adapter.out.persistence.cache.TrigramProviderSearchIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramProviderSearchIndexTest {
+
+    @Test
+    @DisplayName("Coincidencia exacta, luego prefijo, luego el resto; sin distinguir mayúsculas")
+    void ranksExactThenPrefixThenContains() {
+        TrigramProviderSearchIndex index = new TrigramProviderSearchIndex();
+        index.warmUp(List.of(provider("mi-yoga"), provider("Yoga"), provider("yogaStudio"), provider("pilates")));
+        index.markReady();
+
+        List<String> names = index.search("YOGA", 10).stream().map(User::getUsername).toList();
+
+        assertEquals(List.of("Yoga", "yogaStudio", "mi-yoga"), names);
+        assertTrue(index.search("yogb", 10).isEmpty());
+        assertEquals(1, index.search("yogaStudio", 1).size());
+    }
+
+    @Test
+    @DisplayName("Los cambios se reflejan y la precarga no resucita usuarios eliminados")
+    void updatesAndRemovalsWinOverWarmUp() {
+        TrigramProviderSearchIndex index = new TrigramProviderSearchIndex();
+        User renamed = provider("oldname");
+        User deleted = provider("deleted-one");
+
+        index.remove(deleted.getUuid());
+        index.index(User.builder().uuid(renamed.getUuid()).username("newname").roles(Set.of(Role.PROVIDER)).build());
+        index.warmUp(List.of(renamed, deleted));
+        index.markReady();
+
+        assertTrue(index.search("oldname", 10).isEmpty());
+        assertEquals(1, index.search("newname", 10).size());
+        assertTrue(index.search("deleted", 10).isEmpty());
+        assertNull(index.search("new", 10).get(0).getPasswordHash());
+        assertEquals(1, index.size());
+    }
+
+    private static User provider(String username) {
+        return User.builder()
+                .uuid(UUID.randomUUID())
+                .username(username)
+                .passwordHash("hash")
+                .roles(Set.of(Role.PROVIDER))
+                .build();
+    }
+}
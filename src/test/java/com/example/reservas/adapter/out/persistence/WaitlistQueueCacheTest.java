@@ -0,0 +1,55 @@
+package com.example.reservas.adapter.out.persistence;
+
+import domain.port.out.CacheInvalidationPort;
+import infrastructure.adapter.out.persistence.cache.WaitlistQueueCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class WaitlistQueueCacheTest {
+
+    private final WaitlistQueueCache cache = new WaitlistQueueCache(mock(CacheInvalidationPort.class));
+
+    @Test
+    @DisplayName("La cola hidratada se guarda y recibe las altas y bajas confirmadas después")
+    void hydratedQueueFollowsLaterChanges() {
+        assertEquals(2, cache.position(1L, 20L, () -> List.of(10L, 20L)));
+
+        cache.addAfterCommit(1L, 5L);
+        cache.removeAfterCommit(1L, 10L);
+
+        assertEquals(2, cache.cachedPosition(1L, 20L));
+    }
+
+    @Test
+    @DisplayName("Un alta confirmada mientras se hidrata la cola descarta lo leído: no se guarda una cola sin ella")
+    void changeDuringLoadDiscardsTheSnapshot() {
+        // La lectura no ve la entrada 30, cuyo alta se confirma antes de guardar la cola
+        int position = cache.position(1L, 20L, () -> {
+            cache.addAfterCommit(1L, 30L);
+            return List.of(10L, 20L);
+        });
+
+        assertEquals(2, position);
+        assertNull(cache.cachedPosition(1L, 30L));
+
+        // La siguiente consulta vuelve a leer, ya con la entrada
+        assertEquals(3, cache.position(1L, 30L, () -> List.of(10L, 20L, 30L)));
+        assertEquals(3, cache.cachedPosition(1L, 30L));
+    }
+
+    @Test
+    @DisplayName("Un aviso de otro nodo durante la hidratación también descarta lo leído")
+    void evictionDuringLoadDiscardsTheSnapshot() {
+        cache.position(1L, 10L, () -> {
+            cache.evict(1L);
+            return List.of(10L);
+        });
+
+        assertNull(cache.cachedPosition(1L, 10L));
+    }
+}
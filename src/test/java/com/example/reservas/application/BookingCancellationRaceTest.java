@@ -0,0 +1,175 @@
+package com.example.reservas.application;
+
+import application.service.BookingServiceImpl;
+import application.service.ProviderStatsProjector;
+import application.service.SeatAllocator;
+import application.service.SeatHoldExpiryJob;
+import domain.event.BookingStatusChangedEvent;
+import domain.exception.BookingNotCancellableException;
+import domain.model.Booking;
+import domain.model.BookingStatus;
+import domain.model.OfferedService;
+import domain.model.ServiceWeeklyStats;
+import domain.model.ServiceWeeklyStatsDelta;
+import domain.model.TimeSlot;
+import domain.model.TimeSlotStatus;
+import domain.model.User;
+import domain.port.out.BookingPersistencePort;
+import domain.port.out.ProviderStatsPersistencePort;
+import domain.port.out.TimeSlotPersistencePort;
+import domain.port.out.UserPersistencePort;
+import domain.port.out.WaitlistPersistencePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Cancelaciones que compiten con otra cancelación o con la caducidad de la retención, con las estadísticas
+ * del proveedor proyectadas a partir de los eventos que publica cada una.
+ */
+class BookingCancellationRaceTest {
+
+    private final User provider = User.builder().id(1L).uuid(UUID.randomUUID()).build();
+    private final User client = User.builder().id(7L).uuid(UUID.randomUUID()).build();
+    private final TimeSlot timeSlot = TimeSlot.builder().id(1L).uuid(UUID.randomUUID())
+            .offeredService(OfferedService.builder().serviceId(1L).owner(provider).build())
+            .startTime(Instant.now().plus(Duration.ofDays(1))).capacity(10).price(BigDecimal.TEN)
+            .status(TimeSlotStatus.AVAILABLE).build();
+    private final UUID bookingUuid = UUID.randomUUID();
+
+    // Fila del booking en la "BD": el UPDATE condicional es un compareAndSet sobre su estado
+    private final AtomicReference<BookingStatus> row = new AtomicReference<>();
+    private final BookingPersistencePort bookings = mock(BookingPersistencePort.class);
+    private final SeatAllocator seatAllocator = mock(SeatAllocator.class);
+    private final InMemoryStats stats = new InMemoryStats();
+
+    private BookingServiceImpl bookingService;
+    private ProviderStatsProjector projector;
+
+    @BeforeEach
+    void setUp() {
+        when(bookings.cancel(any(), any(), any())).thenAnswer(invocation ->
+                row.compareAndSet(invocation.getArgument(1), invocation.<Booking>getArgument(0).getStatus()));
+        projector = new ProviderStatsProjector(stats);
+        ApplicationEventPublisher publisher = event -> projector.onBookingStatusChanged((BookingStatusChangedEvent) event);
+        bookingService = new BookingServiceImpl(bookings, mock(TimeSlotPersistencePort.class), mock(UserPersistencePort.class),
+                mock(WaitlistPersistencePort.class), seatAllocator, mock(SeatHoldExpiryJob.class), publisher);
+    }
+
+    @Test
+    @DisplayName("Dos cancelaciones a la vez del mismo booking: una gana, y la cancelación y sus plazas se cuentan una vez")
+    void concurrentCancelsCountOnce() throws Exception {
+        for (int round = 0; round < 100; round++) {
+            stats.reset();
+            book(BookingStatus.CONFIRMED, null);
+            // Las dos leen el booking CONFIRMED antes de que ninguna lo cancele
+            CyclicBarrier bothRead = new CyclicBarrier(2);
+            doAnswer(invocation -> {
+                Optional<Booking> read = Optional.of(booking(row.get(), null));
+                bothRead.await(5, TimeUnit.SECONDS);
+                return read;
+            }).when(bookings).findByUuid(bookingUuid);
+
+            List<Future<Boolean>> cancels = new ArrayList<>();
+            try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+                for (int i = 0; i < 2; i++) {
+                    cancels.add(executor.submit(() -> {
+                        try {
+                            bookingService.cancelMyBooking(bookingUuid);
+                            return true;
+                        } catch (BookingNotCancellableException ex) {
+                            return false;
+                        }
+                    }));
+                }
+                int succeeded = 0;
+                for (Future<Boolean> cancel : cancels) {
+                    succeeded += cancel.get() ? 1 : 0;
+                }
+                assertEquals(1, succeeded);
+            }
+
+            assertEquals(BookingStatus.CANCELLED_BY_CLIENT, row.get());
+            assertEquals(0, stats.total().bookedSeats());
+            assertEquals(0, BigDecimal.ZERO.compareTo(stats.total().revenue()));
+            assertEquals(1, stats.total().cancellations());
+            verify(seatAllocator, times(round + 1)).reallocateFreedSeats(timeSlot);
+        }
+    }
+
+    @Test
+    @DisplayName("Si la retención caduca entre la lectura y la cancelación, la cancelación no pisa su estado ni cuenta nada")
+    void cancelLosingToHoldExpiryChangesNothing() {
+        Instant expiresAt = Instant.now().plus(Duration.ofMinutes(5));
+        book(BookingStatus.PENDING_PAYMENT, expiresAt);
+        ServiceWeeklyStatsDelta before = stats.total();
+        when(bookings.findByUuid(bookingUuid)).thenAnswer(invocation -> {
+            Optional<Booking> read = Optional.of(booking(row.get(), expiresAt));
+            // El barrido la caduca justo después de leerla
+            row.set(BookingStatus.HOLD_EXPIRED);
+            return read;
+        });
+
+        assertThrows(BookingNotCancellableException.class, () -> bookingService.cancelMyBooking(bookingUuid));
+
+        assertEquals(BookingStatus.HOLD_EXPIRED, row.get());
+        assertEquals(before, stats.total());
+        verify(seatAllocator, never()).reallocateFreedSeats(any());
+    }
+
+    private void book(BookingStatus status, Instant holdExpiresAt) {
+        row.set(status);
+        projector.onBookingStatusChanged(new BookingStatusChangedEvent(booking(status, holdExpiresAt), null));
+    }
+
+    private Booking booking(BookingStatus status, Instant holdExpiresAt) {
+        return Booking.builder().id(1L).uuid(bookingUuid).timeSlot(timeSlot).client(client).status(status)
+                .partySize(2).pricePaid(new BigDecimal("20")).holdExpiresAt(holdExpiresAt).build();
+    }
+
+    /**
+     * Suma todas las variaciones en una sola fila (solo hay un servicio y una semana).
+     */
+    private static final class InMemoryStats implements ProviderStatsPersistencePort {
+
+        private final AtomicReference<ServiceWeeklyStatsDelta> total = new AtomicReference<>(ServiceWeeklyStatsDelta.ZERO);
+
+        ServiceWeeklyStatsDelta total() {
+            return total.get();
+        }
+
+        void reset() {
+            total.set(ServiceWeeklyStatsDelta.ZERO);
+        }
+
+        @Override
+        public void applyDelta(Long serviceId, Long providerId, LocalDate weekStart, ServiceWeeklyStatsDelta delta) {
+            total.updateAndGet(current -> current.plus(delta));
+        }
+
+        @Override
+        public List<ServiceWeeklyStats> findByProvider(Long providerId, LocalDate fromWeek, LocalDate toWeek) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.example.reservas.application;
+
+import application.service.BookingCompletionJob;
+import application.service.LeasedJobRunner;
+import domain.event.BookingsSettledEvent;
+import domain.model.BookingStatus;
+import domain.model.BookingStatusCount;
+import domain.model.JobCheckpoint;
+import domain.model.JobLease;
+import domain.model.JobShard;
+import domain.model.OfferedService;
+import domain.model.TimeSlot;
+import domain.model.TimeSlotEndCursor;
+import domain.model.TimeSlotStatus;
+import domain.port.out.BookingPersistencePort;
+import domain.port.out.JobCheckpointPersistencePort;
+import domain.port.out.JobLeasePersistencePort;
+import domain.port.out.TimeSlotPersistencePort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Cierre de bookings de slots terminados sobre tablas simuladas en memoria.
+ */
+class BookingCompletionJobTest {
+
+    private static final Comparator<TimeSlot> END_ORDER = Comparator.comparing(TimeSlot::getEndTime)
+            .thenComparing(TimeSlot::getId);
+
+    private final Instant now = Instant.now();
+    private final List<TimeSlot> slots = new ArrayList<>();
+    private final List<FakeBooking> bookings = new ArrayList<>();
+    private final List<Long> visited = new ArrayList<>();
+    private final List<BookingsSettledEvent> events = new ArrayList<>();
+    private final Map<String, JobCheckpoint> checkpoints = new HashMap<>();
+    private final TimeSlotPersistencePort timeSlotPersistencePort = mock(TimeSlotPersistencePort.class);
+    private final BookingPersistencePort bookingPersistencePort = mock(BookingPersistencePort.class);
+    // El settle de un lote con este slot falla una vez (antes de cambiar nada)
+    private Long failOnSlot;
+
+    @BeforeEach
+    void setUp() {
+        when(timeSlotPersistencePort.findEndedBefore(any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            Instant until = invocation.getArgument(0);
+            JobShard shard = invocation.getArgument(1);
+            TimeSlotEndCursor after = invocation.getArgument(2);
+            List<TimeSlot> page = slots.stream()
+                    .filter(slot -> shard.contains(slot.getId()) && slot.getEndTime().isBefore(until))
+                    .filter(slot -> after == null || END_ORDER.compare(slot, endKey(after)) > 0)
+                    .sorted(END_ORDER)
+                    .limit(invocation.<Integer>getArgument(3))
+                    .toList();
+            page.forEach(slot -> visited.add(slot.getId()));
+            return page;
+        });
+        when(bookingPersistencePort.lockSeatHoldingByTimeSlots(any())).thenAnswer(invocation -> {
+            Collection<Long> slotIds = invocation.getArgument(0);
+            return bookings.stream()
+                    .filter(booking -> slotIds.contains(booking.timeSlotId) && booking.status.holdsSeat())
+                    .collect(Collectors.groupingBy(booking -> List.of(booking.timeSlotId, booking.status)))
+                    .values().stream()
+                    .map(group -> new BookingStatusCount(group.get(0).timeSlotId, group.get(0).status, group.size(),
+                            group.size(), BigDecimal.TEN.multiply(BigDecimal.valueOf(group.size()))))
+                    .toList();
+        });
+        when(bookingPersistencePort.settle(any(), any(), any(), any())).thenAnswer(invocation -> {
+            Collection<Long> slotIds = invocation.getArgument(0);
+            BookingStatus from = invocation.getArgument(1);
+            BookingStatus to = invocation.getArgument(2);
+            if (failOnSlot != null && slotIds.contains(failOnSlot)) {
+                failOnSlot = null;
+                throw new IllegalStateException("Simulated failure");
+            }
+            int changed = 0;
+            for (FakeBooking booking : bookings) {
+                if (slotIds.contains(booking.timeSlotId) && booking.status == from) {
+                    booking.status = to;
+                    changed++;
+                }
+            }
+            return changed;
+        });
+    }
+
+    @Test
+    @DisplayName("La marca queda en el último slot terminado y la siguiente ejecución solo lee los que han terminado después")
+    void watermarkSkipsSlotsAlreadySettled() {
+        for (int i = 0; i < 10; i++) {
+            TimeSlot slot = slot(now.minus(Duration.ofHours(3)).plus(Duration.ofMinutes(i)));
+            book(slot, BookingStatus.CONFIRMED);
+            book(slot, BookingStatus.AWAITING_CONFIRMATION);
+        }
+        TimeSlot later = slot(now.plus(Duration.ofMinutes(30)));
+        book(later, BookingStatus.CONFIRMED);
+        BookingCompletionJob job = newJob(1, 4);
+
+        job.settleEndedTimeSlots();
+
+        assertEquals(20, events.size());
+        assertEquals(10, visited.size());
+        assertEquals(BookingStatus.CONFIRMED, bookingsOf(later).get(0).status);
+        TimeSlot lastEnded = slots.get(9);
+        assertEquals(TimeSlotEndCursor.after(lastEnded),
+                new TimeSlotEndCursor(checkpoint("booking-completion").watermarkTime(), checkpoint("booking-completion").watermarkId()));
+
+        // Una hora después también ha terminado el último slot: solo se lee ese
+        visited.clear();
+        ReflectionTestUtils.setField(job, "afterEnd", Duration.ofHours(-1));
+        job.settleEndedTimeSlots();
+
+        assertEquals(List.of(later.getId()), visited);
+        assertEquals(BookingStatus.COMPLETED, bookingsOf(later).get(0).status);
+        assertEquals(21, events.size());
+    }
+
+    @Test
+    @DisplayName("Cada parte recorre solo sus slots y guarda su propia marca; entre todas cubren cada slot una vez")
+    void shardsKeepTheirOwnWatermarks() {
+        for (int i = 0; i < 12; i++) {
+            book(slot(now.minus(Duration.ofHours(3)).plus(Duration.ofMinutes(i))), BookingStatus.CONFIRMED);
+        }
+
+        newJob(3, 2).settleEndedTimeSlots();
+
+        assertEquals(12, visited.size());
+        assertEquals(12, visited.stream().distinct().count());
+        assertTrue(bookings.stream().allMatch(booking -> booking.status == BookingStatus.COMPLETED));
+        for (int index = 0; index < 3; index++) {
+            JobShard shard = new JobShard(index, 3);
+            TimeSlot last = slots.stream().filter(slot -> shard.contains(slot.getId())).max(END_ORDER).orElseThrow();
+            assertEquals(last.getId(), checkpoint(shard.name("booking-completion")).watermarkId());
+        }
+        assertNull(checkpoints.get("booking-completion"));
+    }
+
+    @Test
+    @DisplayName("Repetir lotes (tras un fallo o sin marca) no vuelve a cerrar ni a contar bookings ya cerrados")
+    void rerunsDoNotSettleTwice() {
+        for (int i = 0; i < 6; i++) {
+            TimeSlot slot = slot(now.minus(Duration.ofHours(3)).plus(Duration.ofMinutes(i)));
+            book(slot, BookingStatus.CONFIRMED);
+            book(slot, BookingStatus.PENDING_PAYMENT);
+        }
+        BookingCompletionJob job = newJob(1, 2);
+        // El segundo lote falla antes de cambiar nada: su transacción se deshace y la marca se queda en el primero
+        failOnSlot = slots.get(2).getId();
+
+        job.settleEndedTimeSlots();
+        assertEquals(slots.get(1).getId(), checkpoint("booking-completion").watermarkId());
+        assertEquals(4, events.size());
+
+        job.settleEndedTimeSlots();
+        assertEquals(12, events.size());
+        assertTrue(bookings.stream().noneMatch(booking -> booking.status.holdsSeat()));
+
+        // Sin marca se vuelve a recorrer todo, pero ya no queda nada que cerrar
+        checkpoints.clear();
+        job.settleEndedTimeSlots();
+        assertEquals(12, events.size());
+        assertEquals(6, bookings.stream().filter(booking -> booking.status == BookingStatus.COMPLETED).count());
+        assertEquals(6, bookings.stream().filter(booking -> booking.status == BookingStatus.HOLD_EXPIRED).count());
+    }
+
+    @Test
+    @DisplayName("Los bookings de un slot cancelado no se dan por asistidos: quedan cancelados por el proveedor")
+    void cancelledSlotsSettleToProviderCancellation() {
+        TimeSlot held = slot(now.minus(Duration.ofHours(3)));
+        book(held, BookingStatus.CONFIRMED);
+        TimeSlot cancelled = slot(now.minus(Duration.ofHours(2)));
+        cancelled.setStatus(TimeSlotStatus.CANCELLED);
+        book(cancelled, BookingStatus.CONFIRMED);
+        book(cancelled, BookingStatus.AWAITING_CONFIRMATION);
+        book(cancelled, BookingStatus.PENDING_PAYMENT);
+
+        newJob(1, 10).settleEndedTimeSlots();
+
+        assertEquals(BookingStatus.COMPLETED, bookingsOf(held).get(0).status);
+        assertEquals(List.of(BookingStatus.CANCELLED_BY_PROVIDER, BookingStatus.CANCELLED_BY_PROVIDER, BookingStatus.HOLD_EXPIRED),
+                bookingsOf(cancelled).stream().map(booking -> booking.status).toList());
+        assertTrue(events.stream().filter(event -> event.timeSlot() == cancelled)
+                .noneMatch(event -> event.newStatus() == BookingStatus.COMPLETED || event.newStatus() == BookingStatus.NO_SHOW));
+        assertEquals(cancelled.getId(), checkpoint("booking-completion").watermarkId());
+    }
+
+    private BookingCompletionJob newJob(int shards, int batchSize) {
+        LeasedJobRunner runner = new LeasedJobRunner(new SingleNodeLeases(),
+                new TransactionTemplate(new NoOpTransactionManager()), "node-1", Duration.ofMinutes(1));
+        ApplicationEventPublisher publisher = event -> events.add((BookingsSettledEvent) event);
+        BookingCompletionJob job = new BookingCompletionJob(timeSlotPersistencePort, bookingPersistencePort,
+                new FakeCheckpoints(checkpoints), runner, publisher);
+        ReflectionTestUtils.setField(job, "afterEnd", Duration.ofHours(1));
+        ReflectionTestUtils.setField(job, "batchSize", batchSize);
+        ReflectionTestUtils.setField(job, "maxBatchesPerRun", 100);
+        ReflectionTestUtils.setField(job, "shards", shards);
+        return job;
+    }
+
+    private TimeSlot slot(Instant endTime) {
+        long id = slots.size() + 1;
+        TimeSlot slot = TimeSlot.builder().id(id).startTime(endTime.minus(Duration.ofMinutes(45))).endTime(endTime)
+                .offeredService(OfferedService.builder().serviceId(1L).build()).capacity(10).build();
+        slots.add(slot);
+        return slot;
+    }
+
+    private void book(TimeSlot slot, BookingStatus status) {
+        bookings.add(new FakeBooking(slot.getId(), status));
+    }
+
+    private List<FakeBooking> bookingsOf(TimeSlot slot) {
+        return bookings.stream().filter(booking -> booking.timeSlotId.equals(slot.getId())).toList();
+    }
+
+    private JobCheckpoint checkpoint(String name) {
+        JobCheckpoint checkpoint = checkpoints.get(name);
+        assertNotNull(checkpoint, "Sin marca para " + name);
+        return checkpoint;
+    }
+
+    private static TimeSlot endKey(TimeSlotEndCursor cursor) {
+        return TimeSlot.builder().id(cursor.id()).endTime(cursor.endTime()).build();
+    }
+
+    private static final class FakeBooking {
+
+        private final Long timeSlotId;
+        private BookingStatus status;
+
+        private FakeBooking(Long timeSlotId, BookingStatus status) {
+            this.timeSlotId = timeSlotId;
+            this.status = status;
+        }
+    }
+
+    private static final class FakeCheckpoints implements JobCheckpointPersistencePort {
+
+        private final Map<String, JobCheckpoint> rows;
+
+        private FakeCheckpoints(Map<String, JobCheckpoint> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public Optional<JobCheckpoint> findByJobName(String jobName) {
+            return Optional.ofNullable(rows.get(jobName));
+        }
+
+        @Override
+        public void save(JobCheckpoint checkpoint) {
+            rows.put(checkpoint.jobName(), checkpoint);
+        }
+    }
+
+    /**
+     * Un único nodo: el lease siempre está libre.
+     */
+    private static final class SingleNodeLeases implements JobLeasePersistencePort {
+
+        @Override
+        public Optional<JobLease> tryAcquire(String name, String owner, Instant now, Instant expiresAt) {
+            return Optional.of(new JobLease(name, owner, 1, expiresAt));
+        }
+
+        @Override
+        public boolean renew(JobLease lease, Instant expiresAt) {
+            return true;
+        }
+
+        @Override
+        public void release(JobLease lease) {
+        }
+    }
+
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
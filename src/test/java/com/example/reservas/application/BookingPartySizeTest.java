@@ -0,0 +1,207 @@
+package com.example.reservas.application;
+
+import application.service.BookingServiceImpl;
+import application.service.SeatAllocator;
+import application.service.SeatHoldExpiryJob;
+import domain.exception.ServiceNotAvailableException;
+import domain.model.BatchBookingMode;
+import domain.model.BatchBookingOutcome;
+import domain.model.BatchBookingResult;
+import domain.model.Booking;
+import domain.model.BookingStatus;
+import domain.model.OfferedService;
+import domain.model.TimeSlot;
+import domain.model.TimeSlotStatus;
+import domain.model.User;
+import domain.model.WaitlistEntry;
+import domain.port.out.BookingPersistencePort;
+import domain.port.out.TimeSlotPersistencePort;
+import domain.port.out.UserPersistencePort;
+import domain.port.out.WaitlistPersistencePort;
+import infrastructure.adapter.in.web.security.SpringSecurityUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Reservas de grupo (partySize mayor que 1): cuántas plazas se piden al contador, el precio,
+ * y cómo se reparten las plazas que deja libres un grupo.
+ */
+class BookingPartySizeTest {
+
+    private final User provider = User.builder().id(1L).uuid(UUID.randomUUID()).build();
+    private final User client = User.builder().id(7L).uuid(UUID.randomUUID()).build();
+    private final TimeSlot timeSlot = slot(1L);
+
+    private final BookingPersistencePort bookings = mock(BookingPersistencePort.class);
+    private final TimeSlotPersistencePort timeSlots = mock(TimeSlotPersistencePort.class);
+    private final WaitlistPersistencePort waitlist = mock(WaitlistPersistencePort.class);
+    private final SeatAllocator seatAllocator = mock(SeatAllocator.class);
+
+    private BookingServiceImpl bookingService;
+
+    @BeforeEach
+    void setUp() {
+        UserPersistencePort users = mock(UserPersistencePort.class);
+        when(users.findByUuid(client.getUuid())).thenReturn(Optional.of(client));
+        when(timeSlots.findByUuid(timeSlot.getUuid())).thenReturn(Optional.of(timeSlot));
+        when(bookings.findByClientAndTimeSlot(any(), any())).thenReturn(Optional.empty());
+        when(bookings.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(bookings.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        bookingService = new BookingServiceImpl(bookings, timeSlots, users, waitlist, seatAllocator,
+                mock(SeatHoldExpiryJob.class), mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(bookingService, "holdTtl", Duration.ofMinutes(5));
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(new SpringSecurityUser(client), null, List.of()));
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Un grupo pide todas sus plazas en una sola reclamación y paga el precio de cada una")
+    void partyClaimsAllItsSeatsAtOnce() {
+        when(timeSlots.claimSeats(anyCollection(), anyInt())).thenReturn(1);
+
+        Booking booking = bookingService.createBooking(timeSlot.getUuid(), 3, "familia");
+
+        verify(timeSlots).claimSeats(List.of(timeSlot.getId()), 3);
+        verify(bookings).save(booking);
+        assertEquals(3, booking.getPartySize());
+        assertEquals(0, new BigDecimal("30").compareTo(booking.getPricePaid()));
+    }
+
+    @Test
+    @DisplayName("Una retención de grupo ocupa también todas sus plazas")
+    void partyHoldClaimsAllItsSeats() {
+        when(timeSlots.claimSeats(anyCollection(), anyInt())).thenReturn(1);
+
+        Booking hold = bookingService.holdSeat(timeSlot.getUuid(), 4, null);
+
+        verify(timeSlots).claimSeats(List.of(timeSlot.getId()), 4);
+        assertEquals(BookingStatus.PENDING_PAYMENT, hold.getStatus());
+        assertEquals(4, hold.getPartySize());
+    }
+
+    @Test
+    @DisplayName("Si el grupo no cabe entero no se crea nada, y el error dice cuántas plazas faltaban")
+    void partyThatDoesNotFitIsRejected() {
+        when(timeSlots.claimSeats(anyCollection(), anyInt())).thenReturn(0);
+
+        ServiceNotAvailableException ex = assertThrows(ServiceNotAvailableException.class,
+                () -> bookingService.createBooking(timeSlot.getUuid(), 3, null));
+
+        assertTrue(ex.getMessage().contains("3 free seats"));
+        verify(bookings, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Un tamaño de grupo menor que 1 se rechaza antes de tocar el contador")
+    void invalidPartySizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> bookingService.createBooking(timeSlot.getUuid(), 0, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.createBookings(List.of(timeSlot.getUuid()), -1, null, BatchBookingMode.BEST_EFFORT));
+        verify(timeSlots, never()).claimSeats(anyCollection(), anyInt());
+    }
+
+    @Test
+    @DisplayName("En un lote, el grupo solo se reserva en los slots con plazas para todos")
+    void batchBooksOnlySlotsWithRoomForTheParty() {
+        TimeSlot roomy = timeSlot;
+        TimeSlot tight = slot(2L);
+        when(timeSlots.findAllByUuids(any())).thenReturn(List.of(roomy, tight));
+        when(bookings.findByClientAndTimeSlots(any(), any())).thenReturn(List.of());
+        when(timeSlots.lockFreeSeats(any())).thenReturn(Map.of(roomy.getId(), 2, tight.getId(), 1));
+        when(timeSlots.claimSeats(anyCollection(), anyInt())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        BatchBookingResult result = bookingService.createBookings(List.of(roomy.getUuid(), tight.getUuid()), 2, null,
+                BatchBookingMode.BEST_EFFORT);
+
+        verify(timeSlots).claimSeats(List.of(roomy.getId()), 2);
+        assertEquals(List.of(BatchBookingOutcome.BOOKED, BatchBookingOutcome.FULL),
+                result.items().stream().map(BatchBookingResult.Item::outcome).toList());
+        assertEquals(2, result.bookings().get(0).getPartySize());
+        assertEquals(0, new BigDecimal("20").compareTo(result.bookings().get(0).getPricePaid()));
+    }
+
+    @Test
+    @DisplayName("Las plazas de un grupo cancelado pasan a la lista de espera, una por entrada")
+    void cancelledPartyPromotesOneWaiterPerSeat() {
+        List<WaitlistEntry> entries = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            entries.add(WaitlistEntry.builder().id(id).uuid(UUID.randomUUID()).timeSlot(timeSlot)
+                    .client(User.builder().id(100 + id).uuid(UUID.randomUUID()).build()).build());
+        }
+        when(waitlist.findNextWaiting(any(), any())).thenAnswer(invocation -> {
+            Long afterId = invocation.getArgument(1);
+            return entries.stream().filter(entry -> afterId == null || entry.getId() > afterId).findFirst();
+        });
+        when(waitlist.markPromoted(any())).thenReturn(true);
+        when(timeSlots.claimSeats(anyCollection(), anyInt())).thenReturn(1);
+        // Tras cancelar el grupo de tres quedan 7 de 10 plazas ocupadas
+        when(timeSlots.recountBookedSeats(eq(timeSlot.getId()), any())).thenReturn(7);
+        List<Booking> promoted = new ArrayList<>();
+        when(bookings.save(any())).thenAnswer(invocation -> {
+            promoted.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        new SeatAllocator(bookings, timeSlots, waitlist, mock(ApplicationEventPublisher.class)).reallocateFreedSeats(timeSlot);
+
+        assertEquals(3, promoted.size());
+        assertEquals(List.of(101L, 102L, 103L), promoted.stream().map(booking -> booking.getClient().getId()).toList());
+        assertTrue(promoted.stream().allMatch(booking -> booking.getPartySize() == 1
+                && BigDecimal.TEN.compareTo(booking.getPricePaid()) == 0));
+        verify(timeSlots, times(3)).claimSeats(List.of(timeSlot.getId()), 1);
+        verify(waitlist, never()).markPromoted(entries.get(3));
+    }
+
+    @Test
+    @DisplayName("Si el promocionado tenía una retención de grupo caducada, se reabre como una sola plaza")
+    void promotionReopensExpiredPartyHoldAsOneSeat() {
+        WaitlistEntry entry = WaitlistEntry.builder().id(1L).uuid(UUID.randomUUID()).timeSlot(timeSlot).client(client).build();
+        Booking expiredHold = Booking.builder().id(9L).client(client).timeSlot(timeSlot).status(BookingStatus.HOLD_EXPIRED)
+                .partySize(4).pricePaid(new BigDecimal("40")).build();
+        when(waitlist.findNextWaiting(any(), any())).thenReturn(Optional.of(entry), Optional.empty());
+        when(waitlist.markPromoted(entry)).thenReturn(true);
+        when(bookings.findByClientAndTimeSlot(client, timeSlot)).thenReturn(Optional.of(expiredHold));
+        when(timeSlots.claimSeats(anyCollection(), anyInt())).thenReturn(1);
+        when(timeSlots.recountBookedSeats(eq(timeSlot.getId()), any())).thenReturn(9);
+
+        new SeatAllocator(bookings, timeSlots, waitlist, mock(ApplicationEventPublisher.class)).reallocateFreedSeats(timeSlot);
+
+        verify(bookings).save(expiredHold);
+        assertEquals(BookingStatus.CONFIRMED, expiredHold.getStatus());
+        assertEquals(1, expiredHold.getPartySize());
+        assertEquals(0, BigDecimal.TEN.compareTo(expiredHold.getPricePaid()));
+    }
+
+    private TimeSlot slot(Long id) {
+        return TimeSlot.builder().id(id).uuid(UUID.randomUUID())
+                .offeredService(OfferedService.builder().serviceId(1L).owner(provider).build())
+                .startTime(Instant.now().plus(Duration.ofDays(1))).capacity(10).price(BigDecimal.TEN)
+                .status(TimeSlotStatus.AVAILABLE).build();
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.reservas.application;
+
+import application.service.BookingReminderScheduler;
+import application.service.LeasedJobRunner;
+import domain.event.BookingStatusChangedEvent;
+import domain.event.TimeSlotChangedEvent;
+import domain.model.Booking;
+import domain.model.BookingCursor;
+import domain.model.BookingStatus;
+import domain.model.JobCheckpoint;
+import domain.model.JobLease;
+import domain.model.OfferedService;
+import domain.model.Reminder;
+import domain.model.TimeSlot;
+import domain.model.TimeSlotStatus;
+import domain.model.User;
+import domain.port.out.BookingPersistencePort;
+import domain.port.out.JobCheckpointPersistencePort;
+import domain.port.out.JobLeasePersistencePort;
+import infrastructure.adapter.out.notification.InMemoryNotificationAdapter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingReminderSchedulerTest {
+
+    private final Map<String, JobCheckpoint> checkpoints = new HashMap<>();
+    private final JobCheckpointPersistencePort checkpointPort = new JobCheckpointPersistencePort() {
+        @Override
+        public Optional<JobCheckpoint> findByJobName(String jobName) {
+            return Optional.ofNullable(checkpoints.get(jobName));
+        }
+
+        @Override
+        public void save(JobCheckpoint checkpoint) {
+            checkpoints.put(checkpoint.jobName(), checkpoint);
+        }
+    };
+
+    private final InMemoryLeases leases = new InMemoryLeases();
+
+    private Instant now;
+    private List<Booking> bookings;
+
+    @BeforeEach
+    void setUp() {
+        now = Instant.now();
+        bookings = List.of(
+                booking(1L, now.plus(Duration.ofMinutes(59))),                   // recordatorio de 1 h ya vencido
+                booking(2L, now.plus(Duration.ofHours(2))),                      // aún no toca ninguno
+                booking(3L, now.plus(Duration.ofHours(24)).minusSeconds(300))); // recordatorio de 24 h ya vencido
+    }
+
+    @Test
+    @DisplayName("Envía los recordatorios vencidos de la ventana y no los repite tras un reinicio")
+    void sendsDueRemindersOnceAcrossRestarts() {
+        InMemoryNotificationAdapter notifications = new InMemoryNotificationAdapter();
+        BookingReminderScheduler scheduler = newScheduler(notifications);
+        scheduler.refill();
+        scheduler.dispatchDue();
+
+        assertEquals(Set.of("HOUR_BEFORE:1", "DAY_BEFORE:3"), sentKeys(notifications));
+
+        // Otra instancia con las mismas marcas persistidas (reinicio)
+        InMemoryNotificationAdapter afterRestart = new InMemoryNotificationAdapter();
+        BookingReminderScheduler restarted = newScheduler(afterRestart);
+        restarted.refill();
+        restarted.dispatchDue();
+
+        assertTrue(afterRestart.getSent().isEmpty(), "Reenviados: " + sentKeys(afterRestart));
+    }
+
+    @Test
+    @DisplayName("Un booking cancelado después de la precarga no recibe recordatorio")
+    void cancelledBookingIsDroppedFromQueue() {
+        InMemoryNotificationAdapter notifications = new InMemoryNotificationAdapter();
+        BookingReminderScheduler scheduler = newScheduler(notifications);
+        scheduler.refill();
+
+        Booking cancelled = bookings.get(0);
+        cancelled.setStatus(BookingStatus.CANCELLED_BY_CLIENT);
+        scheduler.onBookingStatusChanged(new BookingStatusChangedEvent(cancelled, BookingStatus.CONFIRMED));
+        scheduler.dispatchDue();
+
+        assertEquals(Set.of("DAY_BEFORE:3"), sentKeys(notifications));
+    }
+
+    @Test
+    @DisplayName("Al cancelarse un slot se descartan los recordatorios ya precargados de sus bookings, y no se vuelven a cargar")
+    void cancelledTimeSlotDropsItsReminders() {
+        InMemoryNotificationAdapter notifications = new InMemoryNotificationAdapter();
+        BookingReminderScheduler scheduler = newScheduler(notifications);
+        scheduler.refill();
+
+        TimeSlot cancelled = bookings.get(2).getTimeSlot();
+        cancelled.setStatus(TimeSlotStatus.CANCELLED);
+        scheduler.onTimeSlotChanged(new TimeSlotChangedEvent(cancelled, TimeSlotChangedEvent.Change.CANCELLED));
+        scheduler.refill();
+        scheduler.dispatchDue();
+
+        assertEquals(Set.of("HOUR_BEFORE:1"), sentKeys(notifications));
+    }
+
+    @Test
+    @DisplayName("Varios nodos con la misma ventana precargada: cada recordatorio sale de un solo nodo")
+    void nodesSendEachReminderOnce() {
+        InMemoryNotificationAdapter nodeA = new InMemoryNotificationAdapter();
+        InMemoryNotificationAdapter nodeB = new InMemoryNotificationAdapter();
+        BookingReminderScheduler schedulerA = newScheduler(nodeA, "node-a");
+        BookingReminderScheduler schedulerB = newScheduler(nodeB, "node-b");
+        schedulerA.refill();
+        schedulerB.refill();
+
+        schedulerB.dispatchDue();
+        schedulerA.dispatchDue();
+
+        assertEquals(Set.of("HOUR_BEFORE:1", "DAY_BEFORE:3"), sentKeys(nodeB));
+        assertTrue(nodeA.getSent().isEmpty(), "Repetidos: " + sentKeys(nodeA));
+        assertEquals(0, schedulerA.getQueuedCount());
+    }
+
+    @Test
+    @DisplayName("Mientras otro nodo tiene el lease no se envía nada y los recordatorios siguen en la cola")
+    void nodeWithoutLeaseKeepsItsReminders() {
+        InMemoryNotificationAdapter notifications = new InMemoryNotificationAdapter();
+        BookingReminderScheduler scheduler = newScheduler(notifications);
+        scheduler.refill();
+        JobLease taken = leases.tryAcquire("booking-reminders", "other-node", now, now.plus(Duration.ofMinutes(1))).orElseThrow();
+
+        scheduler.dispatchDue();
+
+        assertTrue(notifications.getSent().isEmpty());
+        assertEquals(2, scheduler.getQueuedCount());
+        assertTrue(checkpoints.isEmpty());
+
+        leases.release(taken);
+        scheduler.dispatchDue();
+
+        assertEquals(Set.of("HOUR_BEFORE:1", "DAY_BEFORE:3"), sentKeys(notifications));
+    }
+
+    private BookingReminderScheduler newScheduler(InMemoryNotificationAdapter notifications) {
+        return newScheduler(notifications, "node-1");
+    }
+
+    private BookingReminderScheduler newScheduler(InMemoryNotificationAdapter notifications, String nodeId) {
+        BookingPersistencePort bookingPort = mock(BookingPersistencePort.class);
+        when(bookingPort.findStartingBetween(any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            BookingCursor after = invocation.getArgument(1);
+            Instant until = invocation.getArgument(2);
+            int limit = invocation.getArgument(3);
+            Comparator<BookingCursor> order = Comparator.comparing(BookingCursor::startTime).thenComparing(BookingCursor::id);
+            return bookings.stream()
+                    .filter(booking -> booking.getStatus() == BookingStatus.CONFIRMED)
+                    .filter(booking -> booking.getTimeSlot().getStatus() != TimeSlotStatus.CANCELLED)
+                    .filter(booking -> order.compare(BookingCursor.after(booking), after) > 0)
+                    .filter(booking -> !booking.getTimeSlot().getStartTime().isAfter(until))
+                    .sorted(Comparator.comparing(BookingCursor::after, order))
+                    .limit(limit)
+                    .toList();
+        });
+
+        LeasedJobRunner runner = new LeasedJobRunner(leases, new TransactionTemplate(new NoOpTransactionManager()),
+                nodeId, Duration.ofMinutes(1));
+        BookingReminderScheduler scheduler = new BookingReminderScheduler(bookingPort, checkpointPort, notifications, runner);
+        ReflectionTestUtils.setField(scheduler, "window", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(scheduler, "maxLateness", Duration.ofMinutes(15));
+        ReflectionTestUtils.setField(scheduler, "batchSize", 2);
+        return scheduler;
+    }
+
+    private static Set<String> sentKeys(InMemoryNotificationAdapter notifications) {
+        return notifications.getSent().stream()
+                .map((Reminder reminder) -> reminder.kind() + ":" + reminder.booking().getId())
+                .collect(Collectors.toSet());
+    }
+
+    private static Booking booking(Long id, Instant startTime) {
+        OfferedService service = OfferedService.builder().uuid(UUID.randomUUID()).name("Yoga").build();
+        TimeSlot timeSlot = TimeSlot.builder()
+                .uuid(UUID.randomUUID())
+                .offeredService(service)
+                .startTime(startTime)
+                .endTime(startTime.plus(Duration.ofHours(1)))
+                .status(TimeSlotStatus.AVAILABLE)
+                .build();
+        return Booking.builder()
+                .id(id)
+                .uuid(UUID.randomUUID())
+                .timeSlot(timeSlot)
+                .client(User.builder().username("client" + id).email("client" + id + "@example.com").build())
+                .status(BookingStatus.CONFIRMED)
+                .build();
+    }
+
+    /**
+     * Tabla job_leases en memoria, compartida por los nodos del test: el token crece cada vez que el lease cambia de manos.
+     */
+    private static final class InMemoryLeases implements JobLeasePersistencePort {
+
+        private final Map<String, JobLease> rows = new HashMap<>();
+
+        @Override
+        public Optional<JobLease> tryAcquire(String name, String owner, Instant now, Instant expiresAt) {
+            JobLease current = rows.get(name);
+            if (current != null && current.expiresAt().isAfter(now)) {
+                return Optional.empty();
+            }
+            JobLease lease = new JobLease(name, owner, current == null ? 1 : current.fencingToken() + 1, expiresAt);
+            rows.put(name, lease);
+            return Optional.of(lease);
+        }
+
+        @Override
+        public boolean renew(JobLease lease, Instant expiresAt) {
+            JobLease current = rows.get(lease.name());
+            if (current == null || current.fencingToken() != lease.fencingToken()) {
+                return false;
+            }
+            rows.put(lease.name(), new JobLease(lease.name(), lease.owner(), lease.fencingToken(), expiresAt));
+            return true;
+        }
+
+        @Override
+        public void release(JobLease lease) {
+            JobLease current = rows.get(lease.name());
+            if (current != null && current.fencingToken() == lease.fencingToken()) {
+                rows.put(lease.name(), new JobLease(lease.name(), lease.owner(), lease.fencingToken(), Instant.EPOCH));
+            }
+        }
+    }
+
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
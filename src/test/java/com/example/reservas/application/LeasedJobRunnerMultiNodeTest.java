@@ -0,0 +1,181 @@
+package com.example.reservas.application;
+
+import application.service.LeasedJobRunner;
+import domain.model.JobLease;
+import domain.model.JobShard;
+import domain.port.out.JobLeasePersistencePort;
+import infrastructure.adapter.out.persistence.entity.JobLeaseEntity;
+import infrastructure.adapter.out.persistence.repository.JobLeaseJpaRepository;
+import infrastructure.adapter.out.persistence.repository.JobLeasePersistenceAdapter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Varios contextos de la aplicación (uno por "nodo") contra la misma base de datos H2.
+ * Cada contexto solo levanta la persistencia de los leases y el LeasedJobRunner.
+ */
+class LeasedJobRunnerMultiNodeTest {
+
+    private static final int ROWS = 2_000;
+    private static final int SHARDS = 8;
+    private static final int BATCH_SIZE = 50;
+
+    private static final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+
+    @BeforeAll
+    static void startNodes() {
+        for (String node : List.of("node-a", "node-b", "node-c")) {
+            nodes.add(new SpringApplicationBuilder(NodeConfig.class)
+                    .web(WebApplicationType.NONE)
+                    .run("--spring.datasource.url=jdbc:h2:mem:job-leases;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                            "--spring.datasource.driver-class-name=org.h2.Driver",
+                            "--spring.datasource.username=sa",
+                            "--spring.datasource.password=",
+                            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                            "--spring.jpa.hibernate.ddl-auto=update",
+                            "--spring.jpa.show-sql=false",
+                            "--spring.main.banner-mode=off",
+                            "--reservas.jobs.node-id=" + node,
+                            "--reservas.jobs.lease-ttl=PT30S"));
+        }
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodes.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    @DisplayName("Tres nodos reparten un barrido por partes: cada fila se procesa una sola vez")
+    void nodesSplitShardsOfOneSweep() throws Exception {
+        Map<Long, String> processedBy = new ConcurrentHashMap<>();
+        Map<String, Long> checkpoints = new ConcurrentHashMap<>();
+        AtomicInteger duplicates = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<List<Integer>>> runs = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (ConfigurableApplicationContext node : nodes) {
+                LeasedJobRunner runner = node.getBean(LeasedJobRunner.class);
+                runs.add(executor.submit(() -> {
+                    start.await();
+                    return runner.run("sweep", SHARDS, Integer.MAX_VALUE, shard -> {
+                        // Siguiente lote de la parte desde su marca, como hacen los trabajos reales
+                        long after = checkpoints.getOrDefault(shard.name("sweep"), 0L);
+                        List<Long> ids = nextIds(shard, after);
+                        if (ids.isEmpty()) {
+                            return null;
+                        }
+                        sleep(5);
+                        ids.forEach(id -> {
+                            if (processedBy.putIfAbsent(id, runner.getNodeId()) != null) {
+                                duplicates.incrementAndGet();
+                            }
+                        });
+                        checkpoints.put(shard.name("sweep"), ids.get(ids.size() - 1));
+                        return ids.size();
+                    });
+                }));
+            }
+            start.countDown();
+        }
+
+        int total = 0;
+        for (Future<List<Integer>> run : runs) {
+            total += run.get().stream().mapToInt(Integer::intValue).sum();
+        }
+        assertEquals(ROWS, total);
+        assertEquals(ROWS, processedBy.size());
+        assertEquals(0, duplicates.get());
+        Set<String> workers = Set.copyOf(processedBy.values());
+        assertTrue(workers.size() > 1, "Un solo nodo ha hecho todo el barrido: " + workers);
+    }
+
+    @Test
+    @DisplayName("Un lease caducado pasa a otro nodo con un token mayor, y el anterior ya no puede renovarlo")
+    void expiredLeaseMovesToAnotherNodeAndFencesTheOldOwner() {
+        JobLeasePersistencePort leasesA = nodes.get(0).getBean(JobLeasePersistencePort.class);
+        JobLeasePersistencePort leasesB = nodes.get(1).getBean(JobLeasePersistencePort.class);
+        TransactionTemplate transactionA = nodes.get(0).getBean(TransactionTemplate.class);
+        TransactionTemplate transactionB = nodes.get(1).getBean(TransactionTemplate.class);
+        Instant now = Instant.now();
+
+        JobLease leaseA = leasesA.tryAcquire("fenced", "node-a", now, now.plusMillis(100)).orElseThrow();
+        assertTrue(leasesB.tryAcquire("fenced", "node-b", now, now.plusSeconds(60)).isEmpty());
+
+        // node-a se queda parado más de lo que dura su lease
+        Instant later = now.plusSeconds(1);
+        JobLease leaseB = leasesB.tryAcquire("fenced", "node-b", later, later.plusSeconds(60)).orElseThrow();
+        assertTrue(leaseB.fencingToken() > leaseA.fencingToken());
+
+        assertEquals(Boolean.FALSE, transactionA.execute(status -> leasesA.renew(leaseA, later.plusSeconds(60))));
+        leasesA.release(leaseA);
+        assertEquals(Boolean.TRUE, transactionB.execute(status -> leasesB.renew(leaseB, later.plusSeconds(60))));
+
+        // Mientras node-b lo tenga, node-a no ejecuta ningún lote del trabajo
+        LeasedJobRunner runnerA = nodes.get(0).getBean(LeasedJobRunner.class);
+        assertEquals(List.of(), runnerA.run("fenced", 1, 10, shard -> fail("node-a should not run a batch")));
+    }
+
+    private static List<Long> nextIds(JobShard shard, long after) {
+        List<Long> ids = new ArrayList<>(BATCH_SIZE);
+        for (long id = after + 1; id <= ROWS && ids.size() < BATCH_SIZE; id++) {
+            if (shard.contains(id)) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    // Sin @Configuration: el escaneo de componentes de ReservasApplication no debe recogerla
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EnableJpaRepositories(basePackageClasses = JobLeaseJpaRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = JobLeaseJpaRepository.class))
+    @Import({JobLeasePersistenceAdapter.class, LeasedJobRunner.class})
+    static class NodeConfig {
+
+        @Bean
+        PersistenceManagedTypes persistenceManagedTypes() {
+            return PersistenceManagedTypes.of(JobLeaseEntity.class.getName());
+        }
+    }
+}
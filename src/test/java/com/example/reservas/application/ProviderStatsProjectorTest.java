@@ -0,0 +1,215 @@
+package com.example.reservas.application;
+
+import application.service.ProviderStatsProjector;
+import domain.event.BookingStatusChangedEvent;
+import domain.model.Booking;
+import domain.model.BookingStatus;
+import domain.model.OfferedService;
+import domain.model.ServiceWeeklyStats;
+import domain.model.ServiceWeeklyStatsDelta;
+import domain.model.TimeSlot;
+import domain.model.User;
+import domain.port.out.ProviderStatsPersistencePort;
+import infrastructure.adapter.out.persistence.repository.ServiceWeeklyStatsJpaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Proyección de las estadísticas semanales sobre H2 (modo MySQL) con el mismo upsert que el repositorio JPA.
+ */
+class ProviderStatsProjectorTest {
+
+    private static final Instant MONDAY = Instant.parse("2026-10-19T10:00:00Z");
+
+    private final User provider = User.builder().id(100L).build();
+    private final TimeSlot yoga = slot(1L);
+    private final TimeSlot pilates = slot(2L);
+
+    private DriverManagerDataSource dataSource;
+    private NamedParameterJdbcTemplate jdbc;
+    private TransactionTemplate transactionTemplate;
+    private JdbcProviderStats stats;
+    private ProviderStatsProjector projector;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:stats-" + System.nanoTime() + ";MODE=MySQL;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new NamedParameterJdbcTemplate(dataSource);
+        jdbc.getJdbcTemplate().execute("CREATE TABLE provider_service_weekly_stats (" +
+                "service_id BIGINT NOT NULL, week_start DATE NOT NULL, provider_id BIGINT NOT NULL, " +
+                "slot_count INT NOT NULL DEFAULT 0, capacity INT NOT NULL DEFAULT 0, booked_seats INT NOT NULL DEFAULT 0, " +
+                "revenue DECIMAL(12, 2) NOT NULL DEFAULT 0, cancellations INT NOT NULL DEFAULT 0, " +
+                "no_shows INT NOT NULL DEFAULT 0, completed INT NOT NULL DEFAULT 0, " +
+                "PRIMARY KEY (service_id, week_start))");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        stats = new JdbcProviderStats(jdbc);
+        projector = new ProviderStatsProjector(stats);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.getJdbcTemplate().execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    @DisplayName("Los cambios de una transacción se escriben con un upsert por fila, y ninguno si se deshace")
+    void coalescesDeltasPerRowAndTransaction() {
+        transactionTemplate.executeWithoutResult(status -> {
+            confirm(yoga, 2);
+            confirm(yoga, 1);
+            confirm(pilates, 1);
+            cancel(pilates, 1);
+        });
+        assertEquals(2, stats.writes.get());
+        assertEquals(3, bookedSeats(yoga));
+        assertEquals(1, cancellations(pilates));
+        assertEquals(0, bookedSeats(pilates));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            confirm(yoga, 4);
+            status.setRollbackOnly();
+        });
+        assertEquals(2, stats.writes.get());
+        assertEquals(3, bookedSeats(yoga));
+    }
+
+    @Test
+    @DisplayName("Transacciones concurrentes sobre las mismas filas, en cualquier orden: sin interbloqueos ni variaciones perdidas")
+    void concurrentTransactionsNeitherDeadlockNorLoseUpdates() throws Exception {
+        int threads = 8;
+        int transactionsPerThread = 25;
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> runs = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                // La mitad de los hilos toca las filas en el orden contrario
+                List<TimeSlot> order = t % 2 == 0 ? List.of(yoga, pilates) : List.of(pilates, yoga);
+                runs.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < transactionsPerThread; i++) {
+                        transactionTemplate.executeWithoutResult(status -> {
+                            confirm(order.get(0), 2);
+                            confirm(order.get(1), 1);
+                            cancel(order.get(0), 1);
+                        });
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> run : runs) {
+                run.get();
+            }
+        }
+
+        int total = threads * transactionsPerThread;
+        // Cada transacción suma una plaza neta a cada fila y una cancelación a la primera
+        assertEquals(total, bookedSeats(yoga));
+        assertEquals(total, bookedSeats(pilates));
+        assertEquals(total / 2, cancellations(yoga));
+        assertEquals(total / 2, cancellations(pilates));
+        assertEquals(0, BigDecimal.TEN.multiply(BigDecimal.valueOf(total)).compareTo(revenue(yoga)));
+    }
+
+    private void confirm(TimeSlot timeSlot, int seats) {
+        projector.onBookingStatusChanged(new BookingStatusChangedEvent(booking(timeSlot, BookingStatus.CONFIRMED, seats), null));
+    }
+
+    private void cancel(TimeSlot timeSlot, int seats) {
+        projector.onBookingStatusChanged(new BookingStatusChangedEvent(
+                booking(timeSlot, BookingStatus.CANCELLED_BY_CLIENT, seats), BookingStatus.CONFIRMED));
+    }
+
+    private static Booking booking(TimeSlot timeSlot, BookingStatus status, int seats) {
+        return Booking.builder().timeSlot(timeSlot).status(status).partySize(seats)
+                .pricePaid(BigDecimal.TEN.multiply(BigDecimal.valueOf(seats))).build();
+    }
+
+    private TimeSlot slot(Long serviceId) {
+        OfferedService service = OfferedService.builder().serviceId(serviceId).owner(provider).build();
+        return TimeSlot.builder().id(serviceId).offeredService(service).startTime(MONDAY).capacity(10).build();
+    }
+
+    private int bookedSeats(TimeSlot timeSlot) {
+        return column(timeSlot, "booked_seats", Integer.class);
+    }
+
+    private int cancellations(TimeSlot timeSlot) {
+        return column(timeSlot, "cancellations", Integer.class);
+    }
+
+    private BigDecimal revenue(TimeSlot timeSlot) {
+        return column(timeSlot, "revenue", BigDecimal.class);
+    }
+
+    private <T> T column(TimeSlot timeSlot, String column, Class<T> type) {
+        return jdbc.queryForObject("SELECT " + column + " FROM provider_service_weekly_stats WHERE service_id = :serviceId",
+                Map.of("serviceId", timeSlot.getOfferedService().getServiceId()), type);
+    }
+
+    /**
+     * Adaptador de prueba que ejecuta la consulta nativa de {@link ServiceWeeklyStatsJpaRepository#upsertDelta} tal cual.
+     */
+    private static final class JdbcProviderStats implements ProviderStatsPersistencePort {
+
+        private final NamedParameterJdbcTemplate jdbc;
+        private final String upsert;
+        private final AtomicInteger writes = new AtomicInteger();
+
+        JdbcProviderStats(NamedParameterJdbcTemplate jdbc) {
+            this.jdbc = jdbc;
+            try {
+                this.upsert = ServiceWeeklyStatsJpaRepository.class.getMethod("upsertDelta", Long.class, LocalDate.class,
+                        Long.class, int.class, int.class, int.class, BigDecimal.class, int.class, int.class, int.class)
+                        .getAnnotation(Query.class).value();
+            } catch (NoSuchMethodException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        @Override
+        public void applyDelta(Long serviceId, Long providerId, LocalDate weekStart, ServiceWeeklyStatsDelta delta) {
+            writes.incrementAndGet();
+            jdbc.update(upsert, new MapSqlParameterSource()
+                    .addValue("serviceId", serviceId)
+                    .addValue("weekStart", weekStart)
+                    .addValue("providerId", providerId)
+                    .addValue("slotCount", delta.slotCount())
+                    .addValue("capacity", delta.capacity())
+                    .addValue("bookedSeats", delta.bookedSeats())
+                    .addValue("revenue", delta.revenue())
+                    .addValue("cancellations", delta.cancellations())
+                    .addValue("noShows", delta.noShows())
+                    .addValue("completed", delta.completed()));
+        }
+
+        @Override
+        public List<ServiceWeeklyStats> findByProvider(Long providerId, LocalDate fromWeek, LocalDate toWeek) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.reservas.application;
+
+import application.service.BookingServiceImpl;
+import application.service.LeasedJobRunner;
+import application.service.SeatAllocator;
+import application.service.SeatHoldExpiryJob;
+import domain.exception.BookingNotHeldException;
+import domain.exception.ServiceNotAvailableException;
+import domain.model.Booking;
+import domain.model.BookingStatus;
+import domain.model.JobLease;
+import domain.model.SeatHold;
+import domain.model.TimeSlot;
+import domain.model.TimeSlotStatus;
+import domain.model.User;
+import domain.port.out.BookingPersistencePort;
+import domain.port.out.JobLeasePersistencePort;
+import domain.port.out.TimeSlotPersistencePort;
+import domain.port.out.UserPersistencePort;
+import domain.port.out.WaitlistPersistencePort;
+import infrastructure.adapter.in.web.security.SpringSecurityUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Ciclo de vida de una retención de plaza: se crea, se confirma o caduca, y el barrido libera la plaza.
+ * La persistencia reproduce los UPDATE condicionales de confirmHold y expireHolds sobre un estado compartido.
+ */
+class SeatHoldLifecycleTest {
+
+    private final User client = User.builder().id(7L).uuid(UUID.randomUUID()).build();
+    private final TimeSlot timeSlot = TimeSlot.builder()
+            .id(1L).uuid(UUID.randomUUID()).capacity(10).price(BigDecimal.TEN).status(TimeSlotStatus.AVAILABLE).build();
+
+    private final Map<Long, Booking> rows = new ConcurrentHashMap<>();
+    private final BookingPersistencePort bookings = mock(BookingPersistencePort.class);
+    private final TimeSlotPersistencePort timeSlots = mock(TimeSlotPersistencePort.class);
+    private final SeatAllocator seatAllocator = mock(SeatAllocator.class);
+    private final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+    private final JobLeasePersistencePort leases = mock(JobLeasePersistencePort.class);
+
+    private SeatHoldExpiryJob expiryJob;
+    private BookingServiceImpl bookingService;
+
+    @BeforeEach
+    void setUp() {
+        UserPersistencePort users = mock(UserPersistencePort.class);
+        when(users.findByUuid(client.getUuid())).thenReturn(Optional.of(client));
+        when(timeSlots.findByUuid(timeSlot.getUuid())).thenReturn(Optional.of(timeSlot));
+        when(timeSlots.claimSeats(anyCollection(), anyInt())).thenReturn(1);
+        when(bookings.findByClientAndTimeSlot(any(), any())).thenReturn(Optional.empty());
+        when(bookings.save(any())).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            if (booking.getId() == null) {
+                booking.setId((long) rows.size() + 1);
+                booking.setUuid(UUID.randomUUID());
+            }
+            rows.put(booking.getId(), copyOf(booking));
+            return booking;
+        });
+        when(bookings.findByUuid(any())).thenAnswer(invocation -> rows.values().stream()
+                .filter(row -> row.getUuid().equals(invocation.getArgument(0)))
+                .findFirst()
+                .map(SeatHoldLifecycleTest::copyOf));
+        when(bookings.confirmHold(any(), any())).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            Instant now = invocation.getArgument(1);
+            Booking row = rows.get(booking.getId());
+            if (row.getStatus() != BookingStatus.PENDING_PAYMENT || !row.getHoldExpiresAt().isAfter(now)) {
+                return false;
+            }
+            row.setStatus(BookingStatus.CONFIRMED);
+            return true;
+        });
+        when(bookings.expireHolds(anyCollection(), any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            Instant now = invocation.getArgument(1);
+            int expired = 0;
+            for (Long id : ids) {
+                Booking row = rows.get(id);
+                if (row.getStatus() == BookingStatus.PENDING_PAYMENT && !row.getHoldExpiresAt().isAfter(now)) {
+                    row.setStatus(BookingStatus.HOLD_EXPIRED);
+                    expired++;
+                }
+            }
+            return expired;
+        });
+
+        // Un único nodo: todos los leases están libres
+        when(leases.tryAcquire(any(), any(), any(), any())).thenAnswer(invocation ->
+                Optional.of(new JobLease(invocation.getArgument(0), invocation.getArgument(1), 1, invocation.getArgument(3))));
+        when(leases.renew(any(), any())).thenReturn(true);
+        LeasedJobRunner runner = new LeasedJobRunner(leases, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                "node-1", Duration.ofMinutes(1));
+
+        expiryJob = new SeatHoldExpiryJob(bookings, timeSlots, seatAllocator, runner, events);
+        ReflectionTestUtils.setField(expiryJob, "batchSize", 100);
+        ReflectionTestUtils.setField(expiryJob, "shards", 2);
+        bookingService = new BookingServiceImpl(bookings, timeSlots, users, mock(WaitlistPersistencePort.class),
+                seatAllocator, expiryJob, events);
+        ReflectionTestUtils.setField(bookingService, "holdTtl", Duration.ofMinutes(5));
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(new SpringSecurityUser(client), null, List.of()));
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Retener y confirmar: la plaza queda CONFIRMED y el barrido ya no la libera")
+    void holdThenConfirm() {
+        Booking hold = bookingService.holdSeat(timeSlot.getUuid(), 1, null);
+
+        assertEquals(BookingStatus.PENDING_PAYMENT, hold.getStatus());
+        assertTrue(hold.getHoldExpiresAt().isAfter(Instant.now().plus(Duration.ofMinutes(4))));
+        assertEquals(1, expiryJob.getPendingCount());
+
+        Booking confirmed = bookingService.confirmHold(hold.getUuid());
+
+        assertEquals(BookingStatus.CONFIRMED, confirmed.getStatus());
+        assertNull(confirmed.getHoldExpiresAt());
+        assertEquals(BookingStatus.CONFIRMED, rows.get(hold.getId()).getStatus());
+        // Confirmar dos veces no es una retención pendiente: 409, no un 500
+        assertThrows(BookingNotHeldException.class, () -> bookingService.confirmHold(hold.getUuid()));
+    }
+
+    @Test
+    @DisplayName("Una retención vencida no se puede confirmar aunque el barrido aún no haya pasado")
+    void expiredHoldCannotBeConfirmed() {
+        Booking hold = bookingService.holdSeat(timeSlot.getUuid(), 1, null);
+        rows.get(hold.getId()).setHoldExpiresAt(Instant.now().minusSeconds(1));
+
+        assertThrows(ServiceNotAvailableException.class, () -> bookingService.confirmHold(hold.getUuid()));
+        assertEquals(BookingStatus.PENDING_PAYMENT, rows.get(hold.getId()).getStatus());
+    }
+
+    @Test
+    @DisplayName("El barrido caduca solo las retenciones vencidas y ofrece sus plazas a la lista de espera")
+    void sweeperExpiresDueHoldsAndReallocatesSeats() {
+        Booking due = saveHold(Instant.now().minusSeconds(1));
+        Booking notYetDue = saveHold(Instant.now().plus(Duration.ofMinutes(5)));
+        Booking alreadyConfirmed = saveHold(Instant.now().minusSeconds(1));
+        rows.get(alreadyConfirmed.getId()).setStatus(BookingStatus.CONFIRMED);
+        List.of(due, notYetDue, alreadyConfirmed).forEach(hold ->
+                expiryJob.trackAfterCommit(new SeatHold(hold.getId(), timeSlot.getUuid(), hold.getHoldExpiresAt())));
+
+        expiryJob.expireDueHolds();
+
+        assertEquals(BookingStatus.HOLD_EXPIRED, rows.get(due.getId()).getStatus());
+        assertEquals(BookingStatus.PENDING_PAYMENT, rows.get(notYetDue.getId()).getStatus());
+        assertEquals(BookingStatus.CONFIRMED, rows.get(alreadyConfirmed.getId()).getStatus());
+        assertEquals(1, expiryJob.getPendingCount());
+        verify(seatAllocator).reallocateFreedSeats(timeSlot);
+    }
+
+    @Test
+    @DisplayName("Si el lote falla, las retenciones vuelven a la cola para reintentarse")
+    void failedSweepIsRetried() {
+        Booking due = saveHold(Instant.now().minusSeconds(1));
+        expiryJob.trackAfterCommit(new SeatHold(due.getId(), timeSlot.getUuid(), due.getHoldExpiresAt()));
+        doThrow(new IllegalStateException("db down")).doNothing().when(seatAllocator).reallocateFreedSeats(any());
+
+        expiryJob.expireDueHolds();
+
+        assertEquals(1, expiryJob.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("Las retenciones de una parte cuyo lease tiene otro nodo no se caducan aquí: vuelven a la cola")
+    void holdsOfAShardLeasedElsewhereAreRetried() {
+        Booking odd = saveHold(Instant.now().minusSeconds(1));
+        Booking even = saveHold(Instant.now().minusSeconds(1));
+        List.of(odd, even).forEach(hold ->
+                expiryJob.trackAfterCommit(new SeatHold(hold.getId(), timeSlot.getUuid(), hold.getHoldExpiresAt())));
+        when(leases.tryAcquire(eq("seat-hold-expiry/1-of-2"), any(), any(), any())).thenReturn(Optional.empty());
+
+        expiryJob.expireDueHolds();
+
+        assertEquals(1L, odd.getId() % 2);
+        assertEquals(BookingStatus.PENDING_PAYMENT, rows.get(odd.getId()).getStatus());
+        assertEquals(BookingStatus.HOLD_EXPIRED, rows.get(even.getId()).getStatus());
+        assertEquals(1, expiryJob.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("Si el lease se pierde antes del lote, no se caduca nada y las retenciones se reintentan")
+    void lostLeaseRollsTheSweepBack() {
+        Booking due = saveHold(Instant.now().minusSeconds(1));
+        expiryJob.trackAfterCommit(new SeatHold(due.getId(), timeSlot.getUuid(), due.getHoldExpiresAt()));
+        when(leases.renew(any(), any())).thenReturn(false);
+
+        expiryJob.expireDueHolds();
+
+        assertEquals(BookingStatus.PENDING_PAYMENT, rows.get(due.getId()).getStatus());
+        assertEquals(1, expiryJob.getPendingCount());
+        verify(seatAllocator, never()).reallocateFreedSeats(any());
+    }
+
+    private Booking saveHold(Instant expiresAt) {
+        return bookings.save(Booking.builder()
+                .client(client).timeSlot(timeSlot).status(BookingStatus.PENDING_PAYMENT).holdExpiresAt(expiresAt).partySize(1).build());
+    }
+
+    private static Booking copyOf(Booking booking) {
+        return new Booking(booking.getId(), booking.getUuid(), booking.getTimeSlot(), booking.getClient(), booking.getStatus(),
+                booking.getPartySize(), booking.getPricePaid(), booking.getNotes(), booking.getHoldExpiresAt(),
+                booking.getCreatedAt(), booking.getUpdatedAt());
+    }
+}
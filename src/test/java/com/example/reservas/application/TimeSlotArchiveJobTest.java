@@ -0,0 +1,229 @@
+package com.example.reservas.application;
+
+import application.service.LeasedJobRunner;
+import application.service.TimeSlotArchiveJob;
+import domain.model.ArchivedRows;
+import domain.model.Booking;
+import domain.model.BookingCursor;
+import domain.model.JobCheckpoint;
+import domain.model.JobLease;
+import domain.model.JobShard;
+import domain.model.Slice;
+import domain.model.TimeSlot;
+import domain.model.TimeSlotCursor;
+import domain.port.out.ArchivePersistencePort;
+import domain.port.out.JobCheckpointPersistencePort;
+import domain.port.out.JobLeasePersistencePort;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeSlotArchiveJobTest {
+
+    private static final Instant EPOCH = Instant.parse("2020-01-01T00:00:00Z");
+    private static final int BATCH_SIZE = 1_000;
+
+    @Test
+    @DisplayName("Archiva 1M de slots en lotes acotados, sin repetir ni saltarse ninguno")
+    void archivesOneMillionSlotsInBoundedBatches() {
+        FakeArchive archive = new FakeArchive(1_000_000);
+        FakeCheckpoints checkpoints = new FakeCheckpoints();
+
+        newJob(archive, checkpoints).archivePastTimeSlots();
+
+        assertEquals(1_000_000, archive.archived.cardinality());
+        assertEquals(1_000, archive.batches);
+        assertEquals(1_000_000L, checkpoints.checkpoint.watermarkId());
+    }
+
+    @Test
+    @DisplayName("Tras un fallo a mitad, la siguiente ejecución continúa desde la última marca confirmada")
+    void resumesFromLastCheckpointAfterFailure() {
+        FakeArchive archive = new FakeArchive(10_000);
+        FakeCheckpoints checkpoints = new FakeCheckpoints();
+        TimeSlotArchiveJob job = newJob(archive, checkpoints);
+
+        archive.failOnBatch = 4;
+        job.archivePastTimeSlots();
+        assertEquals(3 * BATCH_SIZE, archive.archived.cardinality());
+        assertEquals(3L * BATCH_SIZE, checkpoints.checkpoint.watermarkId());
+
+        job.archivePastTimeSlots();
+        assertEquals(10_000, archive.archived.cardinality());
+        assertEquals(0, archive.duplicates);
+    }
+
+    @Test
+    @DisplayName("Un slot con bookings sin cerrar no se archiva y la marca se queda justo antes de él hasta que se cierre")
+    void unsettledSlotHoldsTheWatermark() {
+        FakeArchive archive = new FakeArchive(3_000);
+        archive.unsettled.add(1_500L);
+        FakeCheckpoints checkpoints = new FakeCheckpoints();
+        TimeSlotArchiveJob job = newJob(archive, checkpoints);
+
+        job.archivePastTimeSlots();
+        // Los posteriores sí se archivan, pero la marca no pasa del saltado
+        assertEquals(2_999, archive.archived.cardinality());
+        assertFalse(archive.archived.get(1_500));
+        assertEquals(1_499L, checkpoints.checkpoint.watermarkId());
+
+        archive.unsettled.clear();
+        job.archivePastTimeSlots();
+        assertEquals(3_000, archive.archived.cardinality());
+        assertEquals(0, archive.duplicates);
+    }
+
+    private static TimeSlotArchiveJob newJob(FakeArchive archive, FakeCheckpoints checkpoints) {
+        LeasedJobRunner runner = new LeasedJobRunner(new SingleNodeLeases(),
+                new TransactionTemplate(new NoOpTransactionManager()), "node-1", Duration.ofMinutes(1));
+        TimeSlotArchiveJob job = new TimeSlotArchiveJob(archive, checkpoints, runner);
+        ReflectionTestUtils.setField(job, "archiveAfter", Duration.ofDays(30));
+        ReflectionTestUtils.setField(job, "batchSize", BATCH_SIZE);
+        ReflectionTestUtils.setField(job, "maxBatchesPerRun", Integer.MAX_VALUE);
+        ReflectionTestUtils.setField(job, "shards", 1);
+        return job;
+    }
+
+    /**
+     * Tabla de slots simulada: el slot con id i empieza i segundos después de EPOCH.
+     * Las claves se generan al vuelo, así que el único estado es el conjunto de ids archivados
+     * (que ya no están en la tabla viva) y el de los que aún tienen bookings sin cerrar.
+     */
+    private static final class FakeArchive implements ArchivePersistencePort {
+
+        private final int rows;
+        private final BitSet archived = new BitSet();
+        private final Set<Long> unsettled = new HashSet<>();
+        private int batches;
+        private int duplicates;
+        private int failOnBatch = -1;
+
+        private FakeArchive(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public List<TimeSlotCursor> findArchivableTimeSlots(Instant cutoff, JobShard shard, TimeSlotCursor after, int limit) {
+            List<TimeSlotCursor> keys = new ArrayList<>(limit);
+            for (long id = after == null ? 1 : after.id() + 1; id <= rows && keys.size() < limit; id++) {
+                Instant start = EPOCH.plusSeconds(id);
+                if (!start.isBefore(cutoff)) {
+                    break;
+                }
+                if (!archived.get((int) id)) {
+                    keys.add(new TimeSlotCursor(start, id));
+                }
+            }
+            return keys;
+        }
+
+        @Override
+        public Set<Long> findUnsettledTimeSlots(Collection<Long> timeSlotIds) {
+            Set<Long> found = new HashSet<>(timeSlotIds);
+            found.retainAll(unsettled);
+            return found;
+        }
+
+        @Override
+        public ArchivedRows archiveTimeSlots(Collection<Long> timeSlotIds, Instant archivedAt) {
+            if (++batches == failOnBatch) {
+                // La transacción se deshace entera: ni filas movidas ni marca
+                throw new IllegalStateException("Simulated failure");
+            }
+            for (Long id : timeSlotIds) {
+                if (archived.get(id.intValue())) {
+                    duplicates++;
+                }
+                archived.set(id.intValue());
+            }
+            return new ArchivedRows(timeSlotIds.size(), 0);
+        }
+
+        @Override
+        public Slice<TimeSlot> findArchivedTimeSlotsByProvider(UUID providerUuid, TimeSlotCursor after, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Booking> findArchivedBookingsByTimeSlot(UUID timeSlotUuid) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Slice<Booking> findArchivedBookingsByClient(UUID clientUuid, BookingCursor before, int limit) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class FakeCheckpoints implements JobCheckpointPersistencePort {
+
+        private JobCheckpoint checkpoint;
+
+        @Override
+        public Optional<JobCheckpoint> findByJobName(String jobName) {
+            return Optional.ofNullable(checkpoint);
+        }
+
+        @Override
+        public void save(JobCheckpoint checkpoint) {
+            this.checkpoint = checkpoint;
+        }
+    }
+
+    /**
+     * Un único nodo: el lease siempre está libre.
+     */
+    private static final class SingleNodeLeases implements JobLeasePersistencePort {
+
+        @Override
+        public Optional<JobLease> tryAcquire(String name, String owner, Instant now, Instant expiresAt) {
+            return Optional.of(new JobLease(name, owner, 1, expiresAt));
+        }
+
+        @Override
+        public boolean renew(JobLease lease, Instant expiresAt) {
+            return true;
+        }
+
+        @Override
+        public void release(JobLease lease) {
+        }
+    }
+
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.reservas.application;
+
+import application.service.SeatAllocator;
+import application.service.WaitlistServiceImpl;
+import domain.exception.WaitlistEntryNotWaitingException;
+import domain.model.Booking;
+import domain.model.BookingStatus;
+import domain.model.Slice;
+import domain.model.TimeSlot;
+import domain.model.TimeSlotStatus;
+import domain.model.User;
+import domain.model.WaitlistEntry;
+import domain.model.WaitlistStatus;
+import domain.port.out.BookingPersistencePort;
+import domain.port.out.TimeSlotPersistencePort;
+import domain.port.out.UserPersistencePort;
+import domain.port.out.WaitlistPersistencePort;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class WaitlistPromotionRaceTest {
+
+    private final TimeSlot timeSlot = TimeSlot.builder()
+            .id(1L).uuid(UUID.randomUUID()).capacity(10).status(TimeSlotStatus.FULL).build();
+
+    @Test
+    @DisplayName("Abandonar la cola y promocionar la misma entrada a la vez: solo gana una de las dos")
+    void leaveAndPromoteNeverBothSucceed() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            FakeWaitlist waitlist = new FakeWaitlist();
+            WaitlistEntry entry = waitlist.add(client(1));
+            BookingPersistencePort bookings = mock(BookingPersistencePort.class);
+            SeatAllocator allocator = newAllocator(waitlist, bookings, 1);
+            WaitlistServiceImpl service = new WaitlistServiceImpl(waitlist, mock(TimeSlotPersistencePort.class),
+                    bookings, mock(UserPersistencePort.class));
+
+            CountDownLatch start = new CountDownLatch(1);
+            try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+                Future<Boolean> left = executor.submit(() -> {
+                    start.await();
+                    try {
+                        service.leaveWaitlist(entry.getUuid());
+                        return true;
+                    } catch (WaitlistEntryNotWaitingException ex) {
+                        return false;
+                    }
+                });
+                Future<?> promoted = executor.submit(() -> {
+                    start.await();
+                    allocator.reallocateFreedSeats(timeSlot);
+                    return null;
+                });
+                start.countDown();
+                promoted.get();
+
+                boolean wasPromoted = waitlist.statusOf(entry.getId()) == WaitlistStatus.PROMOTED;
+                assertNotEquals(wasPromoted, left.get());
+                verify(bookings, times(wasPromoted ? 1 : 0)).save(any());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Con una lectura de la cola ya superada, la promoción avanza por detrás de las entradas que no puede reclamar")
+    void promotionSkipsEntriesClaimedAfterTheSnapshot() {
+        FakeWaitlist waitlist = new FakeWaitlist();
+        for (int i = 1; i <= 8; i++) {
+            waitlist.add(client(i));
+        }
+        // Otra transacción ya ha sacado las cinco primeras, pero esta sigue viéndolas en espera
+        waitlist.freezeSnapshot();
+        for (long id = 1; id <= 5; id++) {
+            waitlist.setStatus(id, WaitlistStatus.LEFT);
+        }
+        BookingPersistencePort bookings = mock(BookingPersistencePort.class);
+
+        newAllocator(waitlist, bookings, 2).reallocateFreedSeats(timeSlot);
+
+        assertEquals(WaitlistStatus.PROMOTED, waitlist.statusOf(6L));
+        assertEquals(WaitlistStatus.PROMOTED, waitlist.statusOf(7L));
+        assertEquals(WaitlistStatus.WAITING, waitlist.statusOf(8L));
+        verify(bookings, times(2)).save(any());
+    }
+
+    @Test
+    @DisplayName("Dos liberaciones de plaza simultáneas promocionan entradas distintas")
+    void concurrentReallocationsPromoteDistinctEntries() throws Exception {
+        FakeWaitlist waitlist = new FakeWaitlist();
+        for (int i = 1; i <= 4; i++) {
+            waitlist.add(client(i));
+        }
+        // Las dos transacciones parten de la misma instantánea de la cola
+        waitlist.freezeSnapshot();
+        BookingPersistencePort bookings = mock(BookingPersistencePort.class);
+        AtomicInteger saved = new AtomicInteger();
+        when(bookings.save(any())).thenAnswer(invocation -> {
+            saved.incrementAndGet();
+            return invocation.getArgument(0);
+        });
+
+        SeatAllocator first = newAllocator(waitlist, bookings, 1);
+        SeatAllocator second = newAllocator(waitlist, bookings, 1);
+
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            List<Future<Object>> runs = List.of(
+                    executor.submit(() -> reallocateAfter(start, first)),
+                    executor.submit(() -> reallocateAfter(start, second)));
+            start.countDown();
+            for (Future<Object> run : runs) {
+                run.get();
+            }
+        }
+
+        assertEquals(2, saved.get());
+        assertEquals(WaitlistStatus.PROMOTED, waitlist.statusOf(1L));
+        assertEquals(WaitlistStatus.PROMOTED, waitlist.statusOf(2L));
+        assertEquals(WaitlistStatus.WAITING, waitlist.statusOf(3L));
+    }
+
+    @Test
+    @DisplayName("Un cliente que ya reservó por su cuenta no recibe otra plaza: su entrada se cierra y sube el siguiente")
+    void promotionClosesEntriesOfClientsWhoAlreadyBooked() {
+        FakeWaitlist waitlist = new FakeWaitlist();
+        WaitlistEntry alreadyBooked = waitlist.add(client(1));
+        WaitlistEntry next = waitlist.add(client(2));
+        BookingPersistencePort bookings = mock(BookingPersistencePort.class);
+        SeatAllocator allocator = newAllocator(waitlist, bookings, 1);
+        when(bookings.findByClientAndTimeSlot(eq(alreadyBooked.getClient()), any()))
+                .thenReturn(Optional.of(Booking.builder().status(BookingStatus.CONFIRMED).build()));
+
+        allocator.reallocateFreedSeats(timeSlot);
+
+        assertEquals(WaitlistStatus.CLOSED, waitlist.statusOf(alreadyBooked.getId()));
+        assertEquals(WaitlistStatus.PROMOTED, waitlist.statusOf(next.getId()));
+        verify(bookings).save(argThat(booking -> booking.getClient() == next.getClient()));
+    }
+
+    private static Object reallocateAfter(CountDownLatch start, SeatAllocator allocator) throws InterruptedException {
+        start.await();
+        allocator.reallocateFreedSeats(TimeSlot.builder()
+                .id(1L).uuid(UUID.randomUUID()).capacity(10).status(TimeSlotStatus.FULL).build());
+        return null;
+    }
+
+    private SeatAllocator newAllocator(WaitlistPersistencePort waitlist, BookingPersistencePort bookings, int freeSeats) {
+        TimeSlotPersistencePort timeSlots = mock(TimeSlotPersistencePort.class);
+        when(timeSlots.recountBookedSeats(anyLong(), any())).thenReturn(timeSlot.getCapacity() - freeSeats);
+        when(timeSlots.claimSeats(anyCollection(), anyInt())).thenReturn(1);
+        when(bookings.findByClientAndTimeSlot(any(), any())).thenReturn(Optional.empty());
+        return new SeatAllocator(bookings, timeSlots, waitlist, mock(ApplicationEventPublisher.class));
+    }
+
+    private static User client(long id) {
+        return User.builder().id(id).uuid(UUID.randomUUID()).build();
+    }
+
+    /**
+     * Lista de espera en memoria con la semántica de la base de datos: los cambios de estado son UPDATE
+     * condicionales atómicos y las lecturas de la cola pueden venir de una instantánea congelada.
+     */
+    private final class FakeWaitlist implements WaitlistPersistencePort {
+
+        private final Map<Long, WaitlistEntry> entries = new ConcurrentHashMap<>();
+        private final Map<Long, WaitlistStatus> statuses = new ConcurrentHashMap<>();
+        private volatile Map<Long, WaitlistStatus> snapshot;
+        private long nextId = 1;
+
+        WaitlistEntry add(User client) {
+            WaitlistEntry entry = WaitlistEntry.builder()
+                    .id(nextId++).uuid(UUID.randomUUID()).client(client).timeSlot(timeSlot).status(WaitlistStatus.WAITING).build();
+            entries.put(entry.getId(), entry);
+            statuses.put(entry.getId(), WaitlistStatus.WAITING);
+            return entry;
+        }
+
+        void freezeSnapshot() {
+            snapshot = Map.copyOf(statuses);
+        }
+
+        void setStatus(Long id, WaitlistStatus status) {
+            statuses.put(id, status);
+        }
+
+        WaitlistStatus statusOf(Long id) {
+            return statuses.get(id);
+        }
+
+        private boolean transition(WaitlistEntry entry, WaitlistStatus newStatus) {
+            return statuses.replace(entry.getId(), WaitlistStatus.WAITING, newStatus);
+        }
+
+        @Override
+        public Optional<WaitlistEntry> findNextWaiting(TimeSlot timeSlot, Long afterId) {
+            Map<Long, WaitlistStatus> view = snapshot != null ? snapshot : statuses;
+            return view.entrySet().stream()
+                    .filter(e -> e.getValue() == WaitlistStatus.WAITING && (afterId == null || e.getKey() > afterId))
+                    .map(Map.Entry::getKey)
+                    .sorted()
+                    .findFirst()
+                    .map(entries::get);
+        }
+
+        @Override
+        public boolean markPromoted(WaitlistEntry entry) {
+            return transition(entry, WaitlistStatus.PROMOTED);
+        }
+
+        @Override
+        public boolean markLeft(WaitlistEntry entry) {
+            return transition(entry, WaitlistStatus.LEFT);
+        }
+
+        @Override
+        public boolean markClosed(WaitlistEntry entry) {
+            return transition(entry, WaitlistStatus.CLOSED);
+        }
+
+        @Override
+        public Optional<WaitlistEntry> findByUuid(UUID entryUuid) {
+            return entries.values().stream().filter(entry -> entry.getUuid().equals(entryUuid)).findFirst()
+                    .map(entry -> WaitlistEntry.builder().id(entry.getId()).uuid(entry.getUuid()).client(entry.getClient())
+                            .timeSlot(entry.getTimeSlot()).status(WaitlistStatus.WAITING).build());
+        }
+
+        @Override
+        public WaitlistEntry save(WaitlistEntry entry) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Slice<WaitlistEntry> findWaitingByClient(User client, Long afterId, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean existsWaitingByClientAndTimeSlot(User client, TimeSlot timeSlot) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void closeWaitingByClient(User client, Collection<TimeSlot> timeSlots) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int findPosition(WaitlistEntry entry) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<Long, Integer> findPositions(List<WaitlistEntry> entries) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
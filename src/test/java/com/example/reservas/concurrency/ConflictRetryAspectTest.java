@@ -0,0 +1,91 @@
+package com.example.reservas.concurrency;
+
+import infrastructure.concurrency.ConflictRetryAspect;
+import infrastructure.concurrency.RetryOnConflict;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflictRetryAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private Booker booker;
+    private Booker proxy;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        ConflictRetryAspect aspect = new ConflictRetryAspect(registry);
+        ReflectionTestUtils.setField(aspect, "maxAttempts", 3);
+        ReflectionTestUtils.setField(aspect, "baseDelayMs", 1L);
+        ReflectionTestUtils.setField(aspect, "maxDelayMs", 5L);
+
+        booker = new Booker();
+        AspectJProxyFactory factory = new AspectJProxyFactory(booker);
+        factory.addAspect(aspect);
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("Un conflicto se reintenta hasta que sale bien, y se cuenta")
+    void retriesConflictsUntilSuccess() {
+        booker.conflictsBeforeSuccess = 2;
+
+        assertEquals("booked", proxy.book());
+
+        assertEquals(3, booker.calls.get());
+        assertEquals(2, count("detected"));
+        assertEquals(2, count("retried"));
+        assertEquals(1, count("recovered"));
+        assertEquals(0, count("aborted"));
+    }
+
+    @Test
+    @DisplayName("Se abandona al agotar los intentos; los errores que no son conflictos no se reintentan")
+    void abortsAfterMaxAttemptsAndIgnoresOtherErrors() {
+        booker.conflictsBeforeSuccess = 10;
+        assertThrows(ObjectOptimisticLockingFailureException.class, proxy::book);
+        assertEquals(3, booker.calls.get());
+        assertEquals(1, count("aborted"));
+
+        booker.calls.set(0);
+        assertThrows(IllegalStateException.class, proxy::fail);
+        assertEquals(1, booker.calls.get());
+    }
+
+    private double count(String outcome) {
+        return registry.get("reservas.conflicts").tag("operation", "book").tag("outcome", outcome).counter().count();
+    }
+
+    static class Booker {
+
+        final AtomicInteger calls = new AtomicInteger();
+        int conflictsBeforeSuccess;
+
+        @RetryOnConflict("book")
+        public String book() {
+            int call = calls.incrementAndGet();
+            if (call <= conflictsBeforeSuccess) {
+                throw call % 2 == 0
+                        ? new CannotAcquireLockException("Deadlock found when trying to get lock")
+                        : new ObjectOptimisticLockingFailureException("TimeSlotEntity", 1L);
+            }
+            return "booked";
+        }
+
+        @RetryOnConflict("book")
+        public String fail() {
+            calls.incrementAndGet();
+            throw new IllegalStateException("Cannot cancel a booking for a past event.");
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.reservas.concurrency;
+
+import domain.exception.ServiceNotAvailableException;
+import domain.port.out.CacheInvalidationPort;
+import domain.port.out.TimeSlotPersistencePort;
+import infrastructure.concurrency.SeatAdmissionControl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SeatAdmissionControlTest {
+
+    private static final int SEATS = 5;
+
+    @Test
+    @DisplayName("Mil peticiones a un slot de 5 plazas: a la BD solo llegan 5 a la vez y el resto se rechaza en memoria")
+    void onlyAsManyContendersAsSeatsReachTheDatabase() throws Exception {
+        UUID slot = UUID.randomUUID();
+        TimeSlotPersistencePort port = mock(TimeSlotPersistencePort.class);
+        when(port.findFreeSeats(slot)).thenReturn(Optional.of(SEATS));
+        SeatAdmissionControl admission = new SeatAdmissionControl(port, mock(CacheInvalidationPort.class), new SimpleMeterRegistry(), 16, Duration.ofMinutes(1), Duration.ofSeconds(5));
+
+        // "BD": UPDATE condicional sobre el contador del slot
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        AtomicInteger dbCalls = new AtomicInteger();
+
+        List<Future<Boolean>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 1_000; i++) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        return admission.execute(slot, 1, () -> {
+                            dbCalls.incrementAndGet();
+                            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                            try {
+                                Thread.sleep(5);
+                                if (booked.incrementAndGet() > SEATS) {
+                                    booked.decrementAndGet();
+                                    throw new ServiceNotAvailableException("This time slot is full.");
+                                }
+                                return true;
+                            } catch (InterruptedException ex) {
+                                throw new IllegalStateException(ex);
+                            } finally {
+                                concurrent.decrementAndGet();
+                            }
+                        });
+                    } catch (ServiceNotAvailableException ex) {
+                        return false;
+                    }
+                }));
+            }
+        }
+        int succeeded = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get()) {
+                succeeded++;
+            }
+        }
+
+        assertEquals(SEATS, succeeded);
+        assertEquals(SEATS, booked.get());
+        assertTrue(maxConcurrent.get() <= SEATS, "Más peticiones en la BD a la vez que plazas: " + maxConcurrent.get());
+        assertEquals(SEATS, dbCalls.get(), "Las peticiones a un slot ya lleno no deberían llegar a la BD");
+        verify(port, times(1)).findFreeSeats(any());
+    }
+
+    @Test
+    @DisplayName("Una plaza liberada invalida la cifra y el siguiente vuelve a preguntar a la BD")
+    void releasedSeatInvalidatesKnownFullSlot() throws ExecutionException, InterruptedException {
+        UUID slot = UUID.randomUUID();
+        TimeSlotPersistencePort port = mock(TimeSlotPersistencePort.class);
+        when(port.findFreeSeats(slot)).thenReturn(Optional.of(0), Optional.of(1));
+        SeatAdmissionControl admission = new SeatAdmissionControl(port, mock(CacheInvalidationPort.class), new SimpleMeterRegistry(), 16, Duration.ofMinutes(1), Duration.ofMillis(50));
+
+        assertThrows(ServiceNotAvailableException.class, () -> admission.execute(slot, 1, () -> "booked"));
+        assertThrows(ServiceNotAvailableException.class, () -> admission.execute(slot, 1, () -> "booked"));
+        verify(port, times(1)).findFreeSeats(slot);
+
+        admission.invalidate(slot);
+        assertEquals("booked", admission.execute(slot, 1, () -> "booked"));
+        verify(port, times(2)).findFreeSeats(slot);
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.reservas.concurrency;
+
+import infrastructure.concurrency.SingleFlight;
+import infrastructure.concurrency.SingleFlightAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * El aspecto sobre un bean real con @Transactional y @Cacheable, para comprobar su orden respecto a ellos.
+ */
+class SingleFlightAspectTest {
+
+    private static final int CALLERS = 8;
+
+    private AnnotationConfigApplicationContext context;
+    private Catalog catalog;
+    private Probe probe;
+    private CountingTransactionManager transactions;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext(Beans.class);
+        catalog = context.getBean(Catalog.class);
+        probe = context.getBean(Probe.class);
+        transactions = context.getBean(CountingTransactionManager.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Las llamadas que esperan no abren transacción: solo la que ejecuta tiene una")
+    void waitersDoNotHoldTransactions() throws Exception {
+        List<Future<List<String>>> results = runConcurrently(() -> catalog.listServices("provider-1"));
+
+        for (Future<List<String>> result : results) {
+            assertEquals(List.of("yoga", "pilates"), result.get());
+        }
+        assertEquals(1, probe.executions.get());
+        assertEquals(1, transactions.begun.get());
+        assertEquals(1, probe.maxTransactionsWhileRunning.get());
+    }
+
+    @Test
+    @DisplayName("Quien esperaba recibe una lista inmodificable, ajena a lo que haga la primera llamada con la suya")
+    void joinedCallersGetAnUnmodifiableCopy() throws Exception {
+        List<Future<List<String>>> results = runConcurrently(() -> {
+            List<String> services = catalog.listServices("provider-1");
+            if (services instanceof ArrayList<String> own) {
+                own.add("leaked");
+            }
+            return services;
+        });
+
+        int copies = 0;
+        for (Future<List<String>> result : results) {
+            List<String> services = result.get();
+            if (!(services instanceof ArrayList)) {
+                copies++;
+                assertEquals(List.of("yoga", "pilates"), services);
+                assertThrows(UnsupportedOperationException.class, () -> services.add("x"));
+            }
+        }
+        assertEquals(CALLERS - 1, copies);
+    }
+
+    @Test
+    @DisplayName("Con @Cacheable, la caché queda dentro del vuelo: una sola ejecución y una transacción, y luego responde la caché")
+    void cacheableRunsInsideTheFlight() throws Exception {
+        for (Future<List<String>> result : runConcurrently(() -> catalog.listCachedServices("provider-1"))) {
+            assertEquals(List.of("yoga", "pilates"), result.get());
+        }
+        assertEquals(1, probe.executions.get());
+        assertEquals(1, transactions.begun.get());
+
+        assertEquals(List.of("yoga", "pilates"), catalog.listCachedServices("provider-1"));
+        assertEquals(1, probe.executions.get());
+    }
+
+    private List<Future<List<String>>> runConcurrently(java.util.concurrent.Callable<List<String>> call) throws Exception {
+        List<Future<List<String>>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(CALLERS)) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(pool.submit(call));
+            }
+            // Todas las llamadas están ya esperando a la primera antes de dejarla terminar
+            assertTrue(probe.started.await(5, TimeUnit.SECONDS));
+            Thread.sleep(200);
+            probe.release.countDown();
+            for (Future<List<String>> result : results) {
+                result.get(5, TimeUnit.SECONDS);
+            }
+        }
+        return results;
+    }
+
+    @EnableAspectJAutoProxy
+    @EnableTransactionManagement
+    @EnableCaching
+    static class Beans {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        SingleFlightAspect singleFlightAspect(MeterRegistry meterRegistry) {
+            return new SingleFlightAspect(meterRegistry);
+        }
+
+        @Bean
+        CountingTransactionManager transactionManager() {
+            return new CountingTransactionManager();
+        }
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager("services");
+        }
+
+        @Bean
+        Probe probe() {
+            return new Probe();
+        }
+
+        @Bean
+        Catalog catalog(Probe probe, PlatformTransactionManager transactionManager) {
+            return new Catalog(probe, (CountingTransactionManager) transactionManager);
+        }
+    }
+
+    /**
+     * Estado observado desde el test; el servicio es un proxy y sus campos no se leen a través de él.
+     */
+    static class Probe {
+
+        final AtomicInteger executions = new AtomicInteger();
+        final AtomicInteger maxTransactionsWhileRunning = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+    }
+
+    static class Catalog {
+
+        private final Probe probe;
+        private final CountingTransactionManager transactions;
+
+        Catalog(Probe probe, CountingTransactionManager transactions) {
+            this.probe = probe;
+            this.transactions = transactions;
+        }
+
+        @SingleFlight
+        @Transactional(readOnly = true)
+        public List<String> listServices(String provider) throws InterruptedException {
+            return load();
+        }
+
+        @SingleFlight
+        @Cacheable("services")
+        @Transactional(readOnly = true)
+        public List<String> listCachedServices(String provider) throws InterruptedException {
+            return load();
+        }
+
+        private List<String> load() throws InterruptedException {
+            probe.executions.incrementAndGet();
+            probe.started.countDown();
+            assertTrue(probe.release.await(5, TimeUnit.SECONDS));
+            probe.maxTransactionsWhileRunning.accumulateAndGet(transactions.active.get(), Math::max);
+            return new ArrayList<>(List.of("yoga", "pilates"));
+        }
+    }
+
+    static class CountingTransactionManager extends AbstractPlatformTransactionManager {
+
+        final AtomicInteger begun = new AtomicInteger();
+        final AtomicInteger active = new AtomicInteger();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            begun.incrementAndGet();
+            active.incrementAndGet();
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            active.decrementAndGet();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            active.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.reservas.concurrency;
+
+import infrastructure.concurrency.SingleFlightGroup;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightGroupTest {
+
+    @Test
+    @DisplayName("Las llamadas concurrentes con la misma clave comparten una sola ejecución")
+    void concurrentCallsWithSameKeyShareOneExecution() throws Exception {
+        SingleFlightGroup<String, Integer> group = new SingleFlightGroup<>();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 50;
+
+        List<Future<SingleFlightGroup.Result<Integer>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                futures.add(executor.submit(() -> group.execute("slots", () -> {
+                    executions.incrementAndGet();
+                    release.await(5, TimeUnit.SECONDS);
+                    return 42;
+                })));
+            }
+            // Esperamos a que todas estén dentro antes de liberar la ejecución en curso
+            while (executions.get() == 0 || futures.stream().filter(Future::isDone).count() > 0) {
+                Thread.sleep(5);
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            int shared = 0;
+            for (Future<SingleFlightGroup.Result<Integer>> future : futures) {
+                SingleFlightGroup.Result<Integer> result = future.get();
+                assertEquals(42, result.value());
+                if (result.shared()) {
+                    shared++;
+                }
+            }
+            assertEquals(1, executions.get());
+            assertEquals(callers - 1, shared);
+        }
+        assertEquals(0, group.inFlightCount());
+    }
+
+    @Test
+    @DisplayName("La excepción de la ejecución en curso llega a todos y la siguiente llamada vuelve a ejecutar")
+    void failureIsSharedAndNotRemembered() throws Exception {
+        SingleFlightGroup<String, Integer> group = new SingleFlightGroup<>();
+
+        assertThrows(IllegalStateException.class, () -> group.execute("k", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        SingleFlightGroup.Result<Integer> result = group.execute("k", () -> 7);
+        assertEquals(7, result.value());
+        assertFalse(result.shared());
+    }
+}
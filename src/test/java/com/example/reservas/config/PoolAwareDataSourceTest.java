@@ -0,0 +1,35 @@
+package com.example.reservas.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import infrastructure.adapter.out.persistence.datasource.PoolAwareDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PoolAwareDataSourceTest {
+
+    @Test
+    @DisplayName("El envoltorio deja ver el pool Hikari a Boot y lo cierra al destruir el bean")
+    void exposesAndClosesTheUnderlyingPool() {
+        HikariDataSource hikari = new HikariDataSource();
+        PoolAwareDataSource poolAware = new PoolAwareDataSource(hikari, 10, 1_000);
+
+        // Lo que usan las métricas y los metadatos del pool de Boot
+        assertSame(hikari, DataSourceUnwrapper.unwrap(poolAware, HikariConfigMXBean.class, HikariDataSource.class));
+
+        // Como en VirtualThreadConfig: el bean que queda registrado es el envoltorio, con el destroy method inferido
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        RootBeanDefinition definition = new RootBeanDefinition(PoolAwareDataSource.class, () -> poolAware);
+        definition.setDestroyMethodName(RootBeanDefinition.INFER_METHOD);
+        beanFactory.registerBeanDefinition("dataSource", definition);
+        beanFactory.getBean("dataSource");
+        beanFactory.destroySingletons();
+
+        assertTrue(hikari.isClosed());
+    }
+}
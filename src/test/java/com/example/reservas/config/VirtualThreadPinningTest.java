@@ -0,0 +1,156 @@
+package com.example.reservas.config;
+
+import domain.port.out.CacheInvalidationPort;
+import domain.port.out.TimeSlotPersistencePort;
+import infrastructure.adapter.out.persistence.datasource.PoolAwareDataSource;
+import infrastructure.concurrency.SeatAdmissionControl;
+import infrastructure.concurrency.SingleFlightGroup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Un hilo virtual que se bloquea mientras está anclado a su carrier (dentro de synchronized o de código nativo)
+ * deja ese carrier inutilizado. Se ejecutan con contención las piezas que los hilos virtuales de las peticiones
+ * atraviesan bloqueándose, grabando con JFR los eventos jdk.VirtualThreadPinned: no debe haber ninguno
+ * con código de la aplicación en la pila. Un caso de control comprueba que la grabación sí los detecta.
+ */
+class VirtualThreadPinningTest {
+
+    private static final int THREADS = 200;
+
+    @Test
+    @DisplayName("Semáforo del DataSource, admisión por slot y single-flight no anclan hilos virtuales")
+    void blockingApplicationCodeDoesNotPinCarriers() throws Exception {
+        List<RecordedEvent> pinned = record(() -> {
+            PoolAwareDataSource dataSource = new PoolAwareDataSource(new SleepingPool(), 4, 10_000);
+            TimeSlotPersistencePort timeSlots = mock(TimeSlotPersistencePort.class);
+            when(timeSlots.findFreeSeats(any())).thenReturn(Optional.of(1_000));
+            SeatAdmissionControl admission = new SeatAdmissionControl(timeSlots, mock(CacheInvalidationPort.class),
+                    new SimpleMeterRegistry(), 4, Duration.ofMinutes(1), Duration.ofSeconds(10));
+            SingleFlightGroup<String, String> flights = new SingleFlightGroup<>();
+            UUID slot = UUID.randomUUID();
+
+            runConcurrently(() -> {
+                try (Connection ignored = dataSource.getConnection()) {
+                    Thread.sleep(2);
+                }
+                admission.execute(slot, 1, () -> sleep(2));
+                flights.execute("catalog", () -> sleep(5));
+            });
+        });
+
+        assertTrue(pinned.stream().noneMatch(VirtualThreadPinningTest::inApplicationCode),
+                "Hilos virtuales anclados en: " + pinned.stream().map(VirtualThreadPinningTest::describe).toList());
+    }
+
+    @Test
+    @DisplayName("Control: un synchronized con una espera dentro sí aparece en la grabación")
+    void recordingDetectsPinning() throws Exception {
+        Object monitor = new Object();
+        List<RecordedEvent> pinned = record(() -> runConcurrently(() -> {
+            synchronized (monitor) {
+                Thread.sleep(1);
+            }
+        }));
+
+        assertFalse(pinned.isEmpty(), "La grabación no detecta hilos anclados");
+    }
+
+    private static List<RecordedEvent> record(ThrowingRunnable workload) throws Exception {
+        Path file = Files.createTempFile("pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            workload.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void runConcurrently(ThrowingRunnable task) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Object>> futures = IntStream.range(0, THREADS)
+                    .mapToObj(i -> executor.submit(() -> {
+                        task.run();
+                        return null;
+                    }))
+                    .toList();
+            for (Future<Object> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    private static boolean inApplicationCode(RecordedEvent event) {
+        return event.getStackTrace() != null && event.getStackTrace().getFrames().stream()
+                .map(frame -> frame.getMethod().getType().getName())
+                .anyMatch(type -> type.startsWith("infrastructure.") || type.startsWith("application.") || type.startsWith("domain."));
+    }
+
+    private static String describe(RecordedEvent event) {
+        return event.getStackTrace() == null ? "?" : event.getStackTrace().getFrames().stream()
+                .limit(8)
+                .map(RecordedFrame::getMethod)
+                .map(method -> method.getType().getName() + "." + method.getName())
+                .toList()
+                .toString();
+    }
+
+    private static String sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return "done";
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    /**
+     * Pool simulado que tarda un poco en dar cada conexión.
+     */
+    private static final class SleepingPool extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() {
+            sleep(1);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> null);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) {
+            return getConnection();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.reservas.config;
+
+import infrastructure.adapter.out.persistence.datasource.PoolAwareDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara el throughput del pool de hilos de plataforma (200 hilos, como Tomcat por defecto)
+ * con un hilo virtual por petición, con 5.000 clientes concurrentes.
+ * Cada petición simula 20 ms de E/S bloqueante fuera de la BD y 2 ms con una conexión prestada.
+ * Es una comparación sintética (ni controladores ni Hikari): por eso los hilos virtuales siguen siendo opcionales.
+ *
+ * Ejecutar con: ./mvnw test -Dtest=VirtualThreadThroughputBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class VirtualThreadThroughputBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadThroughputBenchmark.class);
+
+    private static final int CLIENTS = 5_000;
+    private static final int REQUESTS_PER_CLIENT = 4;
+    private static final int PLATFORM_THREADS = 200;
+    private static final int POOL_SIZE = 50;
+    private static final long IO_MS = 20;
+    private static final long QUERY_MS = 2;
+
+    @Test
+    @DisplayName("Hilos virtuales + semáforo superan al pool de plataforma con 5k clientes")
+    void compareThroughput() throws Exception {
+        double platform = run("platform(" + PLATFORM_THREADS + ")", Executors.newFixedThreadPool(PLATFORM_THREADS));
+        double virtual = run("virtual", Executors.newVirtualThreadPerTaskExecutor());
+
+        logger.info("speedup virtual/platform: {}x", String.format("%.2f", virtual / platform));
+        assertTrue(virtual > platform, "Se esperaba más throughput con hilos virtuales");
+    }
+
+    private double run(String label, ExecutorService executor) throws Exception {
+        CountingPool pool = new CountingPool(POOL_SIZE);
+        PoolAwareDataSource dataSource = new PoolAwareDataSource(pool, POOL_SIZE, 60_000);
+
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>(CLIENTS);
+        try (executor) {
+            for (int c = 0; c < CLIENTS; c++) {
+                futures.add(executor.submit(() -> {
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        Thread.sleep(IO_MS);
+                        try (Connection ignored = dataSource.getConnection()) {
+                            Thread.sleep(QUERY_MS);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double throughput = CLIENTS * REQUESTS_PER_CLIENT / seconds;
+
+        logger.info("{}: {} req/s ({} s, máx. conexiones simultáneas {})",
+                label, Math.round(throughput), String.format("%.2f", seconds), pool.maxActive.get());
+        assertTrue(pool.maxActive.get() <= POOL_SIZE, "El semáforo dejó pasar más peticiones que conexiones");
+        return throughput;
+    }
+
+    /**
+     * Pool simulado que falla si se le piden más conexiones de las que tiene.
+     */
+    private static final class CountingPool extends AbstractDataSource {
+
+        private final int size;
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxActive = new AtomicInteger();
+
+        private CountingPool(int size) {
+            this.size = size;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            int now = active.incrementAndGet();
+            maxActive.accumulateAndGet(now, Math::max);
+            if (now > size) {
+                active.decrementAndGet();
+                throw new SQLException("Pool agotado");
+            }
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("close")) {
+                            active.decrementAndGet();
+                        }
+                        return null;
+                    });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+}